@@ -0,0 +1,27 @@
+package com.github.maracas.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks matching the (regular JMH) command line arguments and
+ * writes their results as JSON, by default to {@code jmh-result.json}, so that
+ * they can be compared across releases.
+ */
+public class BenchmarkRunner {
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cli = new CommandLineOptions(args);
+		Options opts = new OptionsBuilder()
+			.parent(cli)
+			.resultFormat(cli.getResultFormat().orElse(ResultFormatType.JSON))
+			.result(cli.getResult().orElse("jmh-result.json"))
+			.build();
+
+		new Runner(opts).run();
+	}
+}
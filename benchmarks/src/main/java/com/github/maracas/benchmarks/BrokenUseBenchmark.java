@@ -0,0 +1,66 @@
+package com.github.maracas.benchmarks;
+
+import com.github.maracas.AnalysisQuery;
+import com.github.maracas.AnalysisResult;
+import com.github.maracas.Maracas;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.DetachedBrokenUse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the insertion of broken uses in sets, which relies on their
+ * {@code hashCode()} and {@code equals()}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BrokenUseBenchmark {
+	@Param({"COMP_CHANGES", "API_EVOLUTION_DATA_CORPUS"})
+	Fixtures fixture;
+
+	List<BrokenUse> brokenUses;
+	List<DetachedBrokenUse> detachedBrokenUses;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		AnalysisResult result = new Maracas().analyze(
+			AnalysisQuery.builder()
+				.oldVersion(fixture.v1())
+				.newVersion(fixture.v2())
+				.client(fixture.client())
+				.build());
+
+		brokenUses = new ArrayList<>(result.allBrokenUses());
+		detachedBrokenUses = new ArrayList<>(DetachedBrokenUse.of(brokenUses));
+	}
+
+	@Benchmark
+	public Set<BrokenUse> insertBrokenUses() {
+		return new HashSet<>(brokenUses);
+	}
+
+	@Benchmark
+	public Set<DetachedBrokenUse> insertDetachedBrokenUses() {
+		return new HashSet<>(detachedBrokenUses);
+	}
+}
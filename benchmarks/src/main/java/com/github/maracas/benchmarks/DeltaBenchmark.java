@@ -0,0 +1,69 @@
+package com.github.maracas.benchmarks;
+
+import com.github.maracas.LibraryJar;
+import com.github.maracas.Maracas;
+import com.github.maracas.delta.BreakingChange;
+import com.github.maracas.delta.Delta;
+import com.github.maracas.util.BinaryToSourceMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import spoon.reflect.declaration.CtPackage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the computation of the delta between two versions of a library
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeltaBenchmark {
+	@Param({"COMP_CHANGES", "API_EVOLUTION_DATA_CORPUS"})
+	Fixtures fixture;
+
+	LibraryJar v1;
+	LibraryJar v2;
+	Delta delta;
+	CtPackage sourcesRoot;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		v1 = fixture.v1();
+		v2 = fixture.v2();
+		delta = new Maracas().computeDelta(fixture.v1WithSources(), v2);
+		sourcesRoot = fixture.sources().buildModel().getRootPackage();
+	}
+
+	@Benchmark
+	public Delta computeDelta() {
+		return new Maracas().computeDelta(v1, v2);
+	}
+
+	@Benchmark
+	public Delta populateLocations() {
+		delta.populateLocations();
+		return delta;
+	}
+
+	@Benchmark
+	public void resolve(Blackhole bh) {
+		// A fresh mapper: it memoizes the references it already resolved
+		BinaryToSourceMapper mapper = new BinaryToSourceMapper(sourcesRoot);
+		for (BreakingChange bc : delta.getBreakingChanges())
+			bh.consume(mapper.resolve(bc.getReference()));
+	}
+}
@@ -0,0 +1,68 @@
+package com.github.maracas.benchmarks;
+
+import com.github.maracas.LibraryJar;
+import com.github.maracas.SourcesDirectory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The libraries and clients the benchmarks run on, taken from the
+ * {@code test-data} modules. The location of {@code test-data} defaults to
+ * {@code ../test-data} and can be set with the {@code maracas.test-data}
+ * system property.
+ */
+public enum Fixtures {
+	COMP_CHANGES(
+		"comp-changes/old/target/comp-changes-old-0.0.1.jar",
+		"comp-changes/new/target/comp-changes-new-0.0.1.jar",
+		"comp-changes/old/",
+		"comp-changes/client/"
+	),
+	API_EVOLUTION_DATA_CORPUS(
+		"api-evolution-data-corpus/lib-v1/target/api-evolution-data-corpus-lib-v1-0.0.1.jar",
+		"api-evolution-data-corpus/lib-v2/target/api-evolution-data-corpus-lib-v2-0.0.1.jar",
+		"api-evolution-data-corpus/lib-v1/",
+		"api-evolution-data-corpus/client/"
+	);
+
+	private static final Path TEST_DATA = Path.of(System.getProperty("maracas.test-data", "../test-data"));
+
+	private final Path v1;
+	private final Path v2;
+	private final Path sources;
+	private final Path client;
+
+	Fixtures(String v1, String v2, String sources, String client) {
+		this.v1 = TEST_DATA.resolve(v1);
+		this.v2 = TEST_DATA.resolve(v2);
+		this.sources = TEST_DATA.resolve(sources);
+		this.client = TEST_DATA.resolve(client);
+	}
+
+	public LibraryJar v1() {
+		return LibraryJar.withoutSources(existing(v1));
+	}
+
+	public LibraryJar v1WithSources() {
+		return LibraryJar.withSources(existing(v1), SourcesDirectory.of(existing(sources)));
+	}
+
+	public LibraryJar v2() {
+		return LibraryJar.withoutSources(existing(v2));
+	}
+
+	public SourcesDirectory sources() {
+		return SourcesDirectory.of(existing(sources));
+	}
+
+	public SourcesDirectory client() {
+		return SourcesDirectory.of(existing(client));
+	}
+
+	private static Path existing(Path p) {
+		if (!Files.exists(p))
+			throw new IllegalStateException(p.toAbsolutePath() + " doesn't exist; build the test-data modules first");
+		return p;
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.maracas.benchmarks;
+
+import com.github.maracas.Maracas;
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.delta.Delta;
+import com.github.maracas.visitors.BreakingChangeVisitor;
+import com.github.maracas.visitors.CombinedVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks the computation of the impact of a delta on a client
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImpactBenchmark {
+	@Param({"COMP_CHANGES", "API_EVOLUTION_DATA_CORPUS"})
+	Fixtures fixture;
+
+	SourcesDirectory client;
+	Delta delta;
+	CtModel model;
+	MaracasOptions options;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		delta = new Maracas().computeDelta(fixture.v1(), fixture.v2());
+		client = fixture.client();
+		client.setClasspath(Collections.singletonList(delta.getOldVersion().getJar()));
+		model = client.buildModel();
+		options = MaracasOptions.newDefault();
+	}
+
+	@Benchmark
+	public CtModel buildModel() {
+		return client.buildModel();
+	}
+
+	@Benchmark
+	public Set<BrokenUse> scan() {
+		// Visitors accumulate broken uses: new ones for every invocation
+		CombinedVisitor visitor = new CombinedVisitor(delta.getVisitors(), options);
+		visitor.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+		visitor.scan(model.getRootPackage());
+		return visitor.getBrokenUses();
+	}
+
+	/**
+	 * The baseline of {@link #scan()}: every node is forwarded to every
+	 * visitor instead of being dispatched by kind and symbol
+	 */
+	@Benchmark
+	public Set<BrokenUse> scanBroadcast() {
+		List<BreakingChangeVisitor> visitors = delta.getVisitors();
+		CtScanner scanner = new CtScanner() {
+			@Override
+			protected void enter(CtElement e) {
+				visitors.forEach(e::accept);
+			}
+		};
+		scanner.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+		scanner.scan(model.getRootPackage());
+		return visitors.stream()
+			.map(BreakingChangeVisitor::getBrokenUses)
+			.flatMap(Collection::stream)
+			.collect(Collectors.toSet());
+	}
+}
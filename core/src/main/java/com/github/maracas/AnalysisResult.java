@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.maracas.brokenuse.BrokenUse;
 import com.github.maracas.brokenuse.DeltaImpact;
+import com.github.maracas.brokenuse.DetachedBrokenUse;
 import com.github.maracas.delta.Delta;
 
 import java.util.Collection;
@@ -72,13 +73,27 @@ public record AnalysisResult(
 			.collect(toSet());
 	}
 
+	/**
+	 * Returns all broken uses for all clients in their detached form
+	 *
+	 * @return a set of all detached broken uses
+	 * @see DeltaImpact#allDetachedBrokenUses()
+	 */
+	public Set<DetachedBrokenUse> allDetachedBrokenUses() {
+		return deltaImpacts.values()
+			.stream()
+			.map(DeltaImpact::allDetachedBrokenUses)
+			.flatMap(Collection::stream)
+			.collect(toSet());
+	}
+
 	/**
 	 * Returns the {@link DeltaImpact} for all broken clients
 	 */
 	public Set<DeltaImpact> brokenClients() {
 		return deltaImpacts.values()
 			.stream()
-			.filter(i -> !i.brokenUses().isEmpty())
+			.filter(DeltaImpact::isBroken)
 			.collect(toSet());
 	}
 
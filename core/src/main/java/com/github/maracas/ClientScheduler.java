@@ -0,0 +1,235 @@
+package com.github.maracas;
+
+import com.github.maracas.events.AnalysisContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Schedules the analysis of clients on a dedicated bounded pool, admitting
+ * them against a heap budget.
+ * <p>
+ * The heap footprint of a client's model is estimated from the size of its
+ * source files. A client is only admitted once the estimated footprints of
+ * the clients being analyzed leave enough room for its own; a client larger
+ * than the whole budget is analyzed alone. Larger clients are submitted
+ * first so that they don't end up lagging behind everything else.
+ */
+public final class ClientScheduler {
+	/**
+	 * Rough number of heap bytes a Spoon model needs per byte of source code
+	 */
+	static final long FOOTPRINT_FACTOR = 40;
+
+	/**
+	 * How often a client waiting for admission checks whether it was cancelled
+	 */
+	private static final long CANCELLATION_POLL_MILLIS = 100;
+
+	private final ThreadPoolExecutor pool;
+	private final long heapBudget;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private long admittedBytes;
+
+	private static final Logger logger = LogManager.getLogger(ClientScheduler.class);
+
+	private static final ClientScheduler DEFAULT = new ClientScheduler(
+		Runtime.getRuntime().availableProcessors(),
+		Long.getLong("maracas.heap-budget", Runtime.getRuntime().maxMemory() / 2));
+
+	/**
+	 * Creates a scheduler analyzing at most {@code parallelism} clients at a
+	 * time within {@code heapBudget} estimated bytes
+	 *
+	 * @param parallelism the number of threads of the pool
+	 * @param heapBudget  the heap budget, in bytes
+	 * @throws IllegalArgumentException if parallelism or heapBudget isn't positive
+	 */
+	public ClientScheduler(int parallelism, long heapBudget) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism < 1");
+		if (heapBudget < 1)
+			throw new IllegalArgumentException("heapBudget < 1");
+
+		AtomicInteger threads = new AtomicInteger();
+		this.pool = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread t = new Thread(r, "maracas-client-" + threads.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		this.pool.allowCoreThreadTimeOut(true);
+		this.heapBudget = heapBudget;
+	}
+
+	/**
+	 * Returns the scheduler shared by {@link Maracas} instances by default. It uses
+	 * one thread per processor and half the maximum heap size, unless the
+	 * {@code maracas.heap-budget} system property says otherwise
+	 */
+	public static ClientScheduler getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Applies {@code task} to every client on the scheduler's pool, largest
+	 * clients first, and waits for all of them
+	 *
+	 * @param clients the clients to analyze
+	 * @param task    the analysis of a single client
+	 * @return the results, in the order of {@code clients}
+	 */
+	public <T> List<T> run(Collection<SourcesDirectory> clients, Function<SourcesDirectory, T> task) {
+		Objects.requireNonNull(clients);
+		Objects.requireNonNull(task);
+
+		List<SourcesDirectory> ordered = new ArrayList<>(clients);
+		long[] footprints = ordered.stream().mapToLong(ClientScheduler::estimateFootprint).toArray();
+
+		List<CompletableFuture<T>> futures = new ArrayList<>(Collections.nCopies(ordered.size(), null));
+		IntStream.range(0, ordered.size())
+			.boxed()
+			.sorted(Comparator.comparingLong((Integer i) -> footprints[i]).reversed())
+			.forEach(i -> {
+				queueDepth.incrementAndGet();
+				futures.set(i, CompletableFuture.supplyAsync(AnalysisContext.propagate(
+					() -> admitted(footprints[i], () -> false, () -> task.apply(ordered.get(i)))), pool));
+			});
+
+		try {
+			return futures.stream().map(CompletableFuture::join).toList();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException cause ? cause : e;
+		}
+	}
+
+	/**
+	 * Runs {@code task} in the calling thread once {@code client} is admitted
+	 * within the heap budget
+	 *
+	 * @param client the client {@code task} analyzes
+	 * @param task   the analysis of {@code client}
+	 * @return the result of {@code task}
+	 */
+	public <T> T runAdmitted(SourcesDirectory client, Supplier<T> task) {
+		return runAdmitted(client, () -> false, task);
+	}
+
+	/**
+	 * Runs {@code task} in the calling thread once {@code client} is admitted
+	 * within the heap budget, unless {@code cancelled} holds in the meantime
+	 *
+	 * @param client    the client {@code task} analyzes
+	 * @param cancelled whether the caller is no longer interested in the result
+	 * @param task      the analysis of {@code client}
+	 * @return the result of {@code task}
+	 * @throws CancellationException if the analysis was cancelled, or the calling
+	 *                               thread interrupted, while waiting for admission
+	 */
+	public <T> T runAdmitted(SourcesDirectory client, BooleanSupplier cancelled, Supplier<T> task) {
+		Objects.requireNonNull(client);
+		Objects.requireNonNull(cancelled);
+		Objects.requireNonNull(task);
+
+		queueDepth.incrementAndGet();
+		return admitted(estimateFootprint(client), cancelled, task);
+	}
+
+	/**
+	 * Returns the number of clients waiting to be admitted
+	 */
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * Returns the estimated footprint of the clients currently admitted, in bytes
+	 */
+	public long getAdmittedBytes() {
+		lock.lock();
+		try {
+			return admittedBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getHeapBudget() {
+		return heapBudget;
+	}
+
+	/**
+	 * Estimates the heap footprint of the model of {@code client} from the size
+	 * of its source files
+	 */
+	static long estimateFootprint(SourcesDirectory client) {
+		try {
+			long size = 0;
+			for (Path f : client.getSourceFiles())
+				size += Files.size(f);
+			return size * FOOTPRINT_FACTOR;
+		} catch (IOException e) {
+			logger.warn("Couldn't estimate the footprint of {}: {}", client, e);
+			return 0;
+		}
+	}
+
+	private <T> T admitted(long footprint, BooleanSupplier cancelled, Supplier<T> task) {
+		// A client larger than the whole budget is admitted alone
+		long bytes = Math.min(footprint, heapBudget);
+
+		lock.lock();
+		try {
+			while (admittedBytes > 0 && admittedBytes + bytes > heapBudget) {
+				// Nothing signals cancellation: poll it between waits
+				if (cancelled.getAsBoolean())
+					throw new CancellationException("Cancelled while waiting for admission");
+				try {
+					released.await(CANCELLATION_POLL_MILLIS, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CancellationException("Interrupted while waiting for admission");
+				}
+			}
+			admittedBytes += bytes;
+		} finally {
+			queueDepth.decrementAndGet();
+			lock.unlock();
+		}
+
+		try {
+			return task.get();
+		} finally {
+			lock.lock();
+			try {
+				admittedBytes -= bytes;
+				released.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+}
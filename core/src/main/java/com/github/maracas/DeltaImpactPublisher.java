@@ -0,0 +1,152 @@
+package com.github.maracas;
+
+import com.github.maracas.brokenuse.DeltaImpact;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the {@link DeltaImpact} of each client as soon as it is computed.
+ * <p>
+ * The analysis starts when the (single) subscriber subscribes. Impacts are
+ * buffered until requested, and cancelling the subscription cancels the
+ * clients' analyses that are still running.
+ */
+final class DeltaImpactPublisher implements Flow.Publisher<DeltaImpact> {
+	/**
+	 * Starts the analysis given a cancellation flag and a callback for each impact
+	 */
+	private final BiFunction<BooleanSupplier, Consumer<DeltaImpact>, CompletableFuture<?>> analysis;
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+
+	DeltaImpactPublisher(BiFunction<BooleanSupplier, Consumer<DeltaImpact>, CompletableFuture<?>> analysis) {
+		this.analysis = Objects.requireNonNull(analysis);
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super DeltaImpact> subscriber) {
+		Objects.requireNonNull(subscriber);
+
+		if (!subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {}
+
+				@Override
+				public void cancel() {}
+			});
+			subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+			return;
+		}
+
+		ImpactSubscription subscription = new ImpactSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		analysis.apply(subscription::isCancelled, subscription::offer)
+			.whenComplete((res, t) -> subscription.finish(t instanceof CompletionException && t.getCause() != null
+				? t.getCause()
+				: t));
+	}
+
+	private static final class ImpactSubscription implements Flow.Subscription {
+		private final Flow.Subscriber<? super DeltaImpact> subscriber;
+		private final Queue<DeltaImpact> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+		private final AtomicBoolean finished = new AtomicBoolean();
+		private volatile boolean cancelled;
+		private volatile boolean done;
+		private Throwable error;
+
+		ImpactSubscription(Flow.Subscriber<? super DeltaImpact> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				queue.clear();
+				finish(new IllegalArgumentException("Non-positive request: " + n));
+				return;
+			}
+
+			requested.getAndAccumulate(n, (r, m) -> r + m < 0 ? Long.MAX_VALUE : r + m);
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			queue.clear();
+		}
+
+		boolean isCancelled() {
+			return cancelled || done;
+		}
+
+		void offer(DeltaImpact impact) {
+			if (!isCancelled()) {
+				queue.add(impact);
+				drain();
+			}
+		}
+
+		void finish(Throwable t) {
+			if (finished.compareAndSet(false, true)) {
+				error = t;
+				done = true;
+				drain();
+			}
+		}
+
+		/**
+		 * Delivers the buffered impacts within the requested amount, then the
+		 * terminal signal. Only one thread drains at a time; others just record
+		 * that another round is needed.
+		 */
+		private void drain() {
+			if (wip.getAndIncrement() != 0)
+				return;
+
+			int missed = 1;
+			do {
+				long r = requested.get();
+				long e = 0;
+
+				while (!cancelled) {
+					if (done && queue.isEmpty()) {
+						cancelled = true;
+						if (error != null)
+							subscriber.onError(error);
+						else
+							subscriber.onComplete();
+						break;
+					}
+
+					if (e == r)
+						break;
+
+					DeltaImpact impact = queue.poll();
+					if (impact == null)
+						break;
+
+					subscriber.onNext(impact);
+					e++;
+				}
+
+				if (e != 0 && r != Long.MAX_VALUE)
+					requested.addAndGet(-e);
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+	}
+}
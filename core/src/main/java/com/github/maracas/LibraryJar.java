@@ -1,26 +1,25 @@
 package com.github.maracas;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.github.maracas.util.ParentLastURLClassLoader;
+import com.github.maracas.events.AnalysisContext;
+import com.github.maracas.events.ModelBuildEvent;
+import com.github.maracas.util.BytecodeShadowBuilder;
+import com.github.maracas.util.ClasspathCache;
 import com.github.maracas.util.PathHelpers;
 import com.google.common.base.Objects;
 import com.google.common.base.Stopwatch;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
-import spoon.Launcher;
 import spoon.MavenLauncher;
+import spoon.SpoonException;
 import spoon.reflect.CtModel;
 import spoon.support.compiler.SpoonPom;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -62,6 +61,12 @@ public class LibraryJar {
 		this.sources = sources;
 	}
 
+	private LibraryJar(SourcesDirectory sources, String label) {
+		this.jar = null;
+		this.label = label;
+		this.sources = sources;
+	}
+
 	public static LibraryJar withSources(Path jar, SourcesDirectory sources) {
 		return new LibraryJar(jar, sources);
 	}
@@ -74,35 +79,80 @@ public class LibraryJar {
 		return new LibraryJar(jar, null);
 	}
 
+	/**
+	 * Returns a library that is only known through its source code, e.g., when
+	 * its delta was computed without building it (see
+	 * {@link com.github.maracas.delta.SourceDelta}). Such a library has no JAR:
+	 * it can't be compared with JApiCmp, and its clients resolve its types from
+	 * its sources instead (see {@link SourcesDirectory#getSourceRoot()}).
+	 *
+	 * @param sources the library's source code
+	 * @param label   a name identifying this version of the library
+	 */
+	public static LibraryJar fromSources(SourcesDirectory sources, String label) {
+		return new LibraryJar(sources, label);
+	}
+
+	/**
+	 * Returns a library that is only known by its label, e.g., a version of a
+	 * delta read back from its portable form (see
+	 * {@link com.github.maracas.delta.PortableDelta}). Such a library has neither
+	 * JAR nor sources.
+	 *
+	 * @param label a name identifying this version of the library
+	 */
+	public static LibraryJar fromLabel(String label) {
+		return new LibraryJar(null, label);
+	}
+
+	/**
+	 * Builds the shadow model of this library's bytecode. Types of the library
+	 * are read straight from its JAR, and those of its classpath on demand,
+	 * without loading any class (see {@link BytecodeShadowBuilder})
+	 *
+	 * @throws SpoonException if the JAR cannot be read or this library has no JAR
+	 */
 	public CtModel buildModel() {
+		if (jar == null)
+			throw new SpoonException(this + " has no JAR");
+
+		ModelBuildEvent event = new ModelBuildEvent();
+		event.begin();
 		Stopwatch sw = Stopwatch.createStarted();
-		Launcher launcher = new Launcher();
 
-		// Spoon will prioritize the JVM's classpath over our own
-		// custom classpath in case of conflict. Not what we want,
-		// so we use a custom child-first classloader instead.
-		// cf. https://github.com/INRIA/spoon/issues/3789
-		List<URL> jarDependenciesUrl = new ArrayList<>();
+		CtModel spoonModel;
 		try {
-			jarDependenciesUrl.add(new URL("file:" + jar));
-			for (String dep : getClasspath())
-				jarDependenciesUrl.add(new URL("file:" + dep));
-		} catch (MalformedURLException e) {
-			// Checked exceptions are a blessing, kill me
-			logger.error(e);
+			spoonModel = BytecodeShadowBuilder.buildModel(jar, getClasspath().stream().map(Path::of).toList());
+		} catch (IOException e) {
+			throw new SpoonException("Couldn't read the bytecode of " + this, e);
 		}
-		ClassLoader cl = new ParentLastURLClassLoader(jarDependenciesUrl.toArray(new URL[0]));
-		launcher.getEnvironment().setInputClassLoader(cl);
-
-		CtModel spoonModel = launcher.buildModel();
 		logger.info("Building binary Spoon model for {} took {}ms", this, sw.elapsed().toMillis());
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.location = jar.toString();
+			event.kind = ModelBuildEvent.BINARY;
+			event.files = spoonModel.getRootPackage().getFactory().CompilationUnit().getMap().size();
+			event.inputSize = jar.toFile().length();
+			event.commit();
+		}
+
 		return spoonModel;
 	}
 
+	/**
+	 * Returns the library's JAR, or null if it is only known through its
+	 * sources (see {@link #fromSources(SourcesDirectory, String)})
+	 */
 	public Path getJar() {
 		return jar;
 	}
 
+	public boolean hasJar() {
+		return jar != null;
+	}
+
 	public boolean hasSources() {
 		return sources != null;
 	}
@@ -119,7 +169,9 @@ public class LibraryJar {
 		return label;
 	}
 
-	public List<String> getClasspath() {
+	// Synchronized: the JAR's model and its comparison ask for the classpath concurrently (see
+	// Maracas#computeDelta), and resolving the POM twice at once is both wasteful and racy
+	public synchronized List<String> getClasspath() {
 		if (noClasspath)
 			return Collections.emptyList();
 
@@ -129,7 +181,7 @@ public class LibraryJar {
 		return classpath;
 	}
 
-	public void setNoClasspath(boolean noClasspath) {
+	public synchronized void setNoClasspath(boolean noClasspath) {
 		this.noClasspath = noClasspath;
 	}
 
@@ -142,25 +194,48 @@ public class LibraryJar {
 	 */
 	private List<String> buildClasspath() {
 		Stopwatch sw = Stopwatch.createStarted();
-		Path pom =
-			sources != null && sources.getLocation().resolve("pom.xml").toFile().exists()
-				? sources.getLocation().resolve("pom.xml")
-				: extractPomFromJar();
+		Path sourcesPom = sources != null ? sources.getLocation().resolve("pom.xml") : null;
+		boolean hasSourcesPom = sourcesPom != null && sourcesPom.toFile().exists();
 
-		List<String> cp =
-			pom != null
-				? buildClasspathFromPom(pom)
-				: Collections.emptyList();
+		try {
+			byte[] pom = hasSourcesPom ? Files.readAllBytes(sourcesPom) : readPomFromJar();
+			if (pom == null)
+				return Collections.emptyList();
+
+			// A sources pom may inherit from its parents on disk: its location matters too
+			List<String> cp = ClasspathCache.getDefault().resolve(
+				pom,
+				hasSourcesPom ? sourcesPom.toAbsolutePath().toString() : "",
+				() -> hasSourcesPom ? buildClasspathFromPom(sourcesPom) : buildClasspathFromPom(pom)
+			);
+
+			logger.info("Extracting classpath from {} [{} entries] took {}ms",
+				hasSourcesPom ? sourcesPom : "pom.xml in " + label, cp.size(), sw.elapsed().toMillis());
+			return cp;
+		} catch (IOException e) {
+			logger.error(e);
+			return Collections.emptyList();
+		}
+	}
 
-		if (pom != null)
-			logger.info("Extracting classpath from {} [{} entries] took {}ms", pom, cp.size(), sw.elapsed().toMillis());
+	private List<String> buildClasspathFromPom(byte[] pom) {
+		Path tmp = writeTemporaryPom(pom);
 
-		return cp;
+		try {
+			return buildClasspathFromPom(tmp);
+		} finally {
+			try {
+				if (tmp != null)
+					Files.deleteIfExists(tmp);
+			} catch (IOException e) {
+				logger.error(e);
+			}
+		}
 	}
 
 	private List<String> buildClasspathFromPom(Path pom) {
 		try {
-			if (pom.toFile().exists()) {
+			if (pom != null && pom.toFile().exists()) {
 				SpoonPom spoonPom = new SpoonPom(
 					pom.toAbsolutePath().toString(),
 					MavenLauncher.SOURCE_TYPE.APP_SOURCE,
@@ -178,26 +253,41 @@ public class LibraryJar {
 		return Collections.emptyList();
 	}
 
-	private Path extractPomFromJar() {
+	/**
+	 * Returns the content of the pom.xml embedded in {@link #jar}, if there is exactly one
+	 */
+	private byte[] readPomFromJar() throws IOException {
+		if (jar == null)
+			return null;
+
 		try (JarFile jarFile = new JarFile(jar.toFile())) {
 			List<JarEntry> poms = jarFile.stream().filter(e -> e.getName().endsWith("pom.xml")).toList();
 
 			if (poms.size() == 1) {
-				JarEntry pom = poms.get(0);
-				InputStream pomStream = jarFile.getInputStream(pom);
-
-				Path out = Files.createTempFile(TMP_DIR, "pom", ".xml");
-				Files.copy(pomStream, out, StandardCopyOption.REPLACE_EXISTING);
-				return out;
+				try (InputStream pomStream = jarFile.getInputStream(poms.get(0))) {
+					return pomStream.readAllBytes();
+				}
 			} else
 				logger.warn("Found {} pom.xml files in {}, no classpath inferred", poms.size(), label);
-		} catch (IOException e) {
-			logger.error(e);
 		}
 
 		return null;
 	}
 
+	/**
+	 * Writes {@code pom} to a temporary file, as Maven needs one to resolve the classpath
+	 */
+	private Path writeTemporaryPom(byte[] pom) {
+		try {
+			Path out = Files.createTempFile(TMP_DIR, "pom", ".xml");
+			Files.write(out, pom);
+			return out;
+		} catch (IOException e) {
+			logger.error(e);
+			return null;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return String.format("Library %s [jar=%s sources=%s]",
@@ -1,29 +1,170 @@
 package com.github.maracas;
 
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.BrokenUseStore;
 import com.github.maracas.brokenuse.DeltaImpact;
+import com.github.maracas.brokenuse.DetachedBrokenUse;
+import com.github.maracas.brokenuse.ImpactStatistics;
+import com.github.maracas.brokenuse.UsageIndex;
+import com.github.maracas.brokenuse.UsageIndexStore;
 import com.github.maracas.delta.BreakingChange;
+import com.github.maracas.delta.BytecodeDelta;
 import com.github.maracas.delta.Delta;
+import com.github.maracas.delta.DeltaCache;
+import com.github.maracas.delta.JarDiff;
+import com.github.maracas.events.AnalysisContext;
+import com.github.maracas.events.ClientScanEvent;
+import com.github.maracas.events.DeltaEvent;
+import com.github.maracas.util.AhoCorasickMatcher;
+import com.github.maracas.util.SpoonHelpers;
 import com.github.maracas.visitors.BreakingChangeVisitor;
 import com.github.maracas.visitors.CombinedVisitor;
+import com.github.maracas.visitors.VisitorProfile;
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.HashCode;
 import japicmp.cli.JApiCli;
 import japicmp.cmp.JApiCmpArchive;
 import japicmp.cmp.JarArchiveComparator;
 import japicmp.cmp.JarArchiveComparatorOptions;
+import japicmp.filter.ClassFilter;
 import japicmp.model.JApiClass;
+import javassist.CtClass;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import spoon.Launcher;
 import spoon.SpoonException;
 import spoon.reflect.CtModel;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtCompilationUnit;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class Maracas {
+	/**
+	 * The cache of previously computed deltas, if any
+	 */
+	private final DeltaCache deltaCache;
+
+	/**
+	 * The store of previously detected broken uses per client file, if any
+	 */
+	private final BrokenUseStore brokenUseStore;
+
+	/**
+	 * The store of the clients' usage indexes, if any
+	 */
+	private final UsageIndexStore usageIndexStore;
+
+	/**
+	 * Schedules the analysis of clients within a heap budget
+	 */
+	private final ClientScheduler scheduler;
+
+	/**
+	 * Builds the Spoon models of deltas computed without an explicit executor.
+	 * Threads are bounded by the number of processors and time out when idle;
+	 * tasks it cannot queue run on the calling thread (see {@link #fork}).
+	 */
+	private static final ThreadPoolExecutor DELTA_EXECUTOR = newDeltaExecutor();
+
 	private static final Logger logger = LogManager.getLogger(Maracas.class);
 
+	public Maracas() {
+		this(null);
+	}
+
+	/**
+	 * Creates a Maracas instance reusing the deltas stored in {@code deltaCache}
+	 * when comparing byte-identical JARs with the same options
+	 *
+	 * @param deltaCache the delta cache to use, or null to always compute deltas
+	 */
+	public Maracas(DeltaCache deltaCache) {
+		this(deltaCache, null);
+	}
+
+	/**
+	 * Creates a Maracas instance reusing the deltas stored in {@code deltaCache}
+	 * and the broken uses stored in {@code brokenUseStore} for the client files
+	 * that did not change since they were last analyzed against the same
+	 * relevant breaking changes
+	 *
+	 * @param deltaCache     the delta cache to use, or null to always compute deltas
+	 * @param brokenUseStore the broken use store to use, or null to always analyze every file
+	 */
+	public Maracas(DeltaCache deltaCache, BrokenUseStore brokenUseStore) {
+		this(deltaCache, brokenUseStore, ClientScheduler.getDefault());
+	}
+
+	/**
+	 * Creates a Maracas instance analyzing clients with {@code scheduler}
+	 *
+	 * @param deltaCache     the delta cache to use, or null to always compute deltas
+	 * @param brokenUseStore the broken use store to use, or null to always analyze every file
+	 * @param scheduler      the scheduler admitting clients within a heap budget
+	 * @see #Maracas(DeltaCache, BrokenUseStore)
+	 */
+	public Maracas(DeltaCache deltaCache, BrokenUseStore brokenUseStore, ClientScheduler scheduler) {
+		this(deltaCache, brokenUseStore, null, scheduler);
+	}
+
+	/**
+	 * Creates a Maracas instance answering impact queries from the clients'
+	 * usage indexes stored in {@code usageIndexStore} whenever possible, so
+	 * that unchanged clients are checked against new deltas without building
+	 * their model. When set, {@code usageIndexStore} takes precedence over
+	 * {@code brokenUseStore}.
+	 *
+	 * @param deltaCache      the delta cache to use, or null to always compute deltas
+	 * @param brokenUseStore  the broken use store to use, or null to always analyze every file
+	 * @param usageIndexStore the usage index store to use, or null to always scan the clients' models
+	 * @param scheduler       the scheduler admitting clients within a heap budget
+	 * @see #Maracas(DeltaCache, BrokenUseStore, ClientScheduler)
+	 */
+	public Maracas(DeltaCache deltaCache, BrokenUseStore brokenUseStore, UsageIndexStore usageIndexStore,
+	               ClientScheduler scheduler) {
+		this.deltaCache = deltaCache;
+		this.brokenUseStore = brokenUseStore;
+		this.usageIndexStore = usageIndexStore;
+		this.scheduler = Objects.requireNonNull(scheduler);
+	}
+
 	/**
 	 * Analyzes the given {@code query}
 	 *
@@ -38,23 +179,137 @@ public class Maracas {
 		// Compute the delta model between old and new JARs
 		Delta delta = computeDelta(query.getOldVersion(), query.getNewVersion(), query.getMaracasOptions());
 
+		return analyzeImpact(delta, query.getClients(), query.getMaracasOptions());
+	}
+
+	/**
+	 * Computes the impact of an already computed {@code delta} on
+	 * {@code clients}, analyzing them concurrently within the heap budget of
+	 * this instance's {@link ClientScheduler}
+	 *
+	 * @param delta   the delta whose impact is computed
+	 * @param clients the clients to analyze
+	 * @param options Maracas options
+	 * @return the resulting {@link AnalysisResult}
+	 * @throws NullPointerException if delta or clients is null
+	 * @see #analyze(AnalysisQuery)
+	 */
+	public AnalysisResult analyzeImpact(Delta delta, Collection<SourcesDirectory> clients, MaracasOptions options) {
+		Objects.requireNonNull(delta);
+		Objects.requireNonNull(clients);
+
 		// If no breaking change, we can skip the rest and just return that
 		if (delta.isEmpty())
-			return AnalysisResult.noImpact(delta, query.getClients());
+			return AnalysisResult.noImpact(delta, clients);
 
 		// Compute the impact for each client and return the result
 		return AnalysisResult.success(
 			delta,
-			query.getClients()
-				.parallelStream()
-				.map(c -> computeDeltaImpact(c, delta, query.getMaracasOptions()))
-				.toList()
+			scheduler.run(clients, c -> computeDeltaImpact(c, delta, options))
 		);
 	}
 
+	/**
+	 * Asynchronously analyzes the given {@code query} on {@code executor}.
+	 * Cancelling the returned future cancels the analysis of the clients that
+	 * are still being built or scanned.
+	 *
+	 * @param query    the query to analyze
+	 * @param executor the executor computing the delta and each client's impact
+	 * @return a future completed with the resulting {@link AnalysisResult}
+	 * @throws NullPointerException if query or executor is null
+	 * @see #analyze(AnalysisQuery)
+	 */
+	public CompletableFuture<AnalysisResult> analyzeAsync(AnalysisQuery query, Executor executor) {
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(executor);
+
+		// Cancelling a dependent future doesn't cancel what it depends on, so keep our own flag
+		AtomicBoolean cancelled = new AtomicBoolean();
+		CompletableFuture<AnalysisResult> result = new CompletableFuture<>();
+		result.whenComplete((res, t) -> {
+			if (result.isCancelled())
+				cancelled.set(true);
+		});
+
+		analyzeClients(query, executor, cancelled::get, impact -> {})
+			.whenComplete((res, t) -> {
+				if (t != null)
+					result.completeExceptionally(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+				else
+					result.complete(res);
+			});
+
+		return result;
+	}
+
+	/**
+	 * Analyzes the given {@code query} on {@code executor}, publishing the
+	 * {@link DeltaImpact} of each client as soon as it is computed. The analysis
+	 * starts upon subscription; only one subscriber is supported. Cancelling
+	 * the subscription cancels the analysis of the remaining clients.
+	 *
+	 * @param query    the query to analyze
+	 * @param executor the executor computing the delta and each client's impact
+	 * @return a publisher of the clients' impacts
+	 * @throws NullPointerException if query or executor is null
+	 * @see #analyze(AnalysisQuery)
+	 */
+	public Flow.Publisher<DeltaImpact> analyzeStream(AnalysisQuery query, Executor executor) {
+		Objects.requireNonNull(query);
+		Objects.requireNonNull(executor);
+
+		return new DeltaImpactPublisher((cancelled, onImpact) -> analyzeClients(query, executor, cancelled, onImpact));
+	}
+
+	/**
+	 * Computes the delta, then each client's impact on {@code executor}, handing
+	 * every impact over to {@code onImpact} as soon as it is available
+	 */
+	private CompletableFuture<AnalysisResult> analyzeClients(AnalysisQuery query, Executor executor,
+	                                                         BooleanSupplier cancelled, Consumer<DeltaImpact> onImpact) {
+		MaracasOptions opts = query.getMaracasOptions();
+		String context = AnalysisContext.current();
+
+		return CompletableFuture
+			.supplyAsync(AnalysisContext.within(context,
+				() -> computeDelta(query.getOldVersion(), query.getNewVersion(), opts, executor)), executor)
+			.thenCompose(delta -> {
+				// If no breaking change, we can skip the rest and just return that
+				if (delta.isEmpty()) {
+					AnalysisResult res = AnalysisResult.noImpact(delta, query.getClients());
+					res.deltaImpacts().values().forEach(onImpact);
+					return CompletableFuture.completedFuture(res);
+				}
+
+				List<CompletableFuture<DeltaImpact>> impacts = query.getClients().stream()
+					.map(c -> CompletableFuture
+						.supplyAsync(AnalysisContext.within(context,
+							() -> scheduler.runAdmitted(c, cancelled, () -> computeDeltaImpact(c, delta, opts, cancelled))), executor)
+						.thenApply(impact -> {
+							onImpact.accept(impact);
+							return impact;
+						}))
+					.toList();
+
+				return CompletableFuture.allOf(impacts.toArray(CompletableFuture[]::new))
+					.thenApply(v -> AnalysisResult.success(delta, impacts.stream().map(CompletableFuture::join).toList()));
+			});
+	}
+
+	/**
+	 * Returns the scheduler admitting the clients analyzed by this instance
+	 */
+	public ClientScheduler getScheduler() {
+		return scheduler;
+	}
+
 	/**
 	 * Compares the library's old and new versions and returns a delta model
 	 * containing all {@link BreakingChange} between them, based on JApiCmp.
+	 * If this instance has a {@link DeltaCache} holding a delta for the same
+	 * JARs and options, it is rehydrated instead. The Spoon models are built
+	 * on a bounded executor shared by Maracas instances.
 	 *
 	 * @param oldVersion the library's old version
 	 * @param newVersion the library's new version
@@ -63,30 +318,219 @@ public class Maracas {
 	 * @throws NullPointerException if oldVersion or newVersion is null
 	 * @throws SpoonException       if we cannot build the Spoon model from the old version
 	 * @see JarArchiveComparator#compare(JApiCmpArchive, JApiCmpArchive)
-	 * @see #computeDelta(LibraryJar, LibraryJar, MaracasOptions)
+	 * @see #computeDelta(LibraryJar, LibraryJar, MaracasOptions, Executor)
 	 */
 	public Delta computeDelta(LibraryJar oldVersion, LibraryJar newVersion, MaracasOptions options) {
+		return computeDelta(oldVersion, newVersion, options, DELTA_EXECUTOR);
+	}
+
+	private static ThreadPoolExecutor newDeltaExecutor() {
+		int threads = Runtime.getRuntime().availableProcessors();
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(threads), r -> {
+			Thread t = new Thread(r, "maracas-delta-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * Compares the library's old and new versions and returns a delta model,
+	 * running its independent phases concurrently: the Spoon model of the old
+	 * JAR is built on {@code executor} while the JARs are compared (see
+	 * {@link MaracasOptions#setDeltaEngine}), and the model of the sources
+	 * declaring the affected types is built on {@code executor} as soon as the
+	 * comparison reports them, while the breaking changes are mapped to the
+	 * JAR's model. A phase that {@code executor}
+	 * hasn't started by the time its result is needed runs on the calling
+	 * thread, so that the caller never waits on a saturated executor.
+	 *
+	 * @param oldVersion the library's old version
+	 * @param newVersion the library's new version
+	 * @param options    Maracas and JApiCmp options
+	 * @param executor   the executor building the Spoon models
+	 * @return a new delta model based on JapiCmp's results
+	 * @throws NullPointerException if oldVersion, newVersion or executor is null
+	 * @throws SpoonException       if we cannot build the Spoon model from the old version
+	 * @see #computeDelta(LibraryJar, LibraryJar, MaracasOptions)
+	 */
+	public Delta computeDelta(LibraryJar oldVersion, LibraryJar newVersion, MaracasOptions options, Executor executor) {
 		Objects.requireNonNull(oldVersion);
 		Objects.requireNonNull(newVersion);
+		Objects.requireNonNull(executor);
 
 		MaracasOptions opts = options != null ? options : MaracasOptions.newDefault();
+		DeltaEvent event = new DeltaEvent();
+		event.begin();
+
+		if (deltaCache != null) {
+			Delta cached = deltaCache.get(oldVersion, newVersion, opts);
+			if (cached != null) {
+				commitEvent(event, cached, true);
+				return cached;
+			}
+		}
+
+		Stopwatch sw = Stopwatch.createStarted();
+		Supplier<Timed<CtModel>> binaryModel = fork(() -> Timed.of(oldVersion::buildModel), executor);
+
+		Set<String> affectedTypes;
+		Function<CtModel, Delta> mapping;
+		if (useBytecodeEngine(opts)) {
+			List<BytecodeDelta.ApiChange> changes = compareBytecode(oldVersion, newVersion, opts);
+			affectedTypes = BytecodeDelta.getAffectedTypes(changes);
+			mapping = m -> Delta.fromBytecodeDelta(oldVersion, newVersion, changes, m, opts);
+		} else {
+			List<JApiClass> classes = compareWithJApiCmp(oldVersion, newVersion, opts);
+			// Must be computed before the delta filters out the classes we're not interested in
+			affectedTypes = Delta.getAffectedTypes(classes);
+			mapping = m -> Delta.fromJApiCmpDelta(oldVersion, newVersion, classes, m, opts);
+		}
+		long comparisonMillis = sw.elapsed().toMillis();
+
+		Supplier<Timed<CtModel>> locationModel = oldVersion.hasSources()
+			? fork(() -> Timed.of(() -> Delta.buildLocationModel(oldVersion, affectedTypes)), executor)
+			: () -> new Timed<>(null, 0);
+
+		Timed<CtModel> model = binaryModel.get();
+		Delta delta = mapping.apply(model.value());
+		Timed<CtModel> locations = locationModel.get();
+		delta.populateLocations(locations.value(), locations.millis());
+		delta.setStatistics(delta.getStatistics().withComparison(comparisonMillis).withBinaryModel(model.millis()));
+
+		logger.info("Δ({}, {}) took {}ms", oldVersion.getLabel(), newVersion.getLabel(), sw.elapsed().toMillis());
+
+		if (deltaCache != null)
+			deltaCache.put(delta, opts);
+
+		commitEvent(event, delta, false);
+		return delta;
+	}
+
+	private static boolean useBytecodeEngine(MaracasOptions opts) {
+		if (opts.getDeltaEngine() != MaracasOptions.DeltaEngine.BYTECODE)
+			return false;
 
+		// JApiCmp's filters match Javassist classes from its own class pools
+		if (!opts.getJApiOptions().getIncludes().isEmpty() || !opts.getJApiOptions().getExcludes().isEmpty()) {
+			logger.info("JApiCmp filters are set, comparing with JApiCmp");
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compares the two versions with {@link BytecodeDelta}
+	 */
+	private static List<BytecodeDelta.ApiChange> compareBytecode(LibraryJar oldVersion, LibraryJar newVersion,
+	                                                             MaracasOptions opts) {
+		try {
+			return BytecodeDelta.compare(oldVersion.getJar(), newVersion.getJar(),
+				oldVersion.getClasspath().stream().map(Path::of).toList(), opts);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Compares the two versions with JApiCmp
+	 */
+	private static List<JApiClass> compareWithJApiCmp(LibraryJar oldVersion, LibraryJar newVersion, MaracasOptions opts) {
 		// Pass the old version's classpath to JApiCmp for the analysis
 		opts.getJApiOptions().setClassPathMode(JApiCli.ClassPathMode.ONE_COMMON_CLASSPATH);
 		JarArchiveComparatorOptions jApiOptions = JarArchiveComparatorOptions.of(opts.getJApiOptions());
 		jApiOptions.getClassPathEntries().addAll(oldVersion.getClasspath());
+		// Only compare the classes that changed and those they may break
+		if (opts.isPrescreenJars() && jApiOptions.getFilters().getIncludes().isEmpty())
+			JarDiff.comparedClasses(oldVersion.getJar(), newVersion.getJar())
+				.ifPresent(classes -> jApiOptions.getFilters().getIncludes().add(new ClassFilter() {
+					@Override
+					public boolean matches(CtClass ctClass) {
+						return classes.contains(ctClass.getName());
+					}
+				}));
 		JarArchiveComparator comparator = new JarArchiveComparator(jApiOptions);
 
 		JApiCmpArchive oldAPI = new JApiCmpArchive(oldVersion.getJar().toFile(), oldVersion.getLabel());
 		JApiCmpArchive newAPI = new JApiCmpArchive(newVersion.getJar().toFile(), newVersion.getLabel());
 
-		Stopwatch sw = Stopwatch.createStarted();
-		List<JApiClass> classes = comparator.compare(oldAPI, newAPI);
-		Delta delta = Delta.fromJApiCmpDelta(oldVersion, newVersion, classes, opts);
-		delta.populateLocations();
+		return comparator.compare(oldAPI, newAPI);
+	}
 
-		logger.info("Δ({}, {}) took {}ms", oldVersion.getLabel(), newVersion.getLabel(), sw.elapsed().toMillis());
-		return delta;
+	/**
+	 * Submits {@code task} to {@code executor} and returns a supplier of its
+	 * result. If the executor hasn't started {@code task} yet (or rejected it),
+	 * the supplier runs it on the calling thread instead of waiting. Exceptions
+	 * thrown by {@code task} are rethrown as is.
+	 */
+	private static <T> Supplier<T> fork(Supplier<T> task, Executor executor) {
+		AtomicBoolean claimed = new AtomicBoolean();
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Supplier<T> withContext = AnalysisContext.propagate(task);
+		Runnable run = () -> {
+			if (claimed.compareAndSet(false, true)) {
+				try {
+					future.complete(withContext.get());
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}
+		};
+
+		try {
+			executor.execute(run);
+		} catch (RejectedExecutionException e) {
+			// Will run on the calling thread
+		}
+
+		return () -> {
+			run.run();
+			try {
+				return future.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException cause)
+					throw cause;
+				if (e.getCause() instanceof Error cause)
+					throw cause;
+				throw e;
+			}
+		};
+	}
+
+	/**
+	 * A value along with the time it took to compute it
+	 */
+	private record Timed<T>(T value, long millis) {
+		static <T> Timed<T> of(Supplier<T> supplier) {
+			Stopwatch sw = Stopwatch.createStarted();
+			T value = supplier.get();
+			return new Timed<>(value, sw.elapsed().toMillis());
+		}
+	}
+
+	private static void commitEvent(DeltaEvent event, Delta delta, boolean cached) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.oldVersion = delta.getOldVersion().getLabel();
+			event.newVersion = delta.getNewVersion().getLabel();
+			event.oldJarSize = delta.getOldVersion().getJar().toFile().length();
+			event.newJarSize = delta.getNewVersion().getJar().toFile().length();
+			event.breakingChanges = delta.getBreakingChanges().size();
+			event.cached = cached;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Returns the delta cache used by this instance, or null if there is none
+	 */
+	public DeltaCache getDeltaCache() {
+		return deltaCache;
 	}
 
 	/**
@@ -108,27 +552,59 @@ public class Maracas {
 	 * @throws SpoonException       if we cannot build the Spoon model from {@code client}
 	 */
 	public DeltaImpact computeDeltaImpact(SourcesDirectory client, Delta delta, MaracasOptions options) {
+		return computeDeltaImpact(client, delta, options, () -> false);
+	}
+
+	/**
+	 * Computes the impact {@code delta} has on {@code client}, giving up as soon
+	 * as {@code cancelled} holds
+	 *
+	 * @throws CancellationException if the analysis was cancelled
+	 * @see #computeDeltaImpact(SourcesDirectory, Delta, MaracasOptions)
+	 */
+	private DeltaImpact computeDeltaImpact(SourcesDirectory client, Delta delta, MaracasOptions options,
+	                                       BooleanSupplier cancelled) {
 		Objects.requireNonNull(client);
 		Objects.requireNonNull(delta);
 
 		MaracasOptions opts = options != null ? options : MaracasOptions.newDefault();
 
 		try {
-			client.setClasspath(Collections.singletonList(delta.getOldVersion().getJar()));
-			CtModel model = client.buildModel();
+			if (cancelled.getAsBoolean())
+				throw new CancellationException("Analyzing " + client + " was cancelled");
 
-			Stopwatch sw = Stopwatch.createStarted();
-			Collection<BreakingChangeVisitor> visitors = delta.getVisitors();
-			CombinedVisitor visitor = new CombinedVisitor(visitors, opts);
+			// Deltas computed from source code have no JAR: the library's types resolve from its sources
+			LibraryJar library = delta.getOldVersion();
+			if (library.hasJar())
+				client.setClasspath(Collections.singletonList(library.getJar()));
+			else if (library.hasSources())
+				client.setClasspath(Collections.singletonList(library.getSources().getSourceRoot()));
+
+			// Clients are analyzed concurrently against the same library model
+			delta.resolveReferences();
 
-			// FIXME: Only way I found to visit CompilationUnits and Imports in the model
-			// This is probably not the right way.
-			visitor.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
-			// We still need to visit the root package afterwards.
-			visitor.scan(model.getRootPackage());
+			ClientScan scan = new ClientScan(client, cancelled, opts.isProfileVisitors() ? new VisitorProfile() : null);
+			Set<BrokenUse> brokenUses;
+			if (usageIndexStore != null)
+				brokenUses = computeBrokenUsesFromIndex(client, delta, opts, scan);
+			else if (brokenUseStore != null)
+				brokenUses = computeBrokenUsesIncrementally(client, delta, opts, scan);
+			else
+				brokenUses = computeBrokenUses(client, delta, opts, scan);
 
-			logger.info("brokenUses({}) took {}ms", client, sw.elapsed().toMillis());
-			return DeltaImpact.success(client, delta, visitor.getBrokenUses());
+			// The library's sources on the classpath may be built along with the client: ignore their uses
+			if (!library.hasJar() && library.hasSources())
+				brokenUses = withinClient(client, brokenUses);
+
+			// Past this point, nothing should refer to the client's model anymore
+			DeltaImpact impact = opts.isDetachBrokenUses()
+				? DeltaImpact.detached(client, delta, DetachedBrokenUse.of(brokenUses))
+				: DeltaImpact.success(client, delta, brokenUses);
+			impact = impact.withStatistics(scan.statistics());
+			return scan.profile != null ? impact.withProfile(scan.profile) : impact;
+		} catch (CancellationException e) {
+			// Not a failure of the analysis: nobody is waiting for its result
+			throw e;
 		} catch (Exception e) {
 			logger.warn("Error building the delta impact for {}: {}", client, e);
 			e.printStackTrace();
@@ -136,10 +612,484 @@ public class Maracas {
 		}
 	}
 
+	private static Set<BrokenUse> withinClient(SourcesDirectory client, Set<BrokenUse> brokenUses) {
+		return brokenUses.stream()
+			.filter(bu -> {
+				SourcePosition pos = bu.element().getPosition();
+				return !pos.isValidPosition() || pos.getFile() == null || client.contains(pos.getFile().toPath());
+			})
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Builds the model of {@code client} and returns the broken uses it contains
+	 */
+	private Set<BrokenUse> computeBrokenUses(SourcesDirectory client, Delta delta, MaracasOptions opts,
+	                                         ClientScan scan)
+		throws IOException, InterruptedException, ExecutionException {
+		if (opts.getModelBuildStrategy() != MaracasOptions.ModelBuildStrategy.SINGLE)
+			return computeBrokenUsesSharded(client, delta, opts, scan);
+
+		CtModel model = buildModel(client, delta, opts, scan);
+
+		// No source file mentions an impacted API: nothing to build
+		if (model == null)
+			return Collections.emptySet();
+
+		Stopwatch sw = Stopwatch.createStarted();
+		Set<BrokenUse> brokenUses = computeBrokenUses(model, delta, opts, scan, delta::getVisitors);
+		logger.info("brokenUses({}) took {}ms", client, sw.elapsed().toMillis());
+		return brokenUses;
+	}
+
+	/**
+	 * Builds the model of {@code client}, restricted to the source files that
+	 * may be impacted by {@code delta} if {@link MaracasOptions#isPrescreenClients()}
+	 * holds. Returns null if no source file may be impacted.
+	 */
+	private CtModel buildModel(SourcesDirectory client, Delta delta, MaracasOptions opts, ClientScan scan) {
+		if (opts.isPrescreenClients()) {
+			Set<Path> candidates = prescreen(client, delta);
+			if (candidates != null && candidates.isEmpty())
+				return null;
+
+			return scan.buildModel(() -> candidates != null
+				? client.buildModel(candidates, scan.cancelled)
+				: client.buildModel(scan.cancelled));
+		}
+
+		return scan.buildModel(() -> client.buildModel(scan.cancelled));
+	}
+
+	/**
+	 * Builds the model of {@code client} shard by shard (see {@link SourcesDirectory#shard(Collection, long)})
+	 * and returns the broken uses they contain. With {@link MaracasOptions.ModelBuildStrategy#THROUGHPUT},
+	 * up to {@link MaracasOptions#getModelBuildParallelism()} shards are built and scanned at once.
+	 * With {@link MaracasOptions.ModelBuildStrategy#MEMORY_BOUNDED}, shards are built one after the
+	 * other and their broken uses point to placeholder elements, so that only one shard model is
+	 * alive at any time. The client's source roots are on every shard's source classpath so that
+	 * references to types declared in another shard resolve; only the broken uses located in a
+	 * shard's own files are kept from its model.
+	 */
+	private Set<BrokenUse> computeBrokenUsesSharded(SourcesDirectory client, Delta delta, MaracasOptions opts,
+	                                                ClientScan scan)
+		throws IOException, InterruptedException, ExecutionException {
+		Stopwatch sw = Stopwatch.createStarted();
+
+		Collection<Path> files = opts.isPrescreenClients() ? prescreen(client, delta) : null;
+		if (files == null)
+			files = client.getSourceFiles();
+		// No source file mentions an impacted API: nothing to build
+		if (files.isEmpty())
+			return Collections.emptySet();
+
+		List<List<Path>> shards = client.shard(files, opts.getModelShardBytes());
+		Set<Path> sourceRoots = client.getSourceRoots();
+		Set<BrokenUse> brokenUses = opts.getModelBuildStrategy() == MaracasOptions.ModelBuildStrategy.THROUGHPUT
+			? scanShardsInParallel(client, shards, sourceRoots, delta, opts, scan)
+			: scanShardsSequentially(client, shards, sourceRoots, delta, opts, scan);
+
+		logger.info("brokenUses({}) took {}ms [{} shards]", client, sw.elapsed().toMillis(), shards.size());
+		return brokenUses;
+	}
+
+	private Set<BrokenUse> scanShardsSequentially(SourcesDirectory client, List<List<Path>> shards,
+	                                              Set<Path> sourceRoots, Delta delta, MaracasOptions opts,
+	                                              ClientScan scan)
+		throws IOException, InterruptedException, ExecutionException {
+		Factory placeholders = new Launcher().getFactory();
+		Map<String, int[]> lineSeparators = new HashMap<>();
+		Set<BrokenUse> brokenUses = new HashSet<>();
+
+		for (List<Path> shard : shards) {
+			// Model builds aren't interruptible: check in between
+			if (scan.cancelled.getAsBoolean())
+				throw new CancellationException("Analyzing " + client + " was cancelled");
+
+			CtModel model = scan.buildModel(() -> client.buildShard(shard, sourceRoots, scan.cancelled));
+			for (BrokenUse bu : withinShard(shard, computeBrokenUses(model, delta, opts, scan, delta::getVisitors)))
+				brokenUses.add(BrokenUseStore.toPlaceholder(bu, placeholders, lineSeparators));
+		}
+
+		return brokenUses;
+	}
+
+	private Set<BrokenUse> scanShardsInParallel(SourcesDirectory client, List<List<Path>> shards,
+	                                            Set<Path> sourceRoots, Delta delta, MaracasOptions opts,
+	                                            ClientScan scan)
+		throws InterruptedException, ExecutionException {
+		Set<BrokenUse> brokenUses = ConcurrentHashMap.newKeySet();
+		List<ClientScan> shardScans = Collections.synchronizedList(new ArrayList<>());
+		ForkJoinPool pool = new ForkJoinPool(Math.min(opts.getModelBuildParallelism(), shards.size()));
+		try {
+			pool.submit(() -> shards.parallelStream().forEach(shard -> {
+				// Model builds aren't interruptible: check before starting another one
+				if (scan.cancelled.getAsBoolean())
+					throw new CancellationException("Analyzing " + client + " was cancelled");
+
+				// Statistics aren't thread-safe: one scan per shard, merged at the end
+				ClientScan shardScan = new ClientScan(client, scan.cancelled, scan.profile);
+				shardScans.add(shardScan);
+
+				CtModel model = shardScan.buildModel(() -> client.buildShard(shard, sourceRoots, scan.cancelled));
+				Stopwatch sw = Stopwatch.createStarted();
+				// Shards are already scanned in parallel: each one is scanned sequentially
+				brokenUses.addAll(withinShard(shard, scanSequentially(model, opts, shardScan, () -> {
+					// Visitors hold their broken uses: one set per shard
+					synchronized (delta) {
+						return delta.getVisitors();
+					}
+				})));
+				shardScan.scanMillis += sw.elapsed().toMillis();
+			})).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CancellationException cancellation)
+				throw cancellation;
+			throw e;
+		} finally {
+			pool.shutdown();
+		}
+
+		shardScans.forEach(scan::merge);
+		return brokenUses;
+	}
+
+	/**
+	 * Keeps the broken uses located in the files of {@code shard}: the units of other shards the
+	 * compiler built along with it are scanned with their own shard
+	 */
+	private static Set<BrokenUse> withinShard(List<Path> shard, Set<BrokenUse> brokenUses) {
+		Set<Path> files = shard.stream().map(SourcesDirectory::realPath).collect(Collectors.toSet());
+		return brokenUses.stream()
+			.filter(bu -> {
+				SourcePosition pos = bu.element().getPosition();
+				return !pos.isValidPosition() || pos.getFile() == null
+					|| files.contains(SourcesDirectory.realPath(pos.getFile().toPath()));
+			})
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Computes the broken uses in {@code client} from its usage index, stored
+	 * in {@link #usageIndexStore}. The index is extracted from the client's
+	 * model and stored the first time the client is analyzed, or whenever its
+	 * source files or build files change. The visitors that cannot be answered
+	 * from the index (see {@link BreakingChangeVisitor#visitIndex(UsageIndex)})
+	 * scan the client's model instead, built only if needed.
+	 */
+	private Set<BrokenUse> computeBrokenUsesFromIndex(SourcesDirectory client, Delta delta, MaracasOptions opts,
+	                                                  ClientScan scan)
+		throws IOException, InterruptedException, ExecutionException {
+		Stopwatch sw = Stopwatch.createStarted();
+
+		String key = UsageIndexStore.key(client, opts);
+		UsageIndex index = usageIndexStore.load(key);
+		CtModel model = null;
+		if (index == null) {
+			// The index is extracted from the whole client: no pre-screening
+			model = scan.buildModel(() -> client.buildModel(scan.cancelled));
+			index = usageIndexStore.save(key, model, opts);
+		}
+
+		Set<BrokenUse> brokenUses = new HashSet<>();
+		List<Integer> unanswered = new ArrayList<>();
+		List<BreakingChangeVisitor> visitors = delta.getVisitors();
+		for (int i = 0; i < visitors.size(); i++) {
+			BreakingChangeVisitor visitor = visitors.get(i);
+			if (index != null && visitor.visitIndex(index))
+				brokenUses.addAll(visitor.getBrokenUses());
+			else
+				unanswered.add(i);
+		}
+
+		if (!unanswered.isEmpty()) {
+			if (model == null)
+				model = buildModel(client, delta, opts, scan);
+
+			// Visitors hold their broken uses: the scan needs fresh ones
+			if (model != null)
+				brokenUses.addAll(computeBrokenUses(model, delta, opts, scan, () -> {
+					List<BreakingChangeVisitor> fresh = delta.getVisitors();
+					return unanswered.stream().map(fresh::get).toList();
+				}));
+		}
+
+		logger.info("brokenUses({}) took {}ms [{}/{} visitors answered from the usage index]", client,
+			sw.elapsed().toMillis(), visitors.size() - unanswered.size(), visitors.size());
+		return brokenUses;
+	}
+
+	/**
+	 * Scans {@code model} with the visitors supplied by {@code visitors} and
+	 * returns the broken uses it contains, recording the visitors' invocations
+	 * and the scanned elements in {@code scan}
+	 */
+	private Set<BrokenUse> computeBrokenUses(CtModel model, Delta delta, MaracasOptions opts, ClientScan scan,
+	                                         Supplier<List<BreakingChangeVisitor>> visitors)
+		throws InterruptedException, ExecutionException {
+		ClientScanEvent event = new ClientScanEvent();
+		event.begin();
+		Stopwatch sw = Stopwatch.createStarted();
+		long elements = scan.elements;
+
+		Set<BrokenUse> brokenUses = opts.getScanParallelism() > 1
+			? scanInParallel(model, delta, opts, scan, visitors)
+			: scanSequentially(model, opts, scan, visitors);
+
+		scan.scanMillis += sw.elapsed().toMillis();
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.client = scan.client.getLocation().toString();
+			event.files = model.getRootPackage().getFactory().CompilationUnit().getMap().size();
+			event.elements = scan.elements - elements;
+			event.brokenUses = brokenUses.size();
+			event.estimatedModelSize = scan.modelBytes;
+			event.commit();
+		}
+
+		return brokenUses;
+	}
+
+	private Set<BrokenUse> scanSequentially(CtModel model, MaracasOptions opts, ClientScan scan,
+	                                        Supplier<List<BreakingChangeVisitor>> visitors) {
+		CombinedVisitor visitor = scan.newVisitor(visitors.get(), opts);
+
+		// FIXME: Only way I found to visit CompilationUnits and Imports in the model
+		// This is probably not the right way.
+		visitor.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+		// We still need to visit the root package afterwards.
+		visitor.scan(model.getRootPackage());
+		scan.elements += visitor.getScannedElements();
+		return visitor.getBrokenUses();
+	}
+
+	/**
+	 * Computes the broken uses in {@code client}, reusing the results stored in
+	 * {@link #brokenUseStore} for the files whose content, dependencies (see
+	 * {@link SourcesDirectory#getDependencyClosures()}) and relevant breaking
+	 * changes did not change. The breaking changes relevant to a file are those
+	 * whose impacted names (see {@link Delta#getImpactedNames(BreakingChange)})
+	 * appear in it or in its dependencies. Only the other files (with their
+	 * dependencies and package neighbors, for type resolution) are parsed, and
+	 * their results are stored in turn.
+	 */
+	private Set<BrokenUse> computeBrokenUsesIncrementally(SourcesDirectory client, Delta delta, MaracasOptions opts,
+	                                                      ClientScan scan)
+		throws IOException, InterruptedException, ExecutionException {
+		Stopwatch sw = Stopwatch.createStarted();
+
+		// Index the breaking changes by the names they impact
+		Map<String, List<BreakingChange>> bcsByName = new HashMap<>();
+		delta.getBreakingChanges().forEach(bc ->
+			delta.getImpactedNames(bc).forEach(name -> bcsByName.computeIfAbsent(name, k -> new ArrayList<>()).add(bc)));
+		AhoCorasickMatcher matcher = new AhoCorasickMatcher(bcsByName.keySet());
+
+		// A file's broken uses also depend on the client files it refers to, e.g., its supertypes
+		Map<Path, Set<Path>> dependencies = client.getDependencyClosures();
+		Map<Path, HashCode> hashes = new HashMap<>();
+		Map<Path, Set<String>> names = new HashMap<>();
+		for (Path file : dependencies.keySet()) {
+			hashes.put(file, BrokenUseStore.hash(file));
+			names.put(file, matcher.matchingPatterns(file));
+		}
+
+		Factory placeholders = new Launcher().getFactory();
+		Set<BrokenUse> brokenUses = new HashSet<>();
+		Map<Path, String> dirty = new HashMap<>();
+		Set<Path> dirtyDependencies = new HashSet<>();
+		for (Map.Entry<Path, Set<Path>> entry : dependencies.entrySet()) {
+			Path file = entry.getKey();
+			Set<BreakingChange> relevant = Collections.newSetFromMap(new IdentityHashMap<>());
+			names.get(file).forEach(name -> relevant.addAll(bcsByName.get(name)));
+			entry.getValue().forEach(dep -> names.get(dep).forEach(name -> relevant.addAll(bcsByName.get(name))));
+
+			String key = BrokenUseStore.key(hashes.get(file), entry.getValue().stream().map(hashes::get).toList(), relevant);
+			Set<BrokenUse> stored = brokenUseStore.load(client, file, key, delta, placeholders);
+			if (stored != null)
+				brokenUses.addAll(stored);
+			else {
+				dirty.put(file.toAbsolutePath().normalize(), key);
+				entry.getValue().forEach(dep -> dirtyDependencies.add(dep.toAbsolutePath().normalize()));
+			}
+		}
+
+		if (!dirty.isEmpty()) {
+			dirtyDependencies.addAll(dirty.keySet());
+			Set<Path> files = client.withPackageNeighbors(dirtyDependencies);
+			CtModel model = scan.buildModel(() -> client.buildModel(files, scan.cancelled));
+			Map<Path, List<BrokenUse>> usesPerFile = new HashMap<>();
+			dirty.keySet().forEach(file -> usesPerFile.put(file, new ArrayList<>()));
+
+			for (BrokenUse bu : computeBrokenUses(model, delta, opts, scan, delta::getVisitors)) {
+				CtElement located = SpoonHelpers.firstLocatableParent(bu.element());
+				Path file = located != null && located.getPosition().getFile() != null
+					? located.getPosition().getFile().toPath().toAbsolutePath().normalize()
+					: null;
+
+				if (file == null)
+					// Can't attribute it to a file: report it, but don't store it
+					brokenUses.add(bu);
+				else if (usesPerFile.containsKey(file))
+					usesPerFile.get(file).add(bu);
+				// else: a dependency or package neighbor whose stored results are up-to-date
+			}
+
+			usesPerFile.forEach((file, uses) -> {
+				brokenUseStore.save(client, file, dirty.get(file), uses);
+				brokenUses.addAll(uses);
+			});
+		}
+
+		logger.info("brokenUses({}) took {}ms [{} files re-analyzed]", client, sw.elapsed().toMillis(), dirty.size());
+		return brokenUses;
+	}
+
+	/**
+	 * Scans {@code model} on a work-stealing pool of {@link MaracasOptions#getScanParallelism()}
+	 * threads. The model is split into compilation units (imports and their top-level
+	 * types), remaining top-level types, and packages; each worker scans the units it
+	 * picks with its own {@link CombinedVisitor} and the broken uses are merged at the end.
+	 * The visited elements are the same as in the sequential scan. Spoon's factories
+	 * aren't thread-safe: the model's references are resolved before forking (see
+	 * {@link SpoonHelpers#resolveReferences(Iterable)}) so that workers only read it.
+	 */
+	private Set<BrokenUse> scanInParallel(CtModel model, Delta delta, MaracasOptions opts, ClientScan scan,
+	                                      Supplier<List<BreakingChangeVisitor>> visitors)
+		throws InterruptedException, ExecutionException {
+		// Resolving references while scanning would write to the shared factory
+		Collection<CtCompilationUnit> cus = model.getRootPackage().getFactory().CompilationUnit().getMap().values();
+		SpoonHelpers.resolveReferences(cus);
+		SpoonHelpers.resolveReferences(List.of(model.getRootPackage()));
+
+		Set<CtType<?>> types = Collections.newSetFromMap(new IdentityHashMap<>());
+		types.addAll(model.getAllTypes());
+
+		List<Consumer<CombinedVisitor>> units = new ArrayList<>();
+		for (CtCompilationUnit cu : cus) {
+			List<CtType<?>> cuTypes = new ArrayList<>();
+			for (CtType<?> type : cu.getDeclaredTypes())
+				if (types.remove(type))
+					cuTypes.add(type);
+
+			units.add(v -> {
+				v.scan(cu);
+				v.scan(cuTypes);
+			});
+		}
+		types.forEach(type -> units.add(v -> v.scan(type)));
+		model.getAllPackages().forEach(pkg -> units.add(v -> v.scanShallow(pkg)));
+
+		Queue<CombinedVisitor> idle = new ConcurrentLinkedQueue<>();
+		List<CombinedVisitor> workers = Collections.synchronizedList(new ArrayList<>());
+		ForkJoinPool pool = new ForkJoinPool(opts.getScanParallelism());
+		try {
+			pool.submit(() -> units.parallelStream().forEach(unit -> {
+				CombinedVisitor visitor = idle.poll();
+				if (visitor == null) {
+					// Visitors hold their broken uses: one set per worker
+					synchronized (delta) {
+						visitor = scan.newVisitor(visitors.get(), opts);
+					}
+					workers.add(visitor);
+				}
+
+				unit.accept(visitor);
+				idle.add(visitor);
+			})).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CancellationException cancellation)
+				throw cancellation;
+			throw e;
+		} finally {
+			pool.shutdown();
+		}
+
+		scan.elements += workers.stream().mapToLong(CombinedVisitor::getScannedElements).sum();
+		return workers.stream()
+			.map(CombinedVisitor::getBrokenUses)
+			.flatMap(Collection::stream)
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Returns the source files of {@code client} that may be impacted by {@code delta},
+	 * or null if they cannot be determined and the whole client should be analyzed.
+	 */
+	private Set<Path> prescreen(SourcesDirectory client, Delta delta) {
+		try {
+			return client.prescreen(delta.getImpactedNames());
+		} catch (IOException | SpoonException e) {
+			logger.warn("Couldn't pre-screen {}, analyzing all its source files: {}", client, e);
+			return null;
+		}
+	}
+
 	/**
 	 * @see #computeDeltaImpact(SourcesDirectory, Delta, MaracasOptions)
 	 */
 	public DeltaImpact computeDeltaImpact(SourcesDirectory client, Delta delta) {
 		return computeDeltaImpact(client, delta, MaracasOptions.newDefault());
 	}
+
+	/**
+	 * The state of the analysis of a single client: whether it was cancelled,
+	 * the profile of its visitors (if requested), and its statistics
+	 */
+	private static final class ClientScan {
+		final SourcesDirectory client;
+		final BooleanSupplier cancelled;
+		final VisitorProfile profile;
+		long modelMillis;
+		long scanMillis;
+		int files;
+		long elements;
+		long modelBytes;
+
+		ClientScan(SourcesDirectory client, BooleanSupplier cancelled, VisitorProfile profile) {
+			this.client = client;
+			this.cancelled = cancelled;
+			this.profile = profile;
+		}
+
+		/**
+		 * Builds a client model with {@code builder}, accounting for its build time,
+		 * files, and estimated footprint
+		 */
+		CtModel buildModel(Supplier<CtModel> builder) {
+			Stopwatch sw = Stopwatch.createStarted();
+			CtModel model = builder.get();
+			modelMillis += sw.elapsed().toMillis();
+
+			for (CtCompilationUnit cu : model.getRootPackage().getFactory().CompilationUnit().getMap().values()) {
+				files++;
+				if (cu.getFile() != null)
+					modelBytes += cu.getFile().length() * ClientScheduler.FOOTPRINT_FACTOR;
+			}
+
+			return model;
+		}
+
+		CombinedVisitor newVisitor(Collection<BreakingChangeVisitor> visitors, MaracasOptions opts) {
+			CombinedVisitor visitor = new CombinedVisitor(visitors, opts);
+			visitor.setCancellation(cancelled);
+			visitor.setProfile(profile);
+			return visitor;
+		}
+
+		/**
+		 * Adds the statistics of {@code other}, e.g. the scan of one of the client's shards
+		 */
+		void merge(ClientScan other) {
+			modelMillis += other.modelMillis;
+			scanMillis += other.scanMillis;
+			files += other.files;
+			elements += other.elements;
+			modelBytes += other.modelBytes;
+		}
+
+		ImpactStatistics statistics() {
+			return new ImpactStatistics(modelMillis, scanMillis, files, elements, modelBytes);
+		}
+	}
 }
@@ -1,11 +1,16 @@
 package com.github.maracas;
 
 import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.delta.Delta;
+import com.github.maracas.delta.PortableDelta;
 import com.google.common.base.Stopwatch;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
+import spoon.Launcher;
+import spoon.reflect.factory.Factory;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,14 +23,22 @@ import java.util.stream.Collectors;
 	version = "0.1.0"
 )
 public class MaracasCLI implements Runnable {
-	@Option(names = {"-o", "--old"}, required = true,
+	@Option(names = {"-o", "--old"},
 		description = "The library's old JAR")
 	private Path v1;
 
-	@Option(names = {"-n", "--new"}, required = true,
+	@Option(names = {"-n", "--new"},
 		description = "The library's new JAR")
 	private Path v2;
 
+	@Option(names = {"-d", "--delta"},
+		description = "A delta written with --write-delta: only its impact on the clients is computed")
+	private Path deltaPath;
+
+	@Option(names = {"-w", "--write-delta"},
+		description = "File where the delta is written, in its portable form")
+	private Path writeDeltaPath;
+
 	@Option(names = {"-c", "--client"}, arity = "0..*",
 		description = "Directory containing the client's source code")
 	private final List<Path> clientPaths = new ArrayList<>();
@@ -34,20 +47,23 @@ public class MaracasCLI implements Runnable {
 		description = "Directory containing the old library's source code")
 	private Path sources;
 
+	@Option(names = {"-p", "--profile"},
+		description = "Print the time each breaking change visitor spent on each kind of node")
+	private boolean profile;
+
 	@Override
 	public void run() {
 		try {
 			Stopwatch watch = Stopwatch.createStarted();
-			LibraryJar oldVersion = sources != null
-				? LibraryJar.withSources(v1, SourcesDirectory.of(sources))
-				: LibraryJar.withoutSources(v1);
-			LibraryJar newVersion = LibraryJar.withoutSources(v2);
 			List<SourcesDirectory> clients = clientPaths.stream().map(SourcesDirectory::of).toList();
-			AnalysisQuery query = AnalysisQuery.builder()
-				.of(oldVersion, newVersion)
-				.clients(clients)
-				.build();
-			AnalysisResult result = new Maracas().analyze(query);
+			MaracasOptions options = MaracasOptions.newDefault();
+			options.setProfileVisitors(profile);
+			AnalysisResult result = deltaPath != null
+				? analyzeImpact(clients, options)
+				: analyze(clients, options);
+
+			if (writeDeltaPath != null)
+				PortableDelta.of(result.delta()).write(writeDeltaPath);
 
 			System.out.println("""
 				+------------------+
@@ -67,12 +83,58 @@ public class MaracasCLI implements Runnable {
 					.map(BrokenUse::toString)
 					.collect(Collectors.joining("\n"))
 			);
+
+			if (profile) {
+				System.out.println("""
+					+---------+
+					+ PROFILE +
+					+---------+
+					""");
+				result.deltaImpacts().values().stream()
+					.filter(impact -> impact.profile() != null)
+					.forEach(impact -> System.out.println(impact.client() + "\n" + impact.profile()));
+			}
 			System.out.println("Done in " + watch.elapsed(TimeUnit.SECONDS) + "s.");
 		} catch (Exception e) {
 			System.err.println("Fatal error: " + e.getMessage());
 		}
 	}
 
+	private AnalysisResult analyze(List<SourcesDirectory> clients, MaracasOptions options) {
+		if (v1 == null || v2 == null)
+			throw new IllegalArgumentException("--old and --new are required unless --delta is given");
+
+		LibraryJar oldVersion = sources != null
+			? LibraryJar.withSources(v1, SourcesDirectory.of(sources))
+			: LibraryJar.withoutSources(v1);
+		LibraryJar newVersion = LibraryJar.withoutSources(v2);
+		AnalysisQuery query = AnalysisQuery.builder()
+			.of(oldVersion, newVersion)
+			.clients(clients)
+			.options(options)
+			.build();
+		return new Maracas().analyze(query);
+	}
+
+	/**
+	 * Computes the impact of the delta read from {@link #deltaPath} on
+	 * {@code clients}, without recomputing it. When the old JAR is given, the
+	 * delta is resolved against its model and the clients are analyzed with it
+	 * on their classpath; otherwise, the breaking changes only refer to the
+	 * library's types and members by name.
+	 */
+	private AnalysisResult analyzeImpact(List<SourcesDirectory> clients, MaracasOptions options) throws IOException {
+		PortableDelta portable = PortableDelta.read(deltaPath);
+		LibraryJar oldVersion = v1 != null ? LibraryJar.withoutSources(v1) : LibraryJar.fromLabel(portable.oldVersion());
+		LibraryJar newVersion = v2 != null ? LibraryJar.withoutSources(v2) : LibraryJar.fromLabel(portable.newVersion());
+		Factory factory = oldVersion.hasJar()
+			? oldVersion.buildModel().getRootPackage().getFactory()
+			: new Launcher().getFactory();
+		Delta delta = portable.toDelta(oldVersion, newVersion, factory);
+
+		return new Maracas().analyzeImpact(delta, clients, options);
+	}
+
 	public static void main(String[] args) {
 		int exitCode = new CommandLine(new MaracasCLI()).execute(args);
 		System.exit(exitCode);
@@ -6,6 +6,7 @@ import japicmp.model.JApiCompatibilityChange;
 
 import java.time.Duration;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -20,6 +21,51 @@ public class MaracasOptions {
 	private int minStarsPerClient = 0;
 	private Duration cloneTimeout = Duration.ofSeconds(Integer.MAX_VALUE);
 	private Duration buildTimeout = Duration.ofSeconds(Integer.MAX_VALUE);
+	private boolean prescreenClients = false;
+	private int scanParallelism = 1;
+	private boolean detachBrokenUses = false;
+	private boolean profileVisitors = false;
+	private boolean prescreenJars = true;
+	private DeltaEngine deltaEngine = DeltaEngine.JAPICMP;
+	private boolean sourceDelta = false;
+	private ModelBuildStrategy modelBuildStrategy = ModelBuildStrategy.SINGLE;
+	private long modelShardBytes = 512L * 1024 * 1024;
+	private int modelBuildParallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The engines computing the changes between two versions of a library
+	 */
+	public enum DeltaEngine {
+		/**
+		 * JApiCmp, supporting all kinds of {@link JApiCompatibilityChange}
+		 */
+		JAPICMP,
+		/**
+		 * A faster and leaner comparison of the JARs' class files, supporting a
+		 * subset of the changes (see {@link com.github.maracas.delta.BytecodeDelta})
+		 */
+		BYTECODE
+	}
+
+	/**
+	 * The strategies building the Spoon models of clients
+	 */
+	public enum ModelBuildStrategy {
+		/**
+		 * A single model of all the client's sources
+		 */
+		SINGLE,
+		/**
+		 * Shards of the client's packages are built into separate models in
+		 * parallel, each scanned as soon as it is built
+		 */
+		THROUGHPUT,
+		/**
+		 * Shards of the client's packages are built and scanned one after
+		 * another, so that a single shard's model is alive at any time
+		 */
+		MEMORY_BOUNDED
+	}
 
 	public MaracasOptions(MaracasOptions opts) {
 		this(opts.jApiOptions);
@@ -29,6 +75,16 @@ public class MaracasOptions {
 		this.minStarsPerClient = opts.minStarsPerClient;
 		this.cloneTimeout = opts.cloneTimeout;
 		this.buildTimeout = opts.buildTimeout;
+		this.prescreenClients = opts.prescreenClients;
+		this.scanParallelism = opts.scanParallelism;
+		this.detachBrokenUses = opts.detachBrokenUses;
+		this.profileVisitors = opts.profileVisitors;
+		this.prescreenJars = opts.prescreenJars;
+		this.deltaEngine = opts.deltaEngine;
+		this.sourceDelta = opts.sourceDelta;
+		this.modelBuildStrategy = opts.modelBuildStrategy;
+		this.modelShardBytes = opts.modelShardBytes;
+		this.modelBuildParallelism = opts.modelBuildParallelism;
 	}
 
 	private MaracasOptions(Options jApiOptions) {
@@ -124,6 +180,136 @@ public class MaracasOptions {
 		this.buildTimeout = buildTimeout;
 	}
 
+	/**
+	 * Whether client source files should be textually pre-screened before building
+	 * their Spoon model: only the files mentioning the simple name of an impacted
+	 * type or member (and the other files in their package) are parsed, and clients
+	 * with no such file are skipped altogether. This is an approximation: uses that
+	 * never spell out an impacted name outside the file's package (e.g., through
+	 * indirect subtypes or inferred types) may be missed.
+	 *
+	 * @param prescreenClients whether to pre-screen client source files
+	 */
+	public void setPrescreenClients(boolean prescreenClients) {
+		this.prescreenClients = prescreenClients;
+	}
+
+	/**
+	 * Sets the number of threads scanning each client's Spoon model. With a value
+	 * greater than 1, the model is split by compilation unit and units are scanned
+	 * on a work-stealing pool, each worker using its own visitors. Defaults to 1
+	 * (sequential scanning).
+	 *
+	 * @param scanParallelism the number of scanning threads per client
+	 */
+	public void setScanParallelism(int scanParallelism) {
+		if (scanParallelism < 1)
+			throw new IllegalArgumentException("scanParallelism < 1");
+		this.scanParallelism = scanParallelism;
+	}
+
+	/**
+	 * Whether the {@link com.github.maracas.brokenuse.DeltaImpact} of each client
+	 * should hold {@link com.github.maracas.brokenuse.DetachedBrokenUse} rather than
+	 * {@link com.github.maracas.brokenuse.BrokenUse}, so that the client's Spoon
+	 * model can be garbage-collected as soon as it is analyzed.
+	 *
+	 * @param detachBrokenUses whether to detach broken uses from the client's model
+	 */
+	public void setDetachBrokenUses(boolean detachBrokenUses) {
+		this.detachBrokenUses = detachBrokenUses;
+	}
+
+	/**
+	 * Whether to record, per breaking change visitor and per node kind, the number
+	 * of invocations, the time spent and the broken uses emitted while scanning
+	 * each client. The resulting {@link com.github.maracas.visitors.VisitorProfile}
+	 * is attached to the client's {@link com.github.maracas.brokenuse.DeltaImpact}.
+	 * Defaults to false, in which case nothing is recorded.
+	 *
+	 * @param profileVisitors whether to profile the visitors
+	 */
+	public void setProfileVisitors(boolean profileVisitors) {
+		this.profileVisitors = profileVisitors;
+	}
+
+	/**
+	 * Whether to restrict JApiCmp's comparison to the classes whose bytecode
+	 * differs between the two JARs, and their enclosing, member, super- and
+	 * subtypes (see {@link com.github.maracas.delta.JarDiff}). The resulting
+	 * delta is the same. Defaults to true; JARs are compared in full when JApiCmp
+	 * options already include a filter.
+	 *
+	 * @param prescreenJars whether to pre-screen the JARs
+	 */
+	public void setPrescreenJars(boolean prescreenJars) {
+		this.prescreenJars = prescreenJars;
+	}
+
+	/**
+	 * Sets the engine comparing the library's JARs. Defaults to
+	 * {@link DeltaEngine#JAPICMP}. JApiCmp is still used when its options
+	 * include or exclude classes through filters, which only apply to JApiCmp's
+	 * own model of the classes.
+	 *
+	 * @param deltaEngine the engine computing deltas
+	 */
+	public void setDeltaEngine(DeltaEngine deltaEngine) {
+		this.deltaEngine = Objects.requireNonNull(deltaEngine);
+	}
+
+	/**
+	 * Whether the forges should compute the delta between two commits from the
+	 * Spoon models of their sources, without building them (see
+	 * {@link com.github.maracas.delta.SourceDelta}). The JARs are built and
+	 * compared as usual when the sources don't resolve. Defaults to false.
+	 *
+	 * @param sourceDelta whether to compute deltas from source code first
+	 */
+	public void setSourceDelta(boolean sourceDelta) {
+		this.sourceDelta = sourceDelta;
+	}
+
+	/**
+	 * Sets the strategy building the Spoon models of clients. Defaults to
+	 * {@link ModelBuildStrategy#SINGLE}. Sharded strategies split a client
+	 * into shards of whole packages (see {@link #setModelShardBytes(long)}),
+	 * built without comments. The client's source roots are on each shard's
+	 * source classpath, so that types and members declared in other shards
+	 * still resolve.
+	 *
+	 * @param modelBuildStrategy the strategy building client models
+	 */
+	public void setModelBuildStrategy(ModelBuildStrategy modelBuildStrategy) {
+		this.modelBuildStrategy = Objects.requireNonNull(modelBuildStrategy);
+	}
+
+	/**
+	 * Sets the estimated heap footprint of each shard's model when building
+	 * client models with a sharded {@link ModelBuildStrategy}. Footprints are
+	 * estimated from the size of the source files; packages larger than the
+	 * cap make up their own shard. Defaults to 512MiB.
+	 *
+	 * @param modelShardBytes the estimated footprint of a shard, in bytes
+	 */
+	public void setModelShardBytes(long modelShardBytes) {
+		if (modelShardBytes < 1)
+			throw new IllegalArgumentException("modelShardBytes < 1");
+		this.modelShardBytes = modelShardBytes;
+	}
+
+	/**
+	 * Sets the number of shards built in parallel with
+	 * {@link ModelBuildStrategy#THROUGHPUT}. Defaults to the number of processors.
+	 *
+	 * @param modelBuildParallelism the number of shards built at a time
+	 */
+	public void setModelBuildParallelism(int modelBuildParallelism) {
+		if (modelBuildParallelism < 1)
+			throw new IllegalArgumentException("modelBuildParallelism < 1");
+		this.modelBuildParallelism = modelBuildParallelism;
+	}
+
 	public int getMaxClassLines() {
 		return maxClassLines;
 	}
@@ -144,6 +330,46 @@ public class MaracasOptions {
 		return buildTimeout;
 	}
 
+	public boolean isPrescreenClients() {
+		return prescreenClients;
+	}
+
+	public int getScanParallelism() {
+		return scanParallelism;
+	}
+
+	public boolean isDetachBrokenUses() {
+		return detachBrokenUses;
+	}
+
+	public boolean isProfileVisitors() {
+		return profileVisitors;
+	}
+
+	public boolean isPrescreenJars() {
+		return prescreenJars;
+	}
+
+	public DeltaEngine getDeltaEngine() {
+		return deltaEngine;
+	}
+
+	public boolean isSourceDelta() {
+		return sourceDelta;
+	}
+
+	public ModelBuildStrategy getModelBuildStrategy() {
+		return modelBuildStrategy;
+	}
+
+	public long getModelShardBytes() {
+		return modelShardBytes;
+	}
+
+	public int getModelBuildParallelism() {
+		return modelBuildParallelism;
+	}
+
 	public Options getJApiOptions() {
 		return jApiOptions;
 	}
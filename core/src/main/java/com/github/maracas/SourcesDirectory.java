@@ -1,6 +1,9 @@
 package com.github.maracas;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.maracas.events.AnalysisContext;
+import com.github.maracas.events.ModelBuildEvent;
+import com.github.maracas.util.AhoCorasickMatcher;
 import com.github.maracas.util.GradleLauncher;
 import com.google.common.base.Stopwatch;
 import org.apache.logging.log4j.LogManager;
@@ -8,18 +11,39 @@ import org.apache.logging.log4j.Logger;
 import spoon.Launcher;
 import spoon.MavenLauncher;
 import spoon.reflect.CtModel;
+import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class SourcesDirectory {
 	private final Path location;
 	@JsonIgnore
 	private List<Path> classpath = Collections.emptyList();
 
+	private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;");
+
 	private static final Logger logger = LogManager.getLogger(SourcesDirectory.class);
 
 	private SourcesDirectory(Path location) {
@@ -34,8 +58,360 @@ public class SourcesDirectory {
 		this.classpath = Objects.requireNonNull(classpath);
 	}
 
+	public List<Path> getClasspath() {
+		return classpath;
+	}
+
 	public CtModel buildModel() {
+		return buildModel(() -> false);
+	}
+
+	/**
+	 * Builds the Spoon model of this directory, giving up if {@code cancelled}
+	 * holds before or after the compilation. The compilation itself isn't
+	 * interruptible: a model build cancelled midway runs to completion first.
+	 *
+	 * @param cancelled whether the caller is no longer interested in the model
+	 * @return the resulting model
+	 * @throws CancellationException if the build was cancelled
+	 */
+	public CtModel buildModel(BooleanSupplier cancelled) {
+		Objects.requireNonNull(cancelled);
+
+		ModelBuildEvent event = new ModelBuildEvent();
+		event.begin();
+		Stopwatch sw = Stopwatch.createStarted();
+		Launcher launcher = createLauncher(cancelled, Collections.emptyList());
+
+		CtModel spoonModel = launcher.buildModel();
+		checkCancelled(cancelled);
+		logger.info("Building Spoon model for {} [classpath={}] took {}ms", this, classpath, sw.elapsed().toMillis());
+		commitEvent(event, spoonModel);
+		return spoonModel;
+	}
+
+	/**
+	 * Builds a Spoon model restricted to the given source {@code files}. Other
+	 * source files in the directory are excluded from the model.
+	 *
+	 * @param files the source files to include in the model
+	 * @return the resulting model
+	 * @see #prescreen(Collection)
+	 */
+	public CtModel buildModel(Collection<Path> files) {
+		return buildModel(files, () -> false);
+	}
+
+	/**
+	 * Builds a Spoon model restricted to the given source {@code files}, giving
+	 * up if {@code cancelled} holds before or after the compilation (see
+	 * {@link #buildModel(BooleanSupplier)})
+	 *
+	 * @param files     the source files to include in the model
+	 * @param cancelled whether the caller is no longer interested in the model
+	 * @return the resulting model
+	 * @throws CancellationException if the build was cancelled
+	 */
+	public CtModel buildModel(Collection<Path> files, BooleanSupplier cancelled) {
+		return buildModel(files, true, cancelled);
+	}
+
+	/**
+	 * Builds the Spoon model of a shard of this directory (see
+	 * {@link #shard(Collection, long)}), without comments, giving up if
+	 * {@code cancelled} holds before or after the compilation (see
+	 * {@link #buildModel(BooleanSupplier)}). The directory's {@code sourceRoots} are on
+	 * the shard's source classpath, so that types and members declared in
+	 * other shards resolve; the compiler may build the units declaring them
+	 * along with those of the shard.
+	 *
+	 * @param shard       the source files of the shard
+	 * @param sourceRoots the source roots of this directory (see {@link #getSourceRoots()})
+	 * @param cancelled   whether the caller is no longer interested in the model
+	 * @return the resulting model
+	 * @throws CancellationException if the build was cancelled
+	 */
+	public CtModel buildShard(Collection<Path> shard, Collection<Path> sourceRoots, BooleanSupplier cancelled) {
+		return buildModel(shard, sourceRoots, false, cancelled);
+	}
+
+	private CtModel buildModel(Collection<Path> files, boolean comments, BooleanSupplier cancelled) {
+		return buildModel(files, Collections.emptyList(), comments, cancelled);
+	}
+
+	private CtModel buildModel(Collection<Path> files, Collection<Path> sourceRoots, boolean comments,
+	                           BooleanSupplier cancelled) {
+		Objects.requireNonNull(files);
+		Objects.requireNonNull(sourceRoots);
+		Objects.requireNonNull(cancelled);
+
+		ModelBuildEvent event = new ModelBuildEvent();
+		event.begin();
+		Stopwatch sw = Stopwatch.createStarted();
+		Launcher launcher = createLauncher(cancelled, sourceRoots);
+		launcher.getEnvironment().setCommentEnabled(comments);
+
+		Set<Path> selected = files.stream().map(SourcesDirectory::realPath).collect(Collectors.toSet());
+		((JDTBasedSpoonCompiler) launcher.getModelBuilder())
+			.addCompilationUnitFilter(path -> !selected.contains(realPath(Path.of(path))));
+
+		CtModel spoonModel = launcher.buildModel();
+		checkCancelled(cancelled);
+		logger.info("Building Spoon model for {} [files={}, classpath={}] took {}ms", this, files.size(), classpath,
+			sw.elapsed().toMillis());
+		commitEvent(event, spoonModel);
+		return spoonModel;
+	}
+
+	/**
+	 * Lists the Java source files in this directory that textually mention at
+	 * least one of the given simple {@code names} as a whole identifier, along
+	 * with all the other source files of their package. Files are scanned
+	 * through memory-mapped buffers without being parsed.
+	 *
+	 * @param names the simple names of the types and members to look for
+	 * @return the matching files and their package neighbors, or an empty set if no file matches
+	 * @throws IOException if the source files cannot be read
+	 * @see com.github.maracas.delta.Delta#getImpactedNames()
+	 */
+	public Set<Path> prescreen(Collection<String> names) throws IOException {
+		Objects.requireNonNull(names);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		AhoCorasickMatcher matcher = new AhoCorasickMatcher(names);
+
+		Set<Path> matching = new HashSet<>();
+		Set<Path> matchingPackages = new HashSet<>();
+		for (Path f : getSourceFiles()) {
+			// One match is enough to keep the whole package
+			if (!matchingPackages.contains(f.getParent()) && matcher.matches(f)) {
+				matching.add(f);
+				matchingPackages.add(f.getParent());
+			}
+		}
+
+		Set<Path> candidates = withPackageNeighbors(matching);
+		logger.info("Pre-screening {} kept {} source files [names={}] in {}ms", this, candidates.size(), names.size(),
+			sw.elapsed().toMillis());
+		return candidates;
+	}
+
+	/**
+	 * Partitions the given source {@code files} into shards of whole packages
+	 * (i.e., directories) whose estimated model footprint stays within
+	 * {@code shardBytes}. Packages are taken in path order, so that those of
+	 * the same source root end up together; a package larger than
+	 * {@code shardBytes} makes up its own shard.
+	 *
+	 * @param files      the source files to partition
+	 * @param shardBytes the estimated heap footprint of a shard's model, in bytes
+	 * @return the shards, each holding at least one package
+	 * @throws IOException if the size of a file cannot be read
+	 * @see #buildShard(Collection, BooleanSupplier)
+	 */
+	public List<List<Path>> shard(Collection<Path> files, long shardBytes) throws IOException {
+		Objects.requireNonNull(files);
+
+		Map<Path, List<Path>> packages = files.stream()
+			.map(f -> f.toAbsolutePath().normalize())
+			.collect(Collectors.groupingBy(Path::getParent, TreeMap::new, Collectors.toList()));
+
+		List<List<Path>> shards = new ArrayList<>();
+		List<Path> shard = new ArrayList<>();
+		long bytes = 0;
+		for (List<Path> pkg : packages.values()) {
+			long pkgBytes = 0;
+			for (Path f : pkg)
+				pkgBytes += Files.size(f) * ClientScheduler.FOOTPRINT_FACTOR;
+
+			if (!shard.isEmpty() && bytes + pkgBytes > shardBytes) {
+				shards.add(shard);
+				shard = new ArrayList<>();
+				bytes = 0;
+			}
+
+			shard.addAll(pkg);
+			bytes += pkgBytes;
+		}
+
+		if (!shard.isEmpty())
+			shards.add(shard);
+
+		logger.info("Sharded {} into {} shards [files={}, shardBytes={}]", this, shards.size(), files.size(), shardBytes);
+		return shards;
+	}
+
+	/**
+	 * Returns the directories the packages of this directory's source files
+	 * start from, e.g., {@code src/main/java} and {@code src/test/java}. The
+	 * package of each directory is read from the declaration of one of its
+	 * source files.
+	 *
+	 * @throws IOException if the directory cannot be walked
+	 */
+	public Set<Path> getSourceRoots() throws IOException {
+		Set<Path> roots = new HashSet<>();
+		Map<Path, Path> directories = new HashMap<>();
+		getSourceFiles().forEach(f -> directories.putIfAbsent(f.toAbsolutePath().normalize().getParent(), f));
+
+		for (Map.Entry<Path, Path> directory : directories.entrySet()) {
+			String pkg = packageOf(directory.getValue());
+			Path root = directory.getKey();
+			if (pkg == null || (!pkg.isEmpty() && !root.endsWith(pkg.replace('.', '/'))))
+				continue;
+
+			int depth = pkg.isEmpty() ? 0 : pkg.split("\\.").length;
+			for (int i = 0; i < depth; i++)
+				root = root.getParent();
+			roots.add(root);
+		}
+
+		return roots;
+	}
+
+	/**
+	 * Returns the package declared in {@code file}, the empty string for the
+	 * default package, or null if the file cannot be decoded
+	 */
+	private static String packageOf(Path file) throws IOException {
+		try (Stream<String> lines = Files.lines(file)) {
+			return lines
+				.map(PACKAGE::matcher)
+				.filter(Matcher::find)
+				.map(m -> m.group(1))
+				.findFirst()
+				.orElse("");
+		} catch (UncheckedIOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the source files expected to declare the given top-level types,
+	 * i.e., the files named after a type within the directory of its package.
+	 * Top-level types declared in a file named otherwise aren't found.
+	 *
+	 * @param qualifiedNames the fully qualified names of the top-level types
+	 * @throws IOException if the directory cannot be walked
+	 */
+	public Set<Path> getTypeSources(Collection<String> qualifiedNames) throws IOException {
+		Objects.requireNonNull(qualifiedNames);
+
+		Map<Path, List<Path>> expected = qualifiedNames.stream()
+			.map(qn -> Path.of(qn.replace('.', '/') + ".java"))
+			.distinct()
+			.collect(Collectors.groupingBy(Path::getFileName));
+
+		return getSourceFiles().stream()
+			.filter(f -> expected.getOrDefault(f.getFileName(), List.of()).stream().anyMatch(f::endsWith))
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Returns all the Java source files in this directory
+	 *
+	 * @throws IOException if the directory cannot be walked
+	 */
+	public List<Path> getSourceFiles() throws IOException {
+		try (Stream<Path> files = Files.walk(location)) {
+			return files
+				.filter(f -> f.toString().endsWith(".java") && Files.isRegularFile(f))
+				.toList();
+		}
+	}
+
+	/**
+	 * Returns the given source {@code files} along with all the other source
+	 * files of their package (i.e., in the same directory)
+	 *
+	 * @throws IOException if a directory cannot be listed
+	 */
+	public Set<Path> withPackageNeighbors(Collection<Path> files) throws IOException {
+		Set<Path> res = new HashSet<>(files);
+
+		for (Path pkg : files.stream().map(Path::getParent).collect(Collectors.toSet())) {
+			try (Stream<Path> neighbors = Files.list(pkg)) {
+				neighbors
+					.filter(f -> f.toString().endsWith(".java") && Files.isRegularFile(f))
+					.forEach(res::add);
+			}
+		}
+
+		return res;
+	}
+
+	/**
+	 * Returns, for each source file of this directory, the other source files
+	 * it may depend on, transitively. A file depends on the files named after
+	 * a type whose simple name it spells out as a whole identifier, i.e., the
+	 * files declaring the client types it may reference, extend or implement.
+	 * Like {@link #prescreen(Collection)}, this over-approximates the actual
+	 * dependencies without parsing any file.
+	 *
+	 * @return the dependencies of each file, as returned by {@link #getSourceFiles()}
+	 * @throws IOException if the source files cannot be read
+	 */
+	public Map<Path, Set<Path>> getDependencyClosures() throws IOException {
 		Stopwatch sw = Stopwatch.createStarted();
+		List<Path> files = getSourceFiles().stream().sorted().toList();
+
+		Map<String, BitSet> filesByName = new HashMap<>();
+		for (int i = 0; i < files.size(); i++) {
+			String name = files.get(i).getFileName().toString();
+			filesByName.computeIfAbsent(name.substring(0, name.length() - ".java".length()), k -> new BitSet()).set(i);
+		}
+
+		AhoCorasickMatcher matcher = new AhoCorasickMatcher(filesByName.keySet());
+		BitSet[] closures = new BitSet[files.size()];
+		for (int i = 0; i < files.size(); i++) {
+			closures[i] = new BitSet(files.size());
+			for (String name : matcher.matchingPatterns(files.get(i)))
+				closures[i].or(filesByName.get(name));
+		}
+
+		// Merging the closures of dependencies until the fixpoint
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (BitSet closure : closures) {
+				BitSet merged = (BitSet) closure.clone();
+				closure.stream().forEach(j -> merged.or(closures[j]));
+				if (!merged.equals(closure)) {
+					closure.or(merged);
+					changed = true;
+				}
+			}
+		}
+
+		Map<Path, Set<Path>> res = new HashMap<>();
+		for (int i = 0; i < files.size(); i++) {
+			closures[i].clear(i);
+			res.put(files.get(i), asPathSet(closures[i], files));
+		}
+
+		logger.info("Dependencies of {} computed in {}ms [files={}]", this, sw.elapsed().toMillis(), files.size());
+		return res;
+	}
+
+	/**
+	 * Returns a read-only view of the {@code files} whose index is set in
+	 * {@code bits}: closures can hold most of a client's files
+	 */
+	private static Set<Path> asPathSet(BitSet bits, List<Path> files) {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Path> iterator() {
+				return bits.stream().mapToObj(files::get).iterator();
+			}
+
+			@Override
+			public int size() {
+				return bits.cardinality();
+			}
+		};
+	}
+
+	private Launcher createLauncher(BooleanSupplier cancelled, Collection<Path> sourceRoots) {
 		Launcher launcher;
 
 		// Attempting to get the proper source folders to analyze
@@ -57,19 +433,72 @@ public class SourcesDirectory {
 		// Ignore files with syntax/JLS violations and proceed
 		launcher.getEnvironment().setIgnoreSyntaxErrors(true);
 
-		// Only classpath we care about is what's given to us
-		String[] cp = classpath.stream().map(p -> p.toAbsolutePath().toString()).toList().toArray(new String[0]);
+		// Only classpath we care about is what's given to us, along with our own source roots, if any
+		String[] cp = Stream.concat(classpath.stream(), sourceRoots.stream())
+			.map(p -> p.toAbsolutePath().toString())
+			.toArray(String[]::new);
 		launcher.getEnvironment().setSourceClasspath(cp);
 
-		CtModel spoonModel = launcher.buildModel();
-		logger.info("Building Spoon model for {} [classpath={}] took {}ms", this, classpath, sw.elapsed().toMillis());
-		return spoonModel;
+		// Input units are filtered while they are selected, before JDT compiles anything:
+		// the last chance to bail out until the model is built
+		((JDTBasedSpoonCompiler) launcher.getModelBuilder()).addCompilationUnitFilter(path -> {
+			checkCancelled(cancelled);
+			return false;
+		});
+
+		return launcher;
+	}
+
+	private void commitEvent(ModelBuildEvent event, CtModel model) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.location = location.toString();
+			event.kind = ModelBuildEvent.SOURCE;
+			event.files = model.getRootPackage().getFactory().CompilationUnit().getMap().size();
+			event.inputSize = model.getRootPackage().getFactory().CompilationUnit().getMap().values().stream()
+				.filter(cu -> cu.getFile() != null)
+				.mapToLong(cu -> cu.getFile().length())
+				.sum();
+			event.commit();
+		}
+	}
+
+	private void checkCancelled(BooleanSupplier cancelled) {
+		if (cancelled.getAsBoolean())
+			throw new CancellationException("Building the model of " + this + " was cancelled");
+	}
+
+	static Path realPath(Path p) {
+		try {
+			return p.toRealPath();
+		} catch (IOException e) {
+			return p.toAbsolutePath().normalize();
+		}
 	}
 
 	public Path getLocation() {
 		return location;
 	}
 
+	/**
+	 * Returns the directory the packages of the main sources start from:
+	 * {@code src/main/java} for the Maven and Gradle projects that have one,
+	 * this directory otherwise
+	 */
+	public Path getSourceRoot() {
+		Path main = location.resolve("src/main/java");
+		boolean project = Files.exists(location.resolve("pom.xml")) || Files.exists(location.resolve("build.gradle"));
+		return project && Files.isDirectory(main) ? main : location;
+	}
+
+	/**
+	 * Returns whether {@code file} lies within this directory
+	 */
+	public boolean contains(Path file) {
+		return realPath(file).startsWith(realPath(location));
+	}
+
 	@Override
 	public String toString() {
 		return String.format("SourceDirectory %s", location);
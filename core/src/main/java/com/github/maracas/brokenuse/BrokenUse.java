@@ -60,9 +60,9 @@ public record BrokenUse(
 	@Override
 	public int hashCode() {
 		// CtElement::equals/hashCode() do not check the position
+		// Consistent with equals(): only positions, use, and change matter
 		return Objects.hash(
 			element.getPosition().toString(),
-			element.getShortRepresentation(),
 			usedApiElement.getPosition().toString(),
 			source.getPosition().toString(),
 			use,
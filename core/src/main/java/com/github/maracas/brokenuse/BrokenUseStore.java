@@ -0,0 +1,259 @@
+package com.github.maracas.brokenuse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.delta.BreakingChange;
+import com.github.maracas.delta.Delta;
+import com.github.maracas.util.PortablePosition;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import japicmp.model.JApiCompatibilityChange;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import spoon.reflect.code.CtCodeSnippetExpression;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtReference;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A persistent store of the broken uses detected in each client source file.
+ * <p>
+ * Results are keyed by the hash of the file's content, the hash of the client
+ * files it may depend on (see {@link SourcesDirectory#getDependencyClosures()}),
+ * and the hash of the breaking changes relevant to them (see
+ * {@link #key(HashCode, Collection, Collection)}). As long as all are
+ * unchanged, the stored broken uses can be reused without parsing the file
+ * again. Reused broken uses point to placeholder elements that carry the
+ * original source positions and textual representations, and to the actual
+ * references of the current {@link Delta}.
+ */
+public class BrokenUseStore {
+	/**
+	 * Version of the on-disk format; entries with another version are ignored
+	 */
+	static final int FORMAT_VERSION = 2;
+
+	private final Path directory;
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private static final Logger logger = LogManager.getLogger(BrokenUseStore.class);
+
+	/**
+	 * Creates a store persisting its entries in {@code directory}
+	 *
+	 * @param directory the directory holding the entries, created lazily
+	 */
+	public BrokenUseStore(Path directory) {
+		this.directory = Objects.requireNonNull(directory).toAbsolutePath();
+	}
+
+	/**
+	 * Computes the hash identifying a client source file in keys: that of its
+	 * path and content
+	 *
+	 * @param file the client source file
+	 * @return the corresponding hash
+	 * @throws IOException if the file cannot be read
+	 */
+	public static HashCode hash(Path file) throws IOException {
+		return Hashing.sha256().newHasher()
+			.putString(file.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8)
+			.putBytes(com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).asBytes())
+			.hash();
+	}
+
+	/**
+	 * Computes the key under which the results for {@code file} are stored
+	 *
+	 * @param file         the hash of the client source file (see {@link #hash(Path)})
+	 * @param dependencies the hashes of the client files it may depend on
+	 * @param relevant     the breaking changes that may impact the file or its dependencies
+	 * @return the corresponding key
+	 */
+	public static String key(HashCode file, Collection<HashCode> dependencies, Collection<BreakingChange> relevant) {
+		Hasher hasher = Hashing.sha256().newHasher()
+			.putInt(FORMAT_VERSION)
+			.putBytes(file.asBytes())
+			.putInt(dependencies.size());
+		if (!dependencies.isEmpty())
+			hasher.putBytes(Hashing.combineUnordered(dependencies).asBytes());
+
+		relevant.stream()
+			.map(BrokenUseStore::describe)
+			.sorted()
+			.forEach(bc -> hasher.putString(bc, StandardCharsets.UTF_8));
+
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Returns the broken uses stored for {@code file} under {@code key}
+	 *
+	 * @param client       the client {@code file} belongs to
+	 * @param file         the client source file
+	 * @param key          the expected key (see {@link #key(HashCode, Collection, Collection)})
+	 * @param delta        the delta the broken uses' sources are resolved against
+	 * @param placeholders the factory used to create placeholder elements
+	 * @return the stored broken uses, or null if there is no up-to-date entry
+	 */
+	public Set<BrokenUse> load(SourcesDirectory client, Path file, String key, Delta delta, Factory placeholders) {
+		Path entry = entry(client, file);
+		if (!Files.exists(entry))
+			return null;
+
+		try {
+			StoredFile stored = mapper.readValue(entry.toFile(), StoredFile.class);
+			if (stored.version() != FORMAT_VERSION || !stored.key().equals(key))
+				return null;
+
+			Map<String, CtReference> sources = new HashMap<>();
+			delta.getBreakingChanges().forEach(bc ->
+				sources.put(bc.getChange() + " " + bc.getReference(), bc.getReference()));
+
+			Map<String, int[]> lineSeparators = new HashMap<>();
+			Set<BrokenUse> uses = new HashSet<>();
+			for (StoredBrokenUse sbu : stored.brokenUses()) {
+				CtReference source = sources.get(sbu.change() + " " + sbu.source());
+				if (source == null)
+					return null;
+
+				uses.add(new BrokenUse(
+					placeholder(placeholders, sbu.element(), sbu.elementLabel(), lineSeparators),
+					placeholder(placeholders, sbu.usedApiElement(), sbu.usedApiLabel(), lineSeparators),
+					source,
+					sbu.use(),
+					sbu.change()
+				));
+			}
+
+			return uses;
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't read stored broken uses for {}: {}", file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the broken uses detected in {@code file} under {@code key}
+	 *
+	 * @param client the client {@code file} belongs to
+	 * @param file   the client source file
+	 * @param key    the key (see {@link #key(HashCode, Collection, Collection)})
+	 * @param uses   the broken uses detected in {@code file}
+	 */
+	public void save(SourcesDirectory client, Path file, String key, Collection<BrokenUse> uses) {
+		Path entry = entry(client, file);
+
+		try {
+			List<StoredBrokenUse> stored = uses.stream().map(bu -> new StoredBrokenUse(
+				PortablePosition.of(bu.element()),
+				label(bu.element()),
+				PortablePosition.of(bu.usedApiElement()),
+				label(bu.usedApiElement()),
+				bu.source().toString(),
+				bu.use(),
+				bu.change()
+			)).toList();
+
+			Files.createDirectories(entry.getParent());
+			Path tmp = Files.createTempFile(entry.getParent(), "uses", ".tmp");
+			mapper.writeValue(tmp.toFile(), new StoredFile(FORMAT_VERSION, key, stored));
+			Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't store broken uses for {}: {}", file, e);
+		}
+	}
+
+	private Path entry(SourcesDirectory client, Path file) {
+		String clientKey = Hashing.sha256().hashString(client.getLocation().toString(), StandardCharsets.UTF_8).toString();
+		String fileKey = Hashing.sha256().hashString(file.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8).toString();
+		return directory.resolve(clientKey).resolve(fileKey + ".json");
+	}
+
+	private static String describe(BreakingChange bc) {
+		return bc.getChange() + " " + bc.getReference();
+	}
+
+	/**
+	 * Returns a copy of {@code bu} whose elements are placeholders, as for
+	 * reused broken uses: it no longer refers to the client's model
+	 *
+	 * @param bu             the broken use
+	 * @param placeholders   the factory used to create placeholder elements
+	 * @param lineSeparators the line separators of the source files, computed lazily
+	 * @return the placeholder broken use
+	 * @throws IOException if the source file of one of its elements cannot be read
+	 */
+	public static BrokenUse toPlaceholder(BrokenUse bu, Factory placeholders, Map<String, int[]> lineSeparators)
+		throws IOException {
+		return new BrokenUse(
+			placeholder(placeholders, PortablePosition.of(bu.element()), label(bu.element()), lineSeparators),
+			placeholder(placeholders, PortablePosition.of(bu.usedApiElement()), label(bu.usedApiElement()), lineSeparators),
+			bu.source(),
+			bu.use(),
+			bu.change()
+		);
+	}
+
+	private static String label(CtElement element) {
+		return element instanceof CtNamedElement named ? named.getSimpleName() : element.toString();
+	}
+
+	private static CtElement placeholder(Factory factory, PortablePosition pos, String label,
+	                                     Map<String, int[]> lineSeparators) throws IOException {
+		CtCodeSnippetExpression<?> element = factory.Code().createCodeSnippetExpression(label);
+		SourcePosition sp = pos != null ? pos.toSourcePosition(factory, lineSeparators) : null;
+		element.setPosition(sp != null ? sp : SourcePosition.NOPOSITION);
+		return element;
+	}
+
+	/**
+	 * The broken uses stored for a client source file
+	 *
+	 * @param version    the version of the format
+	 * @param key        the key of the file's content and relevant breaking changes
+	 * @param brokenUses the broken uses detected in the file
+	 */
+	record StoredFile(
+		int version,
+		String key,
+		List<StoredBrokenUse> brokenUses
+	) {}
+
+	/**
+	 * The portable form of a {@link BrokenUse}
+	 *
+	 * @param element        the position of the impacted element
+	 * @param elementLabel   the textual representation of the impacted element
+	 * @param usedApiElement the position of the used API element, if any
+	 * @param usedApiLabel   the textual representation of the used API element
+	 * @param source         the reference affected by the breaking change
+	 * @param use            the kind of use
+	 * @param change         the kind of breaking change
+	 */
+	record StoredBrokenUse(
+		PortablePosition element,
+		String elementLabel,
+		PortablePosition usedApiElement,
+		String usedApiLabel,
+		String source,
+		APIUse use,
+		JApiCompatibilityChange change
+	) {}
+}
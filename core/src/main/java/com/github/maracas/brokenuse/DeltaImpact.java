@@ -1,7 +1,10 @@
 package com.github.maracas.brokenuse;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.github.maracas.SourcesDirectory;
 import com.github.maracas.delta.Delta;
+import com.github.maracas.visitors.VisitorProfile;
 
 import java.util.Collections;
 import java.util.Objects;
@@ -10,18 +13,29 @@ import java.util.Set;
 /**
  * A delta impact lists the broken uses detected in a client project after computing
  * the delta model between two versions of a library. Broken uses are represented
- * as a set of {@link BrokenUse} instances.
+ * as a set of {@link BrokenUse} instances or, once the impact is detached from the
+ * client's Spoon model (see {@link #detach()}), as a set of {@link DetachedBrokenUse}.
  *
- * @param client     the analyzed client
- * @param delta      the potentially impacting {@link Delta} model
- * @param brokenUses the set of {@link BrokenUse} detected in the client
- * @param throwable  the {@link Throwable} we got in case the analysis failed
+ * @param client             the analyzed client
+ * @param delta              the potentially impacting {@link Delta} model
+ * @param brokenUses         the set of {@link BrokenUse} detected in the client, empty once detached
+ * @param detachedBrokenUses the set of {@link DetachedBrokenUse} detected in the client, null unless detached
+ * @param throwable          the {@link Throwable} we got in case the analysis failed
+ * @param profile            the profile of the visitors that scanned the client, null unless requested
+ *                           (see {@link com.github.maracas.MaracasOptions#setProfileVisitors(boolean)})
+ * @param statistics         where the time and memory went while analyzing the client, null if the analysis failed
  */
 public record DeltaImpact(
 	SourcesDirectory client,
 	Delta delta,
 	Set<BrokenUse> brokenUses,
-	Throwable throwable
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	Set<DetachedBrokenUse> detachedBrokenUses,
+	Throwable throwable,
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	VisitorProfile profile,
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	ImpactStatistics statistics
 ) {
 	public DeltaImpact {
 		Objects.requireNonNull(client);
@@ -29,11 +43,71 @@ public record DeltaImpact(
 		Objects.requireNonNull(brokenUses);
 	}
 
+	public DeltaImpact(SourcesDirectory client, Delta delta, Set<BrokenUse> brokenUses, Throwable throwable) {
+		this(client, delta, brokenUses, null, throwable, null, null);
+	}
+
 	public static DeltaImpact success(SourcesDirectory client, Delta delta, Set<BrokenUse> brokenUses) {
 		return new DeltaImpact(client, delta, brokenUses, null);
 	}
 
+	/**
+	 * Creates a successful {@link DeltaImpact} that doesn't retain any Spoon element of the client
+	 */
+	public static DeltaImpact detached(SourcesDirectory client, Delta delta, Set<DetachedBrokenUse> brokenUses) {
+		return new DeltaImpact(client, delta, Collections.emptySet(), Objects.requireNonNull(brokenUses), null, null, null);
+	}
+
 	public static DeltaImpact error(SourcesDirectory client, Delta delta, Throwable throwable) {
 		return new DeltaImpact(client, delta, Collections.emptySet(), throwable);
 	}
+
+	/**
+	 * Returns a copy of this impact holding {@link DetachedBrokenUse} instead of
+	 * {@link BrokenUse}, so that the client's Spoon model can be garbage-collected
+	 */
+	public DeltaImpact detach() {
+		if (isDetached())
+			return this;
+		return new DeltaImpact(client, delta, Collections.emptySet(), DetachedBrokenUse.of(brokenUses), throwable, profile,
+			statistics);
+	}
+
+	/**
+	 * Returns a copy of this impact with the given visitors' profile attached
+	 */
+	public DeltaImpact withProfile(VisitorProfile profile) {
+		return new DeltaImpact(client, delta, brokenUses, detachedBrokenUses, throwable, profile, statistics);
+	}
+
+	/**
+	 * Returns a copy of this impact with the given statistics attached
+	 */
+	public DeltaImpact withStatistics(ImpactStatistics statistics) {
+		return new DeltaImpact(client, delta, brokenUses, detachedBrokenUses, throwable, profile, statistics);
+	}
+
+	/**
+	 * Whether this impact holds {@link DetachedBrokenUse} rather than {@link BrokenUse}
+	 */
+	@JsonIgnore
+	public boolean isDetached() {
+		return detachedBrokenUses != null;
+	}
+
+	/**
+	 * Returns the detached form of the broken uses, whether this impact is detached or not
+	 */
+	@JsonIgnore
+	public Set<DetachedBrokenUse> allDetachedBrokenUses() {
+		return isDetached() ? detachedBrokenUses : DetachedBrokenUse.of(brokenUses);
+	}
+
+	/**
+	 * Whether at least one broken use was detected in the client
+	 */
+	@JsonIgnore
+	public boolean isBroken() {
+		return !brokenUses.isEmpty() || (isDetached() && !detachedBrokenUses.isEmpty());
+	}
 }
@@ -0,0 +1,186 @@
+package com.github.maracas.brokenuse;
+
+import com.github.maracas.util.SpoonHelpers;
+import japicmp.model.JApiCompatibilityChange;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtNamedElement;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link BrokenUse} detached from the Spoon models it was detected in.
+ * <p>
+ * It only holds the location of the impacted element, the textual
+ * representation of the impacted and used elements, and the qualified name
+ * of the source of the breaking change. Unlike {@link BrokenUse}, it doesn't
+ * keep the client's model reachable, and its hash is computed once.
+ */
+public final class DetachedBrokenUse {
+	private final String file;
+	private final int line;
+	private final int column;
+	private final int endLine;
+	private final int endColumn;
+	private final String element;
+	private final String usedApiElement;
+	private final String source;
+	private final APIUse use;
+	private final JApiCompatibilityChange change;
+	private final int hash;
+
+	/**
+	 * @param file           the absolute path to the file of the impacted element, or null if unknown
+	 * @param line           the first line of the impacted element, or -1 if unknown
+	 * @param column         the first column of the impacted element, or -1 if unknown
+	 * @param endLine        the last line of the impacted element, or -1 if unknown
+	 * @param endColumn      the last column of the impacted element, or -1 if unknown
+	 * @param element        the textual representation of the impacted element
+	 * @param usedApiElement the textual representation of the used API element
+	 * @param source         the fully qualified name of the declaration affected by the breaking change
+	 * @param use            the kind of use
+	 * @param change         the kind of breaking change
+	 */
+	public DetachedBrokenUse(String file, int line, int column, int endLine, int endColumn, String element,
+	                         String usedApiElement, String source, APIUse use, JApiCompatibilityChange change) {
+		this.file = file;
+		this.line = line;
+		this.column = column;
+		this.endLine = endLine;
+		this.endColumn = endColumn;
+		this.element = Objects.requireNonNull(element);
+		this.usedApiElement = Objects.requireNonNull(usedApiElement);
+		this.source = Objects.requireNonNull(source);
+		this.use = Objects.requireNonNull(use);
+		this.change = change;
+		this.hash = Objects.hash(file, line, column, endLine, endColumn, usedApiElement, source, use, change);
+	}
+
+	/**
+	 * Detaches {@code bu} from its Spoon models
+	 */
+	public static DetachedBrokenUse of(BrokenUse bu) {
+		SourcePosition pos = bu.element().getPosition();
+		boolean valid = pos != null && pos.isValidPosition() && pos.getFile() != null;
+
+		return new DetachedBrokenUse(
+			valid ? pos.getFile().getAbsolutePath() : null,
+			valid ? pos.getLine() : -1,
+			valid ? pos.getColumn() : -1,
+			valid ? pos.getEndLine() : -1,
+			valid ? pos.getEndColumn() : -1,
+			label(bu.element()),
+			label(bu.usedApiElement()),
+			SpoonHelpers.fullyQualifiedName(bu.source()),
+			bu.use(),
+			bu.change()
+		);
+	}
+
+	/**
+	 * Detaches every broken use in {@code brokenUses} from its Spoon models
+	 */
+	public static Set<DetachedBrokenUse> of(Collection<BrokenUse> brokenUses) {
+		return brokenUses.stream()
+			.map(DetachedBrokenUse::of)
+			.collect(Collectors.toUnmodifiableSet());
+	}
+
+	private static String label(CtElement element) {
+		return element instanceof CtNamedElement named ? named.getSimpleName() : element.toString();
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public int getColumn() {
+		return column;
+	}
+
+	public int getEndLine() {
+		return endLine;
+	}
+
+	public int getEndColumn() {
+		return endColumn;
+	}
+
+	public String getElement() {
+		return element;
+	}
+
+	public String getUsedApiElement() {
+		return usedApiElement;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public APIUse getUse() {
+		return use;
+	}
+
+	public JApiCompatibilityChange getChange() {
+		return change;
+	}
+
+	/**
+	 * Whether the location of the impacted element is known
+	 */
+	public boolean hasLocation() {
+		return file != null;
+	}
+
+	@Override
+	public String toString() {
+		return """
+			[%s]
+			    Element: %s (%s:%d)
+			    Used:    %s
+			    Source:  %s
+			    Use:     %s
+			""".formatted(
+			change,
+			element,
+			file != null ? Path.of(file).getFileName().toString() : "unknown",
+			line,
+			usedApiElement,
+			source,
+			use
+		);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object that) {
+		if (this == that)
+			return true;
+		if (that == null || getClass() != that.getClass())
+			return false;
+		DetachedBrokenUse other = (DetachedBrokenUse) that;
+		return hash == other.hash
+			&& line == other.line
+			&& column == other.column
+			&& endLine == other.endLine
+			&& endColumn == other.endColumn
+			&& Objects.equals(file, other.file)
+			&& usedApiElement.equals(other.usedApiElement)
+			&& source.equals(other.source)
+			&& use == other.use
+			&& change == other.change;
+	}
+}
@@ -0,0 +1,28 @@
+package com.github.maracas.brokenuse;
+
+/**
+ * Where the time and memory went while computing a {@link DeltaImpact}.
+ * Durations are in milliseconds.
+ *
+ * @param modelMillis         time spent building the client's Spoon model
+ * @param scanMillis          time spent scanning the model for broken uses
+ * @param files               number of source files in the client's model
+ * @param elements            number of model elements the scan went through
+ * @param estimatedModelBytes rough estimate of the heap size of the client's model, in bytes
+ */
+public record ImpactStatistics(
+	long modelMillis,
+	long scanMillis,
+	int files,
+	long elements,
+	long estimatedModelBytes
+) {
+	public static final ImpactStatistics EMPTY = new ImpactStatistics(0, 0, 0, 0, 0);
+
+	/**
+	 * Returns the total time spent computing the impact, in milliseconds
+	 */
+	public long totalMillis() {
+		return modelMillis + scanMillis;
+	}
+}
@@ -0,0 +1,476 @@
+package com.github.maracas.brokenuse;
+
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.util.PortablePosition;
+import com.github.maracas.util.SpoonHelpers;
+import com.github.maracas.visitors.BreakingChangeVisitor;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtCodeSnippetExpression;
+import spoon.reflect.code.CtConstructorCall;
+import spoon.reflect.code.CtFieldWrite;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.cu.position.NoSourcePosition;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtFieldReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.CtScanner;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The uses a client makes of the types and members it doesn't declare: type
+ * references (including extends, implements and imports), invocations, field
+ * accesses and writes, instantiations and method overrides, each with the
+ * position and textual representation of the using and used elements.
+ * <p>
+ * The index is extracted once from a client's Spoon model (see
+ * {@link #extract(CtModel, MaracasOptions)}) and written to a compact binary
+ * file that is memory-mapped when read back: only the directory of symbols is
+ * decoded upfront, usages and strings are decoded on lookup. Visitors that
+ * only match the symbols they look for (see
+ * {@link BreakingChangeVisitor#visitIndex(UsageIndex)}) can then detect their
+ * broken uses without building the client's model again. Uses of the JDK's
+ * types and members aren't recorded (see {@link #isIndexed(String)}).
+ */
+public final class UsageIndex {
+	/**
+	 * Version of the on-disk format; files with another version are ignored
+	 */
+	static final int FORMAT_VERSION = 1;
+
+	private static final int MAGIC = 0x4D555849;
+	private static final int USAGE_SIZE = 9 * Integer.BYTES;
+	private static final List<String> UNINDEXED_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+	private final ByteBuffer buffer;
+	private final int stringsOffset;
+	private final int usagesOffset;
+	private final Map<String, int[]> symbols;
+	private final Map<String, int[]> lineSeparators = new HashMap<>();
+	private Factory placeholders;
+
+	/**
+	 * The kinds of uses recorded in the index, and the symbols they are recorded under
+	 */
+	public enum Kind {
+		/**
+		 * Type references, under the type's qualified name
+		 */
+		TYPE_REFERENCE,
+		/**
+		 * Field references, under {@link #memberKey(String, String)} of the field's name
+		 */
+		FIELD_REFERENCE,
+		/**
+		 * Field writes, under {@link #memberKey(String, String)} of the field's name
+		 */
+		FIELD_WRITE,
+		/**
+		 * Invocations, under {@link #memberKey(String, String)} of the executable's signature
+		 */
+		INVOCATION,
+		/**
+		 * Constructor calls, under the instantiated type's qualified name
+		 */
+		INSTANTIATION,
+		/**
+		 * Methods overriding a method of a type the client doesn't declare, under
+		 * {@link #memberKey(String, String)} of the overridden method's signature
+		 */
+		OVERRIDE
+	}
+
+	/**
+	 * A use recorded in the index
+	 *
+	 * @param element        the position of the using element, if known
+	 * @param elementLabel   the textual representation of the using element
+	 * @param usedApiElement the position of the used element, if known
+	 * @param usedApiLabel   the textual representation of the used element
+	 * @param use            the kind of use, or null if it couldn't be determined
+	 */
+	public record Usage(
+		PortablePosition element,
+		String elementLabel,
+		PortablePosition usedApiElement,
+		String usedApiLabel,
+		APIUse use
+	) {}
+
+	private UsageIndex(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION)
+			throw new IOException("Not a usage index, or another version");
+
+		int stringCount = buffer.getInt(2 * Integer.BYTES);
+		this.stringsOffset = 3 * Integer.BYTES;
+		int symbolsOffset = buffer.getInt(stringsOffset + stringCount * Integer.BYTES);
+		int symbolCount = buffer.getInt(symbolsOffset);
+		this.usagesOffset = symbolsOffset + Integer.BYTES + symbolCount * 3 * Integer.BYTES;
+
+		this.symbols = new HashMap<>(symbolCount * 2);
+		for (int i = 0; i < symbolCount; i++) {
+			int offset = symbolsOffset + Integer.BYTES + i * 3 * Integer.BYTES;
+			symbols.put(string(buffer.getInt(offset)), new int[]{buffer.getInt(offset + Integer.BYTES),
+				buffer.getInt(offset + 2 * Integer.BYTES)});
+		}
+	}
+
+	/**
+	 * Memory-maps the index written in {@code file}
+	 *
+	 * @throws IOException if {@code file} cannot be read or isn't a usage index of the current version
+	 */
+	public static UsageIndex open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new UsageIndex(buffer);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated usage index " + file, e);
+		}
+	}
+
+	/**
+	 * Extracts the uses recorded in {@code model} and writes them to {@code file}
+	 *
+	 * @param model   the client's model, built with the library on its classpath
+	 * @param options Maracas' options; classes longer than {@link MaracasOptions#getMaxClassLines()} are skipped
+	 * @param file    the file the index is written to
+	 * @throws IOException if {@code file} cannot be written
+	 */
+	public static void extract(CtModel model, MaracasOptions options, Path file) throws IOException {
+		Extractor extractor = new Extractor(model, options);
+		extractor.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+		extractor.scan(model.getRootPackage());
+
+		try (OutputStream out = Files.newOutputStream(file)) {
+			extractor.write(out);
+		}
+	}
+
+	/**
+	 * Returns the uses of the given {@code kind} recorded under {@code symbol}
+	 */
+	public List<Usage> lookup(Kind kind, String symbol) {
+		int[] range = symbols.get(kind.ordinal() + ":" + symbol);
+		if (range == null)
+			return List.of();
+
+		List<Usage> usages = new ArrayList<>(range[1]);
+		for (int i = range[0]; i < range[0] + range[1]; i++) {
+			int offset = usagesOffset + i * USAGE_SIZE;
+			int use = buffer.getInt(offset + 8 * Integer.BYTES);
+			usages.add(new Usage(
+				position(buffer.getInt(offset), buffer.getInt(offset + Integer.BYTES), buffer.getInt(offset + 2 * Integer.BYTES)),
+				string(buffer.getInt(offset + 3 * Integer.BYTES)),
+				position(buffer.getInt(offset + 4 * Integer.BYTES), buffer.getInt(offset + 5 * Integer.BYTES), buffer.getInt(offset + 6 * Integer.BYTES)),
+				string(buffer.getInt(offset + 7 * Integer.BYTES)),
+				use >= 0 ? APIUse.values()[use] : null
+			));
+		}
+
+		return usages;
+	}
+
+	/**
+	 * Returns the symbols under which uses of the given {@code kind} are recorded
+	 */
+	public Set<String> symbols(Kind kind) {
+		String prefix = kind.ordinal() + ":";
+		return symbols.keySet().stream()
+			.filter(symbol -> symbol.startsWith(prefix))
+			.map(symbol -> symbol.substring(prefix.length()))
+			.collect(Collectors.toUnmodifiableSet());
+	}
+
+	/**
+	 * Whether the uses of the type {@code qualifiedName} and its members are
+	 * recorded in the index: those of the JDK's types aren't
+	 */
+	public static boolean isIndexed(String qualifiedName) {
+		return UNINDEXED_PACKAGES.stream().noneMatch(qualifiedName::startsWith);
+	}
+
+	/**
+	 * Returns the symbol members of {@code type} are recorded under
+	 *
+	 * @param type   the qualified name of the member's declaring type
+	 * @param member the signature of an executable or the name of a field
+	 */
+	public static String memberKey(String type, String member) {
+		return type + "#" + member;
+	}
+
+	/**
+	 * Creates an element standing for a recorded element: it carries its
+	 * position, computed from the source file's current content, and its
+	 * textual representation
+	 *
+	 * @throws UncheckedIOException if the source file cannot be read
+	 */
+	public CtElement placeholder(PortablePosition position, String label) {
+		if (placeholders == null)
+			placeholders = new Launcher().getFactory();
+
+		try {
+			CtCodeSnippetExpression<?> element = placeholders.Code().createCodeSnippetExpression(label);
+			SourcePosition sp = position != null ? position.toSourcePosition(placeholders, lineSeparators) : null;
+			element.setPosition(sp != null ? sp : SourcePosition.NOPOSITION);
+			return element;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private PortablePosition position(int file, int start, int end) {
+		return file >= 0 ? new PortablePosition(string(file), start, end) : null;
+	}
+
+	private String string(int index) {
+		int offset = buffer.getInt(stringsOffset + index * Integer.BYTES);
+		byte[] bytes = new byte[buffer.getInt(offset)];
+		buffer.get(offset + Integer.BYTES, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Records the uses of a client's model
+	 */
+	private static final class Extractor extends CtScanner {
+		private final Set<String> clientTypes = new HashSet<>();
+		private final MaracasOptions options;
+		private final Map<String, Integer> strings = new LinkedHashMap<>();
+		private final Map<String, List<int[]>> usages = new HashMap<>();
+
+		Extractor(CtModel model, MaracasOptions options) {
+			this.options = options;
+			Deque<CtType<?>> types = new ArrayDeque<>(model.getAllTypes());
+			while (!types.isEmpty()) {
+				CtType<?> type = types.pop();
+				clientTypes.add(type.getQualifiedName());
+				types.addAll(type.getNestedTypes());
+			}
+		}
+
+		@Override
+		public <T> void visitCtClass(CtClass<T> ctClass) {
+			// Same as CombinedVisitor
+			SourcePosition pos = ctClass.getPosition();
+			if (pos != null && pos.isValidPosition() && pos.getEndLine() - pos.getLine() > options.getMaxClassLines())
+				return;
+
+			super.visitCtClass(ctClass);
+		}
+
+		@Override
+		public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
+			// Breaking changes refer to types without type arguments
+			if (reference.getActualTypeArguments().isEmpty() && isLibraryType(reference.getQualifiedName())) {
+				APIUse use;
+				try {
+					use = BreakingChangeVisitor.apiUseByRole(reference);
+				} catch (RuntimeException e) {
+					use = null;
+				}
+				record(Kind.TYPE_REFERENCE, reference.getQualifiedName(), reference.getParent(), reference, use);
+			}
+
+			super.visitCtTypeReference(reference);
+		}
+
+		@Override
+		public <T> void visitCtFieldReference(CtFieldReference<T> reference) {
+			CtTypeReference<?> declaring = reference.getDeclaringType();
+			if (declaring != null && isLibraryType(declaring.getQualifiedName()))
+				record(Kind.FIELD_REFERENCE, memberKey(declaring.getQualifiedName(), reference.getSimpleName()),
+					reference, reference, APIUse.FIELD_ACCESS);
+
+			super.visitCtFieldReference(reference);
+		}
+
+		@Override
+		public <T> void visitCtFieldWrite(CtFieldWrite<T> fieldWrite) {
+			CtFieldReference<T> variable = fieldWrite.getVariable();
+			CtTypeReference<?> declaring = variable != null ? variable.getDeclaringType() : null;
+			if (declaring != null && isLibraryType(declaring.getQualifiedName()))
+				record(Kind.FIELD_WRITE, memberKey(declaring.getQualifiedName(), variable.getSimpleName()),
+					fieldWrite, variable, APIUse.FIELD_ACCESS);
+
+			super.visitCtFieldWrite(fieldWrite);
+		}
+
+		@Override
+		public <T> void visitCtInvocation(CtInvocation<T> invocation) {
+			CtExecutableReference<T> executable = invocation.getExecutable();
+			CtTypeReference<?> declaring = executable != null ? executable.getDeclaringType() : null;
+			if (declaring != null && isLibraryType(declaring.getQualifiedName()))
+				record(Kind.INVOCATION, memberKey(declaring.getQualifiedName(), executable.getSignature()),
+					invocation, executable, APIUse.METHOD_INVOCATION);
+
+			super.visitCtInvocation(invocation);
+		}
+
+		@Override
+		public <T> void visitCtConstructorCall(CtConstructorCall<T> call) {
+			CtTypeReference<T> type = call.getType();
+			if (type != null && type.getActualTypeArguments().isEmpty() && isLibraryType(type.getQualifiedName()))
+				record(Kind.INSTANTIATION, type.getQualifiedName(), call, type, APIUse.INSTANTIATION);
+
+			super.visitCtConstructorCall(call);
+		}
+
+		@Override
+		public <T> void visitCtMethod(CtMethod<T> m) {
+			CtType<?> declaring = m.getDeclaringType();
+			if (declaring != null) {
+				String signature = m.getSignature();
+
+				for (CtType<?> sup : librarySupertypes(declaring))
+					for (CtMethod<?> candidate : sup.getMethodsByName(m.getSimpleName()))
+						// Visitors look overridden methods up by signature first
+						if (candidate.getSignature().equals(signature) && m.isOverriding(candidate))
+							record(Kind.OVERRIDE, memberKey(sup.getQualifiedName(), signature), m, candidate,
+								APIUse.METHOD_OVERRIDE);
+			}
+
+			super.visitCtMethod(m);
+		}
+
+		/**
+		 * Returns the supertypes of {@code type}, direct or not, that the client doesn't declare
+		 */
+		private List<CtType<?>> librarySupertypes(CtType<?> type) {
+			List<CtType<?>> res = new ArrayList<>();
+			Set<String> visited = new HashSet<>();
+			Deque<CtTypeReference<?>> work = new ArrayDeque<>();
+			work.addAll(supertypes(type));
+
+			while (!work.isEmpty()) {
+				CtTypeReference<?> ref = work.pop();
+				if (!visited.add(ref.getQualifiedName()))
+					continue;
+
+				CtType<?> decl = ref.getTypeDeclaration();
+				if (decl == null)
+					continue;
+				if (isLibraryType(decl.getQualifiedName()))
+					res.add(decl);
+				work.addAll(supertypes(decl));
+			}
+
+			return res;
+		}
+
+		private static List<CtTypeReference<?>> supertypes(CtType<?> type) {
+			List<CtTypeReference<?>> res = new ArrayList<>(type.getSuperInterfaces());
+			if (type.getSuperclass() != null)
+				res.add(type.getSuperclass());
+			return res;
+		}
+
+		private boolean isLibraryType(String qualifiedName) {
+			return !clientTypes.contains(qualifiedName) && isIndexed(qualifiedName);
+		}
+
+		private void record(Kind kind, String symbol, CtElement element, CtElement usedApiElement, APIUse use) {
+			// Same as BreakingChangeVisitor#brokenUse()
+			CtElement located = element.getPosition() instanceof NoSourcePosition
+				? SpoonHelpers.firstLocatableParent(element)
+				: element;
+			PortablePosition elementPos = PortablePosition.of(located);
+			PortablePosition usedPos = PortablePosition.of(usedApiElement);
+
+			usages.computeIfAbsent(kind.ordinal() + ":" + symbol, k -> new ArrayList<>()).add(new int[]{
+				elementPos != null ? string(elementPos.file()) : -1,
+				elementPos != null ? elementPos.start() : -1,
+				elementPos != null ? elementPos.end() : -1,
+				string(located != null ? label(located) : label(element)),
+				usedPos != null ? string(usedPos.file()) : -1,
+				usedPos != null ? usedPos.start() : -1,
+				usedPos != null ? usedPos.end() : -1,
+				string(label(usedApiElement)),
+				use != null ? use.ordinal() : -1
+			});
+		}
+
+		private int string(String s) {
+			return strings.computeIfAbsent(s, k -> strings.size());
+		}
+
+		private static String label(CtElement element) {
+			return element instanceof CtNamedElement named ? named.getSimpleName() : element.toString();
+		}
+
+		/**
+		 * Writes the header, the string table (offsets, then length-prefixed
+		 * UTF-8 bytes), the symbol directory (symbol, first usage, number of
+		 * usages) and the fixed-size usages, grouped by symbol
+		 */
+		void write(OutputStream os) throws IOException {
+			usages.keySet().forEach(this::string);
+
+			List<byte[]> encoded = strings.keySet().stream().map(s -> s.getBytes(StandardCharsets.UTF_8)).toList();
+			int offset = 3 * Integer.BYTES + (encoded.size() + 1) * Integer.BYTES;
+
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(encoded.size());
+			for (byte[] bytes : encoded) {
+				out.writeInt(offset);
+				offset += Integer.BYTES + bytes.length;
+			}
+			// The symbol directory starts right after the strings
+			out.writeInt(offset);
+			for (byte[] bytes : encoded) {
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			out.writeInt(usages.size());
+			int first = 0;
+			for (Map.Entry<String, List<int[]>> e : usages.entrySet()) {
+				out.writeInt(strings.get(e.getKey()));
+				out.writeInt(first);
+				out.writeInt(e.getValue().size());
+				first += e.getValue().size();
+			}
+			for (List<int[]> symbolUsages : usages.values())
+				for (int[] usage : symbolUsages)
+					for (int field : usage)
+						out.writeInt(field);
+
+			out.flush();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.github.maracas.brokenuse;
+
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import spoon.reflect.CtModel;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A persistent store of the {@link UsageIndex} of each client.
+ * <p>
+ * Indexes are keyed by the client's location, the content of its source
+ * files and that of its build files (see {@link #key(SourcesDirectory, MaracasOptions)}),
+ * but not by the library the client is analyzed against: as long as the
+ * client's code and dependencies are unchanged, its index can be checked
+ * against any new delta without building the client's model.
+ */
+public class UsageIndexStore {
+	/**
+	 * The files declaring a client's own dependencies
+	 */
+	private static final List<String> BUILD_FILES = List.of("pom.xml", "build.gradle", "build.gradle.kts");
+
+	private final Path directory;
+
+	private static final Logger logger = LogManager.getLogger(UsageIndexStore.class);
+
+	/**
+	 * Creates a store persisting its indexes in {@code directory}
+	 *
+	 * @param directory the directory holding the indexes, created lazily
+	 */
+	public UsageIndexStore(Path directory) {
+		this.directory = Objects.requireNonNull(directory).toAbsolutePath();
+	}
+
+	/**
+	 * Computes the key under which the index of {@code client} is stored
+	 *
+	 * @param client  the client
+	 * @param options Maracas' options, some of which affect extraction
+	 * @return the corresponding key
+	 * @throws IOException if the client's files cannot be read
+	 */
+	public static String key(SourcesDirectory client, MaracasOptions options) throws IOException {
+		Hasher hasher = Hashing.sha256().newHasher()
+			.putInt(UsageIndex.FORMAT_VERSION)
+			.putInt(options.getMaxClassLines())
+			.putString(client.getLocation().toString(), StandardCharsets.UTF_8);
+
+		List<Path> files = client.getSourceFiles().stream().sorted().toList();
+		for (Path file : files)
+			hasher.putString(file.toString(), StandardCharsets.UTF_8).putBytes(contentHash(file));
+
+		// The client's own dependencies, but not the library it is analyzed against (its classpath):
+		// the same index answers the impact of every new delta
+		for (String buildFile : BUILD_FILES) {
+			Path file = client.getLocation().resolve(buildFile);
+			if (Files.isRegularFile(file))
+				hasher.putString(buildFile, StandardCharsets.UTF_8).putBytes(contentHash(file));
+		}
+
+		return hasher.hash().toString();
+	}
+
+	private static byte[] contentHash(Path file) throws IOException {
+		return com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).asBytes();
+	}
+
+	/**
+	 * Returns the index stored under {@code key}
+	 *
+	 * @param key the key (see {@link #key(SourcesDirectory, MaracasOptions)})
+	 * @return the memory-mapped index, or null if there is none
+	 */
+	public UsageIndex load(String key) {
+		Path entry = entry(key);
+		if (!Files.exists(entry))
+			return null;
+
+		try {
+			return UsageIndex.open(entry);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't read usage index {}: {}", entry, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Extracts the index of {@code model} and stores it under {@code key}
+	 *
+	 * @param key     the key (see {@link #key(SourcesDirectory, MaracasOptions)})
+	 * @param model   the client's model
+	 * @param options Maracas' options
+	 * @return the memory-mapped index, or null if it couldn't be stored
+	 */
+	public UsageIndex save(String key, CtModel model, MaracasOptions options) {
+		Path entry = entry(key);
+
+		try {
+			Files.createDirectories(directory);
+			Path tmp = Files.createTempFile(directory, "usages", ".tmp");
+			UsageIndex.extract(model, options, tmp);
+			Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return UsageIndex.open(entry);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't store usage index {}: {}", entry, e);
+			return null;
+		}
+	}
+
+	private Path entry(String key) {
+		return directory.resolve(key + ".idx");
+	}
+}
@@ -0,0 +1,698 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.util.TypeIndex;
+import com.google.common.base.Stopwatch;
+import japicmp.model.AccessModifier;
+import japicmp.model.JApiCompatibilityChange;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.InnerClassesAttribute;
+import javassist.bytecode.MethodInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static japicmp.model.JApiCompatibilityChange.*;
+
+/**
+ * Computes the changes between two versions of a library's JAR straight from
+ * their class files, as an alternative to JApiCmp.
+ * <p>
+ * JApiCmp loads both JARs in Javassist {@code ClassPool}s and builds an object
+ * graph for every class, member and modifier before comparing them. Here, each
+ * class file is parsed once into a summary of its API (access flags, supertypes,
+ * and non-synthetic fields, constructors and methods), without any class pool,
+ * and the summaries of the two versions are compared class by class, in
+ * parallel. The hierarchy of supertypes that aren't part of the JARs is read
+ * from the headers of their class files, on the classpath first, then in the JDK.
+ * <p>
+ * Only the kinds of changes in {@link #SUPPORTED_CHANGES} are reported; they
+ * follow JApiCmp's semantics. Like {@link JApiCmpDeltaFilter}, anonymous
+ * classes and new classes are ignored. The kinds of breaking changes JApiCmp
+ * reports that this engine never produces are listed in
+ * {@link #UNSUPPORTED_CHANGES}:
+ * <ul>
+ *   <li>those about checked exceptions: {@code CLASS_NOW_CHECKED_EXCEPTION},
+ *   {@code METHOD_NOW_THROWS_CHECKED_EXCEPTION},
+ *   {@code METHOD_NO_LONGER_THROWS_CHECKED_EXCEPTION};</li>
+ *   <li>those about generics: {@code CLASS_GENERIC_TEMPLATE_CHANGED},
+ *   {@code CLASS_GENERIC_TEMPLATE_GENERICS_CHANGED},
+ *   {@code METHOD_PARAMETER_GENERICS_CHANGED},
+ *   {@code METHOD_RETURN_TYPE_GENERICS_CHANGED}, {@code FIELD_GENERICS_CHANGED};</li>
+ *   <li>those about default and abstract methods: {@code METHOD_ABSTRACT_ADDED_TO_CLASS},
+ *   {@code METHOD_NEW_DEFAULT}, {@code METHOD_ABSTRACT_NOW_DEFAULT};</li>
+ *   <li>those about varargs: {@code METHOD_NOW_VARARGS}, {@code METHOD_NO_LONGER_VARARGS};</li>
+ *   <li>and {@code CLASS_TYPE_CHANGED}, {@code METHOD_MOVED_TO_SUPERCLASS},
+ *   {@code METHOD_IS_STATIC_AND_OVERRIDES_NOT_STATIC},
+ *   {@code FIELD_STATIC_AND_OVERRIDES_STATIC}, {@code ANNOTATION_DEPRECATED_ADDED}.</li>
+ * </ul>
+ */
+public final class BytecodeDelta {
+	/**
+	 * The kinds of breaking changes this engine reports
+	 */
+	public static final Set<JApiCompatibilityChange> SUPPORTED_CHANGES = EnumSet.of(
+		CLASS_REMOVED, CLASS_LESS_ACCESSIBLE, CLASS_NOW_ABSTRACT, CLASS_NOW_FINAL,
+		SUPERCLASS_ADDED, SUPERCLASS_REMOVED, INTERFACE_ADDED, INTERFACE_REMOVED,
+		METHOD_REMOVED, METHOD_LESS_ACCESSIBLE, METHOD_NOW_ABSTRACT, METHOD_NOW_FINAL, METHOD_NOW_STATIC,
+		METHOD_NO_LONGER_STATIC, METHOD_RETURN_TYPE_CHANGED, METHOD_ADDED_TO_INTERFACE,
+		CONSTRUCTOR_REMOVED, CONSTRUCTOR_LESS_ACCESSIBLE,
+		FIELD_REMOVED, FIELD_LESS_ACCESSIBLE, FIELD_NOW_FINAL, FIELD_NOW_STATIC, FIELD_NO_LONGER_STATIC,
+		FIELD_TYPE_CHANGED
+	);
+
+	/**
+	 * The kinds of breaking changes JApiCmp reports that this engine never produces
+	 */
+	public static final Set<JApiCompatibilityChange> UNSUPPORTED_CHANGES = EnumSet.of(
+		CLASS_NOW_CHECKED_EXCEPTION, METHOD_NOW_THROWS_CHECKED_EXCEPTION, METHOD_NO_LONGER_THROWS_CHECKED_EXCEPTION,
+		CLASS_GENERIC_TEMPLATE_CHANGED, CLASS_GENERIC_TEMPLATE_GENERICS_CHANGED, METHOD_PARAMETER_GENERICS_CHANGED,
+		METHOD_RETURN_TYPE_GENERICS_CHANGED, FIELD_GENERICS_CHANGED,
+		METHOD_ABSTRACT_ADDED_TO_CLASS, METHOD_NEW_DEFAULT, METHOD_ABSTRACT_NOW_DEFAULT,
+		METHOD_NOW_VARARGS, METHOD_NO_LONGER_VARARGS,
+		CLASS_TYPE_CHANGED, METHOD_MOVED_TO_SUPERCLASS, METHOD_IS_STATIC_AND_OVERRIDES_NOT_STATIC,
+		FIELD_STATIC_AND_OVERRIDES_STATIC, ANNOTATION_DEPRECATED_ADDED
+	);
+
+	private static final Pattern ANONYMOUS = Pattern.compile(".*\\$\\d.*");
+
+	private final Map<String, ClassApi> oldClasses;
+	private final Map<String, ClassApi> newClasses;
+	private final Hierarchy oldHierarchy;
+	private final Hierarchy newHierarchy;
+	private final int accessLevel;
+
+	private static final Logger logger = LogManager.getLogger(BytecodeDelta.class);
+
+	private BytecodeDelta(Map<String, ClassApi> oldClasses, Map<String, ClassApi> newClasses, ClasspathHeaders classpath,
+	                      AccessModifier accessModifier) {
+		this.oldClasses = oldClasses;
+		this.newClasses = newClasses;
+		this.oldHierarchy = new Hierarchy(oldClasses, classpath);
+		this.newHierarchy = new Hierarchy(newClasses, classpath);
+		this.accessLevel = accessModifier.getLevel();
+	}
+
+	/**
+	 * A change between the two versions of a class or of one of its members
+	 *
+	 * @param type              the binary name of the class
+	 * @param kind              the kind of element that changed
+	 * @param name              the name of the member, or null for a class
+	 * @param descriptor        the JVM descriptor of the member in the old version, or null for a class
+	 * @param change            the kind of breaking change
+	 * @param newAccessModifier the new access modifier of the element (*_LESS_ACCESSIBLE only)
+	 * @param newType           the new type of the field or return type of the method
+	 *                          (FIELD_TYPE_CHANGED and METHOD_RETURN_TYPE_CHANGED only)
+	 * @param changedSupertypes the binary names of the supertypes added or removed
+	 *                          (SUPERCLASS_* and INTERFACE_* only)
+	 */
+	public record ApiChange(
+		String type,
+		ElementKind kind,
+		String name,
+		String descriptor,
+		JApiCompatibilityChange change,
+		AccessModifier newAccessModifier,
+		String newType,
+		Set<String> changedSupertypes
+	) {
+		public ApiChange {
+			Objects.requireNonNull(type);
+			Objects.requireNonNull(kind);
+			Objects.requireNonNull(change);
+			changedSupertypes = Set.copyOf(changedSupertypes);
+		}
+	}
+
+	public enum ElementKind {
+		TYPE, FIELD, METHOD, CONSTRUCTOR
+	}
+
+	/**
+	 * Compares the class files of {@code oldJar} and {@code newJar}
+	 *
+	 * @param oldJar    the library's old JAR
+	 * @param newJar    the library's new JAR
+	 * @param classpath the JARs or directories holding the supertypes of the library's classes
+	 * @param options   Maracas' options; only JApiCmp's access modifier is considered
+	 * @return the changes between the two JARs
+	 * @throws IOException if one of the JARs cannot be read
+	 */
+	public static List<ApiChange> compare(Path oldJar, Path newJar, Collection<Path> classpath, MaracasOptions options)
+		throws IOException {
+		Objects.requireNonNull(oldJar);
+		Objects.requireNonNull(newJar);
+		Objects.requireNonNull(classpath);
+		Objects.requireNonNull(options);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		Map<String, ClassApi> oldClasses = readClasses(oldJar);
+		Map<String, ClassApi> newClasses = readClasses(newJar);
+
+		try (ClasspathHeaders headers = new ClasspathHeaders(classpath)) {
+			BytecodeDelta delta = new BytecodeDelta(oldClasses, newClasses, headers,
+				options.getJApiOptions().getAccessModifier());
+
+			List<ApiChange> changes = oldClasses.keySet().parallelStream()
+				.filter(name -> !ANONYMOUS.matcher(name).matches())
+				.flatMap(name -> delta.diff(name).stream())
+				.toList();
+
+			logger.info("Comparing {} and {} found {} changes in {} classes in {}ms", oldJar.getFileName(),
+				newJar.getFileName(), changes.size(), oldClasses.size(), sw.elapsed().toMillis());
+			return changes;
+		}
+	}
+
+	/**
+	 * Maps {@code changes} to {@link BreakingChange}s pointing to their element
+	 * in the model of the old JAR, as {@link JApiCmpToSpoonVisitor} does for
+	 * JApiCmp's changes. Changes whose element cannot be found are dropped.
+	 */
+	public static List<BreakingChange> toBreakingChanges(List<ApiChange> changes, CtPackage root) {
+		TypeIndex index = new TypeIndex(root.getFactory());
+		List<BreakingChange> bcs = new ArrayList<>();
+
+		for (ApiChange c : changes) {
+			try {
+				BreakingChange bc = toBreakingChange(c, index);
+				if (bc != null)
+					bcs.add(bc);
+				else
+					logger.warn("Couldn't find Spoon node for {}", c);
+			} catch (NoClassDefFoundError e) {
+				logger.error(e);
+			}
+		}
+
+		return bcs;
+	}
+
+	/**
+	 * Returns the qualified names of the top-level types declaring, or
+	 * enclosing a type that declares, one of {@code changes}
+	 *
+	 * @see Delta#getAffectedTypes(List)
+	 */
+	public static Set<String> getAffectedTypes(List<ApiChange> changes) {
+		return changes.stream()
+			.map(c -> c.type().contains("$") ? c.type().substring(0, c.type().indexOf('$')) : c.type())
+			.collect(Collectors.toSet());
+	}
+
+	private static BreakingChange toBreakingChange(ApiChange c, TypeIndex index) {
+		CtTypeReference<?> clsRef = index.reference(c.type());
+
+		// Added methods introducing a breaking change are attached to their class
+		if (c.change() == METHOD_ADDED_TO_INTERFACE)
+			return new TypeBreakingChange(clsRef, c.change(), null, Set.of());
+
+		CtType<?> clsDecl = index.declaration(clsRef.getQualifiedName());
+		if (clsDecl == null)
+			return null;
+
+		return switch (c.kind()) {
+			case TYPE -> new TypeBreakingChange(clsRef, c.change(), c.newAccessModifier(), c.changedSupertypes());
+			case FIELD -> {
+				CtField<?> field = index.field(clsDecl, c.name());
+				yield field != null
+					? new FieldBreakingChange(field.getReference(), c.change(), c.newAccessModifier(), c.newType())
+					: null;
+			}
+			case METHOD -> {
+				String signature = "%s(%s)".formatted(c.name(), String.join(",", parameterTypes(c.descriptor())));
+				CtExecutable<?> method = index.executable(clsDecl, signature);
+				yield method != null ? new MethodBreakingChange(method.getReference(), c.change(), c.newType()) : null;
+			}
+			case CONSTRUCTOR -> {
+				// The enclosing instance of inner classes is an implicit parameter
+				List<String> params = parameterTypes(c.descriptor());
+				if (isInnerClass(clsDecl) && !params.isEmpty())
+					params = params.subList(1, params.size());
+				String signature = "%s(%s)".formatted(clsRef.getQualifiedName(), String.join(",", params));
+				CtExecutable<?> cons = index.executable(clsDecl, signature);
+				yield cons != null ? new MethodBreakingChange(cons.getReference(), c.change(), null) : null;
+			}
+		};
+	}
+
+	private static boolean isInnerClass(CtType<?> type) {
+		return type instanceof CtClass<?> && type.getDeclaringType() != null && !type.isStatic();
+	}
+
+	/**
+	 * Returns the changes of the class {@code name} and its members
+	 */
+	private List<ApiChange> diff(String name) {
+		ClassApi o = oldClasses.get(name);
+		ClassApi n = newClasses.get(name);
+
+		if (n == null)
+			return isVisible(o.access(), o.access())
+				? List.of(typeChange(name, CLASS_REMOVED, null, Set.of()))
+				: List.of();
+		if (!isVisible(o.access(), n.access()))
+			return List.of();
+
+		List<ApiChange> changes = new ArrayList<>();
+
+		if (isLessAccessible(o.access(), n.access()))
+			changes.add(typeChange(name, CLASS_LESS_ACCESSIBLE, accessModifier(n.access()), Set.of()));
+		if (!has(o.access(), AccessFlag.ABSTRACT) && has(n.access(), AccessFlag.ABSTRACT))
+			changes.add(typeChange(name, CLASS_NOW_ABSTRACT, null, Set.of()));
+		if (!has(o.access(), AccessFlag.FINAL) && has(n.access(), AccessFlag.FINAL))
+			changes.add(typeChange(name, CLASS_NOW_FINAL, null, Set.of()));
+
+		diffSupertypes(o, n, changes);
+		diffFields(o, n, changes);
+		diffMethods(o, n, changes);
+
+		return changes;
+	}
+
+	private void diffSupertypes(ClassApi o, ClassApi n, List<ApiChange> changes) {
+		List<String> oldSuperclasses = oldHierarchy.superclasses(o.name());
+		List<String> newSuperclasses = newHierarchy.superclasses(n.name());
+
+		if (!newSuperclasses.containsAll(oldSuperclasses))
+			changes.add(typeChange(o.name(), SUPERCLASS_REMOVED, null, Set.of(o.superName())));
+		if (!oldSuperclasses.containsAll(newSuperclasses))
+			changes.add(typeChange(o.name(), SUPERCLASS_ADDED, null, Set.of(n.superName())));
+
+		Set<String> oldInterfaces = oldHierarchy.interfaces(o.name());
+		Set<String> newInterfaces = newHierarchy.interfaces(n.name());
+		Set<String> added = difference(newInterfaces, oldInterfaces);
+		Set<String> removed = difference(oldInterfaces, newInterfaces);
+
+		// Like JApiCmp, a single change per class lists all the interfaces added (resp. removed)
+		if (!added.isEmpty())
+			changes.add(typeChange(o.name(), INTERFACE_ADDED, null, added));
+		if (!removed.isEmpty())
+			changes.add(typeChange(o.name(), INTERFACE_REMOVED, null, removed));
+	}
+
+	private void diffFields(ClassApi o, ClassApi n, List<ApiChange> changes) {
+		for (MemberApi f : o.fields().values()) {
+			MemberApi nf = n.fields().get(f.name());
+
+			if (nf == null) {
+				if (isVisible(f.access(), f.access()))
+					changes.add(memberChange(o, ElementKind.FIELD, f, FIELD_REMOVED, null, null));
+				continue;
+			}
+			if (!isVisible(f.access(), nf.access()))
+				continue;
+
+			if (isLessAccessible(f.access(), nf.access()))
+				changes.add(memberChange(o, ElementKind.FIELD, f, FIELD_LESS_ACCESSIBLE, accessModifier(nf.access()), null));
+			if (!has(f.access(), AccessFlag.FINAL) && has(nf.access(), AccessFlag.FINAL))
+				changes.add(memberChange(o, ElementKind.FIELD, f, FIELD_NOW_FINAL, null, null));
+			if (!has(f.access(), AccessFlag.STATIC) && has(nf.access(), AccessFlag.STATIC))
+				changes.add(memberChange(o, ElementKind.FIELD, f, FIELD_NOW_STATIC, null, null));
+			if (has(f.access(), AccessFlag.STATIC) && !has(nf.access(), AccessFlag.STATIC))
+				changes.add(memberChange(o, ElementKind.FIELD, f, FIELD_NO_LONGER_STATIC, null, null));
+			if (!f.descriptor().equals(nf.descriptor()))
+				changes.add(memberChange(o, ElementKind.FIELD, f, FIELD_TYPE_CHANGED, null, typeName(nf.descriptor())));
+		}
+	}
+
+	private void diffMethods(ClassApi o, ClassApi n, List<ApiChange> changes) {
+		for (Map.Entry<String, MemberApi> e : o.methods().entrySet()) {
+			MemberApi m = e.getValue();
+			MemberApi nm = n.methods().get(e.getKey());
+			boolean constructor = m.name().equals("<init>");
+			ElementKind kind = constructor ? ElementKind.CONSTRUCTOR : ElementKind.METHOD;
+
+			if (nm == null) {
+				if (!isVisible(m.access(), m.access()))
+					continue;
+				if (constructor)
+					changes.add(memberChange(o, kind, m, CONSTRUCTOR_REMOVED, null, null));
+				// Methods moved to a superclass are still there
+				else if (!newHierarchy.inheritsMethod(n.name(), e.getKey()))
+					changes.add(memberChange(o, kind, m, METHOD_REMOVED, null, null));
+				continue;
+			}
+			if (!isVisible(m.access(), nm.access()))
+				continue;
+
+			if (isLessAccessible(m.access(), nm.access()))
+				changes.add(memberChange(o, kind, m, constructor ? CONSTRUCTOR_LESS_ACCESSIBLE : METHOD_LESS_ACCESSIBLE,
+					accessModifier(nm.access()), null));
+			if (constructor)
+				continue;
+
+			String oldReturnType = returnType(m.descriptor());
+			String newReturnType = returnType(nm.descriptor());
+			if (!oldReturnType.equals(newReturnType))
+				changes.add(memberChange(o, kind, m, METHOD_RETURN_TYPE_CHANGED, null, newReturnType));
+			if (!has(m.access(), AccessFlag.ABSTRACT) && has(nm.access(), AccessFlag.ABSTRACT))
+				changes.add(memberChange(o, kind, m, METHOD_NOW_ABSTRACT, null, null));
+			// Static methods and methods of final classes couldn't be overridden anyway
+			if (!has(m.access(), AccessFlag.FINAL) && has(nm.access(), AccessFlag.FINAL)
+				&& !has(o.access(), AccessFlag.FINAL) && !has(m.access(), AccessFlag.STATIC))
+				changes.add(memberChange(o, kind, m, METHOD_NOW_FINAL, null, null));
+			if (!has(m.access(), AccessFlag.STATIC) && has(nm.access(), AccessFlag.STATIC))
+				changes.add(memberChange(o, kind, m, METHOD_NOW_STATIC, null, null));
+			if (has(m.access(), AccessFlag.STATIC) && !has(nm.access(), AccessFlag.STATIC))
+				changes.add(memberChange(o, kind, m, METHOD_NO_LONGER_STATIC, null, null));
+		}
+
+		if (has(n.access(), AccessFlag.INTERFACE))
+			n.methods().forEach((key, m) -> {
+				if (!o.methods().containsKey(key) && has(m.access(), AccessFlag.ABSTRACT)
+					&& isVisible(m.access(), m.access()))
+					changes.add(new ApiChange(o.name(), ElementKind.METHOD, m.name(), m.descriptor(),
+						METHOD_ADDED_TO_INTERFACE, null, null, Set.of()));
+			});
+	}
+
+	/**
+	 * Whether an element with the given old and new access flags is reported,
+	 * according to JApiCmp's access modifier option
+	 */
+	private boolean isVisible(int oldAccess, int newAccess) {
+		return accessModifier(oldAccess).getLevel() >= accessLevel || accessModifier(newAccess).getLevel() >= accessLevel;
+	}
+
+	private static boolean isLessAccessible(int oldAccess, int newAccess) {
+		return accessModifier(newAccess).getLevel() < accessModifier(oldAccess).getLevel();
+	}
+
+	private static AccessModifier accessModifier(int access) {
+		if (has(access, AccessFlag.PUBLIC))
+			return AccessModifier.PUBLIC;
+		if (has(access, AccessFlag.PROTECTED))
+			return AccessModifier.PROTECTED;
+		if (has(access, AccessFlag.PRIVATE))
+			return AccessModifier.PRIVATE;
+		return AccessModifier.PACKAGE_PROTECTED;
+	}
+
+	private static boolean has(int access, int flag) {
+		return (access & flag) != 0;
+	}
+
+	private static ApiChange typeChange(String type, JApiCompatibilityChange change, AccessModifier newAccessModifier,
+	                                    Set<String> changedSupertypes) {
+		return new ApiChange(type, ElementKind.TYPE, null, null, change, newAccessModifier, null, changedSupertypes);
+	}
+
+	private static ApiChange memberChange(ClassApi cls, ElementKind kind, MemberApi member, JApiCompatibilityChange change,
+	                                      AccessModifier newAccessModifier, String newType) {
+		return new ApiChange(cls.name(), kind, member.name(), member.descriptor(), change, newAccessModifier, newType,
+			Set.of());
+	}
+
+	private static Set<String> difference(Set<String> s1, Set<String> s2) {
+		Set<String> res = new LinkedHashSet<>(s1);
+		res.removeAll(s2);
+		return res;
+	}
+
+	/**
+	 * Returns the Java names of the parameter types of the method descriptor
+	 * {@code desc}, spelled as in Spoon's signatures (e.g., {@code pkg.A$B[]})
+	 */
+	static List<String> parameterTypes(String desc) {
+		List<String> params = new ArrayList<>();
+
+		int i = 1;
+		while (desc.charAt(i) != ')') {
+			int end = i;
+			while (desc.charAt(end) == '[')
+				end++;
+			end = desc.charAt(end) == 'L' ? desc.indexOf(';', end) + 1 : end + 1;
+			params.add(typeName(desc.substring(i, end)));
+			i = end;
+		}
+
+		return params;
+	}
+
+	/**
+	 * Returns the Java name of the return type of the method descriptor {@code desc}
+	 */
+	static String returnType(String desc) {
+		return typeName(desc.substring(desc.indexOf(')') + 1));
+	}
+
+	/**
+	 * Returns the Java name of the type described by the field descriptor {@code desc}
+	 */
+	static String typeName(String desc) {
+		int dims = 0;
+		while (desc.charAt(dims) == '[')
+			dims++;
+
+		String base = switch (desc.charAt(dims)) {
+			case 'Z' -> "boolean";
+			case 'B' -> "byte";
+			case 'C' -> "char";
+			case 'S' -> "short";
+			case 'I' -> "int";
+			case 'J' -> "long";
+			case 'F' -> "float";
+			case 'D' -> "double";
+			case 'V' -> "void";
+			case 'L' -> desc.substring(dims + 1, desc.length() - 1).replace('/', '.');
+			default -> throw new IllegalArgumentException("Invalid descriptor " + desc);
+		};
+
+		return base + "[]".repeat(dims);
+	}
+
+	/**
+	 * Reads the API of the non-synthetic classes of {@code jar}, indexed by binary name
+	 */
+	private static Map<String, ClassApi> readClasses(Path jar) throws IOException {
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			return jarFile.stream()
+				.filter(e -> e.getName().endsWith(".class") && !e.getName().startsWith("META-INF/")
+					&& !e.getName().endsWith("module-info.class") && !e.getName().endsWith("package-info.class"))
+				.toList()
+				.parallelStream()
+				.map(e -> readClass(jarFile, e))
+				.filter(api -> !has(api.access(), AccessFlag.SYNTHETIC))
+				.collect(Collectors.toMap(ClassApi::name, Function.identity(), (api1, api2) -> api1));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static ClassApi readClass(JarFile jarFile, JarEntry entry) {
+		try (InputStream in = jarFile.getInputStream(entry)) {
+			ClassFile cf = new ClassFile(new DataInputStream(new BufferedInputStream(in)));
+
+			// The access flags of member classes are those of their InnerClasses entry
+			int access = cf.getAccessFlags();
+			if (cf.getAttribute(InnerClassesAttribute.tag) instanceof InnerClassesAttribute inners)
+				for (int i = 0; i < inners.tableLength(); i++)
+					if (cf.getName().equals(inners.innerClass(i)))
+						access = inners.accessFlags(i);
+
+			Map<String, MemberApi> fields = new HashMap<>();
+			for (FieldInfo f : cf.getFields())
+				if (!has(f.getAccessFlags(), AccessFlag.SYNTHETIC))
+					fields.put(f.getName(), new MemberApi(f.getName(), f.getDescriptor(), f.getAccessFlags()));
+
+			// JApiCmp matches methods by name and parameter types
+			Map<String, MemberApi> methods = new HashMap<>();
+			for (MethodInfo m : cf.getMethods())
+				if (!m.isStaticInitializer() && !has(m.getAccessFlags(), AccessFlag.SYNTHETIC | AccessFlag.BRIDGE))
+					methods.put(methodKey(m.getName(), m.getDescriptor()),
+						new MemberApi(m.getName(), m.getDescriptor(), m.getAccessFlags()));
+
+			String superName = cf.getName().equals("java.lang.Object") ? null : cf.getSuperclass();
+			return new ClassApi(cf.getName(), access, superName, List.of(cf.getInterfaces()), fields, methods);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String methodKey(String name, String desc) {
+		return name + desc.substring(0, desc.indexOf(')') + 1);
+	}
+
+	/**
+	 * The API of a class
+	 *
+	 * @param methods the constructors and methods, indexed by name and parameter descriptors
+	 */
+	private record ClassApi(String name, int access, String superName, List<String> interfaces,
+	                        Map<String, MemberApi> fields, Map<String, MemberApi> methods) {
+	}
+
+	private record MemberApi(String name, String descriptor, int access) {
+	}
+
+	/**
+	 * The direct supertypes of a class
+	 */
+	private record Header(String superName, List<String> interfaces) {
+	}
+
+	/**
+	 * The type hierarchy of one version of the library: its own classes first,
+	 * then those of the classpath
+	 */
+	private record Hierarchy(Map<String, ClassApi> classes, ClasspathHeaders classpath) {
+		Header header(String name) {
+			ClassApi api = classes.get(name);
+			return api != null ? new Header(api.superName(), api.interfaces()) : classpath.get(name);
+		}
+
+		/**
+		 * Returns the superclasses of {@code name}, from the direct one up to
+		 * the last that can be found
+		 */
+		List<String> superclasses(String name) {
+			List<String> res = new ArrayList<>();
+
+			Header h = header(name);
+			while (h != null && h.superName() != null && !res.contains(h.superName())) {
+				res.add(h.superName());
+				h = header(h.superName());
+			}
+
+			return res;
+		}
+
+		/**
+		 * Returns all the interfaces implemented by {@code name}, directly or
+		 * through its superinterfaces and superclasses
+		 */
+		Set<String> interfaces(String name) {
+			Set<String> res = new HashSet<>();
+			collectInterfaces(name, res, new HashSet<>());
+			return res;
+		}
+
+		private void collectInterfaces(String name, Set<String> res, Set<String> visited) {
+			Header h = visited.add(name) ? header(name) : null;
+			if (h == null)
+				return;
+
+			for (String i : h.interfaces()) {
+				res.add(i);
+				collectInterfaces(i, res, visited);
+			}
+			if (h.superName() != null)
+				collectInterfaces(h.superName(), res, visited);
+		}
+
+		/**
+		 * Whether one of the superclasses of {@code name} in this version of the
+		 * library declares a method with the given {@code key}
+		 */
+		boolean inheritsMethod(String name, String key) {
+			return superclasses(name).stream()
+				.map(classes::get)
+				.anyMatch(api -> api != null && api.methods().containsKey(key));
+		}
+	}
+
+	/**
+	 * Reads the headers of the classes that aren't part of the library on
+	 * its classpath, then in the JDK. Shared by both versions.
+	 */
+	private static final class ClasspathHeaders implements Closeable {
+		private final List<JarFile> jars = new ArrayList<>();
+		private final List<Path> directories = new ArrayList<>();
+		private final Map<String, Optional<Header>> headers = new ConcurrentHashMap<>();
+
+		ClasspathHeaders(Collection<Path> classpath) {
+			for (Path entry : classpath) {
+				try {
+					if (Files.isDirectory(entry))
+						directories.add(entry);
+					else
+						jars.add(new JarFile(entry.toFile()));
+				} catch (IOException e) {
+					logger.warn("Couldn't open classpath entry {}: {}", entry, e);
+				}
+			}
+		}
+
+		Header get(String name) {
+			return headers.computeIfAbsent(name, this::read).orElse(null);
+		}
+
+		private Optional<Header> read(String name) {
+			String path = name.replace('.', '/') + ".class";
+
+			try {
+				for (JarFile jar : jars) {
+					JarEntry entry = jar.getJarEntry(path);
+					if (entry != null)
+						try (InputStream in = jar.getInputStream(entry)) {
+							return Optional.of(header(name, in));
+						}
+				}
+
+				for (Path dir : directories) {
+					Path file = dir.resolve(path);
+					if (Files.isRegularFile(file))
+						try (InputStream in = Files.newInputStream(file)) {
+							return Optional.of(header(name, in));
+						}
+				}
+
+				try (InputStream in = ClassLoader.getSystemResourceAsStream(path)) {
+					return in != null ? Optional.of(header(name, in)) : Optional.empty();
+				}
+			} catch (IOException e) {
+				logger.warn("Couldn't read the header of {}: {}", name, e);
+				return Optional.empty();
+			}
+		}
+
+		private static Header header(String name, InputStream in) throws IOException {
+			// Only java.lang.Object has no superclass
+			List<String> supertypes = JarDiff.readSupertypes(in);
+			return name.equals("java.lang.Object")
+				? new Header(null, supertypes)
+				: new Header(supertypes.get(0), supertypes.subList(1, supertypes.size()));
+		}
+
+		@Override
+		public void close() throws IOException {
+			for (JarFile jar : jars)
+				jar.close();
+		}
+	}
+}
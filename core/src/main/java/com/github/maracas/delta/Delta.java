@@ -5,21 +5,43 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.maracas.LibraryJar;
 import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
 import com.github.maracas.util.BinaryToSourceMapper;
+import com.github.maracas.util.SpoonHelpers;
 import com.github.maracas.visitors.BreakingChangeVisitor;
 import com.google.common.base.Stopwatch;
+import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
+import japicmp.model.JApiCompatibilityChange;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import spoon.SpoonException;
 import spoon.reflect.CtModel;
 import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtNamedElement;
 import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtArrayTypeReference;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.filter.TypeFilter;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.joining;
 
@@ -43,6 +65,22 @@ public class Delta {
 	 */
 	private final List<BreakingChange> breakingChanges;
 
+	/**
+	 * Where the time went while computing this delta
+	 */
+	private DeltaStatistics statistics = DeltaStatistics.EMPTY;
+
+	/**
+	 * The simple names of the library's subtypes of impacted types, computed
+	 * lazily (see {@link #getSubtypeNames()})
+	 */
+	private Map<String, Set<String>> subtypeNames;
+
+	/**
+	 * Whether the references of the breaking changes were resolved (see {@link #resolveReferences()})
+	 */
+	private boolean referencesResolved;
+
 	private static final Logger logger = LogManager.getLogger(Delta.class);
 
 	public Delta(LibraryJar oldVersion, LibraryJar newVersion, List<BreakingChange> breakingChanges) {
@@ -64,30 +102,91 @@ public class Delta {
 	 */
 	public static Delta fromJApiCmpDelta(LibraryJar oldVersion, LibraryJar newVersion, List<JApiClass> classes, MaracasOptions options) {
 		Objects.requireNonNull(oldVersion);
+
+		Stopwatch modelSw = Stopwatch.createStarted();
+		CtModel model = oldVersion.buildModel();
+		long modelMillis = modelSw.elapsed().toMillis();
+
+		Delta delta = fromJApiCmpDelta(oldVersion, newVersion, classes, model, options);
+		delta.setStatistics(delta.getStatistics().withBinaryModel(modelMillis));
+		return delta;
+	}
+
+	/**
+	 * Builds a delta model from the list of changes extracted by japicmp and
+	 * the already-built Spoon model of the old version's JAR
+	 *
+	 * @param oldVersion the old version of the library
+	 * @param newVersion the new version of the library
+	 * @param classes    the list of changes extracted by japicmp
+	 * @param oldModel   the Spoon model of {@code oldVersion} (see {@link LibraryJar#buildModel()})
+	 * @param options    Maracas' options
+	 * @return the corresponding delta model
+	 * @see #fromJApiCmpDelta(LibraryJar, LibraryJar, List, MaracasOptions)
+	 */
+	public static Delta fromJApiCmpDelta(LibraryJar oldVersion, LibraryJar newVersion, List<JApiClass> classes,
+	                                     CtModel oldModel, MaracasOptions options) {
+		Objects.requireNonNull(oldVersion);
 		Objects.requireNonNull(newVersion);
 		Objects.requireNonNull(classes);
+		Objects.requireNonNull(oldModel);
 		Objects.requireNonNull(options);
 
 		// Visit JApi's model to filter out the things we're not interested in
 		JApiCmpDeltaFilter filter = new JApiCmpDeltaFilter(options);
 		filter.filter(classes);
 
-		CtModel model = oldVersion.buildModel();
-		CtPackage root = model.getRootPackage();
-
 		// Map the BCs from JApi to Spoon elements
 		Stopwatch sw = Stopwatch.createStarted();
-		JApiCmpToSpoonVisitor visitor = new JApiCmpToSpoonVisitor(root);
+		JApiCmpToSpoonVisitor visitor = new JApiCmpToSpoonVisitor(oldModel.getRootPackage());
 		JApiCmpDeltaVisitor.visit(classes, visitor);
 		logger.info("Mapping JApiCmp's breaking changes to Spoon took {}ms", sw.elapsed().toMillis());
 
-		return new Delta(oldVersion, newVersion, visitor.getBreakingChanges());
+		Delta delta = new Delta(oldVersion, newVersion, visitor.getBreakingChanges());
+		delta.setStatistics(new DeltaStatistics(0, 0, sw.elapsed().toMillis(), 0, 0));
+		return delta;
+	}
+
+	/**
+	 * Builds a delta model from the list of changes computed by
+	 * {@link BytecodeDelta} and the Spoon model of the old version's JAR
+	 *
+	 * @param oldVersion the old version of the library
+	 * @param newVersion the new version of the library
+	 * @param changes    the list of changes computed by {@link BytecodeDelta#compare}
+	 * @param oldModel   the Spoon model of {@code oldVersion} (see {@link LibraryJar#buildModel()})
+	 * @param options    Maracas' options
+	 * @return the corresponding delta model
+	 */
+	public static Delta fromBytecodeDelta(LibraryJar oldVersion, LibraryJar newVersion,
+	                                      List<BytecodeDelta.ApiChange> changes, CtModel oldModel, MaracasOptions options) {
+		Objects.requireNonNull(oldVersion);
+		Objects.requireNonNull(newVersion);
+		Objects.requireNonNull(changes);
+		Objects.requireNonNull(oldModel);
+		Objects.requireNonNull(options);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		List<BytecodeDelta.ApiChange> kept = changes.stream()
+			.filter(c -> !options.getExcludedBreakingChanges().contains(c.change()))
+			.toList();
+		List<BreakingChange> bcs = BytecodeDelta.toBreakingChanges(kept, oldModel.getRootPackage());
+		logger.info("Mapping bytecode breaking changes to Spoon took {}ms", sw.elapsed().toMillis());
+
+		Delta delta = new Delta(oldVersion, newVersion, bcs);
+		delta.setStatistics(new DeltaStatistics(0, 0, sw.elapsed().toMillis(), 0, 0));
+		return delta;
 	}
 
 	/**
 	 * Delta models do not natively include source code locations. Invoking
 	 * this method with the old library's source code populates the source code
 	 * location for most breaking changes.
+	 * <p>
+	 * Locations are first resolved in a model built from the source files that
+	 * declare the top-level types affected by the breaking changes (and their
+	 * package neighbors). The model of all the sources is only built for the
+	 * breaking changes that couldn't be resolved that way.
 	 *
 	 * @throws SpoonException if we cannot build the Spoon model from {@code sources}
 	 */
@@ -95,17 +194,118 @@ public class Delta {
 		if (!oldVersion.hasSources())
 			return;
 
-		CtModel model = oldVersion.getSources().buildModel();
-		CtPackage root = model.getRootPackage();
+		Set<String> types = breakingChanges.stream()
+			.map(bc -> topLevelType(bc.getReference()))
+			.filter(Objects::nonNull)
+			.collect(Collectors.toSet());
 
-		Stopwatch sw = Stopwatch.createStarted();
+		Stopwatch modelSw = Stopwatch.createStarted();
+		CtModel model = buildLocationModel(oldVersion, types);
+		populateLocations(model, modelSw.elapsed().toMillis());
+	}
+
+	/**
+	 * Populates the source code location of the breaking changes, first from
+	 * {@code locationModel}, then from the model of all the old version's
+	 * sources for those it doesn't resolve
+	 *
+	 * @param locationModel       the model built by {@link #buildLocationModel(LibraryJar, Collection)}, or null
+	 * @param locationModelMillis the time it took to build {@code locationModel}
+	 * @throws SpoonException if we cannot build the Spoon model from {@code sources}
+	 * @see #populateLocations()
+	 */
+	public void populateLocations(CtModel locationModel, long locationModelMillis) {
+		if (!oldVersion.hasSources())
+			return;
+
+		List<BreakingChange> unresolved = breakingChanges;
+		long modelMillis = locationModelMillis;
+		long mappingMillis = 0;
+
+		if (locationModel != null) {
+			Stopwatch sw = Stopwatch.createStarted();
+			unresolved = mapLocations(locationModel.getRootPackage(), breakingChanges, true);
+			mappingMillis += sw.elapsed().toMillis();
+			logger.info("{} breaking changes out of {} left unresolved by the partial source model",
+				unresolved.size(), breakingChanges.size());
+		}
+
+		if (!unresolved.isEmpty()) {
+			Stopwatch modelSw = Stopwatch.createStarted();
+			CtPackage root = oldVersion.getSources().buildModel().getRootPackage();
+			modelMillis += modelSw.elapsed().toMillis();
+
+			Stopwatch sw = Stopwatch.createStarted();
+			mapLocations(root, unresolved, false);
+			mappingMillis += sw.elapsed().toMillis();
+		}
+
+		logger.info("Mapping binary breaking changes to source code took {}ms", mappingMillis);
+		statistics = statistics.withSourceLocations(modelMillis, mappingMillis);
+	}
+
+	/**
+	 * Builds the Spoon model of the source files of {@code oldVersion} that
+	 * declare the given top-level {@code types}, along with their package
+	 * neighbors: these let the model resolve most of the types the affected
+	 * ones refer to, and hence compute their members' signatures.
+	 *
+	 * @param oldVersion the old version of the library
+	 * @param types      the qualified names of the top-level types affected by breaking changes
+	 * @return the resulting model, or null if {@code oldVersion} has no sources
+	 * or none of them declares one of {@code types}
+	 * @throws SpoonException if we cannot build the Spoon model from the sources
+	 * @see #getAffectedTypes(List)
+	 */
+	public static CtModel buildLocationModel(LibraryJar oldVersion, Collection<String> types) {
+		if (!oldVersion.hasSources())
+			return null;
+
+		SourcesDirectory sources = oldVersion.getSources();
+		try {
+			Set<Path> candidates = sources.withPackageNeighbors(sources.getTypeSources(types));
+			return !candidates.isEmpty() ? sources.buildModel(candidates) : null;
+		} catch (IOException e) {
+			logger.warn("Couldn't find the sources of the types affected in {}: {}", oldVersion, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the qualified names of the top-level types that declare, or
+	 * enclose a type that declares, a change reported by japicmp. These are the
+	 * types whose source files {@link #buildLocationModel(LibraryJar, Collection)}
+	 * should include; they can be known before {@code classes} are mapped to Spoon.
+	 */
+	public static Set<String> getAffectedTypes(List<JApiClass> classes) {
+		return classes.stream()
+			.filter(cls -> cls.getChangeStatus() != JApiChangeStatus.UNCHANGED || !cls.getCompatibilityChanges().isEmpty())
+			.map(cls -> {
+				String name = cls.getFullyQualifiedName();
+				return name.contains("$") ? name.substring(0, name.indexOf('$')) : name;
+			})
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Maps {@code bcs} to their source element in {@code root}
+	 *
+	 * @param partial whether {@code root} only holds some of the library's sources
+	 * @return the breaking changes that may resolve better in the model of all
+	 * the sources, if {@code partial}
+	 */
+	private List<BreakingChange> mapLocations(CtPackage root, List<BreakingChange> bcs, boolean partial) {
 		BinaryToSourceMapper mapper = new BinaryToSourceMapper(root);
-		breakingChanges.forEach(bc -> {
+		List<BreakingChange> unresolved = new ArrayList<>();
+
+		bcs.forEach(bc -> {
 			try {
 				CtReference binaryRef = bc.getReference();
 				CtElement source = mapper.resolve(binaryRef);
 
-				if (source != null)
+				if (partial && (source == null || mayResolveBetter(binaryRef, source)))
+					unresolved.add(bc);
+				else if (source != null)
 					bc.setSourceElement(source);
 				else
 					logger.warn("No source location for {} [{}] in {}", binaryRef, bc.getChange(), oldVersion.getSources());
@@ -114,21 +314,202 @@ public class Delta {
 			}
 		});
 
-		logger.info("Mapping binary breaking changes to source code took {}ms", sw.elapsed().toMillis());
+		return unresolved;
+	}
+
+	private static String topLevelType(CtReference ref) {
+		CtTypeReference<?> type = ref instanceof CtTypeReference<?> t ? t
+			: ref instanceof CtExecutableReference<?> e ? e.getDeclaringType()
+			: ref instanceof CtFieldReference<?> f ? f.getDeclaringType()
+			: null;
+
+		return type != null ? type.getTopLevelType().getQualifiedName() : null;
+	}
+
+	/**
+	 * Executables that don't exist in source code (e.g., default constructors)
+	 * are mapped to their declaring type. In a partial model though, a source
+	 * executable may fail to match only because the types of its parameters
+	 * cannot be resolved.
+	 */
+	private static boolean mayResolveBetter(CtReference binaryRef, CtElement source) {
+		if (binaryRef instanceof CtExecutableReference<?> execRef && source instanceof CtType<?> type)
+			return type.getTypeMembers().stream()
+				.filter(m -> m instanceof CtExecutable<?> e && e.getSimpleName().equals(execRef.getSimpleName()))
+				.flatMap(m -> ((CtExecutable<?>) m).getParameters().stream())
+				.map(p -> p.getType() instanceof CtArrayTypeReference<?> array ? array.getArrayType() : p.getType())
+				.anyMatch(t -> t != null && !t.isPrimitive() && t.getTypeDeclaration() == null);
+
+		return false;
 	}
 
 	/**
-	 * Returns a list of {@link BreakingChangeVisitor}, one per {@link BreakingChange}
-	 * in the current delta model. Each visitor is responsible for inferring
-	 * the set of broken uses in client code impacted by this breaking change.
+	 * Returns a list of {@link BreakingChangeVisitor} responsible for inferring
+	 * the set of broken uses in client code impacted by the breaking changes
+	 * in the current delta model. Visitors of the same class and kind of
+	 * breaking change that support it (see
+	 * {@link BreakingChangeVisitor#coalesce(BreakingChangeVisitor)}) are
+	 * coalesced into a single instance handling all the corresponding
+	 * breaking changes; others are created one per {@link BreakingChange}.
 	 */
 	@JsonIgnore
 	public List<BreakingChangeVisitor> getVisitors() {
-		return
-			breakingChanges.stream()
-				.map(BreakingChange::getVisitor)
-				.filter(Objects::nonNull) // FIXME: Until every visitor is implemented
-				.toList();
+		List<BreakingChangeVisitor> visitors = new ArrayList<>();
+		Map<VisitorKind, BreakingChangeVisitor> firstOfKind = new HashMap<>();
+
+		for (BreakingChange bc : breakingChanges) {
+			BreakingChangeVisitor v = bc.getVisitor();
+			if (v == null) // FIXME: Until every visitor is implemented
+				continue;
+
+			BreakingChangeVisitor first = firstOfKind.putIfAbsent(new VisitorKind(v.getClass(), bc.getChange()), v);
+			if (first == null || !first.coalesce(v))
+				visitors.add(v);
+		}
+
+		return visitors;
+	}
+
+	/**
+	 * Visitors may only be coalesced with visitors of the same class created
+	 * for the same kind of breaking change
+	 */
+	private record VisitorKind(Class<?> visitor, JApiCompatibilityChange change) {}
+
+	/**
+	 * Returns the simple names of the types and members impacted by the breaking
+	 * changes in the current delta model, i.e., the names that a client source
+	 * file must spell out to be impacted by this delta. Constructors are named
+	 * after their declaring type, and classes that removed supertypes also
+	 * contribute the names of their supertypes and inherited members (except
+	 * those of {@code java.lang.Object}). As clients may be impacted by merely
+	 * extending or implementing a type (e.g., METHOD_ADDED_TO_INTERFACE), the
+	 * types declaring impacted members and their subtypes in the library's
+	 * model are always included.
+	 *
+	 * @throws SpoonException if a supertype declaration cannot be resolved
+	 */
+	@JsonIgnore
+	public Set<String> getImpactedNames() {
+		Set<String> names = new HashSet<>();
+		breakingChanges.forEach(bc -> names.addAll(getImpactedNames(bc)));
+		return names;
+	}
+
+	/**
+	 * Returns the simple names impacted by a single breaking change
+	 *
+	 * @param bc the breaking change
+	 * @throws SpoonException if a supertype declaration cannot be resolved
+	 * @see #getImpactedNames()
+	 */
+	public Set<String> getImpactedNames(BreakingChange bc) {
+		Set<String> names = new HashSet<>();
+		CtReference ref = bc.getReference();
+		CtTypeReference<?> declType = declaringType(ref);
+
+		if (!(ref instanceof CtExecutableReference<?> execRef && execRef.isConstructor()))
+			names.add(ref.getSimpleName());
+		if (declType != null) {
+			names.add(declType.getSimpleName());
+			names.addAll(getSubtypeNames().getOrDefault(declType.getQualifiedName(), Set.of()));
+		}
+
+		if (ref instanceof CtTypeReference<?> clsRef &&
+			(bc.getChange() == JApiCompatibilityChange.SUPERCLASS_REMOVED ||
+				bc.getChange() == JApiCompatibilityChange.INTERFACE_REMOVED)) {
+			if (clsRef.getSuperclass() != null)
+				names.add(clsRef.getSuperclass().getSimpleName());
+			clsRef.getSuperInterfaces().forEach(i -> names.add(i.getSimpleName()));
+			clsRef.getAllExecutables().stream()
+				.filter(m -> !isObjectMember(m))
+				.forEach(m -> names.add(m.getSimpleName()));
+			clsRef.getAllFields().stream()
+				.filter(f -> !isObjectMember(f))
+				.forEach(f -> names.add(f.getSimpleName()));
+		}
+
+		return names;
+	}
+
+	/**
+	 * Returns the simple names of the library's subtypes of each type impacted
+	 * by a breaking change, or declaring an impacted member, indexed by the
+	 * qualified name of that type. Only the types declared in the library's
+	 * model are known.
+	 */
+	private synchronized Map<String, Set<String>> getSubtypeNames() {
+		if (subtypeNames != null)
+			return subtypeNames;
+
+		subtypeNames = new HashMap<>();
+		Set<String> impacted = breakingChanges.stream()
+			.map(bc -> declaringType(bc.getReference()))
+			.filter(Objects::nonNull)
+			.map(CtTypeReference::getQualifiedName)
+			.collect(Collectors.toSet());
+		if (impacted.isEmpty() || breakingChanges.get(0).getReference().getFactory() == null)
+			return subtypeNames;
+
+		CtModel model = breakingChanges.get(0).getReference().getFactory().getModel();
+		for (CtType<?> type : model.getElements(new TypeFilter<CtType<?>>(CtType.class)))
+			for (String supertype : modelSupertypes(type))
+				if (impacted.contains(supertype))
+					subtypeNames.computeIfAbsent(supertype, k -> new HashSet<>()).add(type.getSimpleName());
+
+		return subtypeNames;
+	}
+
+	/**
+	 * Returns the qualified names of the transitive supertypes of {@code type},
+	 * walking through the declarations of {@code type}'s model only
+	 */
+	private static Set<String> modelSupertypes(CtType<?> type) {
+		Set<String> supertypes = new HashSet<>();
+		Deque<CtType<?>> pending = new ArrayDeque<>(List.of(type));
+		while (!pending.isEmpty()) {
+			CtType<?> current = pending.pop();
+			List<CtTypeReference<?>> direct = new ArrayList<>(current.getSuperInterfaces());
+			if (current.getSuperclass() != null)
+				direct.add(current.getSuperclass());
+
+			for (CtTypeReference<?> superRef : direct) {
+				if (supertypes.add(superRef.getQualifiedName()) && superRef.getDeclaration() != null)
+					pending.push(superRef.getDeclaration());
+			}
+		}
+		return supertypes;
+	}
+
+	private static CtTypeReference<?> declaringType(CtReference ref) {
+		if (ref instanceof CtTypeReference<?> clsRef)
+			return clsRef;
+		if (ref instanceof CtExecutableReference<?> execRef)
+			return execRef.getDeclaringType();
+		if (ref instanceof CtFieldReference<?> fieldRef)
+			return fieldRef.getDeclaringType();
+		return null;
+	}
+
+	private static boolean isObjectMember(CtReference member) {
+		CtTypeReference<?> declType = member instanceof CtExecutableReference<?> m
+			? m.getDeclaringType()
+			: ((CtFieldReference<?>) member).getDeclaringType();
+		return declType != null && declType.getQualifiedName().equals("java.lang.Object");
+	}
+
+	/**
+	 * Resolves the declarations the visitors of this delta may look up in the
+	 * library's model (see {@link SpoonHelpers#resolveReferences(Iterable)}),
+	 * so that clients can be scanned concurrently against this delta. Only
+	 * the first invocation does something.
+	 */
+	public synchronized void resolveReferences() {
+		if (referencesResolved)
+			return;
+
+		SpoonHelpers.resolveReferences(breakingChanges.stream().map(BreakingChange::getReference).toList());
+		referencesResolved = true;
 	}
 
 	/**
@@ -159,6 +540,17 @@ public class Delta {
 		return newVersion;
 	}
 
+	/**
+	 * Returns where the time went while computing this delta
+	 */
+	public DeltaStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(DeltaStatistics statistics) {
+		this.statistics = Objects.requireNonNull(statistics);
+	}
+
 	/**
 	 * Returns a JSON representation of the delta.
 	 *
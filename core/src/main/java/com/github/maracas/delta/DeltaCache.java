@@ -0,0 +1,220 @@
+package com.github.maracas.delta;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.maracas.LibraryJar;
+import com.github.maracas.MaracasOptions;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import japicmp.config.Options;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import spoon.reflect.CtModel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A persistent, content-addressed cache of {@link Delta} models.
+ * <p>
+ * Deltas are keyed by the SHA-256 of the old and new JARs and a fingerprint of
+ * the options that affect their computation, and stored on disk in their
+ * {@link PortableDelta} form, which only refers to types and members by name.
+ * Rehydrating a delta only requires building the old JAR's Spoon model: neither
+ * JApiCmp nor the old library's source model are needed. Least recently used entries are
+ * evicted once the cache exceeds its maximum size.
+ * <p>
+ * Rehydrated breaking changes point to the declarations of the old JAR's model,
+ * whose positions are overwritten with the recorded source locations: anything
+ * later built through the same factory observes these positions. The cache is
+ * thus opt-in.
+ */
+public class DeltaCache {
+	private final Path directory;
+	private final long maxSize;
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private static final String EXTENSION = ".delta.json";
+	private static final Logger logger = LogManager.getLogger(DeltaCache.class);
+
+	/**
+	 * Creates a cache storing its entries in {@code directory}
+	 *
+	 * @param directory the directory holding the cache entries
+	 * @param maxSize   the maximum size of the cache on disk, in bytes
+	 * @throws UncheckedIOException if {@code directory} cannot be created
+	 */
+	public DeltaCache(Path directory, long maxSize) {
+		if (maxSize < 0)
+			throw new IllegalArgumentException("maxSize < 0");
+
+		this.directory = Objects.requireNonNull(directory).toAbsolutePath();
+		this.maxSize = maxSize;
+
+		try {
+			Files.createDirectories(this.directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the cached delta between {@code oldVersion} and {@code newVersion}
+	 * computed with {@code options}, if any
+	 *
+	 * @return the rehydrated delta, or null if there is no valid cache entry
+	 */
+	public Delta get(LibraryJar oldVersion, LibraryJar newVersion, MaracasOptions options) {
+		Objects.requireNonNull(oldVersion);
+		Objects.requireNonNull(newVersion);
+		Objects.requireNonNull(options);
+
+		try {
+			Path entry = entry(oldVersion, newVersion, options);
+			if (Files.exists(entry)) {
+				Stopwatch sw = Stopwatch.createStarted();
+				PortableDelta cached = mapper.readValue(entry.toFile(), PortableDelta.class);
+				Delta delta = cached.version() == PortableDelta.FORMAT_VERSION ? rehydrate(cached, oldVersion, newVersion) : null;
+
+				if (delta != null) {
+					// Keep track of the last access for LRU eviction
+					Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+					hits.incrementAndGet();
+					logger.info("Rehydrating cached Δ({}, {}) took {}ms", oldVersion.getLabel(), newVersion.getLabel(),
+						sw.elapsed().toMillis());
+					return delta;
+				}
+
+				Files.deleteIfExists(entry);
+			}
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't read cached Δ({}, {}): {}", oldVersion.getLabel(), newVersion.getLabel(), e);
+		}
+
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Stores {@code delta}, computed with {@code options}, in the cache and
+	 * evicts the least recently used entries if the cache grows too large
+	 */
+	public void put(Delta delta, MaracasOptions options) {
+		Objects.requireNonNull(delta);
+		Objects.requireNonNull(options);
+
+		try {
+			Path entry = entry(delta.getOldVersion(), delta.getNewVersion(), options);
+			Path tmp = Files.createTempFile(directory, "delta", ".tmp");
+			mapper.writeValue(tmp.toFile(), PortableDelta.of(delta));
+			Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			evict();
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't cache {}: {}", delta, e);
+		}
+	}
+
+	/**
+	 * Returns the number of lookups that found a valid entry
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that didn't find a valid entry
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the directory holding the cache entries
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	private Path entry(LibraryJar oldVersion, LibraryJar newVersion, MaracasOptions options) throws IOException {
+		Hasher hasher = Hashing.sha256().newHasher()
+			.putBytes(com.google.common.io.Files.asByteSource(oldVersion.getJar().toFile()).hash(Hashing.sha256()).asBytes())
+			.putBytes(com.google.common.io.Files.asByteSource(newVersion.getJar().toFile()).hash(Hashing.sha256()).asBytes())
+			.putString(fingerprint(oldVersion, options), StandardCharsets.UTF_8);
+		return directory.resolve(hasher.hash() + EXTENSION);
+	}
+
+	/**
+	 * Fingerprint of everything but the JARs' content that affects the delta
+	 */
+	static String fingerprint(LibraryJar oldVersion, MaracasOptions options) {
+		Options jApiOptions = options.getJApiOptions();
+		return String.join(";",
+			"v" + PortableDelta.FORMAT_VERSION,
+			"excluded=" + options.getExcludedBreakingChanges().stream().map(Enum::name).sorted().toList(),
+			"access=" + jApiOptions.getAccessModifier(),
+			"synthetic=" + jApiOptions.isIncludeSynthetic(),
+			"includes=" + jApiOptions.getIncludes().stream().map(Object::toString).sorted().toList(),
+			"excludes=" + jApiOptions.getExcludes().stream().map(Object::toString).sorted().toList(),
+			"engine=" + options.getDeltaEngine(),
+			"sources=" + (oldVersion.hasSources() ? oldVersion.getSources().getLocation() : "")
+		);
+	}
+
+	private void evict() throws IOException {
+		List<Path> entries;
+		try (Stream<Path> files = Files.list(directory)) {
+			entries = files.filter(f -> f.toString().endsWith(EXTENSION)).toList();
+		}
+
+		Map<Path, Long> sizes = new HashMap<>();
+		Map<Path, FileTime> accesses = new HashMap<>();
+		long total = 0;
+		for (Path entry : entries) {
+			try {
+				sizes.put(entry, Files.size(entry));
+				accesses.put(entry, Files.getLastModifiedTime(entry));
+				total += sizes.get(entry);
+			} catch (NoSuchFileException e) {
+				// Evicted concurrently
+			}
+		}
+
+		List<Path> lru = new ArrayList<>(accesses.keySet());
+		lru.sort(Comparator.comparing(accesses::get));
+		for (Path entry : lru) {
+			if (total <= maxSize)
+				break;
+
+			Files.deleteIfExists(entry);
+			total -= sizes.get(entry);
+			logger.info("Evicted {} from the delta cache", entry.getFileName());
+		}
+	}
+
+	/**
+	 * Resolves the cached breaking changes against the old JAR's Spoon model
+	 *
+	 * @return the rehydrated delta, or null if one of the references cannot be resolved
+	 */
+	private static Delta rehydrate(PortableDelta cached, LibraryJar oldVersion, LibraryJar newVersion) throws IOException {
+		CtModel model = oldVersion.buildModel();
+		List<BreakingChange> bcs = cached.rehydrate(model.getRootPackage().getFactory(), true);
+		return bcs != null ? new Delta(oldVersion, newVersion, bcs) : null;
+	}
+}
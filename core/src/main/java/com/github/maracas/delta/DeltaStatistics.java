@@ -0,0 +1,44 @@
+package com.github.maracas.delta;
+
+/**
+ * Where the time went while computing a {@link Delta}. All durations are in
+ * milliseconds, and are zero for the phases that didn't run (e.g., when the old
+ * version has no sources, or when the delta was rehydrated from a {@link DeltaCache}).
+ *
+ * @param comparisonMillis    time spent comparing the two JARs with JApiCmp
+ * @param binaryModelMillis   time spent building the Spoon model of the old JAR
+ * @param binaryMappingMillis time spent mapping JApiCmp's breaking changes to the binary model
+ * @param sourceModelMillis   time spent building the Spoon model of the old version's sources
+ * @param sourceMappingMillis time spent mapping the breaking changes to their source location
+ */
+public record DeltaStatistics(
+	long comparisonMillis,
+	long binaryModelMillis,
+	long binaryMappingMillis,
+	long sourceModelMillis,
+	long sourceMappingMillis
+) {
+	public static final DeltaStatistics EMPTY = new DeltaStatistics(0, 0, 0, 0, 0);
+
+	public DeltaStatistics withComparison(long comparisonMillis) {
+		return new DeltaStatistics(comparisonMillis, binaryModelMillis, binaryMappingMillis, sourceModelMillis,
+			sourceMappingMillis);
+	}
+
+	public DeltaStatistics withBinaryModel(long binaryModelMillis) {
+		return new DeltaStatistics(comparisonMillis, binaryModelMillis, binaryMappingMillis, sourceModelMillis,
+			sourceMappingMillis);
+	}
+
+	public DeltaStatistics withSourceLocations(long sourceModelMillis, long sourceMappingMillis) {
+		return new DeltaStatistics(comparisonMillis, binaryModelMillis, binaryMappingMillis, sourceModelMillis,
+			sourceMappingMillis);
+	}
+
+	/**
+	 * Returns the total time spent computing the delta, in milliseconds
+	 */
+	public long totalMillis() {
+		return comparisonMillis + binaryModelMillis + binaryMappingMillis + sourceModelMillis + sourceMappingMillis;
+	}
+}
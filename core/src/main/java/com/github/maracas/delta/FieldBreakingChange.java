@@ -8,6 +8,7 @@ import com.github.maracas.visitors.FieldNowFinalVisitor;
 import com.github.maracas.visitors.FieldNowStaticVisitor;
 import com.github.maracas.visitors.FieldRemovedVisitor;
 import com.github.maracas.visitors.FieldTypeChangedVisitor;
+import japicmp.model.AccessModifier;
 import japicmp.model.JApiCompatibilityChange;
 import japicmp.model.JApiField;
 import javassist.NotFoundException;
@@ -21,13 +22,46 @@ import java.util.Objects;
  * Represents a field-level breaking change
  */
 public class FieldBreakingChange extends AbstractBreakingChange {
-	private final JApiField jApiField;
 	private final CtFieldReference<?> fRef;
 
+	/**
+	 * The new access modifier of the field (FIELD_LESS_ACCESSIBLE only)
+	 */
+	private final AccessModifier newAccessModifier;
+
+	/**
+	 * The qualified name of the new type of the field (FIELD_TYPE_CHANGED only)
+	 */
+	private final String newType;
+
 	public FieldBreakingChange(JApiField field, CtFieldReference<?> fRef, JApiCompatibilityChange change) {
+		this(fRef, change, newAccessModifier(Objects.requireNonNull(field), change), newType(field, change));
+	}
+
+	FieldBreakingChange(CtFieldReference<?> fRef, JApiCompatibilityChange change, AccessModifier newAccessModifier,
+	                    String newType) {
 		super(change);
-		this.jApiField = Objects.requireNonNull(field);
 		this.fRef = Objects.requireNonNull(fRef);
+		this.newAccessModifier = newAccessModifier;
+		this.newType = newType;
+	}
+
+	private static AccessModifier newAccessModifier(JApiField field, JApiCompatibilityChange change) {
+		return change == JApiCompatibilityChange.FIELD_LESS_ACCESSIBLE
+			? field.getAccessModifier().getNewModifier().get()
+			: null;
+	}
+
+	private static String newType(JApiField field, JApiCompatibilityChange change) {
+		if (change != JApiCompatibilityChange.FIELD_TYPE_CHANGED)
+			return null;
+
+		try {
+			// Thanks for the checked exception japi <3
+			return field.getNewFieldOptional().get().getType().getName();
+		} catch (NotFoundException e) {
+			throw new IllegalStateException("japicmp gave us a FIELD_TYPE_CHANGED without the new type of the field");
+		}
 	}
 
 	@Override
@@ -35,6 +69,14 @@ public class FieldBreakingChange extends AbstractBreakingChange {
 		return fRef;
 	}
 
+	AccessModifier getNewAccessModifier() {
+		return newAccessModifier;
+	}
+
+	String getNewType() {
+		return newType;
+	}
+
 	@Override
 	public BreakingChangeVisitor getVisitor() {
 		return
@@ -43,17 +85,11 @@ public class FieldBreakingChange extends AbstractBreakingChange {
 				case FIELD_NOW_FINAL             -> new FieldNowFinalVisitor(fRef);
 				case FIELD_NO_LONGER_STATIC      -> new FieldNoLongerStaticVisitor(fRef);
 				case FIELD_NOW_STATIC            -> new FieldNowStaticVisitor(fRef);
-				case FIELD_LESS_ACCESSIBLE       -> new FieldLessAccessibleVisitor(fRef, jApiField.getAccessModifier().getNewModifier().get());
+				case FIELD_LESS_ACCESSIBLE       -> new FieldLessAccessibleVisitor(fRef, newAccessModifier);
 				case ANNOTATION_DEPRECATED_ADDED -> new AnnotationDeprecatedAddedToFieldVisitor(fRef);
 				case FIELD_TYPE_CHANGED -> {
-					try {
-						// Thanks for the checked exception japi <3
-						String newTypeName = jApiField.getNewFieldOptional().get().getType().getName();
-						CtTypeReference<?> newType = fRef.getFactory().Type().createReference(newTypeName);
-						yield new FieldTypeChangedVisitor(fRef, newType);
-					} catch (NotFoundException e) {
-						throw new IllegalStateException("japicmp gave us a FIELD_TYPE_CHANGED without the new type of the field");
-					}
+					CtTypeReference<?> newTypeRef = fRef.getFactory().Type().createReference(newType);
+					yield new FieldTypeChangedVisitor(fRef, newTypeRef);
 				}
 				// TODO: To be implemented
 				case FIELD_STATIC_AND_OVERRIDES_STATIC, FIELD_GENERICS_CHANGED -> null;
@@ -1,6 +1,7 @@
 package com.github.maracas.delta;
 
 import com.github.maracas.util.SpoonHelpers;
+import com.github.maracas.util.TypeIndex;
 import japicmp.model.JApiAnnotation;
 import japicmp.model.JApiClass;
 import japicmp.model.JApiCompatibilityChange;
@@ -14,7 +15,9 @@ import javassist.CtField;
 import javassist.CtMethod;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeReference;
@@ -27,11 +30,13 @@ import java.util.Optional;
 
 public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 	private final CtPackage root;
+	private final TypeIndex index;
 	private final List<BreakingChange> breakingChanges = new ArrayList<>();
 	private static final Logger logger = LogManager.getLogger(JApiCmpToSpoonVisitor.class);
 
 	public JApiCmpToSpoonVisitor(CtPackage root) {
 		this.root = Objects.requireNonNull(root);
+		this.index = new TypeIndex(root.getFactory());
 	}
 
 	public List<BreakingChange> getBreakingChanges() {
@@ -44,9 +49,9 @@ public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 
 		try {
 			if (!bcs.isEmpty()) {
-				CtTypeReference<?> clsRef = root.getFactory().Type().createReference(cls.getFullyQualifiedName());
+				CtTypeReference<?> clsRef = index.reference(cls.getFullyQualifiedName());
 
-				if (clsRef != null && clsRef.getTypeDeclaration() != null)
+				if (clsRef != null && index.declaration(clsRef.getQualifiedName()) != null)
 					breakingChanges.addAll(
 						bcs.stream().map(c -> new TypeBreakingChange(cls, clsRef, c)).toList()
 					);
@@ -87,7 +92,7 @@ public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 
 					// Unless this is one of these auto-generated Enum methods
 					if (!newMethod.getName().equals("values") && !newMethod.getName().equals("valueOf")) {
-						CtTypeReference<?> clsRef = root.getFactory().Type().createReference(m.getjApiClass().getFullyQualifiedName());
+						CtTypeReference<?> clsRef = index.reference(m.getjApiClass().getFullyQualifiedName());
 
 						breakingChanges.addAll(
 							bcs.stream().map(c -> new TypeBreakingChange(m.getjApiClass(), clsRef, c)).toList()
@@ -106,15 +111,18 @@ public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 
 		try {
 			if (!bcs.isEmpty()) {
-				CtTypeReference<?> clsRef = root.getFactory().Type().createReference(f.getjApiClass().getFullyQualifiedName());
+				CtTypeReference<?> clsRef = index.reference(f.getjApiClass().getFullyQualifiedName());
 
-				if (clsRef != null && clsRef.getTypeDeclaration() != null) {
+				CtType<?> clsDecl = index.declaration(clsRef.getQualifiedName());
+
+				if (clsDecl != null) {
 					var oldFieldOpt = f.getOldFieldOptional();
 					if (oldFieldOpt.isPresent()) {
 						CtField oldField = oldFieldOpt.get();
-						CtFieldReference<?> fRef = clsRef.getDeclaredField(oldField.getName());
+						spoon.reflect.declaration.CtField<?> fDecl = index.field(clsDecl, oldField.getName());
+						CtFieldReference<?> fRef = fDecl != null ? fDecl.getReference() : null;
 
-						if (fRef != null && fRef.getFieldDeclaration() != null)
+						if (fRef != null)
 							breakingChanges.addAll(
 								bcs.stream().map(c -> new FieldBreakingChange(f, fRef, c)).toList()
 							);
@@ -135,17 +143,22 @@ public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 
 		try {
 			if (!bcs.isEmpty()) {
-				CtTypeReference<?> clsRef = root.getFactory().Type().createReference(cons.getjApiClass().getFullyQualifiedName());
+				CtTypeReference<?> clsRef = index.reference(cons.getjApiClass().getFullyQualifiedName());
 				var oldConsOpt = cons.getOldConstructor();
 
-				if (clsRef != null && clsRef.getTypeDeclaration() != null) {
+				CtType<?> clsDecl = index.declaration(clsRef.getQualifiedName());
+
+				if (clsDecl != null) {
 					// FIXME: Creating a reference out from a constructor signature
 					// returns an ExecutableReference with no position. This code
 					// needs to go at some point.
 					if (oldConsOpt.isPresent()) {
 						CtConstructor oldCons = oldConsOpt.get();
-						Optional<CtExecutableReference<?>> cRefOpt =
-							clsRef.getDeclaredExecutables()
+						CtExecutable<?> cDecl = index.executable(clsDecl, SpoonHelpers.constructorSignature(oldCons));
+						// Signatures only match exactly in the common case; fall back to the prefix match
+						Optional<CtExecutableReference<?>> cRefOpt = cDecl != null
+							? Optional.of(cDecl.getReference())
+							: clsRef.getDeclaredExecutables()
 								.stream()
 								.filter(c -> SpoonHelpers.matchingSignatures(c, oldCons))
 								.findFirst();
@@ -181,9 +194,9 @@ public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 		try {
 			if (!bcs.isEmpty()) {
 				JApiClass jApiClass = superCls.getJApiClassOwning();
-				CtTypeReference<?> clsRef = root.getFactory().Type().createReference(jApiClass.getFullyQualifiedName());
+				CtTypeReference<?> clsRef = index.reference(jApiClass.getFullyQualifiedName());
 
-				if (clsRef != null && clsRef.getTypeDeclaration() != null)
+				if (clsRef != null && index.declaration(clsRef.getQualifiedName()) != null)
 					breakingChanges.addAll(
 						bcs.stream().map(c -> new TypeBreakingChange(jApiClass, clsRef, c)).toList()
 					);
@@ -200,9 +213,9 @@ public class JApiCmpToSpoonVisitor implements JApiCmpDeltaVisitor {
 
 		try {
 			if (!bcs.isEmpty()) {
-				CtTypeReference<?> clsRef = root.getFactory().Type().createReference(cls.getFullyQualifiedName());
+				CtTypeReference<?> clsRef = index.reference(cls.getFullyQualifiedName());
 
-				if (clsRef != null && clsRef.getTypeDeclaration() != null)
+				if (clsRef != null && index.declaration(clsRef.getQualifiedName()) != null)
 					breakingChanges.addAll(
 						bcs.stream().map(c -> new TypeBreakingChange(cls, clsRef, c)).toList()
 					);
@@ -0,0 +1,210 @@
+package com.github.maracas.delta;
+
+import com.google.common.base.Stopwatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Pre-screens two versions of a library's JAR to find the classes JApiCmp
+ * actually needs to compare.
+ * <p>
+ * Class entries are first compared using the CRC32 and size recorded in the
+ * JARs' central directories, without inflating them. The classes that were
+ * added, removed or modified are then extended with their enclosing and member
+ * classes, and with the closure of their supertypes and subtypes in either
+ * version: a class whose bytecode didn't change may still break because of
+ * one of its supertypes. Computing the hierarchy only requires reading the
+ * header of each class file, up to its list of interfaces.
+ */
+public final class JarDiff {
+	private static final Logger logger = LogManager.getLogger(JarDiff.class);
+
+	private JarDiff() {
+	}
+
+	/**
+	 * Returns the binary names of the classes to compare between {@code oldJar}
+	 * and {@code newJar}, or an empty optional if they cannot be determined and
+	 * the JARs must be compared in full
+	 */
+	public static Optional<Set<String>> comparedClasses(Path oldJar, Path newJar) {
+		Objects.requireNonNull(oldJar);
+		Objects.requireNonNull(newJar);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		try (JarFile oldFile = new JarFile(oldJar.toFile()); JarFile newFile = new JarFile(newJar.toFile())) {
+			Map<String, ZipEntry> oldEntries = classEntries(oldFile);
+			Map<String, ZipEntry> newEntries = classEntries(newFile);
+
+			Set<String> changed = new HashSet<>();
+			oldEntries.forEach((name, e) -> {
+				ZipEntry other = newEntries.get(name);
+				if (other == null || !sameContent(e, other))
+					changed.add(name);
+			});
+			newEntries.keySet().stream()
+				.filter(name -> !oldEntries.containsKey(name))
+				.forEach(changed::add);
+
+			if (changed.isEmpty())
+				return Optional.of(Set.of());
+
+			Map<String, Set<String>> supertypes = new HashMap<>();
+			Map<String, Set<String>> subtypes = new HashMap<>();
+			readHierarchy(oldFile, oldEntries, supertypes, subtypes);
+			readHierarchy(newFile, newEntries, supertypes, subtypes);
+
+			Set<String> all = new HashSet<>(oldEntries.keySet());
+			all.addAll(newEntries.keySet());
+
+			// Enclosing and member classes of the changed ones
+			Set<String> seeds = new HashSet<>(changed);
+			for (String c : all)
+				if (enclosingClasses(c).stream().anyMatch(changed::contains))
+					seeds.add(c);
+			for (String c : changed)
+				enclosingClasses(c).stream().filter(all::contains).forEach(seeds::add);
+
+			Set<String> compared = new HashSet<>(seeds);
+			compared.addAll(closure(seeds, c -> supertypes.getOrDefault(c, Set.of())));
+			compared.addAll(closure(seeds, c -> subtypes.getOrDefault(c, Set.of())));
+
+			logger.info("Pre-screening {} and {} kept {} classes out of {} ({} changed) in {}ms",
+				oldJar.getFileName(), newJar.getFileName(), compared.size(), all.size(), changed.size(),
+				sw.elapsed().toMillis());
+			return Optional.of(compared);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Couldn't pre-screen {} and {}, comparing them in full: {}", oldJar, newJar, e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Returns the class entries of {@code jar}, indexed by binary name
+	 */
+	private static Map<String, ZipEntry> classEntries(JarFile jar) throws IOException {
+		Map<String, ZipEntry> entries = new HashMap<>();
+
+		for (ZipEntry e : jar.stream().toList()) {
+			String name = e.getName();
+			// Versioned entries of multi-release JARs can't be told apart without a runtime version
+			if (name.startsWith("META-INF/versions/"))
+				throw new IOException("multi-release JAR: " + jar.getName());
+			if (name.endsWith(".class") && !name.endsWith("module-info.class"))
+				entries.put(name.substring(0, name.length() - ".class".length()).replace('/', '.'), e);
+		}
+
+		return entries;
+	}
+
+	private static boolean sameContent(ZipEntry e1, ZipEntry e2) {
+		// CRC and size are unknown (-1) when they aren't recorded
+		return e1.getCrc() != -1 && e1.getSize() != -1
+			&& e1.getCrc() == e2.getCrc()
+			&& e1.getSize() == e2.getSize();
+	}
+
+	private static List<String> enclosingClasses(String cls) {
+		List<String> res = new ArrayList<>();
+		for (int i = cls.indexOf('$'); i > 0; i = cls.indexOf('$', i + 1))
+			res.add(cls.substring(0, i));
+		return res;
+	}
+
+	private static Set<String> closure(Set<String> seeds, Function<String, Set<String>> edges) {
+		Set<String> visited = new HashSet<>(seeds);
+		Deque<String> work = new ArrayDeque<>(seeds);
+
+		while (!work.isEmpty())
+			for (String next : edges.apply(work.pop()))
+				if (visited.add(next))
+					work.push(next);
+
+		return visited;
+	}
+
+	private static void readHierarchy(JarFile jar, Map<String, ZipEntry> entries,
+	                                  Map<String, Set<String>> supertypes, Map<String, Set<String>> subtypes) throws IOException {
+		for (Map.Entry<String, ZipEntry> e : entries.entrySet()) {
+			try (InputStream in = jar.getInputStream(e.getValue())) {
+				for (String sup : readSupertypes(in)) {
+					supertypes.computeIfAbsent(e.getKey(), k -> new HashSet<>()).add(sup);
+					subtypes.computeIfAbsent(sup, k -> new HashSet<>()).add(e.getKey());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the binary names of the direct superclass and interfaces declared
+	 * in the class file {@code in}, skipping everything that follows
+	 */
+	static List<String> readSupertypes(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != 0xCAFEBABE)
+			throw new IOException("not a class file");
+		skip(data, 4); // minor and major versions
+
+		int count = data.readUnsignedShort();
+		String[] utf8 = new String[count];
+		int[] classNames = new int[count];
+		for (int i = 1; i < count; i++) {
+			int tag = data.readUnsignedByte();
+			switch (tag) {
+				// Utf8 and Class entries are kept to resolve the supertypes' names
+				case 1 -> utf8[i] = data.readUTF();
+				case 7 -> classNames[i] = data.readUnsignedShort();
+				// String, MethodType, Module and Package
+				case 8, 16, 19, 20 -> skip(data, 2);
+				// MethodHandle
+				case 15 -> skip(data, 3);
+				// Integer, Float, member refs, NameAndType, Dynamic and InvokeDynamic
+				case 3, 4, 9, 10, 11, 12, 17, 18 -> skip(data, 4);
+				// Long and Double take two slots
+				case 5, 6 -> {
+					skip(data, 8);
+					i++;
+				}
+				default -> throw new IOException("unknown constant pool tag " + tag);
+			}
+		}
+
+		skip(data, 4); // access flags and this class
+		int superIndex = data.readUnsignedShort();
+		int interfaces = data.readUnsignedShort();
+
+		List<Integer> indexes = new ArrayList<>();
+		if (superIndex != 0)
+			indexes.add(superIndex);
+		for (int i = 0; i < interfaces; i++)
+			indexes.add(data.readUnsignedShort());
+
+		return indexes.stream()
+			.map(idx -> utf8[classNames[idx]].replace('/', '.'))
+			.toList();
+	}
+
+	private static void skip(DataInputStream data, int n) throws IOException {
+		// Unlike skipBytes(), fails on a truncated class file
+		data.readFully(new byte[n]);
+	}
+}
@@ -20,13 +20,27 @@ import java.util.Objects;
  * Represents a method-level breaking change
  */
 public class MethodBreakingChange extends AbstractBreakingChange {
-	private final JApiBehavior jApiMethod;
 	private final CtExecutableReference<?> mRef;
 
+	/**
+	 * The qualified name of the new return type of the method (METHOD_RETURN_TYPE_CHANGED only)
+	 */
+	private final String newReturnType;
+
 	public MethodBreakingChange(JApiBehavior method, CtExecutableReference<?> mRef, JApiCompatibilityChange change) {
+		this(mRef, change, newReturnType(Objects.requireNonNull(method), change));
+	}
+
+	MethodBreakingChange(CtExecutableReference<?> mRef, JApiCompatibilityChange change, String newReturnType) {
 		super(change);
-		this.jApiMethod = Objects.requireNonNull(method);
 		this.mRef = Objects.requireNonNull(mRef);
+		this.newReturnType = newReturnType;
+	}
+
+	private static String newReturnType(JApiBehavior method, JApiCompatibilityChange change) {
+		return change == JApiCompatibilityChange.METHOD_RETURN_TYPE_CHANGED
+			? ((JApiMethod) method).getReturnType().getNewReturnType()
+			: null;
 	}
 
 	@Override
@@ -34,6 +48,10 @@ public class MethodBreakingChange extends AbstractBreakingChange {
 		return mRef;
 	}
 
+	String getNewReturnType() {
+		return newReturnType;
+	}
+
 	@Override
 	public BreakingChangeVisitor getVisitor() {
 		return
@@ -44,8 +62,7 @@ public class MethodBreakingChange extends AbstractBreakingChange {
 				case METHOD_NOW_ABSTRACT         -> new MethodNowAbstractVisitor(mRef);
 				case ANNOTATION_DEPRECATED_ADDED -> new AnnotationDeprecatedAddedToMethodVisitor(mRef);
 				case METHOD_RETURN_TYPE_CHANGED  -> {
-					String newTypeName = ((JApiMethod) jApiMethod).getReturnType().getNewReturnType();
-					CtTypeReference<?> newType = mRef.getFactory().Type().createReference(newTypeName);
+					CtTypeReference<?> newType = mRef.getFactory().Type().createReference(newReturnType);
 					yield new MethodReturnTypeChangedVisitor(mRef, newType);
 				}
 				// TODO: to be implemented
@@ -0,0 +1,253 @@
+package com.github.maracas.delta;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.maracas.LibraryJar;
+import com.github.maracas.util.PortablePosition;
+import japicmp.model.AccessModifier;
+import japicmp.model.JApiCompatibilityChange;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtFieldReference;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The portable, versioned form of a {@link Delta}.
+ * <p>
+ * Breaking changes refer to types and members through symbolic descriptors
+ * (qualified names, signatures and types) rather than Spoon references, so
+ * that a delta computed in one JVM can be written to disk and rehydrated
+ * against another Spoon model: the old JAR's, or that of a client whose
+ * classpath includes the library. This lets clients be analyzed elsewhere
+ * without recomputing the delta.
+ *
+ * @param version         the version of the format
+ * @param oldVersion      the label of the library's old version
+ * @param newVersion      the label of the library's new version
+ * @param breakingChanges the breaking changes of the delta
+ */
+public record PortableDelta(
+	int version,
+	String oldVersion,
+	String newVersion,
+	List<PortableBreakingChange> breakingChanges
+) {
+	/**
+	 * Version of the format; documents with another version cannot be read
+	 */
+	public static final int FORMAT_VERSION = 2;
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	public PortableDelta {
+		Objects.requireNonNull(breakingChanges);
+	}
+
+	/**
+	 * The kind of element a breaking change applies to
+	 */
+	public enum Kind {
+		TYPE,
+		METHOD,
+		FIELD
+	}
+
+	/**
+	 * The portable form of a {@link BreakingChange}
+	 *
+	 * @param kind              whether it is a type-, method-, or field-level breaking change
+	 * @param change            the kind of breaking change
+	 * @param type              the qualified name of the impacted type, or of the member's declaring type
+	 * @param member            the signature of the impacted executable or the name of the impacted field
+	 * @param memberType        the old return type of the impacted executable or the old type of the impacted field
+	 * @param newAccessModifier the new access modifier (CLASS_LESS_ACCESSIBLE, FIELD_LESS_ACCESSIBLE)
+	 * @param changedSupertypes the supertypes added or removed (INTERFACE_*, SUPERCLASS_*)
+	 * @param newType           the new return or field type (METHOD_RETURN_TYPE_CHANGED, FIELD_TYPE_CHANGED)
+	 * @param source            the source code location, if known
+	 */
+	public record PortableBreakingChange(
+		Kind kind,
+		JApiCompatibilityChange change,
+		String type,
+		String member,
+		String memberType,
+		AccessModifier newAccessModifier,
+		Set<String> changedSupertypes,
+		String newType,
+		PortablePosition source
+	) {}
+
+	/**
+	 * Returns the portable form of {@code delta}
+	 *
+	 * @throws IllegalArgumentException if one of its breaking changes has an unknown kind
+	 */
+	public static PortableDelta of(Delta delta) {
+		Objects.requireNonNull(delta);
+
+		List<PortableBreakingChange> bcs = delta.getBreakingChanges().stream().map(bc -> {
+			PortablePosition source = PortablePosition.of(bc.getSourceElement());
+
+			if (bc instanceof TypeBreakingChange tbc) {
+				CtTypeReference<?> clsRef = (CtTypeReference<?>) tbc.getReference();
+				return new PortableBreakingChange(Kind.TYPE, tbc.getChange(), clsRef.getQualifiedName(), null, null,
+					tbc.getNewAccessModifier(), tbc.getChangedSupertypes(), null, source);
+			} else if (bc instanceof MethodBreakingChange mbc) {
+				CtExecutableReference<?> mRef = (CtExecutableReference<?>) mbc.getReference();
+				return new PortableBreakingChange(Kind.METHOD, mbc.getChange(), mRef.getDeclaringType().getQualifiedName(),
+					mRef.getSignature(), qualifiedName(mRef.getType()), null, Set.of(), mbc.getNewReturnType(), source);
+			} else if (bc instanceof FieldBreakingChange fbc) {
+				CtFieldReference<?> fRef = (CtFieldReference<?>) fbc.getReference();
+				return new PortableBreakingChange(Kind.FIELD, fbc.getChange(), fRef.getDeclaringType().getQualifiedName(),
+					fRef.getSimpleName(), qualifiedName(fRef.getType()), fbc.getNewAccessModifier(), Set.of(),
+					fbc.getNewType(), source);
+			} else
+				throw new IllegalArgumentException("Cannot serialize " + bc);
+		}).toList();
+
+		return new PortableDelta(FORMAT_VERSION, delta.getOldVersion().getLabel(), delta.getNewVersion().getLabel(), bcs);
+	}
+
+	/**
+	 * Reads a delta written by {@link #write(Path)}
+	 *
+	 * @throws IOException if {@code file} cannot be read or has another format version
+	 */
+	public static PortableDelta read(Path file) throws IOException {
+		PortableDelta delta = mapper.readValue(file.toFile(), PortableDelta.class);
+		if (delta.version() != FORMAT_VERSION)
+			throw new IOException("Unsupported delta format version %d in %s".formatted(delta.version(), file));
+		return delta;
+	}
+
+	/**
+	 * Writes this delta as a JSON document to {@code file}
+	 *
+	 * @throws IOException if {@code file} cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		mapper.writeValue(file.toFile(), this);
+	}
+
+	/**
+	 * Rehydrates this delta against the model of {@code factory}. Types and
+	 * members are resolved in the model, or on its classpath, whenever
+	 * possible; otherwise, symbolic references are created from their
+	 * descriptors. Source elements are the resolved declarations, at their
+	 * recorded location.
+	 *
+	 * @param oldVersion the library's old version
+	 * @param newVersion the library's new version
+	 * @param factory    the factory of the model the breaking changes are resolved against
+	 * @return the corresponding delta
+	 * @throws IOException if a recorded source file cannot be read
+	 */
+	public Delta toDelta(LibraryJar oldVersion, LibraryJar newVersion, Factory factory) throws IOException {
+		Objects.requireNonNull(oldVersion);
+		Objects.requireNonNull(newVersion);
+		Objects.requireNonNull(factory);
+
+		return new Delta(oldVersion, newVersion, rehydrate(factory, false));
+	}
+
+	/**
+	 * Rehydrates the breaking changes against the model of {@code factory}
+	 *
+	 * @param factory             the factory of the model the breaking changes are resolved against
+	 * @param requireDeclarations whether every type and member must be declared in the model
+	 * @return the breaking changes, or null if {@code requireDeclarations} holds and one of them cannot be resolved
+	 * @throws IOException if a recorded source file cannot be read
+	 */
+	List<BreakingChange> rehydrate(Factory factory, boolean requireDeclarations) throws IOException {
+		Map<String, int[]> lineSeparators = new HashMap<>();
+
+		List<BreakingChange> bcs = new ArrayList<>();
+		for (PortableBreakingChange pbc : breakingChanges) {
+			CtTypeReference<?> clsRef = factory.Type().createReference(pbc.type());
+			boolean declared = clsRef.getTypeDeclaration() != null;
+			if (!declared && requireDeclarations)
+				return null;
+
+			BreakingChange bc;
+			CtElement declaration;
+			switch (pbc.kind()) {
+				case TYPE -> {
+					bc = new TypeBreakingChange(clsRef, pbc.change(), pbc.newAccessModifier(), pbc.changedSupertypes());
+					declaration = declared ? clsRef.getTypeDeclaration() : null;
+				}
+				case METHOD -> {
+					CtExecutableReference<?> mRef = declared
+						? clsRef.getDeclaredExecutables().stream()
+							.filter(e -> e.getSignature().equals(pbc.member()))
+							.findFirst()
+							.orElse(null)
+						: null;
+					if ((mRef == null || mRef.getExecutableDeclaration() == null) && requireDeclarations)
+						return null;
+					if (mRef == null)
+						mRef = executableReference(factory, pbc);
+
+					bc = new MethodBreakingChange(mRef, pbc.change(), pbc.newType());
+					declaration = mRef.getExecutableDeclaration();
+				}
+				case FIELD -> {
+					CtFieldReference<?> fRef = declared ? clsRef.getDeclaredField(pbc.member()) : null;
+					if ((fRef == null || fRef.getFieldDeclaration() == null) && requireDeclarations)
+						return null;
+					if (fRef == null)
+						fRef = factory.Field().createReference(clsRef, typeReference(factory, pbc.memberType()), pbc.member());
+
+					bc = new FieldBreakingChange(fRef, pbc.change(), pbc.newAccessModifier(), pbc.newType());
+					declaration = fRef.getFieldDeclaration();
+				}
+				default -> throw new IllegalStateException("Unknown kind " + pbc.kind());
+			}
+
+			// The resolved declaration stands for the source element, at its recorded position
+			SourcePosition pos = declaration != null && pbc.source() != null
+				? pbc.source().toSourcePosition(factory, lineSeparators)
+				: null;
+			if (pos != null) {
+				declaration.setPosition(pos);
+				bc.setSourceElement(declaration);
+			}
+
+			bcs.add(bc);
+		}
+
+		return bcs;
+	}
+
+	/**
+	 * Creates a symbolic reference to the executable described by {@code pbc}
+	 */
+	private static CtExecutableReference<?> executableReference(Factory factory, PortableBreakingChange pbc) {
+		String name = pbc.member().substring(0, pbc.member().indexOf('('));
+		String params = pbc.member().substring(name.length());
+		// Constructors' signatures start with their declaring type's name
+		String simpleName = name.equals(pbc.type()) ? CtExecutableReference.CONSTRUCTOR_NAME : name;
+		String returnType = pbc.memberType() != null ? pbc.memberType() : pbc.type();
+
+		return factory.Executable().createReference("%s %s%s%s%s".formatted(
+			returnType, pbc.type(), CtExecutable.EXECUTABLE_SEPARATOR, simpleName, params));
+	}
+
+	private static CtTypeReference<?> typeReference(Factory factory, String qualifiedName) {
+		return qualifiedName != null ? factory.Type().createReference(qualifiedName) : factory.Type().objectType();
+	}
+
+	private static String qualifiedName(CtTypeReference<?> type) {
+		return type != null ? type.getQualifiedName() : null;
+	}
+}
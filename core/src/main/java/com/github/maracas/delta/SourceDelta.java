@@ -0,0 +1,417 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.util.TypeIndex;
+import com.google.common.base.Stopwatch;
+import japicmp.model.AccessModifier;
+import japicmp.model.JApiCompatibilityChange;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtModifiable;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.ModifierKind;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static japicmp.model.JApiCompatibilityChange.*;
+
+/**
+ * Computes the breaking changes between two versions of a library straight
+ * from the Spoon models of their source code, without building their JARs.
+ * <p>
+ * The types of both models are matched by qualified name, their methods and
+ * constructors by signature and their fields by name, and compared the way
+ * {@link BytecodeDelta} compares class files: the same kinds of changes
+ * ({@link BytecodeDelta#SUPPORTED_CHANGES}) are reported, with the same
+ * semantics. Breaking changes point to the declarations of the old model,
+ * which are also their source elements.
+ * <p>
+ * Comparing type hierarchies requires resolving every supertype of the
+ * library's types, either in the models or in the JDK. When one of them
+ * cannot be resolved (e.g., it comes from a dependency that isn't on the
+ * models' classpath), no delta is computed and the JARs must be compared
+ * instead.
+ */
+public final class SourceDelta {
+	private final Map<String, CtType<?>> newTypes;
+	private final TypeIndex oldIndex;
+	private final TypeIndex newIndex;
+	private final int accessLevel;
+	private final Set<JApiCompatibilityChange> excluded;
+	private final List<BreakingChange> breakingChanges = new ArrayList<>();
+
+	private static final Logger logger = LogManager.getLogger(SourceDelta.class);
+
+	private SourceDelta(CtModel oldModel, CtModel newModel, Map<String, CtType<?>> newTypes, MaracasOptions options) {
+		this.newTypes = newTypes;
+		this.oldIndex = new TypeIndex(oldModel.getRootPackage().getFactory());
+		this.newIndex = new TypeIndex(newModel.getRootPackage().getFactory());
+		this.accessLevel = options.getJApiOptions().getAccessModifier().getLevel();
+		this.excluded = options.getExcludedBreakingChanges();
+	}
+
+	/**
+	 * Compares the source models of two versions of a library
+	 *
+	 * @param oldModel the Spoon model of the library's old sources
+	 * @param newModel the Spoon model of the library's new sources
+	 * @param options  Maracas' options; JApiCmp's access modifier and the excluded breaking changes are considered
+	 * @return the breaking changes between the two versions, or an empty optional
+	 * if the models' type hierarchies don't resolve or JApiCmp's options include
+	 * or exclude classes, in which case the JARs must be compared instead
+	 */
+	public static Optional<List<BreakingChange>> compare(CtModel oldModel, CtModel newModel, MaracasOptions options) {
+		Objects.requireNonNull(oldModel);
+		Objects.requireNonNull(newModel);
+		Objects.requireNonNull(options);
+
+		// Class filters only apply to JApiCmp's own model of the classes
+		if (!options.getJApiOptions().getIncludes().isEmpty() || !options.getJApiOptions().getExcludes().isEmpty())
+			return Optional.empty();
+
+		Stopwatch sw = Stopwatch.createStarted();
+		Map<String, CtType<?>> oldTypes = types(oldModel);
+		Map<String, CtType<?>> newTypes = types(newModel);
+
+		if (oldTypes.isEmpty() || !resolves(oldTypes.values()) || !resolves(newTypes.values()))
+			return Optional.empty();
+
+		SourceDelta delta = new SourceDelta(oldModel, newModel, newTypes, options);
+		oldTypes.values().forEach(delta::diff);
+
+		logger.info("Comparing source models found {} breaking changes in {} types in {}ms",
+			delta.breakingChanges.size(), oldTypes.size(), sw.elapsed().toMillis());
+		return Optional.of(delta.breakingChanges);
+	}
+
+	/**
+	 * Returns the top-level and member types of {@code model}, indexed by
+	 * qualified name. Local and anonymous types aren't part of any API.
+	 */
+	private static Map<String, CtType<?>> types(CtModel model) {
+		Map<String, CtType<?>> types = new HashMap<>();
+		model.getAllTypes().forEach(t -> collectTypes(t, types));
+		return types;
+	}
+
+	private static void collectTypes(CtType<?> type, Map<String, CtType<?>> types) {
+		types.putIfAbsent(type.getQualifiedName(), type);
+		type.getNestedTypes().forEach(nested -> collectTypes(nested, types));
+	}
+
+	/**
+	 * Whether the supertypes of {@code types}, and theirs in turn, all have a declaration
+	 */
+	private static boolean resolves(Iterable<CtType<?>> types) {
+		Set<String> resolved = new HashSet<>();
+
+		for (CtType<?> type : types) {
+			if (!resolves(type, resolved)) {
+				logger.info("Couldn't resolve the supertypes of {}", type.getQualifiedName());
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean resolves(CtType<?> type, Set<String> resolved) {
+		for (CtTypeReference<?> sup : directSupertypes(type)) {
+			if (resolved.contains(sup.getQualifiedName()))
+				continue;
+
+			CtType<?> decl = sup.getTypeDeclaration();
+			if (decl == null || !resolves(decl, resolved))
+				return false;
+			resolved.add(sup.getQualifiedName());
+		}
+
+		return true;
+	}
+
+	private static List<CtTypeReference<?>> directSupertypes(CtType<?> type) {
+		List<CtTypeReference<?>> res = new ArrayList<>(type.getSuperInterfaces());
+		if (type.getSuperclass() != null)
+			res.add(type.getSuperclass());
+		return res;
+	}
+
+	/**
+	 * Compares the old declaration of {@code o} with its new one, if any
+	 */
+	private void diff(CtType<?> o) {
+		CtType<?> n = newTypes.get(o.getQualifiedName());
+
+		if (n == null) {
+			if (isVisible(o, o))
+				typeChange(o, CLASS_REMOVED, null, Set.of());
+			return;
+		}
+		if (!isVisible(o, n))
+			return;
+
+		if (isLessAccessible(o, n))
+			typeChange(o, CLASS_LESS_ACCESSIBLE, accessModifier(n), Set.of());
+		if (!isAbstract(o) && isAbstract(n))
+			typeChange(o, CLASS_NOW_ABSTRACT, null, Set.of());
+		if (!o.hasModifier(ModifierKind.FINAL) && n.hasModifier(ModifierKind.FINAL))
+			typeChange(o, CLASS_NOW_FINAL, null, Set.of());
+
+		diffSupertypes(o, n);
+		diffFields(o, n);
+		diffExecutables(o, n);
+	}
+
+	private void diffSupertypes(CtType<?> o, CtType<?> n) {
+		List<String> oldSuperclasses = superclasses(o);
+		List<String> newSuperclasses = superclasses(n);
+
+		if (!newSuperclasses.containsAll(oldSuperclasses))
+			typeChange(o, SUPERCLASS_REMOVED, null, Set.of(oldSuperclasses.get(0)));
+		if (!oldSuperclasses.containsAll(newSuperclasses))
+			typeChange(o, SUPERCLASS_ADDED, null, Set.of(newSuperclasses.get(0)));
+
+		Set<String> oldInterfaces = interfaces(o);
+		Set<String> newInterfaces = interfaces(n);
+		Set<String> added = difference(newInterfaces, oldInterfaces);
+		Set<String> removed = difference(oldInterfaces, newInterfaces);
+
+		// A single change per type, listing the interfaces it gained (resp. lost)
+		if (!added.isEmpty())
+			typeChange(o, INTERFACE_ADDED, null, added);
+		if (!removed.isEmpty())
+			typeChange(o, INTERFACE_REMOVED, null, removed);
+	}
+
+	private void diffFields(CtType<?> o, CtType<?> n) {
+		for (CtField<?> f : o.getFields()) {
+			CtField<?> nf = newIndex.field(n, f.getSimpleName());
+
+			if (nf == null) {
+				if (isVisible(f, f))
+					fieldChange(f, FIELD_REMOVED, null, null);
+				continue;
+			}
+			if (!isVisible(f, nf))
+				continue;
+
+			if (isLessAccessible(f, nf))
+				fieldChange(f, FIELD_LESS_ACCESSIBLE, accessModifier(nf), null);
+			if (!f.hasModifier(ModifierKind.FINAL) && nf.hasModifier(ModifierKind.FINAL))
+				fieldChange(f, FIELD_NOW_FINAL, null, null);
+			if (!f.isStatic() && nf.isStatic())
+				fieldChange(f, FIELD_NOW_STATIC, null, null);
+			if (f.isStatic() && !nf.isStatic())
+				fieldChange(f, FIELD_NO_LONGER_STATIC, null, null);
+
+			String newType = erasure(nf.getType());
+			if (!erasure(f.getType()).equals(newType))
+				fieldChange(f, FIELD_TYPE_CHANGED, null, newType);
+		}
+	}
+
+	private void diffExecutables(CtType<?> o, CtType<?> n) {
+		List<CtExecutable<?>> executables = executables(o);
+
+		for (CtExecutable<?> m : executables) {
+			String signature = m.getReference().getSignature();
+			CtExecutable<?> nm = newIndex.executable(n, signature);
+			boolean constructor = m instanceof CtConstructor<?>;
+
+			if (nm == null) {
+				if (!isVisible((CtModifiable) m, (CtModifiable) m))
+					continue;
+				if (constructor)
+					executableChange(m, CONSTRUCTOR_REMOVED, null);
+				// Methods moved to a superclass are still there
+				else if (!inheritsMethod(n, signature))
+					executableChange(m, METHOD_REMOVED, null);
+				continue;
+			}
+			if (!isVisible((CtModifiable) m, (CtModifiable) nm))
+				continue;
+
+			if (isLessAccessible((CtModifiable) m, (CtModifiable) nm))
+				executableChange(m, constructor ? CONSTRUCTOR_LESS_ACCESSIBLE : METHOD_LESS_ACCESSIBLE, null);
+			if (constructor)
+				continue;
+
+			CtMethod<?> om = (CtMethod<?>) m;
+			CtMethod<?> nmm = (CtMethod<?>) nm;
+			String newReturnType = erasure(nmm.getType());
+			if (!erasure(om.getType()).equals(newReturnType))
+				executableChange(m, METHOD_RETURN_TYPE_CHANGED, newReturnType);
+			if (!isAbstract(om) && isAbstract(nmm))
+				executableChange(m, METHOD_NOW_ABSTRACT, null);
+			// Static methods and methods of final classes couldn't be overridden anyway
+			if (!om.hasModifier(ModifierKind.FINAL) && nmm.hasModifier(ModifierKind.FINAL)
+				&& !o.hasModifier(ModifierKind.FINAL) && !om.isStatic())
+				executableChange(m, METHOD_NOW_FINAL, null);
+			if (!om.isStatic() && nmm.isStatic())
+				executableChange(m, METHOD_NOW_STATIC, null);
+			if (om.isStatic() && !nmm.isStatic())
+				executableChange(m, METHOD_NO_LONGER_STATIC, null);
+		}
+
+		if (n.isInterface())
+			for (CtExecutable<?> m : executables(n))
+				if (m instanceof CtMethod<?> method && oldIndex.executable(o, m.getReference().getSignature()) == null
+					&& isAbstract(method) && isVisible(method, method))
+					typeChange(o, METHOD_ADDED_TO_INTERFACE, null, Set.of());
+	}
+
+	/**
+	 * Returns the methods and constructors declared in {@code type}
+	 */
+	private static List<CtExecutable<?>> executables(CtType<?> type) {
+		return type.getTypeMembers().stream()
+			.filter(member -> member instanceof CtConstructor<?> || member instanceof CtMethod<?>)
+			.<CtExecutable<?>>map(member -> (CtExecutable<?>) member)
+			.toList();
+	}
+
+	/**
+	 * Returns the qualified names of the superclasses of {@code type}, from
+	 * the direct one up to {@code java.lang.Object}
+	 */
+	private static List<String> superclasses(CtType<?> type) {
+		List<String> res = new ArrayList<>();
+
+		CtTypeReference<?> sup = type.getSuperclass();
+		while (sup != null && !res.contains(sup.getQualifiedName())) {
+			res.add(sup.getQualifiedName());
+			CtType<?> decl = sup.getTypeDeclaration();
+			sup = decl != null ? decl.getSuperclass() : null;
+		}
+
+		// Spoon leaves java.lang.Object implicit, unlike class files (including interfaces')
+		if (!type.getQualifiedName().equals("java.lang.Object") && !res.contains("java.lang.Object"))
+			res.add("java.lang.Object");
+
+		return res;
+	}
+
+	/**
+	 * Returns the qualified names of all the interfaces implemented by
+	 * {@code type}, directly or through its superinterfaces and superclasses
+	 */
+	private static Set<String> interfaces(CtType<?> type) {
+		Set<String> res = new HashSet<>();
+		collectInterfaces(type, res, new HashSet<>());
+		return res;
+	}
+
+	private static void collectInterfaces(CtType<?> type, Set<String> res, Set<String> visited) {
+		if (type == null || !visited.add(type.getQualifiedName()))
+			return;
+
+		for (CtTypeReference<?> i : type.getSuperInterfaces()) {
+			res.add(i.getQualifiedName());
+			collectInterfaces(i.getTypeDeclaration(), res, visited);
+		}
+		if (type.getSuperclass() != null)
+			collectInterfaces(type.getSuperclass().getTypeDeclaration(), res, visited);
+	}
+
+	/**
+	 * Whether one of the superclasses of {@code type} declares a method with
+	 * the given {@code signature}
+	 */
+	private boolean inheritsMethod(CtType<?> type, String signature) {
+		for (CtTypeReference<?> sup = type.getSuperclass(); sup != null; ) {
+			CtType<?> decl = sup.getTypeDeclaration();
+			if (decl == null)
+				return false;
+			if (newIndex.executable(decl, signature) != null)
+				return true;
+			sup = decl.getSuperclass();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Whether an element with the given old and new declarations is reported,
+	 * according to JApiCmp's access modifier option
+	 */
+	private boolean isVisible(CtModifiable o, CtModifiable n) {
+		return accessModifier(o).getLevel() >= accessLevel || accessModifier(n).getLevel() >= accessLevel;
+	}
+
+	private static boolean isLessAccessible(CtModifiable o, CtModifiable n) {
+		return accessModifier(n).getLevel() < accessModifier(o).getLevel();
+	}
+
+	private static AccessModifier accessModifier(CtModifiable element) {
+		// Members of interfaces are implicitly public
+		if (element.hasModifier(ModifierKind.PUBLIC) || (isInterfaceMember(element) && !element.hasModifier(ModifierKind.PRIVATE)))
+			return AccessModifier.PUBLIC;
+		if (element.hasModifier(ModifierKind.PROTECTED))
+			return AccessModifier.PROTECTED;
+		if (element.hasModifier(ModifierKind.PRIVATE))
+			return AccessModifier.PRIVATE;
+		return AccessModifier.PACKAGE_PROTECTED;
+	}
+
+	private static boolean isInterfaceMember(CtModifiable element) {
+		return element.getParent() instanceof CtType<?> parent && parent.isInterface();
+	}
+
+	private static boolean isAbstract(CtType<?> type) {
+		return type.isInterface() || type.hasModifier(ModifierKind.ABSTRACT);
+	}
+
+	private static boolean isAbstract(CtMethod<?> method) {
+		// Methods of interfaces without a body are implicitly abstract
+		return method.hasModifier(ModifierKind.ABSTRACT)
+			|| (method.getDeclaringType().isInterface() && method.getBody() == null && !method.isStatic()
+			&& !method.hasModifier(ModifierKind.PRIVATE));
+	}
+
+	private static String erasure(CtTypeReference<?> type) {
+		return type.getTypeErasure().getQualifiedName();
+	}
+
+	private static Set<String> difference(Set<String> s1, Set<String> s2) {
+		Set<String> res = new LinkedHashSet<>(s1);
+		res.removeAll(s2);
+		return res;
+	}
+
+	private void typeChange(CtType<?> type, JApiCompatibilityChange change, AccessModifier newAccessModifier,
+	                        Set<String> changedSupertypes) {
+		add(new TypeBreakingChange(type.getReference(), change, newAccessModifier, changedSupertypes), type);
+	}
+
+	private void fieldChange(CtField<?> field, JApiCompatibilityChange change, AccessModifier newAccessModifier,
+	                         String newType) {
+		add(new FieldBreakingChange(field.getReference(), change, newAccessModifier, newType), field);
+	}
+
+	private void executableChange(CtExecutable<?> executable, JApiCompatibilityChange change, String newReturnType) {
+		add(new MethodBreakingChange(executable.getReference(), change, newReturnType), executable);
+	}
+
+	private void add(BreakingChange bc, CtElement sourceElement) {
+		if (excluded.contains(bc.getChange()))
+			return;
+
+		bc.setSourceElement(sourceElement);
+		breakingChanges.add(bc);
+	}
+}
@@ -12,13 +12,15 @@ import com.github.maracas.visitors.InterfaceRemovedVisitor;
 import com.github.maracas.visitors.MethodAddedToInterfaceVisitor;
 import com.github.maracas.visitors.SuperclassAddedVisitor;
 import com.github.maracas.visitors.SuperclassRemovedVisitor;
+import japicmp.model.AccessModifier;
 import japicmp.model.JApiChangeStatus;
 import japicmp.model.JApiClass;
 import japicmp.model.JApiCompatibilityChange;
-import japicmp.model.JApiSuperclass;
+import japicmp.model.JApiImplementedInterface;
 import spoon.reflect.reference.CtReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
 
@@ -28,13 +30,51 @@ import static java.util.stream.Collectors.toSet;
  * Represents a type-level breaking change (class, interface, enum)
  */
 public class TypeBreakingChange extends AbstractBreakingChange {
-	private final JApiClass jApiCls;
 	private final CtTypeReference<?> clsRef;
 
+	/**
+	 * The new access modifier of the class (CLASS_LESS_ACCESSIBLE only)
+	 */
+	private final AccessModifier newAccessModifier;
+
+	/**
+	 * The qualified names of the supertypes added or removed by the change
+	 * (INTERFACE_ADDED, INTERFACE_REMOVED, SUPERCLASS_ADDED, SUPERCLASS_REMOVED only)
+	 */
+	private final Set<String> changedSupertypes;
+
 	public TypeBreakingChange(JApiClass cls, CtTypeReference<?> clsRef, JApiCompatibilityChange change) {
+		this(clsRef, change, newAccessModifier(Objects.requireNonNull(cls), change), changedSupertypes(cls, change));
+	}
+
+	TypeBreakingChange(CtTypeReference<?> clsRef, JApiCompatibilityChange change, AccessModifier newAccessModifier,
+	                   Set<String> changedSupertypes) {
 		super(change);
-		this.jApiCls = Objects.requireNonNull(cls);
 		this.clsRef = Objects.requireNonNull(clsRef);
+		this.newAccessModifier = newAccessModifier;
+		this.changedSupertypes = Objects.requireNonNull(changedSupertypes);
+	}
+
+	private static AccessModifier newAccessModifier(JApiClass cls, JApiCompatibilityChange change) {
+		return change == JApiCompatibilityChange.CLASS_LESS_ACCESSIBLE
+			? cls.getAccessModifier().getNewModifier().get()
+			: null;
+	}
+
+	private static Set<String> changedSupertypes(JApiClass cls, JApiCompatibilityChange change) {
+		return switch (change) {
+			case INTERFACE_ADDED -> cls.getInterfaces().stream()
+				.filter(i -> i.getChangeStatus().equals(JApiChangeStatus.NEW))
+				.map(JApiImplementedInterface::getFullyQualifiedName)
+				.collect(toSet());
+			case INTERFACE_REMOVED -> cls.getInterfaces().stream()
+				.filter(i -> i.getChangeStatus().equals(JApiChangeStatus.REMOVED))
+				.map(JApiImplementedInterface::getFullyQualifiedName)
+				.collect(toSet());
+			case SUPERCLASS_ADDED -> Collections.singleton(cls.getSuperclass().getSuperclassNew());
+			case SUPERCLASS_REMOVED -> Collections.singleton(cls.getSuperclass().getSuperclassOld());
+			default -> Collections.emptySet();
+		};
 	}
 
 	@Override
@@ -42,41 +82,29 @@ public class TypeBreakingChange extends AbstractBreakingChange {
 		return clsRef;
 	}
 
+	AccessModifier getNewAccessModifier() {
+		return newAccessModifier;
+	}
+
+	Set<String> getChangedSupertypes() {
+		return changedSupertypes;
+	}
+
 	@Override
 	public BreakingChangeVisitor getVisitor() {
 		return
 			switch (change) {
-				case CLASS_LESS_ACCESSIBLE       -> new ClassLessAccessibleVisitor(clsRef, jApiCls.getAccessModifier().getNewModifier().get());
+				case CLASS_LESS_ACCESSIBLE       -> new ClassLessAccessibleVisitor(clsRef, newAccessModifier);
 				case CLASS_NOW_ABSTRACT          -> new ClassNowAbstractVisitor(clsRef);
 				case CLASS_NOW_FINAL             -> new ClassNowFinalVisitor(clsRef);
 				case CLASS_NOW_CHECKED_EXCEPTION -> new ClassNowCheckedExceptionVisitor(clsRef);
 				case ANNOTATION_DEPRECATED_ADDED -> new AnnotationDeprecatedAddedToClassVisitor(clsRef);
 				case CLASS_REMOVED               -> new ClassRemovedVisitor(clsRef);
 				case METHOD_ADDED_TO_INTERFACE   -> new MethodAddedToInterfaceVisitor(clsRef);
-				case INTERFACE_ADDED -> {
-					Set<CtTypeReference<?>> newInterfaces = jApiCls.getInterfaces().stream()
-						.filter(i -> i.getChangeStatus().equals(JApiChangeStatus.NEW))
-						.map(i -> clsRef.getFactory().Type().createReference(i.getFullyQualifiedName()))
-						.collect(toSet());
-					yield new InterfaceAddedVisitor(clsRef, newInterfaces);
-				}
-				case INTERFACE_REMOVED -> {
-					Set<CtTypeReference<?>> oldInterfaces = jApiCls.getInterfaces().stream()
-						.filter(i -> i.getChangeStatus().equals(JApiChangeStatus.REMOVED))
-						.map(i -> clsRef.getFactory().Type().createReference(i.getFullyQualifiedName()))
-						.collect(toSet());
-					yield new InterfaceRemovedVisitor(clsRef, oldInterfaces);
-				}
-				case SUPERCLASS_ADDED -> {
-					JApiSuperclass superClass = jApiCls.getSuperclass();
-					CtTypeReference<?> newSuper = clsRef.getFactory().Type().createReference(superClass.getSuperclassNew());
-					yield new SuperclassAddedVisitor(clsRef, newSuper);
-				}
-				case SUPERCLASS_REMOVED -> {
-					JApiSuperclass superClass = jApiCls.getSuperclass();
-					CtTypeReference<?> oldSuper = clsRef.getFactory().Type().createReference(superClass.getSuperclassOld());
-					yield new SuperclassRemovedVisitor(clsRef, oldSuper);
-				}
+				case INTERFACE_ADDED             -> new InterfaceAddedVisitor(clsRef, changedSupertypeRefs());
+				case INTERFACE_REMOVED           -> new InterfaceRemovedVisitor(clsRef, changedSupertypeRefs());
+				case SUPERCLASS_ADDED            -> new SuperclassAddedVisitor(clsRef, changedSupertypeRefs().iterator().next());
+				case SUPERCLASS_REMOVED          -> new SuperclassRemovedVisitor(clsRef, changedSupertypeRefs().iterator().next());
 				// TODO: To be implemented
 				case METHOD_ABSTRACT_ADDED_TO_CLASS,
 					METHOD_NEW_DEFAULT,
@@ -87,4 +115,10 @@ public class TypeBreakingChange extends AbstractBreakingChange {
 					throw new IllegalStateException(this + " was somehow associated to a non-class-level breaking change: " + change);
 			};
 	}
+
+	private Set<CtTypeReference<?>> changedSupertypeRefs() {
+		return changedSupertypes.stream()
+			.<CtTypeReference<?>>map(t -> clsRef.getFactory().Type().createReference(t))
+			.collect(toSet());
+	}
 }
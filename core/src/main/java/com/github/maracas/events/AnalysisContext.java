@@ -0,0 +1,78 @@
+package com.github.maracas.events;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A label identifying what the current thread is analyzing on behalf of its
+ * caller (e.g., the pull request and module being analyzed), recorded in the
+ * JFR events Maracas emits so that they can be correlated in recordings.
+ * <p>
+ * The context is bound to the current thread; tasks handed over to other
+ * threads must be wrapped with {@link #propagate(Supplier)}.
+ */
+public final class AnalysisContext {
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private AnalysisContext() {
+
+	}
+
+	/**
+	 * Returns the context of the current thread, or null if there is none
+	 */
+	public static String current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Binds {@code context} to the current thread until the returned scope is closed
+	 *
+	 * @param context the new context
+	 * @return a scope restoring the previous context when closed
+	 */
+	public static Scope open(String context) {
+		Objects.requireNonNull(context);
+		String previous = CURRENT.get();
+		CURRENT.set(context);
+		return () -> {
+			if (previous != null)
+				CURRENT.set(previous);
+			else
+				CURRENT.remove();
+		};
+	}
+
+	/**
+	 * Returns a task running {@code task} within the context of the current
+	 * thread, whichever thread it ends up running on
+	 */
+	public static <T> Supplier<T> propagate(Supplier<T> task) {
+		return within(CURRENT.get(), task);
+	}
+
+	/**
+	 * Returns a task running {@code task} within {@code context}, or {@code task}
+	 * itself if {@code context} is null
+	 */
+	public static <T> Supplier<T> within(String context, Supplier<T> task) {
+		Objects.requireNonNull(task);
+		if (context == null)
+			return task;
+
+		return () -> {
+			try (Scope scope = open(context)) {
+				return task.get();
+			}
+		};
+	}
+
+	/**
+	 * A context bound to the current thread
+	 */
+	@FunctionalInterface
+	public interface Scope extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
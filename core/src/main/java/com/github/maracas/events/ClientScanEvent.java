@@ -0,0 +1,39 @@
+package com.github.maracas.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when scanning the Spoon model of a client for broken uses
+ */
+@Name("com.github.maracas.ClientScan")
+@Label("Client Scan")
+@Category("Maracas")
+@Description("Traversal of a client's Spoon model by the breaking change visitors")
+@StackTrace(false)
+public final class ClientScanEvent extends Event {
+	@Label("Context")
+	public String context;
+
+	@Label("Client")
+	public String client;
+
+	@Label("Files")
+	public int files;
+
+	@Label("Elements")
+	@Description("Number of model elements the scan went through")
+	public long elements;
+
+	@Label("Broken Uses")
+	public int brokenUses;
+
+	@Label("Estimated Model Size")
+	@DataAmount
+	public long estimatedModelSize;
+}
@@ -0,0 +1,42 @@
+package com.github.maracas.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when computing the delta between two versions of a library
+ */
+@Name("com.github.maracas.Delta")
+@Label("Delta Computation")
+@Category("Maracas")
+@Description("Comparison of two library JARs and mapping of their breaking changes")
+@StackTrace(false)
+public final class DeltaEvent extends Event {
+	@Label("Context")
+	public String context;
+
+	@Label("Old Version")
+	public String oldVersion;
+
+	@Label("New Version")
+	public String newVersion;
+
+	@Label("Old JAR Size")
+	@DataAmount
+	public long oldJarSize;
+
+	@Label("New JAR Size")
+	@DataAmount
+	public long newJarSize;
+
+	@Label("Breaking Changes")
+	public int breakingChanges;
+
+	@Label("Cached")
+	public boolean cached;
+}
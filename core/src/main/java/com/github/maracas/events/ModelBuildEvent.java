@@ -0,0 +1,43 @@
+package com.github.maracas.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when building the Spoon model of a library JAR, of a library's
+ * sources, or of a client
+ */
+@Name("com.github.maracas.ModelBuild")
+@Label("Spoon Model Build")
+@Category("Maracas")
+@Description("Construction of a binary or source Spoon model")
+@StackTrace(false)
+public final class ModelBuildEvent extends Event {
+	public static final String BINARY = "binary";
+	public static final String SOURCE = "source";
+
+	@Label("Context")
+	public String context;
+
+	@Label("Location")
+	@Description("The JAR or source directory the model is built from")
+	public String location;
+
+	@Label("Kind")
+	@Description("Whether the model is built from a JAR (binary) or from source code (source)")
+	public String kind;
+
+	@Label("Files")
+	@Description("Number of compilation units in the model")
+	public int files;
+
+	@Label("Input Size")
+	@DataAmount
+	@Description("Size of the JAR or of the source files in the model")
+	public long inputSize;
+}
@@ -0,0 +1,253 @@
+package com.github.maracas.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A multi-pattern matcher based on the Aho–Corasick automaton, operating on
+ * raw (UTF-8) bytes so that source files can be scanned straight from a
+ * memory-mapped buffer without decoding them.
+ * <p>
+ * Patterns are Java identifiers and only match whole identifiers: a pattern
+ * {@code foo} matches {@code a.foo()} but not {@code foobar} or {@code myfoo}.
+ */
+public final class AhoCorasickMatcher {
+	private static final int ROOT = 0;
+
+	/**
+	 * Sorted transition labels per state
+	 */
+	private final byte[][] labels;
+
+	/**
+	 * Transition targets per state, aligned with {@link #labels}
+	 */
+	private final int[][] targets;
+
+	/**
+	 * Failure link per state
+	 */
+	private final int[] fail;
+
+	/**
+	 * Indexes (in {@link #patterns}) of the patterns recognized when reaching
+	 * each state (including those recognized through failure links)
+	 */
+	private final int[][] outputs;
+
+	/**
+	 * The distinct patterns and their length in bytes
+	 */
+	private final List<String> patterns = new ArrayList<>();
+	private final List<Integer> lengths = new ArrayList<>();
+
+	public AhoCorasickMatcher(Collection<String> patterns) {
+		Objects.requireNonNull(patterns);
+
+		// Build the trie
+		List<TreeMap<Byte, Integer>> trie = new ArrayList<>();
+		List<int[]> own = new ArrayList<>();
+		trie.add(new TreeMap<>());
+		own.add(new int[0]);
+
+		for (String pattern : patterns) {
+			byte[] bytes = pattern.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length == 0)
+				continue;
+
+			int state = ROOT;
+			for (byte b : bytes) {
+				Integer next = trie.get(state).get(b);
+				if (next == null) {
+					next = trie.size();
+					trie.add(new TreeMap<>());
+					own.add(new int[0]);
+					trie.get(state).put(b, next);
+				}
+				state = next;
+			}
+
+			if (own.get(state).length == 0) {
+				own.set(state, new int[]{patterns.size()});
+				patterns.add(pattern);
+				lengths.add(bytes.length);
+			}
+		}
+
+		// Freeze the transitions into sorted arrays
+		int n = trie.size();
+		labels = new byte[n][];
+		targets = new int[n][];
+		for (int s = 0; s < n; s++) {
+			TreeMap<Byte, Integer> transitions = trie.get(s);
+			labels[s] = new byte[transitions.size()];
+			targets[s] = new int[transitions.size()];
+			int i = 0;
+			for (Map.Entry<Byte, Integer> t : transitions.entrySet()) {
+				labels[s][i] = t.getKey();
+				targets[s][i] = t.getValue();
+				i++;
+			}
+		}
+
+		// Compute failure links and merge outputs breadth-first
+		fail = new int[n];
+		outputs = new int[n][];
+		outputs[ROOT] = own.get(ROOT);
+		Deque<Integer> queue = new ArrayDeque<>();
+		for (int child : targets[ROOT]) {
+			fail[child] = ROOT;
+			outputs[child] = own.get(child);
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty()) {
+			int s = queue.poll();
+			for (int i = 0; i < labels[s].length; i++) {
+				byte b = labels[s][i];
+				int child = targets[s][i];
+				int f = fail[s];
+				int t;
+				while ((t = transition(f, b)) < 0 && f != ROOT)
+					f = fail[f];
+				fail[child] = t >= 0 ? t : ROOT;
+				outputs[child] = merge(own.get(child), outputs[fail[child]]);
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether any pattern appears as a whole identifier in {@code buffer}
+	 *
+	 * @param buffer the bytes to scan, from index 0 to its limit
+	 * @return true if at least one pattern matches
+	 */
+	public boolean matches(ByteBuffer buffer) {
+		return scan(buffer, true).length > 0;
+	}
+
+	/**
+	 * Checks whether any pattern appears as a whole identifier in {@code file},
+	 * reading it through a memory-mapped buffer
+	 *
+	 * @param file the file to scan
+	 * @return true if at least one pattern matches
+	 * @throws IOException if the file cannot be read
+	 */
+	public boolean matches(Path file) throws IOException {
+		return matches(map(file));
+	}
+
+	/**
+	 * Returns all the patterns appearing as whole identifiers in {@code buffer}
+	 *
+	 * @param buffer the bytes to scan, from index 0 to its limit
+	 * @return the matching patterns
+	 */
+	public Set<String> matchingPatterns(ByteBuffer buffer) {
+		boolean[] matched = scan(buffer, false);
+		Set<String> res = new HashSet<>();
+		for (int i = 0; i < matched.length; i++)
+			if (matched[i])
+				res.add(patterns.get(i));
+		return res;
+	}
+
+	/**
+	 * Returns all the patterns appearing as whole identifiers in {@code file},
+	 * reading it through a memory-mapped buffer
+	 *
+	 * @param file the file to scan
+	 * @return the matching patterns
+	 * @throws IOException if the file cannot be read
+	 */
+	public Set<String> matchingPatterns(Path file) throws IOException {
+		return matchingPatterns(map(file));
+	}
+
+	/**
+	 * Scans {@code buffer} and flags the patterns it contains
+	 *
+	 * @param firstOnly whether to stop at the first match, returning an empty array if there is none
+	 */
+	private boolean[] scan(ByteBuffer buffer, boolean firstOnly) {
+		boolean[] matched = new boolean[patterns.size()];
+		int limit = buffer.limit();
+		int state = ROOT;
+
+		for (int i = 0; i < limit; i++) {
+			byte b = buffer.get(i);
+
+			int next;
+			while ((next = transition(state, b)) < 0 && state != ROOT)
+				state = fail[state];
+			state = next < 0 ? ROOT : next;
+
+			for (int p : outputs[state]) {
+				int length = lengths.get(p);
+				if (!isIdentifierPart(buffer, i - length) && !isIdentifierPart(buffer, i + 1)) {
+					if (firstOnly)
+						return matched;
+					matched[p] = true;
+				}
+			}
+		}
+
+		return firstOnly ? new boolean[0] : matched;
+	}
+
+	private static ByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private int transition(int state, byte b) {
+		int i = Arrays.binarySearch(labels[state], b);
+		return i >= 0 ? targets[state][i] : -1;
+	}
+
+	private static int[] merge(int[] own, int[] inherited) {
+		if (inherited.length == 0)
+			return own;
+		if (own.length == 0)
+			return inherited;
+
+		int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+		System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+		return merged;
+	}
+
+	/**
+	 * Whether the byte at {@code index} can be part of a Java identifier.
+	 * Non-ASCII bytes are conservatively considered identifier parts.
+	 */
+	private static boolean isIdentifierPart(ByteBuffer buffer, int index) {
+		if (index < 0 || index >= buffer.limit())
+			return false;
+
+		int c = buffer.get(index) & 0xFF;
+		return c >= 0x80
+			|| (c >= 'a' && c <= 'z')
+			|| (c >= 'A' && c <= 'Z')
+			|| (c >= '0' && c <= '9')
+			|| c == '_'
+			|| c == '$';
+	}
+}
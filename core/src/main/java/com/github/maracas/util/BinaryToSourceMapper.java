@@ -13,7 +13,6 @@ import spoon.reflect.reference.CtTypeReference;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 
 /**
  * A BinaryToSourceMapper attempts to map Spoon's {@link CtReference}
@@ -26,11 +25,11 @@ import java.util.Optional;
  * (e.g., the type containing the default constructor/enum's methods).
  */
 public final class BinaryToSourceMapper {
-	private final CtPackage root;
+	private final TypeIndex index;
 	private final Map<CtReference, CtElement> mapped = new HashMap<>();
 
 	public BinaryToSourceMapper(CtPackage root) {
-		this.root = Objects.requireNonNull(root);
+		this.index = new TypeIndex(Objects.requireNonNull(root).getFactory());
 	}
 
 	public CtElement resolve(CtReference binaryRef) {
@@ -59,8 +58,7 @@ public final class BinaryToSourceMapper {
 		CtType<?> binaryDecl = binaryRef.getTypeDeclaration();
 
 		if (binaryDecl != null) {
-			CtTypeReference<?> sourceRef = root.getFactory().Type().createReference(binaryDecl);
-			CtType<?> typeDecl = sourceRef.getTypeDeclaration();
+			CtType<?> typeDecl = index.declaration(binaryDecl.getQualifiedName());
 
 			if (typeDecl != null && typeDecl.getPosition().isValidPosition())
 				return typeDecl;
@@ -76,18 +74,10 @@ public final class BinaryToSourceMapper {
 			CtType<?> declaringType = resolve(declaringTypeRef);
 
 			if (declaringType != null) {
-				Optional<CtExecutableReference<?>> sourceRefOpt =
-					declaringType.getDeclaredExecutables().stream()
-						.filter(e -> Objects.equals(e.getSignature(), binaryRef.getSignature()))
-						.findFirst();
+				CtExecutable<?> execDecl = index.executable(declaringType, binaryRef.getSignature());
 
-				if (sourceRefOpt.isPresent()) {
-					CtExecutableReference<?> sourceRef = sourceRefOpt.get();
-					CtExecutable<?> execDecl = sourceRef.getExecutableDeclaration();
-
-					if (execDecl != null && execDecl.getPosition().isValidPosition())
-						return execDecl;
-				}
+				if (execDecl != null && execDecl.getPosition().isValidPosition())
+					return execDecl;
 
 				return declaringType;
 			}
@@ -103,8 +93,7 @@ public final class BinaryToSourceMapper {
 			CtType<?> declaringType = resolve(declaringTypeRef);
 
 			if (declaringType != null) {
-				CtFieldReference<?> sourceRef = declaringType.getDeclaredField(binaryRef.getSimpleName());
-				CtField<?> fieldDecl = sourceRef.getFieldDeclaration();
+				CtField<?> fieldDecl = index.field(declaringType, binaryRef.getSimpleName());
 
 				if (fieldDecl != null && fieldDecl.getPosition().isValidPosition())
 					return fieldDecl;
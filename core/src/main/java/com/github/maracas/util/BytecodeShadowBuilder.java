@@ -0,0 +1,528 @@
+package com.github.maracas.util;
+
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.InnerClassesAttribute;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.SignatureAttribute;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import spoon.compiler.Environment;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtAnnotation;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtEnumValue;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtFormalTypeDeclarer;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtModifiable;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtParameter;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.CtTypeParameter;
+import spoon.reflect.declaration.ModifierKind;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.factory.FactoryImpl;
+import spoon.reflect.factory.TypeFactory;
+import spoon.reflect.reference.CtIntersectionTypeReference;
+import spoon.reflect.reference.CtTypeParameterReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.reference.CtWildcardReference;
+import spoon.support.DefaultCoreFactory;
+import spoon.support.StandardEnvironment;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Builds Spoon shadow types (see {@link CtType#isShadow()}) straight from the
+ * class files of JARs, without loading the classes in the JVM.
+ * <p>
+ * Spoon builds shadow types through reflection, which requires loading the
+ * library's classes (and their dependencies) in a dedicated class loader. These
+ * classes then stay in Metaspace for as long as the model is reachable. Here,
+ * class files are parsed with Javassist and mapped to the same declarations
+ * {@code JavaReflectionTreeBuilder} would create: types with their modifiers,
+ * generic supertypes and type parameters, runtime-visible annotations, and
+ * their non-synthetic fields, constructors, methods and member types.
+ * Records are represented as regular classes.
+ * <p>
+ * The types of the library's JAR are built eagerly, those of its classpath
+ * lazily, the first time the model looks them up. Types that are in neither
+ * (typically, the JDK's) are still resolved through reflection, using the
+ * platform class loader.
+ */
+public final class BytecodeShadowBuilder {
+	private final Factory factory;
+	private final ClassFileSource classFiles;
+
+	private static final Logger logger = LogManager.getLogger(BytecodeShadowBuilder.class);
+
+	private BytecodeShadowBuilder(Factory factory, ClassFileSource classFiles) {
+		this.factory = factory;
+		this.classFiles = classFiles;
+	}
+
+	/**
+	 * Builds the shadow model of {@code jar}
+	 *
+	 * @param jar       the JAR whose types are built eagerly
+	 * @param classpath the JARs whose types are built on demand
+	 * @return the resulting model
+	 * @throws IOException if one of the JARs cannot be read
+	 */
+	public static CtModel buildModel(Path jar, Collection<Path> classpath) throws IOException {
+		Objects.requireNonNull(jar);
+		Objects.requireNonNull(classpath);
+
+		Environment env = new StandardEnvironment();
+		env.setNoClasspath(true);
+		env.setInputClassLoader(ClassLoader.getPlatformClassLoader());
+
+		ShadowFactory factory = new ShadowFactory(env, new JarIndex(classpath));
+		Map<String, ClassFile> library = readAll(jar);
+		BytecodeShadowBuilder builder = new BytecodeShadowBuilder(factory, library::get);
+		library.values().stream()
+			.filter(BytecodeShadowBuilder::isTopLevel)
+			.forEach(builder::buildType);
+
+		return factory.getModel();
+	}
+
+	/**
+	 * Builds the shadow type declared by {@code cf}, and its member types, in
+	 * the model of {@link #factory}
+	 */
+	CtType<?> buildType(ClassFile cf) {
+		String name = cf.getName();
+		int lastDot = name.lastIndexOf('.');
+		CtPackage pkg = lastDot < 0
+			? factory.Package().getRootPackage()
+			: factory.Package().getOrCreate(name.substring(0, lastDot));
+
+		CtType<?> type = createType(cf, name.substring(lastDot + 1), cf.getAccessFlags());
+		pkg.addType(type);
+		fill(type, cf, false);
+		return type;
+	}
+
+	private CtType<?> createType(ClassFile cf, String simpleName, int flags) {
+		CtType<?> type;
+		if ((flags & AccessFlag.ANNOTATION) != 0)
+			type = factory.Core().createAnnotationType();
+		else if (cf.isInterface())
+			type = factory.Core().createInterface();
+		else if ((flags & AccessFlag.ENUM) != 0)
+			type = factory.Core().createEnum();
+		else
+			type = factory.Core().createClass();
+
+		type.setSimpleName(simpleName);
+		type.setShadow(true);
+		type.setModifiers(modifiers(flags, AccessFlag.PUBLIC | AccessFlag.PROTECTED | AccessFlag.PRIVATE
+			| AccessFlag.STATIC | AccessFlag.FINAL | AccessFlag.ABSTRACT));
+		return type;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void fill(CtType<?> type, ClassFile cf, boolean inner) {
+		try {
+			SignatureAttribute.ClassSignature signature = signature(cf);
+
+			for (SignatureAttribute.TypeParameter param : signature.getParameters())
+				type.addFormalCtTypeParameter(typeParameter(param));
+
+			SignatureAttribute.ClassType superclass = signature.getSuperClass();
+			if (type instanceof CtClass<?> cls && !(type instanceof CtEnum<?>)
+				&& superclass != null && !superclass.getName().equals("java.lang.Object"))
+				cls.setSuperclass(reference(superclass));
+
+			for (SignatureAttribute.ClassType intf : signature.getInterfaces())
+				if (!intf.getName().equals("java.lang.annotation.Annotation"))
+					type.addSuperInterface(reference(intf));
+
+			annotate(type, cf.getAttribute(AnnotationsAttribute.visibleTag));
+
+			for (FieldInfo field : cf.getFields())
+				if ((field.getAccessFlags() & AccessFlag.SYNTHETIC) == 0)
+					addField(type, field);
+
+			for (MethodInfo method : cf.getMethods())
+				if ((method.getAccessFlags() & (AccessFlag.SYNTHETIC | AccessFlag.BRIDGE)) == 0 && !method.isStaticInitializer())
+					addExecutable(type, method, inner);
+		} catch (BadBytecode e) {
+			logger.warn("Couldn't read the signatures of {}: {}", cf.getName(), e);
+		}
+
+		if (cf.getAttribute(InnerClassesAttribute.tag) instanceof InnerClassesAttribute inners) {
+			for (int i = 0; i < inners.tableLength(); i++) {
+				// Member types only: local and anonymous ones have no outer class or no name
+				if (!cf.getName().equals(inners.outerClass(i)) || inners.innerName(i) == null)
+					continue;
+
+				ClassFile nestedCf = classFiles.get(inners.innerClass(i));
+				if (nestedCf == null || (inners.accessFlags(i) & AccessFlag.SYNTHETIC) != 0)
+					continue;
+
+				CtType<?> nested = createType(nestedCf, inners.innerName(i), inners.accessFlags(i));
+				type.addNestedType(nested);
+				fill(nested, nestedCf, !nestedCf.isInterface() && (inners.accessFlags(i) & AccessFlag.STATIC) == 0);
+			}
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void addField(CtType<?> type, FieldInfo field) throws BadBytecode {
+		SignatureAttribute.Type fieldType = SignatureAttribute.toTypeSignature(signature(field.getAttribute(SignatureAttribute.tag), field.getDescriptor()));
+		int flags = field.getAccessFlags();
+
+		CtField f = (flags & AccessFlag.ENUM) != 0 && type instanceof CtEnum<?>
+			? factory.Core().createEnumValue()
+			: factory.Core().createField();
+		f.setSimpleName(field.getName());
+		f.setType(reference(fieldType));
+		f.setModifiers(modifiers(flags, AccessFlag.PUBLIC | AccessFlag.PROTECTED | AccessFlag.PRIVATE
+			| AccessFlag.STATIC | AccessFlag.FINAL | AccessFlag.TRANSIENT | AccessFlag.VOLATILE));
+		annotate(f, field.getAttribute(AnnotationsAttribute.visibleTag));
+
+		if (f instanceof CtEnumValue<?> value)
+			((CtEnum<?>) type).addEnumValue(value);
+		else
+			type.addField(f);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void addExecutable(CtType<?> type, MethodInfo method, boolean inner) throws BadBytecode {
+		String genericSignature = signature(method.getAttribute(SignatureAttribute.tag), null);
+		SignatureAttribute.MethodSignature signature =
+			SignatureAttribute.toMethodSignature(genericSignature != null ? genericSignature : method.getDescriptor());
+		int flags = method.getAccessFlags();
+
+		CtExecutable exec;
+		int implicitParameters = 0;
+		if (method.isConstructor()) {
+			if (!(type instanceof CtClass<?> cls))
+				return;
+
+			// Descriptors include the enclosing instance of inner classes and the
+			// name and ordinal of enum constants, which reflection doesn't expose
+			if (genericSignature == null)
+				implicitParameters = inner ? 1 : type instanceof CtEnum<?> ? 2 : 0;
+			CtConstructor cons = factory.Core().createConstructor();
+			cls.addConstructor(cons);
+			exec = cons;
+		} else {
+			// Spoon generates these implicitly
+			if (type instanceof CtEnum<?> && isImplicitEnumMethod(method))
+				return;
+
+			CtMethod m = type.isAnnotationType()
+				? factory.Core().createAnnotationMethod()
+				: factory.Core().createMethod();
+			m.setSimpleName(method.getName());
+			m.setType(reference(signature.getReturnType()));
+			if (type.isInterface() && (flags & (AccessFlag.ABSTRACT | AccessFlag.STATIC | AccessFlag.PRIVATE)) == 0)
+				m.setDefaultMethod(true);
+			type.addMethod(m);
+			exec = m;
+		}
+
+		((CtModifiable) exec).setModifiers(modifiers(flags, AccessFlag.PUBLIC | AccessFlag.PROTECTED | AccessFlag.PRIVATE
+			| AccessFlag.STATIC | AccessFlag.FINAL | AccessFlag.ABSTRACT | AccessFlag.SYNCHRONIZED | AccessFlag.NATIVE
+			| AccessFlag.STRICT));
+		for (SignatureAttribute.TypeParameter param : signature.getTypeParameters())
+			((CtFormalTypeDeclarer) exec).addFormalCtTypeParameter(typeParameter(param));
+
+		SignatureAttribute.Type[] paramTypes = signature.getParameterTypes();
+		for (int i = implicitParameters; i < paramTypes.length; i++) {
+			CtParameter param = factory.Core().createParameter();
+			param.setSimpleName("arg" + (i - implicitParameters));
+			param.setType(reference(paramTypes[i]));
+			param.setVarArgs(i == paramTypes.length - 1 && (flags & AccessFlag.VARARGS) != 0);
+			exec.addParameter(param);
+		}
+
+		if (signature.getExceptionTypes().length > 0) {
+			for (SignatureAttribute.ObjectType thrown : signature.getExceptionTypes())
+				exec.addThrownType(reference(thrown));
+		} else if (method.getExceptionsAttribute() != null) {
+			for (String thrown : method.getExceptionsAttribute().getExceptions())
+				exec.addThrownType(factory.Type().createReference(thrown));
+		}
+
+		annotate(exec, method.getAttribute(AnnotationsAttribute.visibleTag));
+	}
+
+	private CtTypeParameter typeParameter(SignatureAttribute.TypeParameter param) {
+		CtTypeParameter p = factory.Core().createTypeParameter();
+		p.setSimpleName(param.getName());
+
+		List<CtTypeReference<?>> bounds = new ArrayList<>();
+		if (param.getClassBound() != null)
+			bounds.add(reference(param.getClassBound()));
+		if (param.getInterfaceBound() != null)
+			for (SignatureAttribute.ObjectType bound : param.getInterfaceBound())
+				bounds.add(reference(bound));
+
+		if (bounds.size() == 1 && !bounds.get(0).getQualifiedName().equals("java.lang.Object"))
+			p.setSuperclass(bounds.get(0));
+		else if (bounds.size() > 1) {
+			CtIntersectionTypeReference<?> intersection = factory.Core().createIntersectionTypeReference();
+			intersection.setBounds(bounds);
+			p.setSuperclass(intersection);
+		}
+
+		return p;
+	}
+
+	private CtTypeReference<?> reference(SignatureAttribute.Type type) {
+		if (type instanceof SignatureAttribute.BaseType base)
+			return factory.Type().createReference(base.getCtlass().getName());
+
+		if (type instanceof SignatureAttribute.ArrayType array) {
+			CtTypeReference<?> ref = reference(array.getComponentType());
+			for (int i = 0; i < array.getDimension(); i++)
+				ref = factory.Type().createArrayReference(ref);
+			return ref;
+		}
+
+		if (type instanceof SignatureAttribute.TypeVariable variable) {
+			CtTypeParameterReference ref = factory.Core().createTypeParameterReference();
+			ref.setSimpleName(variable.getName());
+			return ref;
+		}
+
+		SignatureAttribute.ClassType cls = (SignatureAttribute.ClassType) type;
+		CtTypeReference<?> ref = factory.Type().createReference(binaryName(cls));
+		if (cls.getTypeArguments() != null)
+			for (SignatureAttribute.TypeArgument arg : cls.getTypeArguments())
+				ref.addActualTypeArgument(reference(arg));
+		return ref;
+	}
+
+	private CtTypeReference<?> reference(SignatureAttribute.TypeArgument arg) {
+		if (!arg.isWildcard())
+			return reference(arg.getType());
+
+		CtWildcardReference wildcard = factory.Core().createWildcardReference();
+		if (arg.getKind() != '*') {
+			wildcard.setUpper(arg.getKind() == '+');
+			wildcard.setBoundingType(reference(arg.getType()));
+		}
+		return wildcard;
+	}
+
+	private void annotate(CtElement element, AttributeInfo attribute) {
+		if (attribute instanceof AnnotationsAttribute annotations) {
+			for (javassist.bytecode.annotation.Annotation a : annotations.getAnnotations()) {
+				CtAnnotation<java.lang.annotation.Annotation> annotation = factory.Core().createAnnotation();
+				annotation.setAnnotationType(factory.Type().createReference(a.getTypeName()));
+				element.addAnnotation(annotation);
+			}
+		}
+	}
+
+	private static SignatureAttribute.ClassSignature signature(ClassFile cf) throws BadBytecode {
+		String generic = signature(cf.getAttribute(SignatureAttribute.tag), null);
+		if (generic != null)
+			return SignatureAttribute.toClassSignature(generic);
+
+		return new SignatureAttribute.ClassSignature(
+			new SignatureAttribute.TypeParameter[0],
+			cf.getSuperclass() != null ? new SignatureAttribute.ClassType(cf.getSuperclass()) : null,
+			Arrays.stream(cf.getInterfaces()).map(SignatureAttribute.ClassType::new)
+				.toArray(SignatureAttribute.ClassType[]::new));
+	}
+
+	private static String signature(AttributeInfo attribute, String otherwise) {
+		return attribute instanceof SignatureAttribute sig ? sig.getSignature() : otherwise;
+	}
+
+	private static String binaryName(SignatureAttribute.ClassType cls) {
+		return cls.getDeclaringClass() != null
+			? binaryName(cls.getDeclaringClass()) + "$" + cls.getName()
+			: cls.getName();
+	}
+
+	private static boolean isImplicitEnumMethod(MethodInfo method) {
+		return (method.getAccessFlags() & AccessFlag.STATIC) != 0
+			&& (method.getName().equals("values") && method.getDescriptor().startsWith("()")
+			|| method.getName().equals("valueOf") && method.getDescriptor().startsWith("(Ljava/lang/String;)"));
+	}
+
+	private static Set<ModifierKind> modifiers(int flags, int mask) {
+		Set<ModifierKind> mods = EnumSet.noneOf(ModifierKind.class);
+		int f = flags & mask;
+		if ((f & AccessFlag.PUBLIC) != 0) mods.add(ModifierKind.PUBLIC);
+		if ((f & AccessFlag.PROTECTED) != 0) mods.add(ModifierKind.PROTECTED);
+		if ((f & AccessFlag.PRIVATE) != 0) mods.add(ModifierKind.PRIVATE);
+		if ((f & AccessFlag.ABSTRACT) != 0) mods.add(ModifierKind.ABSTRACT);
+		if ((f & AccessFlag.STATIC) != 0) mods.add(ModifierKind.STATIC);
+		if ((f & AccessFlag.FINAL) != 0) mods.add(ModifierKind.FINAL);
+		if ((f & AccessFlag.TRANSIENT) != 0) mods.add(ModifierKind.TRANSIENT);
+		if ((f & AccessFlag.VOLATILE) != 0) mods.add(ModifierKind.VOLATILE);
+		if ((f & AccessFlag.SYNCHRONIZED) != 0) mods.add(ModifierKind.SYNCHRONIZED);
+		if ((f & AccessFlag.NATIVE) != 0) mods.add(ModifierKind.NATIVE);
+		if ((f & AccessFlag.STRICT) != 0) mods.add(ModifierKind.STRICTFP);
+		return mods;
+	}
+
+	/**
+	 * Whether {@code cf} is neither a member, local nor anonymous class
+	 */
+	private static boolean isTopLevel(ClassFile cf) {
+		if (cf.getName().endsWith("module-info") || cf.getName().endsWith("package-info")
+			|| (cf.getAccessFlags() & AccessFlag.SYNTHETIC) != 0)
+			return false;
+
+		if (cf.getAttribute(InnerClassesAttribute.tag) instanceof InnerClassesAttribute inners)
+			for (int i = 0; i < inners.tableLength(); i++)
+				if (cf.getName().equals(inners.innerClass(i)))
+					return false;
+
+		return true;
+	}
+
+	/**
+	 * Reads all the class files of {@code jar}, indexed by binary name
+	 */
+	private static Map<String, ClassFile> readAll(Path jar) throws IOException {
+		Map<String, ClassFile> classFiles = new HashMap<>();
+
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			for (JarEntry entry : jarFile.stream().filter(BytecodeShadowBuilder::isClassFile).toList()) {
+				try (InputStream in = jarFile.getInputStream(entry)) {
+					ClassFile cf = read(in);
+					classFiles.put(cf.getName(), cf);
+				}
+			}
+		}
+
+		return classFiles;
+	}
+
+	private static ClassFile read(InputStream in) throws IOException {
+		return new ClassFile(new DataInputStream(in));
+	}
+
+	private static boolean isClassFile(JarEntry entry) {
+		// Versioned entries of multi-release JARs are skipped
+		return entry.getName().endsWith(".class") && !entry.getName().startsWith("META-INF/");
+	}
+
+	@FunctionalInterface
+	private interface ClassFileSource {
+		ClassFile get(String binaryName);
+	}
+
+	/**
+	 * Locates the class files of a classpath. Only the entries are indexed
+	 * upfront; JARs are opened again, and closed, for every type looked up.
+	 */
+	private static final class JarIndex implements ClassFileSource {
+		private final Map<String, Path> jars = new HashMap<>();
+
+		JarIndex(Collection<Path> classpath) {
+			for (Path jar : classpath) {
+				// First occurrence wins, as in a class loader
+				try (JarFile jarFile = new JarFile(jar.toFile())) {
+					jarFile.stream()
+						.filter(BytecodeShadowBuilder::isClassFile)
+						.forEach(e -> jars.putIfAbsent(e.getName().substring(0, e.getName().length() - 6).replace('/', '.'), jar));
+				} catch (IOException e) {
+					logger.warn("Couldn't index classpath entry {}: {}", jar, e);
+				}
+			}
+		}
+
+		boolean contains(String binaryName) {
+			return jars.containsKey(binaryName);
+		}
+
+		@Override
+		public ClassFile get(String binaryName) {
+			Path jar = jars.get(binaryName);
+			if (jar == null)
+				return null;
+
+			try (JarFile jarFile = new JarFile(jar.toFile())) {
+				JarEntry entry = jarFile.getJarEntry(binaryName.replace('.', '/') + ".class");
+				try (InputStream in = jarFile.getInputStream(entry)) {
+					return read(in);
+				}
+			} catch (IOException e) {
+				logger.warn("Couldn't read {} from {}: {}", binaryName, jar, e);
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * A factory whose {@link TypeFactory} builds the shadow types of the
+	 * classpath the first time they are looked up
+	 */
+	private static final class ShadowFactory extends FactoryImpl {
+		private final transient JarIndex classpath;
+		private final transient Set<String> built = new HashSet<>();
+		private transient TypeFactory type;
+
+		ShadowFactory(Environment env, JarIndex classpath) {
+			super(new DefaultCoreFactory(), env);
+			this.classpath = classpath;
+		}
+
+		@Override
+		public TypeFactory Type() {
+			if (type == null) {
+				type = new TypeFactory(this) {
+					@Override
+					public <T> CtType<T> get(String qualifiedName) {
+						CtType<T> t = super.get(qualifiedName);
+						return t != null ? t : buildOnDemand(qualifiedName);
+					}
+				};
+			}
+			return type;
+		}
+
+		@SuppressWarnings("unchecked")
+		private synchronized <T> CtType<T> buildOnDemand(String qualifiedName) {
+			// Member types are built along with their top-level type
+			int dollar = qualifiedName.indexOf('$');
+			String topLevel = dollar > 0 && classpath.contains(qualifiedName.substring(0, dollar))
+				? qualifiedName.substring(0, dollar)
+				: qualifiedName;
+
+			if (!classpath.contains(topLevel) || !built.add(topLevel))
+				return null;
+
+			ClassFile cf = classpath.get(topLevel);
+			if (cf != null)
+				new BytecodeShadowBuilder(this, classpath).buildType(cf);
+
+			return (CtType<T>) Type().get(qualifiedName);
+		}
+	}
+}
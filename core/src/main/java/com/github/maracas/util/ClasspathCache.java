@@ -0,0 +1,148 @@
+package com.github.maracas.util;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A persistent cache of the classpaths resolved from {@code pom.xml} files.
+ * <p>
+ * Entries are keyed by the SHA-256 of the pom's content, the location of the
+ * local Maven repository, and an optional context (e.g., the pom's location
+ * when it may refer to a parent), and stored as plain text files listing one
+ * JAR per line. An entry is discarded as soon as one of the JARs it lists
+ * disappears. Concurrent resolutions of the same key share a single in-flight
+ * resolution.
+ */
+public final class ClasspathCache {
+	private final Path directory;
+	private final Map<String, CompletableFuture<List<String>>> inFlight = new ConcurrentHashMap<>();
+
+	private static final String EXTENSION = ".classpath";
+	private static final Logger logger = LogManager.getLogger(ClasspathCache.class);
+
+	private static final ClasspathCache DEFAULT = new ClasspathCache(Path.of(
+		System.getProperty("maracas.classpath-cache",
+			Path.of(System.getProperty("user.home"), ".maracas", "classpath-cache").toString())));
+
+	/**
+	 * Creates a cache storing its entries in {@code directory}
+	 *
+	 * @param directory the directory holding the cache entries, created lazily
+	 */
+	public ClasspathCache(Path directory) {
+		this.directory = Objects.requireNonNull(directory).toAbsolutePath();
+	}
+
+	/**
+	 * Returns the cache shared by all {@link com.github.maracas.LibraryJar}, stored in
+	 * {@code ~/.maracas/classpath-cache} unless the {@code maracas.classpath-cache}
+	 * system property says otherwise
+	 */
+	public static ClasspathCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the classpath of {@code pom}, either from the cache or from
+	 * {@code resolver}. Empty classpaths (e.g., when resolution failed) are
+	 * returned but not persisted.
+	 *
+	 * @param pom      the content of the pom.xml file
+	 * @param context  anything else the resolution depends on (may be empty)
+	 * @param resolver resolves the classpath on a cache miss
+	 * @return the list of JARs upon which the pom depends
+	 */
+	public List<String> resolve(byte[] pom, String context, Supplier<List<String>> resolver) {
+		Objects.requireNonNull(pom);
+		Objects.requireNonNull(context);
+		Objects.requireNonNull(resolver);
+
+		String key = key(pom, context);
+		List<String> cached = read(key);
+		if (cached != null)
+			return cached;
+
+		CompletableFuture<List<String>> future = new CompletableFuture<>();
+		CompletableFuture<List<String>> running = inFlight.putIfAbsent(key, future);
+		if (running != null)
+			// Someone is already resolving this classpath, wait for them
+			return running.join();
+
+		try {
+			// Another resolution may have completed in the meantime
+			List<String> cp = read(key);
+			if (cp == null) {
+				cp = resolver.get();
+				if (!cp.isEmpty())
+					write(key, cp);
+			}
+
+			future.complete(cp);
+			return cp;
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key);
+		}
+	}
+
+	private static String key(byte[] pom, String context) {
+		return Hashing.sha256().newHasher()
+			.putBytes(pom)
+			.putString(localRepository().toString(), StandardCharsets.UTF_8)
+			.putString(context, StandardCharsets.UTF_8)
+			.hash()
+			.toString();
+	}
+
+	private static Path localRepository() {
+		return Path.of(System.getProperty("maven.repo.local",
+			Path.of(System.getProperty("user.home"), ".m2", "repository").toString())).toAbsolutePath();
+	}
+
+	private List<String> read(String key) {
+		Path entry = directory.resolve(key + EXTENSION);
+		if (!Files.exists(entry))
+			return null;
+
+		try {
+			List<String> cp = Files.readAllLines(entry);
+			if (cp.stream().allMatch(jar -> Files.exists(Path.of(jar))))
+				return cp;
+
+			// One of the resolved JARs vanished (e.g., local repository cleanup)
+			logger.info("Invalidating stale classpath {}", entry);
+			Files.deleteIfExists(entry);
+		} catch (IOException e) {
+			logger.warn("Couldn't read cached classpath {}: {}", entry, e);
+		}
+
+		return null;
+	}
+
+	private void write(String key, List<String> cp) {
+		try {
+			Files.createDirectories(directory);
+			Path tmp = Files.createTempFile(directory, "cp", ".tmp");
+			Files.write(tmp, cp);
+			Files.move(tmp, directory.resolve(key + EXTENSION),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			logger.warn("Couldn't cache classpath {}: {}", key, e);
+		}
+	}
+}
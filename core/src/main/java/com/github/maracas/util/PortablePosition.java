@@ -0,0 +1,65 @@
+package com.github.maracas.util;
+
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.factory.Factory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A source code location detached from any Spoon model, so that it can be
+ * persisted and later re-attached to an element of another model.
+ *
+ * @param file  the absolute path to the source file
+ * @param start the index of the first character of the element
+ * @param end   the index of the last character of the element
+ */
+public record PortablePosition(
+	String file,
+	int start,
+	int end
+) {
+	/**
+	 * Returns the portable position of {@code element}, or null if it has no valid position
+	 */
+	public static PortablePosition of(CtElement element) {
+		if (element == null)
+			return null;
+
+		SourcePosition pos = element.getPosition();
+		if (pos == null || !pos.isValidPosition() || pos.getFile() == null)
+			return null;
+
+		return new PortablePosition(pos.getFile().getAbsolutePath(), pos.getSourceStart(), pos.getSourceEnd());
+	}
+
+	/**
+	 * Creates the corresponding Spoon position, computing lines and columns from
+	 * the source file's current content
+	 *
+	 * @param factory        the factory of the model the position belongs to
+	 * @param lineSeparators a cache of the line separators positions per file
+	 * @return the Spoon position, or null if the source file no longer exists
+	 * @throws IOException if the source file cannot be read
+	 */
+	public SourcePosition toSourcePosition(Factory factory, Map<String, int[]> lineSeparators) throws IOException {
+		Path path = Path.of(file);
+		if (!Files.exists(path))
+			return null;
+
+		int[] separators = lineSeparators.get(file);
+		if (separators == null) {
+			String content = Files.readString(path);
+			separators = IntStream.range(0, content.length()).filter(i -> content.charAt(i) == '\n').toArray();
+			lineSeparators.put(file, separators);
+		}
+
+		CompilationUnit cu = factory.CompilationUnit().getOrCreate(file);
+		return factory.Core().createSourcePosition(cu, start, end, separators);
+	}
+}
@@ -4,6 +4,7 @@ import japicmp.model.JApiConstructor;
 import japicmp.model.JApiMethod;
 import japicmp.model.JApiParameter;
 import javassist.CtBehavior;
+import spoon.SpoonException;
 import spoon.reflect.code.CtTypeAccess;
 import spoon.reflect.cu.position.NoSourcePosition;
 import spoon.reflect.declaration.CtConstructor;
@@ -11,12 +12,17 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtReference;
+import spoon.reflect.reference.CtTypeParameterReference;
 import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.CtScanner;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.stream.Collectors.joining;
 
@@ -117,17 +123,85 @@ public final class SpoonHelpers {
 	 */
 	@Deprecated
 	public static boolean matchingSignatures(CtExecutableReference<?> spoonMethod, CtBehavior japiMethod) {
-		String japiMethName;
+		String japiMethName = spoonMethod.isConstructor()
+			? constructorSignature(japiMethod)
+			: japiMethod.getName().concat(japiMethod.getSignature());
+		return japiMethName.startsWith(spoonMethod.getSignature());
+	}
+
+	/**
+	 * Returns the Spoon signature (see {@link CtExecutableReference#getSignature()})
+	 * of the JApiCmp constructor {@code japiCons}
+	 */
+	public static String constructorSignature(CtBehavior japiCons) {
+		String ln = japiCons.getLongName();
 
-		if (spoonMethod.isConstructor() && japiMethod.getName().contains("$")) {  // Inner class constructor
-			String ln = japiMethod.getLongName();
+		if (japiCons.getName().contains("$")) { // Inner class constructor
 			String outerCN = ln.substring(0, ln.indexOf("$"));
-			japiMethName = ln.replaceAll(String.format("\\(%s,?", outerCN), "(");
-		} else if (spoonMethod.isConstructor()) {                                     // Regular constructor
-			japiMethName = japiMethod.getLongName();
-		} else {                                                                      // Regular method
-			japiMethName = japiMethod.getName().concat(japiMethod.getSignature());
+			return ln.replaceAll(String.format("\\(%s,?", outerCN), "(");
+		}
+
+		return ln;
+	}
+
+	/**
+	 * Resolves the declarations of the references found under {@code roots}:
+	 * every referenced type and its transitive supertypes, and every
+	 * referenced executable and field. Resolving a reference may create and
+	 * cache shadow types in the factory, which isn't thread-safe; once this
+	 * returns, looking up these declarations, subtyping relations and
+	 * overridden executables only reads the factory, so several threads may
+	 * scan the elements at once.
+	 *
+	 * @param roots the elements whose references are resolved
+	 */
+	public static void resolveReferences(Iterable<? extends CtElement> roots) {
+		Set<String> resolved = new HashSet<>();
+		CtScanner scanner = new CtScanner() {
+			@Override
+			public <T> void visitCtTypeReference(CtTypeReference<T> ref) {
+				resolveType(ref, resolved);
+				super.visitCtTypeReference(ref);
+			}
+
+			@Override
+			public <T> void visitCtExecutableReference(CtExecutableReference<T> ref) {
+				try {
+					ref.getExecutableDeclaration();
+				} catch (SpoonException e) {
+					// Unresolvable in noclasspath mode: visitors won't resolve it either
+				}
+				super.visitCtExecutableReference(ref);
+			}
+
+			@Override
+			public <T> void visitCtFieldReference(CtFieldReference<T> ref) {
+				try {
+					ref.getFieldDeclaration();
+				} catch (SpoonException e) {
+					// Unresolvable in noclasspath mode: visitors won't resolve it either
+				}
+				super.visitCtFieldReference(ref);
+			}
+		};
+
+		roots.forEach(scanner::scan);
+	}
+
+	private static void resolveType(CtTypeReference<?> ref, Set<String> resolved) {
+		if (ref.isPrimitive() || ref instanceof CtTypeParameterReference || !resolved.add(ref.getQualifiedName()))
+			return;
+
+		try {
+			CtType<?> type = ref.getTypeDeclaration();
+			if (type == null)
+				return;
+
+			if (type.getSuperclass() != null)
+				resolveType(type.getSuperclass(), resolved);
+			type.getSuperInterfaces().forEach(i -> resolveType(i, resolved));
+		} catch (SpoonException e) {
+			// Unresolvable in noclasspath mode: visitors won't resolve it either
 		}
-		return japiMethName.startsWith(spoonMethod.getSignature());
 	}
 }
@@ -0,0 +1,91 @@
+package com.github.maracas.util;
+
+import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the type references created from a Spoon model and indexes the
+ * members of its types, so that mapping many changes onto the model doesn't
+ * re-create the same references or scan the same types' members over and over.
+ * <p>
+ * Each type's members are indexed once, the first time one of them is looked
+ * up: methods and constructors by the signature of their reference (see
+ * {@link CtExecutableReference#getSignature()}), fields by simple name. When
+ * several members share a key, the first declared one wins, as with a linear
+ * search.
+ */
+public final class TypeIndex {
+	private final Factory factory;
+	private final Map<String, CtTypeReference<?>> references = new HashMap<>();
+	private final Map<String, CtType<?>> declarations = new HashMap<>();
+	private final Map<CtType<?>, Members> members = new IdentityHashMap<>();
+
+	public TypeIndex(Factory factory) {
+		this.factory = Objects.requireNonNull(factory);
+	}
+
+	/**
+	 * Returns the (shared) reference to the type {@code qualifiedName}
+	 */
+	public CtTypeReference<?> reference(String qualifiedName) {
+		return references.computeIfAbsent(qualifiedName, qn -> factory.Type().createReference(qn));
+	}
+
+	/**
+	 * Returns the declaration of the type {@code qualifiedName}, or null if it isn't in the model
+	 */
+	public CtType<?> declaration(String qualifiedName) {
+		if (declarations.containsKey(qualifiedName))
+			return declarations.get(qualifiedName);
+
+		CtType<?> decl = reference(qualifiedName).getTypeDeclaration();
+		declarations.put(qualifiedName, decl);
+		return decl;
+	}
+
+	/**
+	 * Returns the method or constructor declared in {@code type} with the given
+	 * {@code signature}, or null if there is none
+	 */
+	public CtExecutable<?> executable(CtType<?> type, String signature) {
+		return members(type).executables.get(signature);
+	}
+
+	/**
+	 * Returns the field declared in {@code type} with the given {@code name},
+	 * or null if there is none
+	 */
+	public CtField<?> field(CtType<?> type, String name) {
+		return members(type).fields.get(name);
+	}
+
+	private Members members(CtType<?> type) {
+		return members.computeIfAbsent(Objects.requireNonNull(type), t -> {
+			Members m = new Members();
+			t.getTypeMembers().forEach(member -> {
+				if (member instanceof CtConstructor<?> || member instanceof CtMethod<?>) {
+					CtExecutable<?> exec = (CtExecutable<?>) member;
+					m.executables.putIfAbsent(exec.getReference().getSignature(), exec);
+				} else if (member instanceof CtField<?> field)
+					m.fields.putIfAbsent(field.getSimpleName(), field);
+			});
+			return m;
+		});
+	}
+
+	private static final class Members {
+		final Map<String, CtExecutable<?>> executables = new HashMap<>();
+		final Map<String, CtField<?>> fields = new HashMap<>();
+	}
+}
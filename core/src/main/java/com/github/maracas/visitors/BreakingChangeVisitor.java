@@ -2,6 +2,7 @@ package com.github.maracas.visitors;
 
 import com.github.maracas.brokenuse.APIUse;
 import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.UsageIndex;
 import com.github.maracas.util.SpoonHelpers;
 import japicmp.model.JApiCompatibilityChange;
 import spoon.reflect.cu.position.NoSourcePosition;
@@ -10,8 +11,13 @@ import spoon.reflect.path.CtRole;
 import spoon.reflect.reference.CtReference;
 import spoon.reflect.visitor.CtAbstractVisitor;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Abstract visitor in charge of gathering broken uses in client code.
@@ -50,6 +56,100 @@ public abstract class BreakingChangeVisitor extends CtAbstractVisitor {
 		return brokenUses;
 	}
 
+	/**
+	 * Returns the symbols of the given {@code kind} that client code must refer
+	 * to for this visitor to possibly report a broken use, or {@code null} if
+	 * every node of that kind must be visited.
+	 * <p>
+	 * {@link CombinedVisitor} uses these symbols to only dispatch reference
+	 * nodes to the visitors they may impact.
+	 *
+	 * @param kind kind of symbol
+	 * @return the set of relevant symbols, or {@code null} if any symbol is relevant
+	 */
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return null;
+	}
+
+	/**
+	 * Coalesces the targets of {@code other} into this visitor so that a single
+	 * instance handles all breaking changes of the same kind. Returns whether
+	 * {@code other} was coalesced; visitors that cannot handle several targets
+	 * return {@code false}.
+	 *
+	 * @param other another visitor of the same class and kind of breaking change
+	 * @return {@code true} if {@code other} is now handled by this visitor
+	 */
+	public boolean coalesce(BreakingChangeVisitor other) {
+		return false;
+	}
+
+	/**
+	 * Looks up the targets indexed under the symbol supplied by {@code key}. If
+	 * the symbol cannot be computed (e.g., unresolved declaring type in client
+	 * code), returns every target so that they are checked one by one.
+	 *
+	 * @param index  targets indexed by symbol
+	 * @param key    supplies the symbol of the visited node
+	 * @param <V>    type of the targets
+	 * @return the candidate targets
+	 */
+	protected static <V> Collection<V> lookup(Map<String, List<V>> index, Supplier<String> key) {
+		try {
+			return index.getOrDefault(key.get(), Collections.emptyList());
+		} catch (RuntimeException e) {
+			return index.values().stream().flatMap(Collection::stream).toList();
+		}
+	}
+
+	/**
+	 * Detects the broken uses of this visitor from the uses recorded in
+	 * {@code index} rather than by visiting a client's model. Visitors that
+	 * need more than the symbols the index records (e.g., the static type of
+	 * expressions) return {@code false} and must visit the model instead.
+	 * If {@code false} is returned, no broken use was added.
+	 *
+	 * @param index the client's usage index
+	 * @return {@code true} if the broken uses were detected from {@code index}
+	 */
+	public boolean visitIndex(UsageIndex index) {
+		return false;
+	}
+
+	/**
+	 * Collects the uses recorded in {@code index} under {@code symbol} as broken
+	 * uses of {@code source}. Returns {@code false} if {@code symbol} isn't
+	 * indexed, or if the kind of use of one of the recorded uses couldn't be
+	 * determined: the broken uses cannot be detected from {@code index} then.
+	 *
+	 * @param index  the client's usage index
+	 * @param kind   the kind of uses to look up
+	 * @param symbol the symbol of the API declaration (see {@link UsageIndex.Kind})
+	 * @param source the API declaration that introduced the breaking change
+	 * @param into   the list the broken uses are added to
+	 * @return whether the broken uses could be detected from {@code index}
+	 */
+	protected boolean lookupBrokenUses(UsageIndex index, UsageIndex.Kind kind, String symbol, CtReference source,
+	                                   List<BrokenUse> into) {
+		if (!UsageIndex.isIndexed(symbol))
+			return false;
+
+		for (UsageIndex.Usage usage : index.lookup(kind, symbol)) {
+			if (usage.use() == null)
+				return false;
+
+			into.add(new BrokenUse(
+				index.placeholder(usage.element(), usage.elementLabel()),
+				index.placeholder(usage.usedApiElement(), usage.usedApiLabel()),
+				source,
+				usage.use(),
+				change
+			));
+		}
+
+		return true;
+	}
+
 	/**
 	 * Add a new broken use to the set of detected broken uses.
 	 *
@@ -86,6 +186,13 @@ public abstract class BreakingChangeVisitor extends CtAbstractVisitor {
 	 * CtElement</a>
 	 */
 	public APIUse getAPIUseByRole(CtElement element) {
+		return apiUseByRole(element);
+	}
+
+	/**
+	 * @see #getAPIUseByRole(CtElement)
+	 */
+	public static APIUse apiUseByRole(CtElement element) {
 		CtRole role = element.getRoleInParent();
 		return switch (role) {
 			// FIXME: try to distinguish between regular access to a type,
@@ -19,6 +19,11 @@ public class ClassLessAccessibleVisitor extends BreakingChangeVisitor {
 		this.newAccessModifier = newAccessModifier;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.TYPE ? Set.of(clsRef.getQualifiedName()) : null;
+	}
+
 	@Override
 	public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
 		if (clsRef.equals(reference)) {
@@ -1,10 +1,15 @@
 package com.github.maracas.visitors;
 
 import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.UsageIndex;
 import japicmp.model.JApiCompatibilityChange;
 import spoon.reflect.code.CtConstructorCall;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Broken uses of CLASS_NOW_ABSTRACT are:
  * - Instantiations of the now-abstract class
@@ -21,6 +26,17 @@ public class ClassNowAbstractVisitor extends BreakingChangeVisitor {
 		this.clsRef = clsRef;
 	}
 
+	@Override
+	public boolean visitIndex(UsageIndex index) {
+		List<BrokenUse> found = new ArrayList<>();
+		if (!clsRef.getActualTypeArguments().isEmpty()
+			|| !lookupBrokenUses(index, UsageIndex.Kind.INSTANTIATION, clsRef.getQualifiedName(), clsRef, found))
+			return false;
+
+		brokenUses.addAll(found);
+		return true;
+	}
+
 	@Override
 	public <T> void visitCtConstructorCall(CtConstructorCall<T> ctConstructorCall) {
 		if (clsRef.equals(ctConstructorCall.getType()))
@@ -63,6 +63,7 @@ import spoon.reflect.declaration.CtAnonymousExecutable;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtCompilationUnit;
 import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtEnum;
 import spoon.reflect.declaration.CtEnumValue;
 import spoon.reflect.declaration.CtField;
@@ -78,6 +79,7 @@ import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.declaration.CtProvidedService;
 import spoon.reflect.declaration.CtTypeParameter;
 import spoon.reflect.declaration.CtUsedService;
+import spoon.reflect.path.CtRole;
 import spoon.reflect.reference.CtArrayTypeReference;
 import spoon.reflect.reference.CtCatchVariableReference;
 import spoon.reflect.reference.CtExecutableReference;
@@ -98,20 +100,34 @@ import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Traverses the AST once and delegates to the registered
  * visitors when visiting each node.
+ * <p>
+ * Nodes are only dispatched to the visitors that override the corresponding
+ * {@code visitCtXxx} method and, for reference nodes, to the visitors whose
+ * indexed symbols match the referenced element (see {@link VisitorDispatchTable}).
  */
 public class CombinedVisitor extends CtScanner {
 	private final Collection<BreakingChangeVisitor> visitors;
+	private final VisitorDispatchTable dispatchTable;
 	private final MaracasOptions options;
+	private BooleanSupplier cancelled = () -> false;
+	private VisitorProfile profile;
+	private Invoker invoker = PLAIN;
+	private long scannedElements;
 
 	private static final Logger logger = LogManager.getLogger(CombinedVisitor.class);
 
 	public CombinedVisitor(Collection<BreakingChangeVisitor> visitors, MaracasOptions options) {
 		this.visitors = Objects.requireNonNull(visitors);
+		this.dispatchTable = new VisitorDispatchTable(visitors);
 		this.options = Objects.requireNonNull(options);
 	}
 
@@ -123,93 +139,188 @@ public class CombinedVisitor extends CtScanner {
 				.collect(Collectors.toSet());
 	}
 
+	/**
+	 * Makes the traversal throw a {@link CancellationException} as soon as
+	 * {@code cancelled} holds
+	 *
+	 * @param cancelled whether the caller is no longer interested in the broken uses
+	 */
+	public void setCancellation(BooleanSupplier cancelled) {
+		this.cancelled = Objects.requireNonNull(cancelled);
+	}
+
+	/**
+	 * Records the invocations of each visitor in {@code profile}, or stops
+	 * recording them if it is null
+	 *
+	 * @param profile the profile to update, possibly shared with other combined visitors
+	 */
+	public void setProfile(VisitorProfile profile) {
+		this.profile = profile;
+		this.invoker = profile == null ? PLAIN : new ProfilingInvoker(profile);
+	}
+
+	public VisitorProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Returns the number of elements this visitor went through so far
+	 */
+	public long getScannedElements() {
+		return scannedElements;
+	}
+
+	@Override
+	protected void enter(CtElement e) {
+		if (cancelled.getAsBoolean())
+			throw new CancellationException("Scanning was cancelled");
+		scannedElements++;
+		super.enter(e);
+	}
+
+	// Visit methods are passed as non-capturing method references so that dispatching a node allocates nothing
+	private <E extends CtElement> void dispatch(VisitMethod method, E node, BiConsumer<BreakingChangeVisitor, E> visit) {
+		invoker.invoke(method, dispatchTable.visitors(method), node, visit);
+	}
+
+	private <E extends CtElement> void dispatch(VisitMethod method, E node, Function<E, String> symbol,
+	                                           BiConsumer<BreakingChangeVisitor, E> visit) {
+		invoker.invoke(method, dispatchTable.visitors(method, node, symbol), node, visit);
+	}
+
+	/**
+	 * Invokes the target visitors on a node; picked once when the profile is
+	 * set rather than checked on every node
+	 */
+	private interface Invoker {
+		<E> void invoke(VisitMethod method, BreakingChangeVisitor[] targets, E node, BiConsumer<BreakingChangeVisitor, E> visit);
+	}
+
+	private static final Invoker PLAIN = new Invoker() {
+		@Override
+		public <E> void invoke(VisitMethod method, BreakingChangeVisitor[] targets, E node,
+		                       BiConsumer<BreakingChangeVisitor, E> visit) {
+			for (BreakingChangeVisitor v : targets)
+				visit.accept(v, node);
+		}
+	};
+
+	private record ProfilingInvoker(VisitorProfile profile) implements Invoker {
+		@Override
+		public <E> void invoke(VisitMethod method, BreakingChangeVisitor[] targets, E node,
+		                       BiConsumer<BreakingChangeVisitor, E> visit) {
+			String nodeKind = method.nodeKind();
+			for (BreakingChangeVisitor v : targets) {
+				int before = v.getBrokenUses().size();
+				long start = System.nanoTime();
+				visit.accept(v, node);
+				profile.record(v, nodeKind, System.nanoTime() - start, v.getBrokenUses().size() - before);
+			}
+		}
+	}
+
+	/**
+	 * Visits {@code ctPackage} itself (annotations and comments), without
+	 * descending into its sub-packages and types.
+	 *
+	 * @param ctPackage the package to visit
+	 */
+	public void scanShallow(CtPackage ctPackage) {
+		enter(ctPackage);
+		dispatch(VisitMethod.PACKAGE, ctPackage, BreakingChangeVisitor::visitCtPackage);
+		scan(CtRole.ANNOTATION, ctPackage.getAnnotations());
+		scan(CtRole.COMMENT, ctPackage.getComments());
+		exit(ctPackage);
+	}
+
 	@Override
 	public <A extends Annotation> void visitCtAnnotation(CtAnnotation<A> annotation) {
-		visitors.forEach(v -> v.visitCtAnnotation(annotation));
+		dispatch(VisitMethod.ANNOTATION, annotation, BreakingChangeVisitor::visitCtAnnotation);
 		super.visitCtAnnotation(annotation);
 	}
 
 	@Override
 	public <T> void visitCtCodeSnippetExpression(CtCodeSnippetExpression<T> expression) {
-		visitors.forEach(v -> v.visitCtCodeSnippetExpression(expression));
+		dispatch(VisitMethod.CODE_SNIPPET_EXPRESSION, expression, BreakingChangeVisitor::visitCtCodeSnippetExpression);
 		super.visitCtCodeSnippetExpression(expression);
 	}
 
 	@Override
 	public void visitCtCodeSnippetStatement(CtCodeSnippetStatement statement) {
-		visitors.forEach(v -> v.visitCtCodeSnippetStatement(statement));
+		dispatch(VisitMethod.CODE_SNIPPET_STATEMENT, statement, BreakingChangeVisitor::visitCtCodeSnippetStatement);
 		super.visitCtCodeSnippetStatement(statement);
 	}
 
 	@Override
 	public <A extends Annotation> void visitCtAnnotationType(CtAnnotationType<A> annotationType) {
-		visitors.forEach(v -> v.visitCtAnnotationType(annotationType));
+		dispatch(VisitMethod.ANNOTATION_TYPE, annotationType, BreakingChangeVisitor::visitCtAnnotationType);
 		super.visitCtAnnotationType(annotationType);
 	}
 
 	@Override
 	public void visitCtAnonymousExecutable(CtAnonymousExecutable anonymousExec) {
-		visitors.forEach(v -> v.visitCtAnonymousExecutable(anonymousExec));
+		dispatch(VisitMethod.ANONYMOUS_EXECUTABLE, anonymousExec, BreakingChangeVisitor::visitCtAnonymousExecutable);
 		super.visitCtAnonymousExecutable(anonymousExec);
 	}
 
 	@Override
 	public <T> void visitCtArrayRead(CtArrayRead<T> arrayRead) {
-		visitors.forEach(v -> v.visitCtArrayRead(arrayRead));
+		dispatch(VisitMethod.ARRAY_READ, arrayRead, BreakingChangeVisitor::visitCtArrayRead);
 		super.visitCtArrayRead(arrayRead);
 	}
 
 	@Override
 	public <T> void visitCtArrayWrite(CtArrayWrite<T> arrayWrite) {
-		visitors.forEach(v -> v.visitCtArrayWrite(arrayWrite));
+		dispatch(VisitMethod.ARRAY_WRITE, arrayWrite, BreakingChangeVisitor::visitCtArrayWrite);
 		super.visitCtArrayWrite(arrayWrite);
 	}
 
 	@Override
 	public <T> void visitCtArrayTypeReference(CtArrayTypeReference<T> reference) {
-		visitors.forEach(v -> v.visitCtArrayTypeReference(reference));
+		dispatch(VisitMethod.ARRAY_TYPE_REFERENCE, reference, BreakingChangeVisitor::visitCtArrayTypeReference);
 		super.visitCtArrayTypeReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtAssert(CtAssert<T> asserted) {
-		visitors.forEach(v -> v.visitCtAssert(asserted));
+		dispatch(VisitMethod.ASSERT, asserted, BreakingChangeVisitor::visitCtAssert);
 		super.visitCtAssert(asserted);
 	}
 
 	@Override
 	public <T, A extends T> void visitCtAssignment(CtAssignment<T, A> assignement) {
-		visitors.forEach(v -> v.visitCtAssignment(assignement));
+		dispatch(VisitMethod.ASSIGNMENT, assignement, BreakingChangeVisitor::visitCtAssignment);
 		super.visitCtAssignment(assignement);
 	}
 
 	@Override
 	public <T> void visitCtBinaryOperator(CtBinaryOperator<T> operator) {
-		visitors.forEach(v -> v.visitCtBinaryOperator(operator));
+		dispatch(VisitMethod.BINARY_OPERATOR, operator, BreakingChangeVisitor::visitCtBinaryOperator);
 		super.visitCtBinaryOperator(operator);
 	}
 
 	@Override
 	public <R> void visitCtBlock(CtBlock<R> block) {
-		visitors.forEach(v -> v.visitCtBlock(block));
+		dispatch(VisitMethod.BLOCK, block, BreakingChangeVisitor::visitCtBlock);
 		super.visitCtBlock(block);
 	}
 
 	@Override
 	public void visitCtBreak(CtBreak breakStatement) {
-		visitors.forEach(v -> v.visitCtBreak(breakStatement));
+		dispatch(VisitMethod.BREAK, breakStatement, BreakingChangeVisitor::visitCtBreak);
 		super.visitCtBreak(breakStatement);
 	}
 
 	@Override
 	public <S> void visitCtCase(CtCase<S> caseStatement) {
-		visitors.forEach(v -> v.visitCtCase(caseStatement));
+		dispatch(VisitMethod.CASE, caseStatement, BreakingChangeVisitor::visitCtCase);
 		super.visitCtCase(caseStatement);
 	}
 
 	@Override
 	public void visitCtCatch(CtCatch catchBlock) {
-		visitors.forEach(v -> v.visitCtCatch(catchBlock));
+		dispatch(VisitMethod.CATCH, catchBlock, BreakingChangeVisitor::visitCtCatch);
 		super.visitCtCatch(catchBlock);
 	}
 
@@ -226,427 +337,432 @@ public class CombinedVisitor extends CtScanner {
 			return;
 		}
 
-		visitors.forEach(v -> v.visitCtClass(ctClass));
+		dispatch(VisitMethod.CLASS, ctClass, BreakingChangeVisitor::visitCtClass);
 		super.visitCtClass(ctClass);
 	}
 
 	@Override
 	public void visitCtTypeParameter(CtTypeParameter typeParameter) {
-		visitors.forEach(v -> v.visitCtTypeParameter(typeParameter));
+		dispatch(VisitMethod.TYPE_PARAMETER, typeParameter, BreakingChangeVisitor::visitCtTypeParameter);
 		super.visitCtTypeParameter(typeParameter);
 	}
 
 	@Override
 	public <T> void visitCtConditional(CtConditional<T> conditional) {
-		visitors.forEach(v -> v.visitCtConditional(conditional));
+		dispatch(VisitMethod.CONDITIONAL, conditional, BreakingChangeVisitor::visitCtConditional);
 		super.visitCtConditional(conditional);
 	}
 
 	@Override
 	public <T> void visitCtConstructor(CtConstructor<T> c) {
-		visitors.forEach(v -> v.visitCtConstructor(c));
+		dispatch(VisitMethod.CONSTRUCTOR, c, BreakingChangeVisitor::visitCtConstructor);
 		super.visitCtConstructor(c);
 	}
 
 	@Override
 	public void visitCtContinue(CtContinue continueStatement) {
-		visitors.forEach(v -> v.visitCtContinue(continueStatement));
+		dispatch(VisitMethod.CONTINUE, continueStatement, BreakingChangeVisitor::visitCtContinue);
 		super.visitCtContinue(continueStatement);
 	}
 
 	@Override
 	public void visitCtDo(CtDo doLoop) {
-		visitors.forEach(v -> v.visitCtDo(doLoop));
+		dispatch(VisitMethod.DO, doLoop, BreakingChangeVisitor::visitCtDo);
 		super.visitCtDo(doLoop);
 	}
 
 	@Override
 	public <T extends Enum<?>> void visitCtEnum(CtEnum<T> ctEnum) {
-		visitors.forEach(v -> v.visitCtEnum(ctEnum));
+		dispatch(VisitMethod.ENUM, ctEnum, BreakingChangeVisitor::visitCtEnum);
 		super.visitCtEnum(ctEnum);
 	}
 
 	@Override
 	public <T> void visitCtExecutableReference(CtExecutableReference<T> reference) {
-		visitors.forEach(v -> v.visitCtExecutableReference(reference));
+		dispatch(VisitMethod.EXECUTABLE_REFERENCE, reference, BreakingChangeVisitor::visitCtExecutableReference);
 		super.visitCtExecutableReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtField(CtField<T> f) {
-		visitors.forEach(v -> v.visitCtField(f));
+		dispatch(VisitMethod.FIELD, f, BreakingChangeVisitor::visitCtField);
 		super.visitCtField(f);
 	}
 
 	@Override
 	public <T> void visitCtEnumValue(CtEnumValue<T> enumValue) {
-		visitors.forEach(v -> v.visitCtEnumValue(enumValue));
+		dispatch(VisitMethod.ENUM_VALUE, enumValue, BreakingChangeVisitor::visitCtEnumValue);
 		super.visitCtEnumValue(enumValue);
 	}
 
 	@Override
 	public <T> void visitCtThisAccess(CtThisAccess<T> thisAccess) {
-		visitors.forEach(v -> v.visitCtThisAccess(thisAccess));
+		dispatch(VisitMethod.THIS_ACCESS, thisAccess, BreakingChangeVisitor::visitCtThisAccess);
 		super.visitCtThisAccess(thisAccess);
 	}
 
 	@Override
 	public <T> void visitCtFieldReference(CtFieldReference<T> reference) {
-		visitors.forEach(v -> v.visitCtFieldReference(reference));
+		dispatch(VisitMethod.FIELD_REFERENCE, reference, CtFieldReference::getSimpleName,
+			BreakingChangeVisitor::visitCtFieldReference);
 		super.visitCtFieldReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtUnboundVariableReference(CtUnboundVariableReference<T> reference) {
-		visitors.forEach(v -> v.visitCtUnboundVariableReference(reference));
+		dispatch(VisitMethod.UNBOUND_VARIABLE_REFERENCE, reference, BreakingChangeVisitor::visitCtUnboundVariableReference);
 		super.visitCtUnboundVariableReference(reference);
 	}
 
 	@Override
 	public void visitCtFor(CtFor forLoop) {
-		visitors.forEach(v -> v.visitCtFor(forLoop));
+		dispatch(VisitMethod.FOR, forLoop, BreakingChangeVisitor::visitCtFor);
 		super.visitCtFor(forLoop);
 	}
 
 	@Override
 	public void visitCtForEach(CtForEach foreach) {
-		visitors.forEach(v -> v.visitCtForEach(foreach));
+		dispatch(VisitMethod.FOR_EACH, foreach, BreakingChangeVisitor::visitCtForEach);
 		super.visitCtForEach(foreach);
 	}
 
 	@Override
 	public void visitCtIf(CtIf ifElement) {
-		visitors.forEach(v -> v.visitCtIf(ifElement));
+		dispatch(VisitMethod.IF, ifElement, BreakingChangeVisitor::visitCtIf);
 		super.visitCtIf(ifElement);
 	}
 
 	@Override
 	public <T> void visitCtInterface(CtInterface<T> intrface) {
-		visitors.forEach(v -> v.visitCtInterface(intrface));
+		dispatch(VisitMethod.INTERFACE, intrface, BreakingChangeVisitor::visitCtInterface);
 		super.visitCtInterface(intrface);
 	}
 
 	@Override
 	public <T> void visitCtInvocation(CtInvocation<T> invocation) {
-		visitors.forEach(v -> v.visitCtInvocation(invocation));
+		dispatch(VisitMethod.INVOCATION, invocation, i -> i.getExecutable().getSignature(),
+			BreakingChangeVisitor::visitCtInvocation);
 		super.visitCtInvocation(invocation);
 	}
 
 	@Override
 	public <T> void visitCtLiteral(CtLiteral<T> literal) {
-		visitors.forEach(v -> v.visitCtLiteral(literal));
+		dispatch(VisitMethod.LITERAL, literal, BreakingChangeVisitor::visitCtLiteral);
 		super.visitCtLiteral(literal);
 	}
 
 	@Override
 	public void visitCtTextBlock(CtTextBlock ctTextBlock) {
-		visitors.forEach(v -> v.visitCtTextBlock(ctTextBlock));
+		dispatch(VisitMethod.TEXT_BLOCK, ctTextBlock, BreakingChangeVisitor::visitCtTextBlock);
 		super.visitCtTextBlock(ctTextBlock);
 	}
 
 	@Override
 	public <T> void visitCtLocalVariable(CtLocalVariable<T> localVariable) {
-		visitors.forEach(v -> v.visitCtLocalVariable(localVariable));
+		dispatch(VisitMethod.LOCAL_VARIABLE, localVariable, BreakingChangeVisitor::visitCtLocalVariable);
 		super.visitCtLocalVariable(localVariable);
 	}
 
 	@Override
 	public <T> void visitCtLocalVariableReference(CtLocalVariableReference<T> reference) {
-		visitors.forEach(v -> v.visitCtLocalVariableReference(reference));
+		dispatch(VisitMethod.LOCAL_VARIABLE_REFERENCE, reference, BreakingChangeVisitor::visitCtLocalVariableReference);
 		super.visitCtLocalVariableReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtCatchVariable(CtCatchVariable<T> catchVariable) {
-		visitors.forEach(v -> v.visitCtCatchVariable(catchVariable));
+		dispatch(VisitMethod.CATCH_VARIABLE, catchVariable, BreakingChangeVisitor::visitCtCatchVariable);
 		super.visitCtCatchVariable(catchVariable);
 	}
 
 	@Override
 	public <T> void visitCtCatchVariableReference(CtCatchVariableReference<T> reference) {
-		visitors.forEach(v -> v.visitCtCatchVariableReference(reference));
+		dispatch(VisitMethod.CATCH_VARIABLE_REFERENCE, reference, BreakingChangeVisitor::visitCtCatchVariableReference);
 		super.visitCtCatchVariableReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtMethod(CtMethod<T> m) {
-		visitors.forEach(v -> v.visitCtMethod(m));
+		dispatch(VisitMethod.METHOD, m, BreakingChangeVisitor::visitCtMethod);
 		super.visitCtMethod(m);
 	}
 
 	@Override
 	public <T> void visitCtAnnotationMethod(CtAnnotationMethod<T> annotationMethod) {
-		visitors.forEach(v -> v.visitCtAnnotationMethod(annotationMethod));
+		dispatch(VisitMethod.ANNOTATION_METHOD, annotationMethod, BreakingChangeVisitor::visitCtAnnotationMethod);
 		super.visitCtAnnotationMethod(annotationMethod);
 	}
 
 	@Override
 	public <T> void visitCtNewArray(CtNewArray<T> newArray) {
-		visitors.forEach(v -> v.visitCtNewArray(newArray));
+		dispatch(VisitMethod.NEW_ARRAY, newArray, BreakingChangeVisitor::visitCtNewArray);
 		super.visitCtNewArray(newArray);
 	}
 
 	@Override
 	public <T> void visitCtConstructorCall(CtConstructorCall<T> ctConstructorCall) {
-		visitors.forEach(v -> v.visitCtConstructorCall(ctConstructorCall));
+		dispatch(VisitMethod.CONSTRUCTOR_CALL, ctConstructorCall, BreakingChangeVisitor::visitCtConstructorCall);
 		super.visitCtConstructorCall(ctConstructorCall);
 	}
 
 	@Override
 	public <T> void visitCtNewClass(CtNewClass<T> newClass) {
-		visitors.forEach(v -> v.visitCtNewClass(newClass));
+		dispatch(VisitMethod.NEW_CLASS, newClass, BreakingChangeVisitor::visitCtNewClass);
 		super.visitCtNewClass(newClass);
 	}
 
 	@Override
 	public <T> void visitCtLambda(CtLambda<T> lambda) {
-		visitors.forEach(v -> v.visitCtLambda(lambda));
+		dispatch(VisitMethod.LAMBDA, lambda, BreakingChangeVisitor::visitCtLambda);
 		super.visitCtLambda(lambda);
 	}
 
 	@Override
 	public <T, E extends CtExpression<?>> void visitCtExecutableReferenceExpression(CtExecutableReferenceExpression<T, E> expression) {
-		visitors.forEach(v -> v.visitCtExecutableReferenceExpression(expression));
+		dispatch(VisitMethod.EXECUTABLE_REFERENCE_EXPRESSION, expression, BreakingChangeVisitor::visitCtExecutableReferenceExpression);
 		super.visitCtExecutableReferenceExpression(expression);
 	}
 
 	@Override
 	public <T, A extends T> void visitCtOperatorAssignment(CtOperatorAssignment<T, A> assignment) {
-		visitors.forEach(v -> v.visitCtOperatorAssignment(assignment));
+		dispatch(VisitMethod.OPERATOR_ASSIGNMENT, assignment, BreakingChangeVisitor::visitCtOperatorAssignment);
 		super.visitCtOperatorAssignment(assignment);
 	}
 
 	@Override
 	public void visitCtPackage(CtPackage ctPackage) {
-		visitors.forEach(v -> v.visitCtPackage(ctPackage));
+		dispatch(VisitMethod.PACKAGE, ctPackage, BreakingChangeVisitor::visitCtPackage);
 		super.visitCtPackage(ctPackage);
 	}
 
 	@Override
 	public void visitCtPackageReference(CtPackageReference reference) {
-		visitors.forEach(v -> v.visitCtPackageReference(reference));
+		dispatch(VisitMethod.PACKAGE_REFERENCE, reference, BreakingChangeVisitor::visitCtPackageReference);
 		super.visitCtPackageReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtParameter(CtParameter<T> parameter) {
-		visitors.forEach(v -> v.visitCtParameter(parameter));
+		dispatch(VisitMethod.PARAMETER, parameter, BreakingChangeVisitor::visitCtParameter);
 		super.visitCtParameter(parameter);
 	}
 
 	@Override
 	public <T> void visitCtParameterReference(CtParameterReference<T> reference) {
-		visitors.forEach(v -> v.visitCtParameterReference(reference));
+		dispatch(VisitMethod.PARAMETER_REFERENCE, reference, BreakingChangeVisitor::visitCtParameterReference);
 		super.visitCtParameterReference(reference);
 	}
 
 	@Override
 	public <R> void visitCtReturn(CtReturn<R> returnStatement) {
-		visitors.forEach(v -> v.visitCtReturn(returnStatement));
+		dispatch(VisitMethod.RETURN, returnStatement, BreakingChangeVisitor::visitCtReturn);
 		super.visitCtReturn(returnStatement);
 	}
 
 	@Override
 	public void visitCtStatementList(CtStatementList statements) {
-		visitors.forEach(v -> v.visitCtStatementList(statements));
+		dispatch(VisitMethod.STATEMENT_LIST, statements, BreakingChangeVisitor::visitCtStatementList);
 		super.visitCtStatementList(statements);
 	}
 
 	@Override
 	public <S> void visitCtSwitch(CtSwitch<S> switchStatement) {
-		visitors.forEach(v -> v.visitCtSwitch(switchStatement));
+		dispatch(VisitMethod.SWITCH, switchStatement, BreakingChangeVisitor::visitCtSwitch);
 		super.visitCtSwitch(switchStatement);
 	}
 
 	@Override
 	public <T, S> void visitCtSwitchExpression(CtSwitchExpression<T, S> switchExpression) {
-		visitors.forEach(v -> v.visitCtSwitchExpression(switchExpression));
+		dispatch(VisitMethod.SWITCH_EXPRESSION, switchExpression, BreakingChangeVisitor::visitCtSwitchExpression);
 		super.visitCtSwitchExpression(switchExpression);
 	}
 
 	@Override
 	public void visitCtSynchronized(CtSynchronized synchro) {
-		visitors.forEach(v -> v.visitCtSynchronized(synchro));
+		dispatch(VisitMethod.SYNCHRONIZED, synchro, BreakingChangeVisitor::visitCtSynchronized);
 		super.visitCtSynchronized(synchro);
 	}
 
 	@Override
 	public void visitCtThrow(CtThrow throwStatement) {
-		visitors.forEach(v -> v.visitCtThrow(throwStatement));
+		dispatch(VisitMethod.THROW, throwStatement, BreakingChangeVisitor::visitCtThrow);
 		super.visitCtThrow(throwStatement);
 	}
 
 	@Override
 	public void visitCtTry(CtTry tryBlock) {
-		visitors.forEach(v -> v.visitCtTry(tryBlock));
+		dispatch(VisitMethod.TRY, tryBlock, BreakingChangeVisitor::visitCtTry);
 		super.visitCtTry(tryBlock);
 	}
 
 	@Override
 	public void visitCtTryWithResource(CtTryWithResource tryWithResource) {
-		visitors.forEach(v -> v.visitCtTryWithResource(tryWithResource));
+		dispatch(VisitMethod.TRY_WITH_RESOURCE, tryWithResource, BreakingChangeVisitor::visitCtTryWithResource);
 		super.visitCtTryWithResource(tryWithResource);
 	}
 
 	@Override
 	public void visitCtTypeParameterReference(CtTypeParameterReference ref) {
-		visitors.forEach(v -> v.visitCtTypeParameterReference(ref));
+		dispatch(VisitMethod.TYPE_PARAMETER_REFERENCE, ref, BreakingChangeVisitor::visitCtTypeParameterReference);
 		super.visitCtTypeParameterReference(ref);
 	}
 
 	@Override
 	public void visitCtWildcardReference(CtWildcardReference wildcardReference) {
-		visitors.forEach(v -> v.visitCtWildcardReference(wildcardReference));
+		dispatch(VisitMethod.WILDCARD_REFERENCE, wildcardReference, BreakingChangeVisitor::visitCtWildcardReference);
 		super.visitCtWildcardReference(wildcardReference);
 	}
 
 	@Override
 	public <T> void visitCtIntersectionTypeReference(CtIntersectionTypeReference<T> reference) {
-		visitors.forEach(v -> v.visitCtIntersectionTypeReference(reference));
+		dispatch(VisitMethod.INTERSECTION_TYPE_REFERENCE, reference, BreakingChangeVisitor::visitCtIntersectionTypeReference);
 		super.visitCtIntersectionTypeReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
-		visitors.forEach(v -> v.visitCtTypeReference(reference));
+		dispatch(VisitMethod.TYPE_REFERENCE, reference, CtTypeReference::getQualifiedName,
+			BreakingChangeVisitor::visitCtTypeReference);
 		super.visitCtTypeReference(reference);
 	}
 
 	@Override
 	public <T> void visitCtTypeAccess(CtTypeAccess<T> typeAccess) {
-		visitors.forEach(v -> v.visitCtTypeAccess(typeAccess));
+		dispatch(VisitMethod.TYPE_ACCESS, typeAccess, BreakingChangeVisitor::visitCtTypeAccess);
 		super.visitCtTypeAccess(typeAccess);
 	}
 
 	@Override
 	public <T> void visitCtUnaryOperator(CtUnaryOperator<T> operator) {
-		visitors.forEach(v -> v.visitCtUnaryOperator(operator));
+		dispatch(VisitMethod.UNARY_OPERATOR, operator, BreakingChangeVisitor::visitCtUnaryOperator);
 		super.visitCtUnaryOperator(operator);
 	}
 
 	@Override
 	public <T> void visitCtVariableRead(CtVariableRead<T> variableRead) {
-		visitors.forEach(v -> v.visitCtVariableRead(variableRead));
+		dispatch(VisitMethod.VARIABLE_READ, variableRead, BreakingChangeVisitor::visitCtVariableRead);
 		super.visitCtVariableRead(variableRead);
 	}
 
 	@Override
 	public <T> void visitCtVariableWrite(CtVariableWrite<T> variableWrite) {
-		visitors.forEach(v -> v.visitCtVariableWrite(variableWrite));
+		dispatch(VisitMethod.VARIABLE_WRITE, variableWrite, BreakingChangeVisitor::visitCtVariableWrite);
 		super.visitCtVariableWrite(variableWrite);
 	}
 
 	@Override
 	public void visitCtWhile(CtWhile whileLoop) {
-		visitors.forEach(v -> v.visitCtWhile(whileLoop));
+		dispatch(VisitMethod.WHILE, whileLoop, BreakingChangeVisitor::visitCtWhile);
 		super.visitCtWhile(whileLoop);
 	}
 
 	@Override
 	public <T> void visitCtAnnotationFieldAccess(CtAnnotationFieldAccess<T> annotationFieldAccess) {
-		visitors.forEach(v -> v.visitCtAnnotationFieldAccess(annotationFieldAccess));
+		dispatch(VisitMethod.ANNOTATION_FIELD_ACCESS, annotationFieldAccess, BreakingChangeVisitor::visitCtAnnotationFieldAccess);
 		super.visitCtAnnotationFieldAccess(annotationFieldAccess);
 	}
 
 	@Override
 	public <T> void visitCtFieldRead(CtFieldRead<T> fieldRead) {
-		visitors.forEach(v -> v.visitCtFieldRead(fieldRead));
+		dispatch(VisitMethod.FIELD_READ, fieldRead, f -> f.getVariable().getSimpleName(),
+			BreakingChangeVisitor::visitCtFieldRead);
 		super.visitCtFieldRead(fieldRead);
 	}
 
 	@Override
 	public <T> void visitCtFieldWrite(CtFieldWrite<T> fieldWrite) {
-		visitors.forEach(v -> v.visitCtFieldWrite(fieldWrite));
+		dispatch(VisitMethod.FIELD_WRITE, fieldWrite, f -> f.getVariable().getSimpleName(),
+			BreakingChangeVisitor::visitCtFieldWrite);
 		super.visitCtFieldWrite(fieldWrite);
 	}
 
 	@Override
 	public <T> void visitCtSuperAccess(CtSuperAccess<T> f) {
-		visitors.forEach(v -> v.visitCtSuperAccess(f));
+		dispatch(VisitMethod.SUPER_ACCESS, f, BreakingChangeVisitor::visitCtSuperAccess);
 		super.visitCtSuperAccess(f);
 	}
 
 	@Override
 	public void visitCtComment(CtComment comment) {
-		visitors.forEach(v -> v.visitCtComment(comment));
+		dispatch(VisitMethod.COMMENT, comment, BreakingChangeVisitor::visitCtComment);
 		super.visitCtComment(comment);
 	}
 
 	@Override
 	public void visitCtJavaDoc(CtJavaDoc comment) {
-		visitors.forEach(v -> v.visitCtJavaDoc(comment));
+		dispatch(VisitMethod.JAVA_DOC, comment, BreakingChangeVisitor::visitCtJavaDoc);
 		super.visitCtJavaDoc(comment);
 	}
 
 	@Override
 	public void visitCtJavaDocTag(CtJavaDocTag docTag) {
-		visitors.forEach(v -> v.visitCtJavaDocTag(docTag));
+		dispatch(VisitMethod.JAVA_DOC_TAG, docTag, BreakingChangeVisitor::visitCtJavaDocTag);
 		super.visitCtJavaDocTag(docTag);
 	}
 
 	@Override
 	public void visitCtImport(CtImport ctImport) {
-		visitors.forEach(v -> v.visitCtImport(ctImport));
+		dispatch(VisitMethod.IMPORT, ctImport, BreakingChangeVisitor::visitCtImport);
 		super.visitCtImport(ctImport);
 	}
 
 	@Override
 	public void visitCtModule(CtModule module) {
-		visitors.forEach(v -> v.visitCtModule(module));
+		dispatch(VisitMethod.MODULE, module, BreakingChangeVisitor::visitCtModule);
 		super.visitCtModule(module);
 	}
 
 	@Override
 	public void visitCtModuleReference(CtModuleReference moduleReference) {
-		visitors.forEach(v -> v.visitCtModuleReference(moduleReference));
+		dispatch(VisitMethod.MODULE_REFERENCE, moduleReference, BreakingChangeVisitor::visitCtModuleReference);
 		super.visitCtModuleReference(moduleReference);
 	}
 
 	@Override
 	public void visitCtPackageExport(CtPackageExport moduleExport) {
-		visitors.forEach(v -> v.visitCtPackageExport(moduleExport));
+		dispatch(VisitMethod.PACKAGE_EXPORT, moduleExport, BreakingChangeVisitor::visitCtPackageExport);
 		super.visitCtPackageExport(moduleExport);
 	}
 
 	@Override
 	public void visitCtModuleRequirement(CtModuleRequirement moduleRequirement) {
-		visitors.forEach(v -> v.visitCtModuleRequirement(moduleRequirement));
+		dispatch(VisitMethod.MODULE_REQUIREMENT, moduleRequirement, BreakingChangeVisitor::visitCtModuleRequirement);
 		super.visitCtModuleRequirement(moduleRequirement);
 	}
 
 	@Override
 	public void visitCtProvidedService(CtProvidedService moduleProvidedService) {
-		visitors.forEach(v -> v.visitCtProvidedService(moduleProvidedService));
+		dispatch(VisitMethod.PROVIDED_SERVICE, moduleProvidedService, BreakingChangeVisitor::visitCtProvidedService);
 		super.visitCtProvidedService(moduleProvidedService);
 	}
 
 	@Override
 	public void visitCtUsedService(CtUsedService usedService) {
-		visitors.forEach(v -> v.visitCtUsedService(usedService));
+		dispatch(VisitMethod.USED_SERVICE, usedService, BreakingChangeVisitor::visitCtUsedService);
 		super.visitCtUsedService(usedService);
 	}
 
 	@Override
 	public void visitCtCompilationUnit(CtCompilationUnit compilationUnit) {
-		visitors.forEach(v -> v.visitCtCompilationUnit(compilationUnit));
+		dispatch(VisitMethod.COMPILATION_UNIT, compilationUnit, BreakingChangeVisitor::visitCtCompilationUnit);
 		super.visitCtCompilationUnit(compilationUnit);
 	}
 
 	@Override
 	public void visitCtPackageDeclaration(CtPackageDeclaration packageDeclaration) {
-		visitors.forEach(v -> v.visitCtPackageDeclaration(packageDeclaration));
+		dispatch(VisitMethod.PACKAGE_DECLARATION, packageDeclaration, BreakingChangeVisitor::visitCtPackageDeclaration);
 		super.visitCtPackageDeclaration(packageDeclaration);
 	}
 
 	@Override
 	public void visitCtTypeMemberWildcardImportReference(CtTypeMemberWildcardImportReference wildcardReference) {
-		visitors.forEach(v -> v.visitCtTypeMemberWildcardImportReference(wildcardReference));
+		dispatch(VisitMethod.TYPE_MEMBER_WILDCARD_IMPORT_REFERENCE, wildcardReference, BreakingChangeVisitor::visitCtTypeMemberWildcardImportReference);
 		super.visitCtTypeMemberWildcardImportReference(wildcardReference);
 	}
 
 	@Override
 	public void visitCtYieldStatement(CtYieldStatement statement) {
-		visitors.forEach(v -> v.visitCtYieldStatement(statement));
+		dispatch(VisitMethod.YIELD_STATEMENT, statement, BreakingChangeVisitor::visitCtYieldStatement);
 		super.visitCtYieldStatement(statement);
 	}
 }
@@ -8,6 +8,8 @@ import spoon.reflect.code.CtNewClass;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.Set;
+
 /**
  * Visitor in charge of gathering all constructor removed issues in client code.
  * <p>
@@ -43,6 +45,11 @@ public class ConstructorRemovedVisitor extends BreakingChangeVisitor {
 		this.mRef = mRef;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.EXECUTABLE ? Set.of(mRef.getSignature()) : null;
+	}
+
 	@Override
 	public <T> void visitCtConstructorCall(CtConstructorCall<T> consCall) {
 		if (mRef.equals(consCall.getExecutable()))
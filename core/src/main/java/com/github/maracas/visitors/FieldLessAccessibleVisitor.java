@@ -10,6 +10,8 @@ import spoon.reflect.code.CtFieldWrite;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.reference.CtFieldReference;
 
+import java.util.Set;
+
 /**
  * Broken uses of FIELD_LESS_ACCESSIBLE are:
  * - Any access to a now-private field
@@ -28,6 +30,11 @@ public class FieldLessAccessibleVisitor extends BreakingChangeVisitor {
 		this.newAccessModifier = newAccessModifier;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.FIELD ? Set.of(fRef.getSimpleName()) : null;
+	}
+
 	@Override
 	public <T> void visitCtFieldRead(CtFieldRead<T> fieldRead) {
 		visitCtFieldAccess(fieldRead);
@@ -9,6 +9,8 @@ import spoon.reflect.code.CtTypeAccess;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.Set;
+
 /**
  * Broken uses of FIELD_NO_LONGER_STATIC are:
  * - Attempting to access a no-longer-static field in a static way
@@ -21,6 +23,11 @@ public class FieldNoLongerStaticVisitor extends BreakingChangeVisitor {
 		this.fRef = fRef;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.FIELD ? Set.of(fRef.getSimpleName()) : null;
+	}
+
 	@Override
 	public <T> void visitCtFieldRead(CtFieldRead<T> fieldRead) {
 		visitCtFieldAccess(fieldRead);
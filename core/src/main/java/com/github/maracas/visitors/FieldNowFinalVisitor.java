@@ -1,10 +1,16 @@
 package com.github.maracas.visitors;
 
 import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.UsageIndex;
 import japicmp.model.JApiCompatibilityChange;
 import spoon.reflect.code.CtFieldWrite;
 import spoon.reflect.reference.CtFieldReference;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Broken uses of FIELD_NOW_FINAL are:
  * - Attempting to write-access a now-final field
@@ -17,6 +23,22 @@ public class FieldNowFinalVisitor extends BreakingChangeVisitor {
 		this.fRef = fRef;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.FIELD ? Set.of(fRef.getSimpleName()) : null;
+	}
+
+	@Override
+	public boolean visitIndex(UsageIndex index) {
+		List<BrokenUse> found = new ArrayList<>();
+		if (fRef.getDeclaringType() == null || !lookupBrokenUses(index, UsageIndex.Kind.FIELD_WRITE,
+			UsageIndex.memberKey(fRef.getDeclaringType().getQualifiedName(), fRef.getSimpleName()), fRef, found))
+			return false;
+
+		brokenUses.addAll(found);
+		return true;
+	}
+
 	@Override
 	public <T> void visitCtFieldWrite(CtFieldWrite<T> fieldWrite) {
 		if (fRef.equals(fieldWrite.getVariable()))
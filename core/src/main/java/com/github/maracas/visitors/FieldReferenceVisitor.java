@@ -1,14 +1,31 @@
 package com.github.maracas.visitors;
 
 import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.UsageIndex;
 import japicmp.model.JApiCompatibilityChange;
 import spoon.reflect.reference.CtFieldReference;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generic visitor in charge of gathering field reference issues in client code.
+ * <p>
+ * It creates a broken use for every reference to one of the supplied fields.
+ * All modified fields of a given kind are handled by a single visitor instance,
+ * indexed by their simple name.
+ */
 public class FieldReferenceVisitor extends BreakingChangeVisitor {
 	/**
-	 * Spoon reference to the removed field.
+	 * Spoon references to the modified fields, indexed by simple name.
 	 */
-	private final CtFieldReference<?> fRef;
+	private final Map<String, List<CtFieldReference<?>>> fRefs = new HashMap<>();
 
 	/**
 	 * Creates a {@link FieldReferenceVisitor} instance.
@@ -17,13 +34,57 @@ public class FieldReferenceVisitor extends BreakingChangeVisitor {
 	 * @param change kind of breaking change
 	 */
 	protected FieldReferenceVisitor(CtFieldReference<?> fRef, JApiCompatibilityChange change) {
+		this(List.of(fRef), change);
+	}
+
+	/**
+	 * Creates a {@link FieldReferenceVisitor} instance handling several
+	 * modified fields at once.
+	 *
+	 * @param fRefs  modified field references
+	 * @param change kind of breaking change
+	 */
+	protected FieldReferenceVisitor(Collection<? extends CtFieldReference<?>> fRefs, JApiCompatibilityChange change) {
 		super(change);
-		this.fRef = fRef;
+		fRefs.forEach(this::addField);
+	}
+
+	private void addField(CtFieldReference<?> fRef) {
+		fRefs.computeIfAbsent(fRef.getSimpleName().intern(), k -> new ArrayList<>()).add(fRef);
+	}
+
+	@Override
+	public boolean coalesce(BreakingChangeVisitor other) {
+		if (other.getClass() != getClass() || other.change != change)
+			return false;
+
+		((FieldReferenceVisitor) other).fRefs.values().forEach(refs -> refs.forEach(this::addField));
+		return true;
+	}
+
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.FIELD ? Collections.unmodifiableSet(fRefs.keySet()) : null;
+	}
+
+	@Override
+	public boolean visitIndex(UsageIndex index) {
+		List<BrokenUse> found = new ArrayList<>();
+		for (List<CtFieldReference<?>> refs : fRefs.values())
+			for (CtFieldReference<?> fRef : refs)
+				if (fRef.getDeclaringType() == null || !lookupBrokenUses(index, UsageIndex.Kind.FIELD_REFERENCE,
+					UsageIndex.memberKey(fRef.getDeclaringType().getQualifiedName(), fRef.getSimpleName()), fRef, found))
+					return false;
+
+		brokenUses.addAll(found);
+		return true;
 	}
 
 	@Override
 	public <T> void visitCtFieldReference(CtFieldReference<T> reference) {
-		if (fRef.equals(reference))
-			brokenUse(reference, reference, fRef, APIUse.FIELD_ACCESS);
+		for (CtFieldReference<?> fRef : lookup(fRefs, reference::getSimpleName)) {
+			if (fRef.equals(reference))
+				brokenUse(reference, reference, fRef, APIUse.FIELD_ACCESS);
+		}
 	}
 }
@@ -9,6 +9,8 @@ import spoon.reflect.code.CtFieldWrite;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.Set;
+
 /**
  * Visitor in charge of gathering all method return type changed issues in
  * client code.
@@ -60,6 +62,11 @@ public class FieldTypeChangedVisitor extends BreakingChangeVisitor {
 		this.newType = newType;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.FIELD ? Set.of(fRef.getSimpleName()) : null;
+	}
+
 	@Override
 	public <T> void visitCtFieldRead(CtFieldRead<T> fieldRead) {
 		if (fRef.equals(fieldRead.getVariable())) {
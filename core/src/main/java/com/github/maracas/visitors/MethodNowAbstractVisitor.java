@@ -7,6 +7,8 @@ import spoon.reflect.declaration.CtClass;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.Set;
+
 /**
  * Broken uses of METHOD_NOW_ABSTRACT are:
  * - Non-abstract types extending/implementing the enclosing type of the now-abstract method unless:
@@ -21,6 +23,11 @@ public class MethodNowAbstractVisitor extends BreakingChangeVisitor {
 		this.mRef = mRef;
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.EXECUTABLE ? Set.of(mRef.getSignature()) : null;
+	}
+
 	@Override
 	public <T> void visitCtClass(CtClass<T> ctClass) {
 		CtTypeReference<?> enclosingType = mRef.getDeclaringType();
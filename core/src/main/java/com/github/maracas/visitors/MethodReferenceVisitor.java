@@ -1,15 +1,27 @@
 package com.github.maracas.visitors;
 
 import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.UsageIndex;
 import japicmp.model.JApiCompatibilityChange;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.reference.CtExecutableReference;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Generic visitor in charge of gathering method reference issues in client code.
  * <p>
- * It creates a broken use for every reference to the supplied {code mRef}.
+ * It creates a broken use for every reference to one of the supplied {@code mRefs}.
+ * All modified methods of a given kind are handled by a single visitor instance,
+ * indexed by their signature.
  * The visitor detects the following cases:
  * <ul>
  * <li> Invocations to the referenced method. Example:
@@ -25,9 +37,15 @@ import spoon.reflect.reference.CtExecutableReference;
  */
 public class MethodReferenceVisitor extends BreakingChangeVisitor {
 	/**
-	 * Spoon reference to the removed method.
+	 * Spoon references to the modified methods, indexed by signature.
 	 */
-	private final CtExecutableReference<?> mRef;
+	private final Map<String, List<CtExecutableReference<?>>> mRefs = new HashMap<>();
+
+	/**
+	 * Declarations of the modified methods, indexed by signature. Lazily
+	 * resolved when visiting the first method.
+	 */
+	private Map<String, List<ModifiedMethod>> methods;
 
 	/**
 	 * Creates a {@link MethodReferenceVisitor} instance.
@@ -36,24 +54,104 @@ public class MethodReferenceVisitor extends BreakingChangeVisitor {
 	 * @param change kind of breaking change
 	 */
 	protected MethodReferenceVisitor(CtExecutableReference<?> mRef, JApiCompatibilityChange change) {
+		this(List.of(mRef), change);
+	}
+
+	/**
+	 * Creates a {@link MethodReferenceVisitor} instance handling several
+	 * modified methods at once.
+	 *
+	 * @param mRefs  modified method references
+	 * @param change kind of breaking change
+	 */
+	protected MethodReferenceVisitor(Collection<? extends CtExecutableReference<?>> mRefs, JApiCompatibilityChange change) {
 		super(change);
-		this.mRef = mRef;
+		mRefs.forEach(this::addMethod);
+	}
+
+	private void addMethod(CtExecutableReference<?> mRef) {
+		this.mRefs.computeIfAbsent(mRef.getSignature().intern(), k -> new ArrayList<>()).add(mRef);
+		this.methods = null;
+	}
+
+	@Override
+	public boolean coalesce(BreakingChangeVisitor other) {
+		if (other.getClass() != getClass() || other.change != change)
+			return false;
+
+		((MethodReferenceVisitor) other).mRefs.values().forEach(refs -> refs.forEach(this::addMethod));
+		return true;
+	}
+
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.EXECUTABLE ? Collections.unmodifiableSet(mRefs.keySet()) : null;
+	}
+
+	@Override
+	public boolean visitIndex(UsageIndex index) {
+		List<BrokenUse> found = new ArrayList<>();
+		for (List<CtExecutableReference<?>> refs : mRefs.values())
+			for (CtExecutableReference<?> mRef : refs)
+				if (mRef.getDeclaringType() == null || !lookupBrokenUses(index, UsageIndex.Kind.INVOCATION,
+					UsageIndex.memberKey(mRef.getDeclaringType().getQualifiedName(), mRef.getSignature()), mRef, found))
+					return false;
+
+		// Overrides are indexed under the overridden declaration, as in visitCtMethod()
+		for (List<ModifiedMethod> modified : methods().values())
+			for (ModifiedMethod m : modified)
+				if (!lookupBrokenUses(index, UsageIndex.Kind.OVERRIDE,
+					UsageIndex.memberKey(m.method().getDeclaringType().getQualifiedName(), m.method().getSignature()),
+					m.mRef(), found))
+					return false;
+
+		brokenUses.addAll(found);
+		return true;
 	}
 
 	@Override
 	public <T> void visitCtInvocation(CtInvocation<T> invocation) {
-		if (mRef.equals(invocation.getExecutable())) {
-			brokenUse(invocation, invocation.getExecutable(), mRef, APIUse.METHOD_INVOCATION);
+		CtExecutableReference<?> executable = invocation.getExecutable();
+		if (executable == null)
+			return;
+
+		for (CtExecutableReference<?> mRef : lookup(mRefs, executable::getSignature)) {
+			if (mRef.equals(executable)) {
+				brokenUse(invocation, executable, mRef, APIUse.METHOD_INVOCATION);
+			}
 		}
 	}
 
 	@Override
 	public <T> void visitCtMethod(CtMethod<T> m) {
-		if (mRef.getExecutableDeclaration() instanceof CtMethod<?> method) {
-			// Redundant check, but the signature equality check + short-circuiting
-			// avoids invoking the super-expensive isOverriding() on every CtMethod
-			if (m.getSignature().equals(method.getSignature()) && m.isOverriding(method))
-				brokenUse(m, method, mRef, APIUse.METHOD_OVERRIDE);
+		Map<String, List<ModifiedMethod>> methodsBySignature = methods();
+		if (methodsBySignature.isEmpty())
+			return;
+
+		// The signature lookup avoids invoking the super-expensive
+		// isOverriding() on every CtMethod
+		for (ModifiedMethod modified : methodsBySignature.getOrDefault(m.getSignature(), Collections.emptyList())) {
+			if (m.isOverriding(modified.method()))
+				brokenUse(m, modified.method(), modified.mRef(), APIUse.METHOD_OVERRIDE);
 		}
 	}
+
+	private Map<String, List<ModifiedMethod>> methods() {
+		if (methods == null) {
+			methods = new HashMap<>();
+			mRefs.values().forEach(refs -> refs.forEach(mRef -> {
+				if (mRef.getExecutableDeclaration() instanceof CtMethod<?> method)
+					methods.computeIfAbsent(method.getSignature(), k -> new ArrayList<>())
+						.add(new ModifiedMethod(mRef, method));
+			}));
+		}
+
+		return methods;
+	}
+
+	/**
+	 * A modified method's reference and its declaration
+	 */
+	private record ModifiedMethod(CtExecutableReference<?> mRef, CtMethod<?> method) {
+	}
 }
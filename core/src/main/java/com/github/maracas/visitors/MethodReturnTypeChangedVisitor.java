@@ -9,6 +9,8 @@ import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.Set;
+
 /**
  * Visitor in charge of gathering all method return type changed issues in
  * client code.
@@ -63,6 +65,11 @@ public class MethodReturnTypeChangedVisitor extends BreakingChangeVisitor {
 		this.expectedType = SpoonTypeHelpers.inferExpectedType(method);
 	}
 
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.EXECUTABLE ? Set.of(mRef.getSignature()) : null;
+	}
+
 	@Override
 	public <T> void visitCtInvocation(CtInvocation<T> invocation) {
 		if (mRef.equals(invocation.getExecutable())) {
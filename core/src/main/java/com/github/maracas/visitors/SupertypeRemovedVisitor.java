@@ -11,8 +11,13 @@ import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtReference;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -51,24 +56,27 @@ import java.util.stream.Collectors;
  */
 public class SupertypeRemovedVisitor extends BreakingChangeVisitor {
 	/**
-	 * Spoon reference to the class that removed the supertype(s).
+	 * Classes that removed supertype(s) handled by this visitor.
 	 */
-	protected final CtTypeReference<?> clsRef;
+	private final List<RemovedSupertypes> removedSupertypes = new ArrayList<>();
 
 	/**
-	 * Set of removed supertypes of the class (interfaces and classes).
+	 * Classes that removed supertype(s), indexed by the signature of the
+	 * methods declared within their removed supertypes.
 	 */
-	protected final Set<CtTypeReference<?>> supertypes;
+	private final Map<String, List<RemovedSupertypes>> bySuperMethod = new HashMap<>();
 
 	/**
-	 * Set of methods defined within the removed supertypes.
+	 * Classes that removed supertype(s), indexed by the name of the fields
+	 * declared within their removed supertypes.
 	 */
-	protected final Set<CtExecutableReference<?>> superMethods;
+	private final Map<String, List<RemovedSupertypes>> bySuperField = new HashMap<>();
 
 	/**
-	 * Set of field defined within the removed supertypes.
+	 * Classes that removed supertype(s), indexed by the qualified name of
+	 * their removed supertypes.
 	 */
-	protected final Set<String> superFields;
+	private final Map<String, List<RemovedSupertypes>> bySupertype = new HashMap<>();
 
 	/**
 	 * Creates a SupertypeRemovedVisitor instance.
@@ -81,32 +89,59 @@ public class SupertypeRemovedVisitor extends BreakingChangeVisitor {
 	protected SupertypeRemovedVisitor(CtTypeReference<?> clsRef, Set<CtTypeReference<?>> supertypes,
 	                                  JApiCompatibilityChange change) {
 		super(change);
-		this.clsRef = clsRef;
-		this.supertypes = supertypes;
-		this.superMethods = supertypes.stream().map(CtTypeInformation::getDeclaredExecutables).flatMap(Collection::stream)
-			.collect(Collectors.toSet());
-		this.superFields = supertypes.stream().map(CtTypeInformation::getDeclaredFields).flatMap(Collection::stream)
-			.map(CtReference::getSimpleName).collect(Collectors.toSet());
+		index(new RemovedSupertypes(clsRef, supertypes));
+	}
+
+	private void index(RemovedSupertypes removed) {
+		removedSupertypes.add(removed);
+		removed.superMethods().forEach(m ->
+			bySuperMethod.computeIfAbsent(m.getSignature().intern(), k -> new ArrayList<>()).add(removed));
+		removed.superFields().forEach(f ->
+			bySuperField.computeIfAbsent(f.intern(), k -> new ArrayList<>()).add(removed));
+		removed.supertypes().forEach(t ->
+			bySupertype.computeIfAbsent(t.getQualifiedName().intern(), k -> new ArrayList<>()).add(removed));
+	}
+
+	@Override
+	public boolean coalesce(BreakingChangeVisitor other) {
+		if (other.getClass() != getClass() || other.change != change)
+			return false;
+
+		((SupertypeRemovedVisitor) other).removedSupertypes.forEach(this::index);
+		return true;
+	}
+
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return switch (kind) {
+			case EXECUTABLE -> Collections.unmodifiableSet(bySuperMethod.keySet());
+			case FIELD -> Collections.unmodifiableSet(bySuperField.keySet());
+			default -> null;
+		};
 	}
 
 	@Override
 	public <T> void visitCtFieldReference(CtFieldReference<T> fieldRef) {
-		if (!superFields.contains(fieldRef.getSimpleName()))
+		List<RemovedSupertypes> candidates = bySuperField.get(fieldRef.getSimpleName());
+		if (candidates == null)
 			return;
 
 		CtTypeReference<?> declType = fieldRef.getDeclaringType();
 		CtFieldReference<?> declTypeField = (declType != null)
 			? declType.getDeclaredField(fieldRef.getSimpleName())
 			: null;
-		try {
-			if (declType != null &&
-				((declType.isSubtypeOf(clsRef) && declTypeField == null) ||
-					// A no static invocation has an invalid position
-					(!declType.getQualifiedName().equals("java.lang.Object") &&
-						supertypes.contains(declType) && !fieldRef.getPosition().isValidPosition())))
-				brokenUse(fieldRef, fieldRef, clsRef, APIUse.FIELD_ACCESS);
-		} catch (SpoonException e) {
-			// FIXME: Find fancier solution. A declaration cannot be resolved
+
+		for (RemovedSupertypes removed : candidates) {
+			try {
+				if (declType != null &&
+					((declType.isSubtypeOf(removed.clsRef()) && declTypeField == null) ||
+						// A no static invocation has an invalid position
+						(!declType.getQualifiedName().equals("java.lang.Object") &&
+							removed.supertypes().contains(declType) && !fieldRef.getPosition().isValidPosition())))
+					brokenUse(fieldRef, fieldRef, removed.clsRef(), APIUse.FIELD_ACCESS);
+			} catch (SpoonException e) {
+				// FIXME: Find fancier solution. A declaration cannot be resolved
+			}
 		}
 	}
 
@@ -115,16 +150,21 @@ public class SupertypeRemovedVisitor extends BreakingChangeVisitor {
 		// FIXME: Assumption-All static methods from the removed supertype are
 		// being called in a static way.
 		CtExecutableReference<?> methRef = invocation.getExecutable();
-		if (!superMethods.contains(methRef) || isStaticInvocation(invocation))
+		if (methRef == null)
 			return;
 
-		CtTypeReference<?> declType = methRef.getDeclaringType();
-		try {
-			if ((declType.isSubtypeOf(clsRef) && declType.getDeclaredExecutables().contains(methRef)) ||
-				(!declType.getQualifiedName().equals("java.lang.Object") && supertypes.contains(declType)))
-				brokenUse(invocation, methRef, clsRef, APIUse.METHOD_INVOCATION);
-		} catch (SpoonException e) {
-			// FIXME: Find fancier solution. A declaration cannot be resolved
+		for (RemovedSupertypes removed : lookup(bySuperMethod, methRef::getSignature)) {
+			if (!removed.superMethods().contains(methRef) || isStaticInvocation(invocation, removed))
+				continue;
+
+			CtTypeReference<?> declType = methRef.getDeclaringType();
+			try {
+				if ((declType.isSubtypeOf(removed.clsRef()) && declType.getDeclaredExecutables().contains(methRef)) ||
+					(!declType.getQualifiedName().equals("java.lang.Object") && removed.supertypes().contains(declType)))
+					brokenUse(invocation, methRef, removed.clsRef(), APIUse.METHOD_INVOCATION);
+			} catch (SpoonException e) {
+				// FIXME: Find fancier solution. A declaration cannot be resolved
+			}
 		}
 	}
 
@@ -132,35 +172,38 @@ public class SupertypeRemovedVisitor extends BreakingChangeVisitor {
 	 * Verifies if there is a static invocation to a method of a removed supertype.
 	 *
 	 * @param invocation method invocation
+	 * @param removed    the class that removed the supertype(s)
 	 * @return true if there is a static invocation of a method of one of the
 	 * removed supertypes; otherwise, false.
 	 */
-	private <T> boolean isStaticInvocation(CtInvocation<T> invocation) {
+	private <T> boolean isStaticInvocation(CtInvocation<T> invocation, RemovedSupertypes removed) {
 		CtExecutableReference<?> methRef = invocation.getExecutable();
 		CtExpression<?> target = invocation.getTarget();
 		if (methRef.isStatic() && target instanceof CtTypeAccess<?> ta
 			&& ta.getPosition().isValidPosition()) {
 			CtTypeReference<?> refType = ((CtTypeAccess<?>) target).getAccessedType();
-			return supertypes.contains(refType);
+			return removed.supertypes().contains(refType);
 		}
 		return false;
 	}
 
 	@Override
 	public <T> void visitCtMethod(CtMethod<T> m) {
-		if (superMethods.stream().noneMatch(superM -> superM.getSignature().equals(m.getSignature())))
+		if (bySuperMethod.isEmpty())
 			return;
 
-		try {
-			if (m.getDeclaringType().isSubtypeOf(clsRef)) {
-				CtExecutableReference<?> superMeth = m.getReference().getOverridingExecutable();
+		for (RemovedSupertypes removed : bySuperMethod.getOrDefault(m.getSignature(), Collections.emptyList())) {
+			try {
+				if (m.getDeclaringType().isSubtypeOf(removed.clsRef())) {
+					CtExecutableReference<?> superMeth = m.getReference().getOverridingExecutable();
 
-				if (superMeth != null && superMethods.contains(superMeth))
-					brokenUse(m, superMeth, clsRef, APIUse.METHOD_OVERRIDE);
+					if (superMeth != null && removed.superMethods().contains(superMeth))
+						brokenUse(m, superMeth, removed.clsRef(), APIUse.METHOD_OVERRIDE);
+				}
+			} catch (SpoonException e) {
+				// A declaration cannot be resolved
+				// FIXME: deal with this issue in a fancier way?
 			}
-		} catch (SpoonException e) {
-			// A declaration cannot be resolved
-			// FIXME: deal with this issue in a fancier way?
 		}
 	}
 
@@ -190,10 +233,39 @@ public class SupertypeRemovedVisitor extends BreakingChangeVisitor {
 
 			if (typeRef != null) {
 				for (CtTypeReference<?> cast : casts) {
-					if (supertypes.contains(cast) && typeRef.isSubtypeOf(clsRef))
-						brokenUse(assignExpr, cast, clsRef, APIUse.TYPE_DEPENDENCY);
+					for (RemovedSupertypes removed : lookup(bySupertype, cast::getQualifiedName)) {
+						if (removed.supertypes().contains(cast) && typeRef.isSubtypeOf(removed.clsRef()))
+							brokenUse(assignExpr, cast, removed.clsRef(), APIUse.TYPE_DEPENDENCY);
+					}
 				}
 			}
 		}
 	}
+
+	/**
+	 * A class that removed supertype(s), along with the methods and fields
+	 * declared within the removed supertypes.
+	 *
+	 * @param clsRef       class that removed the supertype(s)
+	 * @param supertypes   set of removed supertypes (interfaces and classes)
+	 * @param superMethods set of methods defined within the removed supertypes
+	 * @param superFields  set of fields defined within the removed supertypes
+	 */
+	private record RemovedSupertypes(
+		CtTypeReference<?> clsRef,
+		Set<CtTypeReference<?>> supertypes,
+		Set<CtExecutableReference<?>> superMethods,
+		Set<String> superFields
+	) {
+		RemovedSupertypes(CtTypeReference<?> clsRef, Set<CtTypeReference<?>> supertypes) {
+			this(
+				clsRef,
+				supertypes,
+				supertypes.stream().map(CtTypeInformation::getDeclaredExecutables).flatMap(Collection::stream)
+					.collect(Collectors.toSet()),
+				supertypes.stream().map(CtTypeInformation::getDeclaredFields).flatMap(Collection::stream)
+					.map(CtReference::getSimpleName).collect(Collectors.toSet())
+			);
+		}
+	}
 }
@@ -0,0 +1,16 @@
+package com.github.maracas.visitors;
+
+/**
+ * Kinds of symbols referenced in client code that {@link CombinedVisitor} uses
+ * to only dispatch reference nodes to the visitors they may impact:
+ * <ul>
+ *   <li>{@code TYPE}: qualified name of a referenced type ({@code CtTypeReference})</li>
+ *   <li>{@code EXECUTABLE}: signature of an invoked executable ({@code CtInvocation})</li>
+ *   <li>{@code FIELD}: simple name of an accessed field ({@code CtFieldRead}, {@code CtFieldWrite}, {@code CtFieldReference})</li>
+ * </ul>
+ */
+public enum SymbolKind {
+	TYPE,
+	EXECUTABLE,
+	FIELD
+}
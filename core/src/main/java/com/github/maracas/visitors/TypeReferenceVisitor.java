@@ -1,13 +1,25 @@
 package com.github.maracas.visitors;
 
 import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.UsageIndex;
 import japicmp.model.JApiCompatibilityChange;
 import spoon.reflect.reference.CtTypeReference;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Generic visitor in charge of gathering type reference issues in client code.
  * <p>
- * It creates a broken use for every reference to the supplied {@link #clsRef}.
+ * It creates a broken use for every reference to one of the supplied {@link #clsRefs}.
+ * All modified types of a given kind are handled by a single visitor instance,
+ * indexed by their qualified name.
  * The visitor detects the following cases:
  * <ul>
  * <li> Any reference to the referenced class. Example:
@@ -18,9 +30,9 @@ import spoon.reflect.reference.CtTypeReference;
  */
 public class TypeReferenceVisitor extends BreakingChangeVisitor {
 	/**
-	 * Spoon reference to the modified type
+	 * Spoon references to the modified types, indexed by qualified name
 	 */
-	protected final CtTypeReference<?> clsRef;
+	protected final Map<String, List<CtTypeReference<?>>> clsRefs = new HashMap<>();
 
 	/**
 	 * Creates a TypeReferenceVisitor instance.
@@ -29,15 +41,59 @@ public class TypeReferenceVisitor extends BreakingChangeVisitor {
 	 * @param change kind of breaking change
 	 */
 	public TypeReferenceVisitor(CtTypeReference<?> clsRef, JApiCompatibilityChange change) {
+		this(List.of(clsRef), change);
+	}
+
+	/**
+	 * Creates a TypeReferenceVisitor instance handling several modified types at once.
+	 *
+	 * @param clsRefs modified types
+	 * @param change  kind of breaking change
+	 */
+	public TypeReferenceVisitor(Collection<? extends CtTypeReference<?>> clsRefs, JApiCompatibilityChange change) {
 		super(change);
-		this.clsRef = clsRef;
+		clsRefs.forEach(this::addType);
+	}
+
+	private void addType(CtTypeReference<?> clsRef) {
+		clsRefs.computeIfAbsent(clsRef.getQualifiedName().intern(), k -> new ArrayList<>()).add(clsRef);
+	}
+
+	@Override
+	public boolean coalesce(BreakingChangeVisitor other) {
+		if (other.getClass() != getClass() || other.change != change)
+			return false;
+
+		((TypeReferenceVisitor) other).clsRefs.values().forEach(refs -> refs.forEach(this::addType));
+		return true;
+	}
+
+	@Override
+	public Set<String> getIndexedSymbols(SymbolKind kind) {
+		return kind == SymbolKind.TYPE ? Collections.unmodifiableSet(clsRefs.keySet()) : null;
+	}
+
+	@Override
+	public boolean visitIndex(UsageIndex index) {
+		List<BrokenUse> found = new ArrayList<>();
+		for (List<CtTypeReference<?>> refs : clsRefs.values())
+			for (CtTypeReference<?> clsRef : refs)
+				// Type references are indexed without their type arguments
+				if (!clsRef.getActualTypeArguments().isEmpty()
+					|| !lookupBrokenUses(index, UsageIndex.Kind.TYPE_REFERENCE, clsRef.getQualifiedName(), clsRef, found))
+					return false;
+
+		brokenUses.addAll(found);
+		return true;
 	}
 
 	@Override
 	public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
-		if (clsRef.equals(reference)) {
-			APIUse use = getAPIUseByRole(reference);
-			brokenUse(reference.getParent(), reference, clsRef, use);
+		for (CtTypeReference<?> clsRef : lookup(clsRefs, reference::getQualifiedName)) {
+			if (clsRef.equals(reference)) {
+				APIUse use = getAPIUseByRole(reference);
+				brokenUse(reference.getParent(), reference, clsRef, use);
+			}
 		}
 	}
 
@@ -0,0 +1,143 @@
+package com.github.maracas.visitors;
+
+import spoon.reflect.visitor.CtVisitor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code visitCtXxx} methods of {@link CtVisitor} that {@link CombinedVisitor}
+ * dispatches, so that {@link VisitorDispatchTable} can look up the visitors to
+ * invoke on a node by {@link #ordinal()} rather than by method name.
+ */
+enum VisitMethod {
+	PACKAGE("visitCtPackage"),
+	ANNOTATION("visitCtAnnotation"),
+	CODE_SNIPPET_EXPRESSION("visitCtCodeSnippetExpression"),
+	CODE_SNIPPET_STATEMENT("visitCtCodeSnippetStatement"),
+	ANNOTATION_TYPE("visitCtAnnotationType"),
+	ANONYMOUS_EXECUTABLE("visitCtAnonymousExecutable"),
+	ARRAY_READ("visitCtArrayRead"),
+	ARRAY_WRITE("visitCtArrayWrite"),
+	ARRAY_TYPE_REFERENCE("visitCtArrayTypeReference"),
+	ASSERT("visitCtAssert"),
+	ASSIGNMENT("visitCtAssignment"),
+	BINARY_OPERATOR("visitCtBinaryOperator"),
+	BLOCK("visitCtBlock"),
+	BREAK("visitCtBreak"),
+	CASE("visitCtCase"),
+	CATCH("visitCtCatch"),
+	CLASS("visitCtClass"),
+	TYPE_PARAMETER("visitCtTypeParameter"),
+	CONDITIONAL("visitCtConditional"),
+	CONSTRUCTOR("visitCtConstructor"),
+	CONTINUE("visitCtContinue"),
+	DO("visitCtDo"),
+	ENUM("visitCtEnum"),
+	EXECUTABLE_REFERENCE("visitCtExecutableReference"),
+	FIELD("visitCtField"),
+	ENUM_VALUE("visitCtEnumValue"),
+	THIS_ACCESS("visitCtThisAccess"),
+	FIELD_REFERENCE("visitCtFieldReference", SymbolKind.FIELD),
+	UNBOUND_VARIABLE_REFERENCE("visitCtUnboundVariableReference"),
+	FOR("visitCtFor"),
+	FOR_EACH("visitCtForEach"),
+	IF("visitCtIf"),
+	INTERFACE("visitCtInterface"),
+	INVOCATION("visitCtInvocation", SymbolKind.EXECUTABLE),
+	LITERAL("visitCtLiteral"),
+	TEXT_BLOCK("visitCtTextBlock"),
+	LOCAL_VARIABLE("visitCtLocalVariable"),
+	LOCAL_VARIABLE_REFERENCE("visitCtLocalVariableReference"),
+	CATCH_VARIABLE("visitCtCatchVariable"),
+	CATCH_VARIABLE_REFERENCE("visitCtCatchVariableReference"),
+	METHOD("visitCtMethod"),
+	ANNOTATION_METHOD("visitCtAnnotationMethod"),
+	NEW_ARRAY("visitCtNewArray"),
+	CONSTRUCTOR_CALL("visitCtConstructorCall"),
+	NEW_CLASS("visitCtNewClass"),
+	LAMBDA("visitCtLambda"),
+	EXECUTABLE_REFERENCE_EXPRESSION("visitCtExecutableReferenceExpression"),
+	OPERATOR_ASSIGNMENT("visitCtOperatorAssignment"),
+	PACKAGE_REFERENCE("visitCtPackageReference"),
+	PARAMETER("visitCtParameter"),
+	PARAMETER_REFERENCE("visitCtParameterReference"),
+	RETURN("visitCtReturn"),
+	STATEMENT_LIST("visitCtStatementList"),
+	SWITCH("visitCtSwitch"),
+	SWITCH_EXPRESSION("visitCtSwitchExpression"),
+	SYNCHRONIZED("visitCtSynchronized"),
+	THROW("visitCtThrow"),
+	TRY("visitCtTry"),
+	TRY_WITH_RESOURCE("visitCtTryWithResource"),
+	TYPE_PARAMETER_REFERENCE("visitCtTypeParameterReference"),
+	WILDCARD_REFERENCE("visitCtWildcardReference"),
+	INTERSECTION_TYPE_REFERENCE("visitCtIntersectionTypeReference"),
+	TYPE_REFERENCE("visitCtTypeReference", SymbolKind.TYPE),
+	TYPE_ACCESS("visitCtTypeAccess"),
+	UNARY_OPERATOR("visitCtUnaryOperator"),
+	VARIABLE_READ("visitCtVariableRead"),
+	VARIABLE_WRITE("visitCtVariableWrite"),
+	WHILE("visitCtWhile"),
+	ANNOTATION_FIELD_ACCESS("visitCtAnnotationFieldAccess"),
+	FIELD_READ("visitCtFieldRead", SymbolKind.FIELD),
+	FIELD_WRITE("visitCtFieldWrite", SymbolKind.FIELD),
+	SUPER_ACCESS("visitCtSuperAccess"),
+	COMMENT("visitCtComment"),
+	JAVA_DOC("visitCtJavaDoc"),
+	JAVA_DOC_TAG("visitCtJavaDocTag"),
+	IMPORT("visitCtImport"),
+	MODULE("visitCtModule"),
+	MODULE_REFERENCE("visitCtModuleReference"),
+	PACKAGE_EXPORT("visitCtPackageExport"),
+	MODULE_REQUIREMENT("visitCtModuleRequirement"),
+	PROVIDED_SERVICE("visitCtProvidedService"),
+	USED_SERVICE("visitCtUsedService"),
+	COMPILATION_UNIT("visitCtCompilationUnit"),
+	PACKAGE_DECLARATION("visitCtPackageDeclaration"),
+	TYPE_MEMBER_WILDCARD_IMPORT_REFERENCE("visitCtTypeMemberWildcardImportReference"),
+	YIELD_STATEMENT("visitCtYieldStatement");
+
+	private static final Map<String, VisitMethod> BY_NAME =
+		Arrays.stream(values()).collect(Collectors.toUnmodifiableMap(m -> m.methodName, Function.identity()));
+
+	private final String methodName;
+	private final String nodeKind;
+	private final SymbolKind symbolKind;
+
+	VisitMethod(String methodName) {
+		this(methodName, null);
+	}
+
+	VisitMethod(String methodName, SymbolKind symbolKind) {
+		this.methodName = methodName;
+		// Node kinds are named after the visit method, e.g. visitCtInvocation -> CtInvocation
+		this.nodeKind = methodName.substring("visit".length());
+		this.symbolKind = symbolKind;
+	}
+
+	/**
+	 * Returns the visit method named {@code methodName}, or null if
+	 * {@link CombinedVisitor} doesn't dispatch it
+	 */
+	static VisitMethod forName(String methodName) {
+		return BY_NAME.get(methodName);
+	}
+
+	/**
+	 * Returns the kind of node this method visits, e.g., {@code CtInvocation}
+	 */
+	String nodeKind() {
+		return nodeKind;
+	}
+
+	/**
+	 * Returns the kind of symbol visitors of this method can be indexed by, or
+	 * null if they can't
+	 */
+	SymbolKind symbolKind() {
+		return symbolKind;
+	}
+}
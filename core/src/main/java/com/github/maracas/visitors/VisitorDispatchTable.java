@@ -0,0 +1,177 @@
+package com.github.maracas.visitors;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.CtAbstractVisitor;
+import spoon.reflect.visitor.CtVisitor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A dispatch table built once per set of {@link BreakingChangeVisitor} that
+ * maps every {@link VisitMethod} to the visitors that actually override it.
+ * <p>
+ * For reference nodes ({@code CtInvocation}, {@code CtTypeReference},
+ * {@code CtFieldRead}, {@code CtFieldWrite}, {@code CtFieldReference}), visitors
+ * declaring their {@link BreakingChangeVisitor#getIndexedSymbols(SymbolKind)}
+ * are further indexed by symbol, so that a single hash lookup on the referenced
+ * element picks the candidate visitors.
+ * <p>
+ * Every lookup returns an array built here, indexed by the visit method's
+ * ordinal: dispatching a node neither allocates nor hashes the method's name.
+ */
+final class VisitorDispatchTable {
+	private static final BreakingChangeVisitor[] NONE = new BreakingChangeVisitor[0];
+
+	/**
+	 * The visit methods each visitor class overrides
+	 */
+	private static final ClassValue<Set<VisitMethod>> OVERRIDDEN_METHODS = new ClassValue<>() {
+		@Override
+		protected Set<VisitMethod> computeValue(Class<?> cls) {
+			Set<VisitMethod> overridden = EnumSet.noneOf(VisitMethod.class);
+
+			for (Method m : CtVisitor.class.getMethods()) {
+				VisitMethod method = VisitMethod.forName(m.getName());
+				if (method == null)
+					continue;
+
+				try {
+					if (cls.getMethod(m.getName(), m.getParameterTypes()).getDeclaringClass() != CtAbstractVisitor.class)
+						overridden.add(method);
+				} catch (NoSuchMethodException e) {
+					// Can't happen: every BreakingChangeVisitor implements CtVisitor
+				}
+			}
+
+			return Collections.unmodifiableSet(overridden);
+		}
+	};
+
+	/**
+	 * Visitors that must be invoked on every node, per visit method
+	 */
+	private final BreakingChangeVisitor[][] unindexed;
+
+	/**
+	 * Unindexed visitors followed by the visitors indexed by each symbol, per
+	 * visit method; null for the methods no visitor is indexed on
+	 */
+	private final Map<String, BreakingChangeVisitor[]>[] indexed;
+
+	/**
+	 * Unindexed visitors followed by all indexed visitors, per visit method,
+	 * used when a node's symbol cannot be computed
+	 */
+	private final BreakingChangeVisitor[][] fallback;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	VisitorDispatchTable(Collection<BreakingChangeVisitor> visitors) {
+		int methods = VisitMethod.values().length;
+		List<List<BreakingChangeVisitor>> unindexedLists = new ArrayList<>(methods);
+		List<List<BreakingChangeVisitor>> allIndexedLists = new ArrayList<>(methods);
+		List<Map<String, List<BreakingChangeVisitor>>> indexedLists = new ArrayList<>(methods);
+		for (int i = 0; i < methods; i++) {
+			unindexedLists.add(new ArrayList<>());
+			allIndexedLists.add(new ArrayList<>());
+			indexedLists.add(new HashMap<>());
+		}
+
+		for (BreakingChangeVisitor v : visitors) {
+			for (VisitMethod method : OVERRIDDEN_METHODS.get(v.getClass())) {
+				SymbolKind kind = method.symbolKind();
+				Set<String> symbols = kind != null ? indexedSymbols(v, kind) : null;
+
+				if (symbols == null)
+					unindexedLists.get(method.ordinal()).add(v);
+				else {
+					Map<String, List<BreakingChangeVisitor>> index = indexedLists.get(method.ordinal());
+					symbols.forEach(s -> index.computeIfAbsent(s, k -> new ArrayList<>()).add(v));
+					allIndexedLists.get(method.ordinal()).add(v);
+				}
+			}
+		}
+
+		this.unindexed = new BreakingChangeVisitor[methods][];
+		this.indexed = new Map[methods];
+		this.fallback = new BreakingChangeVisitor[methods][];
+		for (int i = 0; i < methods; i++) {
+			List<BreakingChangeVisitor> all = unindexedLists.get(i);
+			unindexed[i] = concat(all, List.of());
+
+			if (!allIndexedLists.get(i).isEmpty()) {
+				Map<String, BreakingChangeVisitor[]> index = new HashMap<>();
+				indexedLists.get(i).forEach((s, candidates) -> index.put(s, concat(all, candidates)));
+				indexed[i] = index;
+			}
+
+			fallback[i] = concat(all, allIndexedLists.get(i));
+		}
+	}
+
+	/**
+	 * Returns the visitors overriding the given visit method
+	 *
+	 * @param method the {@code visitCtXxx} method
+	 * @return the visitors to invoke; must not be modified
+	 */
+	BreakingChangeVisitor[] visitors(VisitMethod method) {
+		return unindexed[method.ordinal()];
+	}
+
+	/**
+	 * Returns the visitors overriding the given visit method that may be
+	 * impacted by the referenced {@code symbol}
+	 *
+	 * @param method the {@code visitCtXxx} method
+	 * @param node   the visited node
+	 * @param symbol computes the symbol referenced by {@code node}
+	 * @return the visitors to invoke; must not be modified
+	 */
+	<E extends CtElement> BreakingChangeVisitor[] visitors(VisitMethod method, E node, Function<E, String> symbol) {
+		int slot = method.ordinal();
+		Map<String, BreakingChangeVisitor[]> index = indexed[slot];
+
+		if (index == null)
+			return unindexed[slot];
+
+		try {
+			String s = symbol.apply(node);
+			if (s != null)
+				return index.getOrDefault(s, unindexed[slot]);
+		} catch (RuntimeException e) {
+			// Cannot compute the symbol (e.g., unresolved declaring type) => visit all candidates
+		}
+
+		return fallback[slot];
+	}
+
+	private static BreakingChangeVisitor[] concat(List<BreakingChangeVisitor> first, List<BreakingChangeVisitor> second) {
+		if (first.isEmpty() && second.isEmpty())
+			return NONE;
+
+		BreakingChangeVisitor[] res = new BreakingChangeVisitor[first.size() + second.size()];
+		for (int i = 0; i < first.size(); i++)
+			res[i] = first.get(i);
+		for (int i = 0; i < second.size(); i++)
+			res[first.size() + i] = second.get(i);
+		return res;
+	}
+
+	private static Set<String> indexedSymbols(BreakingChangeVisitor v, SymbolKind kind) {
+		try {
+			return v.getIndexedSymbols(kind);
+		} catch (RuntimeException e) {
+			// Cannot compute the visitor's symbols => always invoke it
+			return null;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.github.maracas.visitors;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records, per {@link BreakingChangeVisitor} class and per node kind, how many
+ * times the visitor was invoked, the time it spent and the broken uses it
+ * emitted while a {@link CombinedVisitor} traversed a client model.
+ * <p>
+ * A profile may be shared by the visitors scanning a model in parallel: counters
+ * are striped ({@link LongAdder}) so that concurrent updates don't contend.
+ */
+public final class VisitorProfile {
+	private final Map<Key, Counters> counters = new ConcurrentHashMap<>();
+
+	/**
+	 * Records a single invocation of {@code visitor} on a node
+	 *
+	 * @param visitor    the invoked visitor
+	 * @param nodeKind   the kind of node, e.g. {@code CtInvocation}
+	 * @param nanos      the time spent in the visitor, in nanoseconds
+	 * @param brokenUses the number of broken uses emitted during the invocation
+	 */
+	public void record(BreakingChangeVisitor visitor, String nodeKind, long nanos, long brokenUses) {
+		Counters c = counters.computeIfAbsent(new Key(visitor.getClass(), nodeKind), k -> new Counters());
+		c.invocations.increment();
+		c.nanos.add(nanos);
+		if (brokenUses > 0)
+			c.brokenUses.add(brokenUses);
+	}
+
+	/**
+	 * Adds the counters of {@code other} to this profile
+	 */
+	public void merge(VisitorProfile other) {
+		Objects.requireNonNull(other).counters.forEach((k, c) -> {
+			Counters mine = counters.computeIfAbsent(k, key -> new Counters());
+			mine.invocations.add(c.invocations.sum());
+			mine.nanos.add(c.nanos.sum());
+			mine.brokenUses.add(c.brokenUses.sum());
+		});
+	}
+
+	/**
+	 * Returns a snapshot of the counters, most expensive entries first
+	 */
+	public List<Entry> getEntries() {
+		return counters.entrySet().stream()
+			.map(e -> new Entry(
+				e.getKey().visitor().getSimpleName(),
+				e.getKey().nodeKind(),
+				e.getValue().invocations.sum(),
+				e.getValue().nanos.sum(),
+				e.getValue().brokenUses.sum()))
+			.sorted(Comparator.comparingLong(Entry::nanos).reversed()
+				.thenComparing(Entry::visitor)
+				.thenComparing(Entry::nodeKind))
+			.toList();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(
+			"%-40s %-32s %12s %12s %10s%n".formatted("Visitor", "Node", "Invocations", "Time (ms)", "Uses"));
+		getEntries().forEach(e -> sb.append("%-40s %-32s %12d %12.3f %10d%n".formatted(
+			e.visitor(), e.nodeKind(), e.invocations(), e.nanos() / 1e6, e.brokenUses())));
+		return sb.toString();
+	}
+
+	/**
+	 * The counters of a visitor on a kind of node
+	 *
+	 * @param visitor     the simple name of the visitor's class
+	 * @param nodeKind    the kind of node, e.g. {@code CtInvocation}
+	 * @param invocations the number of times the visitor was invoked
+	 * @param nanos       the cumulative time spent in the visitor, in nanoseconds
+	 * @param brokenUses  the number of broken uses the visitor emitted
+	 */
+	public record Entry(
+		String visitor,
+		String nodeKind,
+		long invocations,
+		long nanos,
+		long brokenUses
+	) {}
+
+	private record Key(Class<?> visitor, String nodeKind) {}
+
+	private static final class Counters {
+		final LongAdder invocations = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+		final LongAdder brokenUses = new LongAdder();
+	}
+}
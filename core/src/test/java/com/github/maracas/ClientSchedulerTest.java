@@ -0,0 +1,139 @@
+package com.github.maracas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientSchedulerTest {
+	@Test
+	void run_ResultsInClientsOrder_LargestFirst(@TempDir Path dir) throws IOException {
+		SourcesDirectory small = client(dir.resolve("small"), 10);
+		SourcesDirectory large = client(dir.resolve("large"), 1_000);
+		SourcesDirectory medium = client(dir.resolve("medium"), 100);
+		List<SourcesDirectory> started = new CopyOnWriteArrayList<>();
+
+		ClientScheduler scheduler = new ClientScheduler(1, Long.MAX_VALUE);
+		List<Path> res = scheduler.run(List.of(small, large, medium), c -> {
+			started.add(c);
+			return c.getLocation();
+		});
+
+		assertThat(res, is(equalTo(List.of(small.getLocation(), large.getLocation(), medium.getLocation()))));
+		assertThat(started, is(equalTo(List.of(large, medium, small))));
+	}
+
+	@Test
+	void run_AdmittedBytes_WithinBudget(@TempDir Path dir) throws IOException {
+		List<SourcesDirectory> clients = List.of(
+			client(dir.resolve("c1"), 100),
+			client(dir.resolve("c2"), 100),
+			client(dir.resolve("c3"), 100),
+			client(dir.resolve("c4"), 100)
+		);
+		long budget = 2 * ClientScheduler.estimateFootprint(clients.get(0));
+		ClientScheduler scheduler = new ClientScheduler(4, budget);
+		AtomicLong peak = new AtomicLong();
+
+		scheduler.run(clients, c -> {
+			peak.accumulateAndGet(scheduler.getAdmittedBytes(), Math::max);
+			sleep();
+			return null;
+		});
+
+		assertThat(peak.get(), is(lessThanOrEqualTo(budget)));
+		assertThat(scheduler.getAdmittedBytes(), is(0L));
+		assertThat(scheduler.getQueueDepth(), is(0));
+	}
+
+	@Test
+	void run_ClientLargerThanBudget_IsAdmitted(@TempDir Path dir) throws IOException {
+		SourcesDirectory large = client(dir.resolve("large"), 1_000);
+		ClientScheduler scheduler = new ClientScheduler(2, 1);
+
+		assertThat(scheduler.run(List.of(large), SourcesDirectory::getLocation), is(equalTo(List.of(large.getLocation()))));
+	}
+
+	@Test
+	void runAdmitted_CancelledWhileQueued_Throws(@TempDir Path dir) throws Exception {
+		SourcesDirectory first = client(dir.resolve("first"), 100);
+		SourcesDirectory queued = client(dir.resolve("queued"), 100);
+		ClientScheduler scheduler = new ClientScheduler(1, ClientScheduler.estimateFootprint(first));
+		CountDownLatch admitted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<?> running = executor.submit(() -> scheduler.runAdmitted(first, () -> {
+				admitted.countDown();
+				await(release);
+				return null;
+			}));
+			admitted.await();
+
+			AtomicBoolean cancelled = new AtomicBoolean();
+			Future<?> waiting = executor.submit(() -> scheduler.runAdmitted(queued, cancelled::get, () -> null));
+			cancelled.set(true);
+
+			// The first client still holds the budget: the queued one gives up on its own
+			ExecutionException e = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+			assertThat(e.getCause(), is(instanceOf(CancellationException.class)));
+			assertThat(scheduler.getQueueDepth(), is(0));
+
+			release.countDown();
+			running.get(5, TimeUnit.SECONDS);
+			assertThat(scheduler.getAdmittedBytes(), is(0L));
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void new_InvalidParameters_throwsException() {
+		assertThrows(IllegalArgumentException.class, () -> new ClientScheduler(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new ClientScheduler(1, 0));
+	}
+
+	private static SourcesDirectory client(Path dir, int size) throws IOException {
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve("A.java"), "/*" + " ".repeat(size) + "*/");
+		return SourcesDirectory.of(dir);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
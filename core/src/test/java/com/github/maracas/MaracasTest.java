@@ -17,13 +17,31 @@ import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.collection.IsMapContaining.hasKey;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.BrokenUseStore;
 import com.github.maracas.brokenuse.DeltaImpact;
+import com.github.maracas.brokenuse.ImpactStatistics;
+import com.github.maracas.brokenuse.UsageIndexStore;
 import com.github.maracas.delta.Delta;
+import com.github.maracas.visitors.VisitorProfile;
 
 import japicmp.model.AccessModifier;
 import japicmp.model.JApiCompatibilityChange;
@@ -160,6 +178,406 @@ class MaracasTest {
 		assertThat(resWithOpts.allBrokenUses().size(), lessThan(resWithoutOpts.allBrokenUses().size()));
 	}
 
+	@Test
+	void analyze_QueryWithPrescreening_IsConsidered() {
+		AnalysisResult resWithoutOpts = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.setPrescreenClients(true);
+		AnalysisResult resWithOpts = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.options(opts)
+				.build());
+
+		assertThat(resWithOpts.allBrokenUses(), is(not(empty())));
+		assertThat(resWithoutOpts.allBrokenUses().containsAll(resWithOpts.allBrokenUses()), is(true));
+	}
+
+	@Test
+	void computeDeltaImpact_PrescreeningWithoutMatch_IsEmpty() throws Exception {
+		Delta delta = maracas.computeDelta(v1, v2);
+
+		assertThat(client.prescreen(Set.of("NoSuchTypeOrMember")), is(empty()));
+		assertThat(client.prescreen(delta.getImpactedNames()), is(not(empty())));
+	}
+
+	@Test
+	void analyze_PrescreeningClientOnlyImplementingInterface_IsImpacted(@TempDir Path dir) throws IOException {
+		// Implements IMethodAddedToInterface without naming its new method
+		Path pkg = Files.createDirectories(dir.resolve("mainclient/methodAddedToInterface"));
+		Files.copy(TestData.compChangesClient.resolve("src/mainclient/methodAddedToInterface/MethodAddedToInterfaceImp1.java"),
+			pkg.resolve("MethodAddedToInterfaceImp1.java"));
+		SourcesDirectory implementor = SourcesDirectory.of(dir);
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.setPrescreenClients(true);
+		AnalysisResult res = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(implementor)
+				.options(opts)
+				.build());
+
+		assertThat(implementor.prescreen(res.delta().getImpactedNames()), hasSize(1));
+		assertThat(res.allBrokenUses().stream()
+			.filter(bu -> bu.change() == JApiCompatibilityChange.METHOD_ADDED_TO_INTERFACE)
+			.count(), is(equalTo(1L)));
+	}
+
+	@Test
+	void analyze_QueryWithScanParallelism_SameBrokenUses() {
+		AnalysisResult resSequential = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.setScanParallelism(4);
+		AnalysisResult resParallel = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.options(opts)
+				.build());
+
+		assertThat(resParallel.allBrokenUses(), is(not(empty())));
+		assertThat(resParallel.allBrokenUses(), is(equalTo(resSequential.allBrokenUses())));
+	}
+
+	@Test
+	void analyze_QueryWithBrokenUseStore_ReusesBrokenUses(@TempDir Path dir) {
+		AnalysisResult resWithoutStore = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+
+		BrokenUseStore store = new BrokenUseStore(dir);
+		Maracas incremental = new Maracas(null, store);
+		AnalysisQuery query = AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(client)
+			.build();
+		AnalysisResult firstRun = incremental.analyze(query);
+		AnalysisResult secondRun = incremental.analyze(query);
+
+		assertThat(firstRun.allBrokenUses(), is(not(empty())));
+		assertThat(firstRun.allBrokenUses(), is(equalTo(resWithoutStore.allBrokenUses())));
+		assertThat(secondRun.allBrokenUses(), is(equalTo(firstRun.allBrokenUses())));
+	}
+
+	@Test
+	void analyze_QueryWithBrokenUseStore_SuperclassEdited_ReanalyzesSubclass(@TempDir Path dir) throws IOException {
+		Path sources = Files.createDirectories(dir.resolve("client"));
+		Path base = Files.createDirectories(sources.resolve("a")).resolve("Base.java");
+		Path sub = Files.createDirectories(sources.resolve("b")).resolve("Sub.java");
+		Files.writeString(base, """
+			package a;
+			public class Base extends main.methodRemoved.MethodRemoved {}
+			""");
+		Files.writeString(sub, """
+			package b;
+			public class Sub extends a.Base {
+				int m() { return methodRemoved(); }
+			}
+			""");
+		SourcesDirectory edited = SourcesDirectory.of(sources);
+		AnalysisQuery query = AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(edited)
+			.build();
+
+		Maracas incremental = new Maracas(null, new BrokenUseStore(dir.resolve("store")));
+		AnalysisResult firstRun = incremental.analyze(query);
+
+		// Sub.java is unchanged, but its call no longer resolves to the removed method
+		Files.writeString(base, """
+			package a;
+			public class Base {
+				public int methodRemoved() { return 0; }
+			}
+			""");
+		AnalysisResult secondRun = incremental.analyze(query);
+
+		assertThat(firstRun.allBrokenUses(), is(not(empty())));
+		assertThat(secondRun.allBrokenUses(), is(equalTo(maracas.analyze(query).allBrokenUses())));
+		assertThat(secondRun.allBrokenUses(), is(not(equalTo(firstRun.allBrokenUses()))));
+	}
+
+	@Test
+	void analyze_QueryWithUsageIndexStore_SameBrokenUses(@TempDir Path dir) throws IOException {
+		AnalysisQuery query = AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(client)
+			.build();
+		AnalysisResult resWithoutIndex = maracas.analyze(query);
+
+		Maracas indexed = new Maracas(null, null, new UsageIndexStore(dir), ClientScheduler.getDefault());
+		AnalysisResult firstRun = indexed.analyze(query);
+		AnalysisResult secondRun = indexed.analyze(query);
+
+		assertThat(firstRun.allBrokenUses(), is(not(empty())));
+		assertThat(firstRun.allBrokenUses(), is(equalTo(resWithoutIndex.allBrokenUses())));
+		assertThat(secondRun.allBrokenUses(), is(equalTo(resWithoutIndex.allBrokenUses())));
+		try (Stream<Path> indexes = Files.list(dir)) {
+			assertThat(indexes.toList(), hasSize(1));
+		}
+	}
+
+	@Test
+	void analyze_QueryWithUsageIndexStore_NewDelta_ReusesIndex(@TempDir Path dir) throws IOException {
+		Maracas indexed = new Maracas(null, null, new UsageIndexStore(dir), ClientScheduler.getDefault());
+		indexed.analyze(AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(client)
+			.build());
+		Path index;
+		try (Stream<Path> indexes = Files.list(dir)) {
+			index = indexes.collect(Collectors.toList()).get(0);
+		}
+		FileTime extracted = Files.getLastModifiedTime(index);
+
+		// Another delta
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.excludeBreakingChange(JApiCompatibilityChange.METHOD_REMOVED);
+		AnalysisResult secondRun = indexed.analyze(AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(client)
+			.options(opts)
+			.build());
+
+		assertThat(secondRun.allBrokenUses(), is(not(empty())));
+		try (Stream<Path> indexes = Files.list(dir)) {
+			assertThat(indexes.toList(), is(equalTo(List.of(index))));
+		}
+		assertThat(Files.getLastModifiedTime(index), is(equalTo(extracted)));
+
+		// Nor does the library the client is analyzed against matter
+		SourcesDirectory otherLibrary = SourcesDirectory.of(TestData.compChangesClient);
+		otherLibrary.setClasspath(List.of(TestData.compChangesV2));
+		assertThat(UsageIndexStore.key(otherLibrary, opts), is(equalTo(UsageIndexStore.key(client, opts))));
+	}
+
+	@Test
+	void analyze_QueryWithShardedModel_SameBrokenUses() {
+		AnalysisResult res = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+
+		for (MaracasOptions.ModelBuildStrategy strategy : List.of(
+			MaracasOptions.ModelBuildStrategy.THROUGHPUT, MaracasOptions.ModelBuildStrategy.MEMORY_BOUNDED)) {
+			MaracasOptions opts = MaracasOptions.newDefault();
+			opts.setModelBuildStrategy(strategy);
+			// One package per shard
+			opts.setModelShardBytes(1);
+			AnalysisResult resSharded = maracas.analyze(
+				AnalysisQuery.builder()
+					.oldVersion(v1)
+					.newVersion(v2)
+					.client(client)
+					.options(opts)
+					.build());
+
+			assertThat(resSharded.allBrokenUses(), is(not(empty())));
+			assertThat(resSharded.allBrokenUses(), is(equalTo(res.allBrokenUses())));
+		}
+	}
+
+	@Test
+	void getSourceRoots_CompChangesClient_SrcDirectory() throws IOException {
+		assertThat(client.getSourceRoots(), is(equalTo(Set.of(
+			TestData.compChangesClient.resolve("src").toAbsolutePath().normalize()))));
+	}
+
+	@Test
+	void shard_SmallShards_EveryFileOnce() throws IOException {
+		List<Path> files = client.getSourceFiles();
+		List<List<Path>> shards = client.shard(files, 1);
+
+		assertThat(shards.size(), is(greaterThan(1)));
+		assertThat(shards.stream().flatMap(List::stream).sorted().toList(),
+			is(equalTo(files.stream().map(f -> f.toAbsolutePath().normalize()).sorted().toList())));
+	}
+
+	@Test
+	void analyze_QueryWithDetachedBrokenUses_SameBrokenUses() {
+		AnalysisResult res = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.setDetachBrokenUses(true);
+		AnalysisResult resDetached = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.options(opts)
+				.build());
+
+		DeltaImpact impact = resDetached.deltaImpacts().get(client);
+		assertThat(impact.isDetached(), is(true));
+		assertThat(impact.brokenUses(), is(empty()));
+		assertThat(impact.detachedBrokenUses(), hasSize(res.allBrokenUses().size()));
+		assertThat(resDetached.allDetachedBrokenUses(), is(equalTo(res.allDetachedBrokenUses())));
+		assertThat(resDetached.brokenClients(), hasSize(1));
+	}
+
+	@Test
+	void analyze_QueryWithVisitorProfiling_ProfileAttached() {
+		AnalysisResult res = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+		assertThat(res.deltaImpacts().get(client).profile(), is(nullValue()));
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.setProfileVisitors(true);
+		AnalysisResult resProfiled = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.options(opts)
+				.build());
+
+		VisitorProfile profile = resProfiled.deltaImpacts().get(client).profile();
+		assertThat(profile, is(notNullValue()));
+		assertThat(profile.getEntries(), is(not(empty())));
+		assertThat(profile.getEntries().stream().mapToLong(VisitorProfile.Entry::brokenUses).sum(),
+			is(greaterThan(0L)));
+		assertThat(resProfiled.allBrokenUses(), is(equalTo(res.allBrokenUses())));
+	}
+
+	@Test
+	void analyze_ValidQuery_StatisticsAttached() {
+		AnalysisResult res = maracas.analyze(
+			AnalysisQuery.builder()
+				.oldVersion(v1)
+				.newVersion(v2)
+				.client(client)
+				.build());
+
+		assertThat(res.delta().getStatistics().binaryModelMillis(), is(greaterThan(0L)));
+		assertThat(res.delta().getStatistics().sourceModelMillis(), is(greaterThan(0L)));
+
+		ImpactStatistics stats = res.deltaImpacts().get(client).statistics();
+		assertThat(stats, is(notNullValue()));
+		assertThat(stats.files(), is(greaterThan(0)));
+		assertThat(stats.elements(), is(greaterThan(0L)));
+		assertThat(stats.estimatedModelBytes(), is(greaterThan(0L)));
+	}
+
+	@Test
+	void analyzeAsync_QueryWithTwoClients_SameAsAnalyze() throws Exception {
+		AnalysisQuery query = AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(client)
+			.client(client2)
+			.build();
+		AnalysisResult res = maracas.analyze(query);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			AnalysisResult resAsync = maracas.analyzeAsync(query, executor).get();
+			assertThat(resAsync.deltaImpacts().keySet(), is(equalTo(res.deltaImpacts().keySet())));
+			assertThat(resAsync.allBrokenUses(), is(equalTo(res.allBrokenUses())));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void analyzeAsync_Cancelled_IsCancelled() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CompletableFuture<AnalysisResult> future = maracas.analyzeAsync(
+				AnalysisQuery.builder()
+					.oldVersion(v1)
+					.newVersion(v2)
+					.client(client)
+					.build(), executor);
+
+			future.cancel(true);
+			assertThat(future.isCancelled(), is(true));
+			assertThrows(CancellationException.class, future::join);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void analyzeStream_QueryWithTwoClients_PublishesEachImpact() throws Exception {
+		AnalysisQuery query = AnalysisQuery.builder()
+			.oldVersion(v1)
+			.newVersion(v2)
+			.client(client)
+			.client(client2)
+			.build();
+		AnalysisResult res = maracas.analyze(query);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<DeltaImpact> impacts = new CopyOnWriteArrayList<>();
+			CompletableFuture<Void> done = new CompletableFuture<>();
+			maracas.analyzeStream(query, executor).subscribe(new Flow.Subscriber<>() {
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					subscription.request(Long.MAX_VALUE);
+				}
+
+				@Override
+				public void onNext(DeltaImpact impact) {
+					impacts.add(impact);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					done.completeExceptionally(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+					done.complete(null);
+				}
+			});
+
+			done.get();
+			assertThat(impacts, hasSize(2));
+			assertThat(impacts.stream().map(DeltaImpact::client).collect(Collectors.toSet()),
+				is(equalTo(res.deltaImpacts().keySet())));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	void computeDelta_isValid() {
 		Delta d1 = maracas.computeDelta(v1, v2);
@@ -187,6 +605,34 @@ class MaracasTest {
 		)));
 	}
 
+	@Test
+	void computeDelta_OnExecutor_SameAsOnCallingThread() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Delta inline = maracas.computeDelta(v1WithSources, v2, MaracasOptions.newDefault(), Runnable::run);
+			Delta concurrent = maracas.computeDelta(v1WithSources, v2, MaracasOptions.newDefault(), executor);
+
+			assertThat(describe(concurrent), is(equalTo(describe(inline))));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void computeDelta_SaturatedExecutor_RunsOnCallingThread() {
+		// Never runs anything: every phase must run on the calling thread
+		Delta delta = maracas.computeDelta(v1WithSources, v2, MaracasOptions.newDefault(), task -> {});
+
+		assertThat(describe(delta), is(equalTo(describe(maracas.computeDelta(v1WithSources, v2)))));
+	}
+
+	private static List<String> describe(Delta delta) {
+		return delta.getBreakingChanges().stream()
+			.map(bc -> bc.getChange() + " " + bc.getReference() + " " + bc.getSourceElement().getPosition())
+			.sorted()
+			.toList();
+	}
+
 	@Test
 	void computeBrokenUses_isValid() {
 		Delta delta = maracas.computeDelta(v1, v2);
@@ -1,5 +1,10 @@
 package com.github.maracas;
 
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.DeltaImpact;
+import com.github.maracas.delta.Delta;
+import com.github.maracas.visitors.BreakingChangeVisitor;
+import com.github.maracas.visitors.CombinedVisitor;
 import japicmp.model.AccessModifier;
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
@@ -7,6 +12,9 @@ import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.visitor.CtScanner;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -15,13 +23,21 @@ import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
 
 /**
  * Run the Maracas analysis on some popular libraries from Maven Central
@@ -139,6 +155,83 @@ class MavenLibrariesTestIT {
 		});
 	}
 
+	// Checks the indexed dispatch of CombinedVisitor against a naive scanner
+	// forwarding every node to every visitor on a large delta; timings are
+	// measured by ImpactBenchmark in the benchmarks module
+	@ParameterizedTest
+	@MethodSource("largeDeltas")
+	void scan_IndexedDispatch_SameBrokenUsesAsBroadcast(String gid, String aid, String v1, String v2) throws IOException {
+		Path oldJar = download(coordinatesToJarURL(gid, aid, v1));
+		Path newJar = download(coordinatesToJarURL(gid, aid, v2));
+		Path sources = downloadAndExtractSources(coordinatesToSourcesURL(gid, aid, v1));
+
+		LibraryJar oldVersion = LibraryJar.withoutSources(oldJar);
+		LibraryJar newVersion = LibraryJar.withoutSources(newJar);
+		SourcesDirectory client = SourcesDirectory.of(sources);
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.getJApiOptions().setAccessModifier(AccessModifier.PROTECTED);
+
+		Delta delta = new Maracas().computeDelta(oldVersion, newVersion, opts);
+		client.setClasspath(Collections.singletonList(oldJar));
+		CtModel model = client.buildModel();
+
+		List<BreakingChangeVisitor> naiveVisitors = delta.getVisitors();
+		CtScanner naive = new CtScanner() {
+			@Override
+			protected void enter(CtElement e) {
+				naiveVisitors.forEach(e::accept);
+			}
+		};
+		naive.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+		naive.scan(model.getRootPackage());
+		Set<BrokenUse> naiveBrokenUses = naiveVisitors.stream()
+			.map(BreakingChangeVisitor::getBrokenUses)
+			.flatMap(Collection::stream)
+			.collect(toSet());
+
+		CombinedVisitor indexed = new CombinedVisitor(delta.getVisitors(), opts);
+		indexed.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+		indexed.scan(model.getRootPackage());
+
+		assertThat(naiveBrokenUses, is(not(empty())));
+		assertThat(indexed.getBrokenUses(), is(equalTo(naiveBrokenUses)));
+	}
+
+	// Stresses the parallel scan on a client large enough for workers to
+	// interleave: every run rebuilds the client's model, so that references
+	// are resolved anew, and must find the same broken uses as a sequential scan
+	@ParameterizedTest
+	@MethodSource("largeDeltas")
+	void computeDeltaImpact_ParallelScan_SameBrokenUsesAsSequential(String gid, String aid, String v1, String v2) throws IOException {
+		Path oldJar = download(coordinatesToJarURL(gid, aid, v1));
+		Path newJar = download(coordinatesToJarURL(gid, aid, v2));
+		Path sources = downloadAndExtractSources(coordinatesToSourcesURL(gid, aid, v1));
+
+		MaracasOptions opts = MaracasOptions.newDefault();
+		opts.getJApiOptions().setAccessModifier(AccessModifier.PROTECTED);
+
+		Maracas maracas = new Maracas();
+		Delta delta = maracas.computeDelta(LibraryJar.withoutSources(oldJar), LibraryJar.withoutSources(newJar), opts);
+		DeltaImpact sequential = maracas.computeDeltaImpact(SourcesDirectory.of(sources), delta, opts);
+		assertThat(sequential.throwable(), is(nullValue()));
+		assertThat(sequential.brokenUses(), is(not(empty())));
+
+		MaracasOptions parallelOpts = new MaracasOptions(opts);
+		parallelOpts.setScanParallelism(Math.max(4, Runtime.getRuntime().availableProcessors()));
+		for (int i = 0; i < 5; i++) {
+			DeltaImpact parallel = maracas.computeDeltaImpact(SourcesDirectory.of(sources), delta, parallelOpts);
+			assertThat(parallel.throwable(), is(nullValue()));
+			assertThat(parallel.brokenUses(), is(equalTo(sequential.brokenUses())));
+		}
+	}
+
+	static Stream<Arguments> largeDeltas() {
+		return Stream.of(
+			Arguments.of("com.google.guava", "guava", "18.0", "19.0")
+		);
+	}
+
 	String coordinatesToJarURL(String gid, String aid, String v) {
 		return "https://repo1.maven.org/maven2/%s/%s/%s/%s-%s.jar".formatted(
 			gid.replaceAll("\\.", "/"), aid, v, aid, v);
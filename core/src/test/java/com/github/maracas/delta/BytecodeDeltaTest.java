@@ -0,0 +1,75 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.LibraryJar;
+import com.github.maracas.Maracas;
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.TestData;
+import japicmp.model.JApiCompatibilityChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+class BytecodeDeltaTest {
+	final LibraryJar v1 = LibraryJar.withoutSources(TestData.compChangesV1);
+	final LibraryJar v2 = LibraryJar.withoutSources(TestData.compChangesV2);
+
+	@Test
+	void computeDelta_SameBreakingChangesAsJApiCmp() {
+		MaracasOptions bytecode = MaracasOptions.newDefault();
+		bytecode.setDeltaEngine(MaracasOptions.DeltaEngine.BYTECODE);
+
+		Delta jApiCmpDelta = new Maracas().computeDelta(v1, v2, MaracasOptions.newDefault());
+		List<String> expected = breakingChanges(jApiCmpDelta, BytecodeDelta.SUPPORTED_CHANGES);
+		List<String> actual = breakingChanges(new Maracas().computeDelta(v1, v2, bytecode),
+			EnumSet.allOf(JApiCompatibilityChange.class));
+
+		// Compared as sorted lists so that duplicate changes are not hidden
+		assertThat(actual, is(not(empty())));
+		assertThat(actual, is(equalTo(expected)));
+
+		// The only changes left out are those documented as unsupported
+		jApiCmpDelta.getBreakingChanges().stream()
+			.map(BreakingChange::getChange)
+			.filter(c -> !BytecodeDelta.SUPPORTED_CHANGES.contains(c))
+			.forEach(c -> assertThat(BytecodeDelta.UNSUPPORTED_CHANGES, hasItem(c)));
+	}
+
+	@Test
+	void unsupportedChanges_DisjointFromSupportedChanges() {
+		Set<JApiCompatibilityChange> both = EnumSet.copyOf(BytecodeDelta.SUPPORTED_CHANGES);
+		both.retainAll(BytecodeDelta.UNSUPPORTED_CHANGES);
+		assertThat(both, is(empty()));
+	}
+
+	@Test
+	void compare_SameJar_NoChange() throws Exception {
+		assertThat(BytecodeDelta.compare(TestData.compChangesV1, TestData.compChangesV1, List.of(),
+			MaracasOptions.newDefault()), is(empty()));
+	}
+
+	@Test
+	void descriptors_AsSpoonNames() {
+		assertThat(BytecodeDelta.parameterTypes("(I[JLjava/lang/String;[[Lpkg/A$B;Z)V"),
+			is(equalTo(List.of("int", "long[]", "java.lang.String", "pkg.A$B[][]", "boolean"))));
+		assertThat(BytecodeDelta.parameterTypes("()V"), is(empty()));
+		assertThat(BytecodeDelta.returnType("()[Ljava/util/List;"), is(equalTo("java.util.List[]")));
+		assertThat(BytecodeDelta.typeName("D"), is(equalTo("double")));
+	}
+
+	private static List<String> breakingChanges(Delta delta, Set<JApiCompatibilityChange> kinds) {
+		return delta.getBreakingChanges().stream()
+			.filter(bc -> kinds.contains(bc.getChange()))
+			.map(bc -> bc.getChange() + " " + bc.getReference())
+			.sorted()
+			.toList();
+	}
+}
@@ -0,0 +1,103 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.LibraryJar;
+import com.github.maracas.Maracas;
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.TestData;
+import japicmp.model.JApiCompatibilityChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class DeltaCacheTest {
+  final LibraryJar v1 = LibraryJar.withoutSources(TestData.compChangesV1);
+  final LibraryJar v1WithSources = LibraryJar.withSources(TestData.compChangesV1, SourcesDirectory.of(TestData.compChangesSources));
+  final LibraryJar v2 = LibraryJar.withoutSources(TestData.compChangesV2);
+
+  @Test
+  void test_Miss_ThenHit(@TempDir Path dir) {
+    DeltaCache cache = new DeltaCache(dir, Long.MAX_VALUE);
+    Maracas maracas = new Maracas(cache);
+
+    Delta computed = maracas.computeDelta(v1, v2);
+    assertThat(cache.getHits(), is(0L));
+    assertThat(cache.getMisses(), is(1L));
+
+    Delta cached = maracas.computeDelta(v1, v2);
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getMisses(), is(1L));
+    assertThat(summary(cached), is(equalTo(summary(computed))));
+  }
+
+  @Test
+  void test_Hit_KeepsSourceLocations(@TempDir Path dir) {
+    DeltaCache cache = new DeltaCache(dir, Long.MAX_VALUE);
+    Maracas maracas = new Maracas(cache);
+
+    Delta computed = maracas.computeDelta(v1WithSources, v2);
+    Delta cached = maracas.computeDelta(v1WithSources, v2);
+
+    assertThat(cache.getHits(), is(1L));
+    assertThat(locations(cached), is(equalTo(locations(computed))));
+  }
+
+  @Test
+  void test_DifferentOptions_Miss(@TempDir Path dir) {
+    DeltaCache cache = new DeltaCache(dir, Long.MAX_VALUE);
+    Maracas maracas = new Maracas(cache);
+
+    MaracasOptions opts = MaracasOptions.newDefault();
+    opts.excludeBreakingChange(JApiCompatibilityChange.METHOD_REMOVED);
+    maracas.computeDelta(v1, v2);
+    maracas.computeDelta(v1, v2, opts);
+
+    assertThat(cache.getHits(), is(0L));
+    assertThat(cache.getMisses(), is(2L));
+    assertThat(cache.get(v1, v2, opts), is(notNullValue()));
+  }
+
+  @Test
+  void test_Eviction_RespectsMaxSize(@TempDir Path dir) throws IOException {
+    DeltaCache cache = new DeltaCache(dir, 1);
+    Maracas maracas = new Maracas(cache);
+
+    maracas.computeDelta(v1, v2);
+
+    assertThat(size(dir), is(lessThanOrEqualTo(1L)));
+    assertThat(cache.get(v1, v2, MaracasOptions.newDefault()), is(nullValue()));
+  }
+
+  private static List<String> summary(Delta delta) {
+    return delta.getBreakingChanges().stream()
+      .map(bc -> bc.getChange() + " " + bc.getReference())
+      .sorted()
+      .toList();
+  }
+
+  private static List<String> locations(Delta delta) {
+    return delta.getBreakingChanges().stream()
+      .map(bc -> bc.getChange() + " " + bc.getReference() + " " +
+        (bc.getSourceElement() != null ? bc.getSourceElement().getPosition().toString() : "<no source>"))
+      .sorted()
+      .toList();
+  }
+
+  private static long size(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.mapToLong(f -> f.toFile().length()).sum();
+    }
+  }
+}
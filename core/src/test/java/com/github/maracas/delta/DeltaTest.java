@@ -1,14 +1,37 @@
 package com.github.maracas.delta;
 
 import com.github.maracas.*;
+import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.util.BinaryToSourceMapper;
+import com.github.maracas.visitors.BreakingChangeVisitor;
+import com.github.maracas.visitors.CombinedVisitor;
+import com.github.maracas.visitors.MethodRemovedVisitor;
+import japicmp.model.JApiCompatibilityChange;
 import org.junit.jupiter.api.Test;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.reference.CtReference;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.text.IsEmptyString.emptyOrNullString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
 
 class DeltaTest {
   final LibraryJar v1 = LibraryJar.withoutSources(TestData.compChangesV1);
@@ -40,4 +63,117 @@ class DeltaTest {
     String json = delta.toJson();
     assertThat(json, is(not(emptyOrNullString())));
   }
-}
\ No newline at end of file
+
+  @Test
+  void test_Visitors_AreCoalescedPerKind() {
+    Delta delta = new Maracas().computeDelta(v1, v2);
+    List<BreakingChangeVisitor> visitors = delta.getVisitors();
+
+    long methodRemoved = delta.getBreakingChanges().stream()
+      .filter(bc -> bc.getChange() == JApiCompatibilityChange.METHOD_REMOVED)
+      .count();
+    assertThat(methodRemoved, is(greaterThan(1L)));
+    assertThat(visitors.stream().filter(MethodRemovedVisitor.class::isInstance).count(), is(1L));
+    assertThat(visitors.size(), is(lessThan(delta.getBreakingChanges().size())));
+  }
+
+  @Test
+  void test_CoalescedVisitors_SameBrokenUses() {
+    Delta delta = new Maracas().computeDelta(v1, v2);
+    SourcesDirectory client = SourcesDirectory.of(TestData.compChangesClient);
+    client.setClasspath(Collections.singletonList(TestData.compChangesV1));
+    CtModel model = client.buildModel();
+
+    List<BreakingChangeVisitor> perBreakingChange = delta.getBreakingChanges().stream()
+      .map(BreakingChange::getVisitor)
+      .filter(Objects::nonNull)
+      .toList();
+    CombinedVisitor separate = new CombinedVisitor(perBreakingChange, MaracasOptions.newDefault());
+    separate.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+    separate.scan(model.getRootPackage());
+
+    CombinedVisitor coalesced = new CombinedVisitor(delta.getVisitors(), MaracasOptions.newDefault());
+    coalesced.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+    coalesced.scan(model.getRootPackage());
+
+    assertThat(coalesced.getBrokenUses(), is(not(empty())));
+    assertThat(coalesced.getBrokenUses(), is(equalTo(separate.getBrokenUses())));
+  }
+
+  @Test
+  void test_Visitors_SameKindDifferentSymbols_CoalescedAndBothReported() {
+    Delta full = new Maracas().computeDelta(v1, v2);
+    SourcesDirectory client = SourcesDirectory.of(TestData.compChangesClient);
+    client.setClasspath(Collections.singletonList(TestData.compChangesV1));
+    CtModel model = client.buildModel();
+
+    // Two METHOD_REMOVED on distinct methods, both used by the client
+    Set<CtReference> used = scan(model, full.getVisitors()).stream()
+      .map(BrokenUse::source)
+      .collect(Collectors.toSet());
+    List<BreakingChange> removed = full.getBreakingChanges().stream()
+      .filter(bc -> bc.getChange() == JApiCompatibilityChange.METHOD_REMOVED)
+      .filter(bc -> used.contains(bc.getReference()))
+      .filter(distinctBy(BreakingChange::getReference))
+      .limit(2)
+      .toList();
+    assertThat(removed, hasSize(2));
+
+    List<BreakingChangeVisitor> visitors = new Delta(v1, v2, removed).getVisitors();
+    assertThat(visitors, hasSize(1));
+
+    Set<CtReference> reported = scan(model, visitors).stream()
+      .map(BrokenUse::source)
+      .collect(Collectors.toSet());
+    assertThat(reported, containsInAnyOrder(removed.get(0).getReference(), removed.get(1).getReference()));
+  }
+
+  private static Set<BrokenUse> scan(CtModel model, List<BreakingChangeVisitor> visitors) {
+    CombinedVisitor combined = new CombinedVisitor(visitors, MaracasOptions.newDefault());
+    combined.scan(model.getRootPackage().getFactory().CompilationUnit().getMap());
+    combined.scan(model.getRootPackage());
+    return combined.getBrokenUses();
+  }
+
+  private static <T> Predicate<T> distinctBy(Function<T, ?> key) {
+    Set<Object> seen = new HashSet<>();
+    return t -> seen.add(key.apply(t));
+  }
+
+  @Test
+  void test_PopulateLocations_SameAsFullModel() {
+    Delta delta = new Maracas().computeDelta(v1, v2);
+    Delta located = new Maracas().computeDelta(v1WithSources, v2);
+
+    BinaryToSourceMapper mapper = new BinaryToSourceMapper(
+      SourcesDirectory.of(TestData.compChangesSources).buildModel().getRootPackage());
+    List<String> expected = delta.getBreakingChanges().stream()
+      .map(bc -> position(mapper.resolve(bc.getReference())))
+      .toList();
+    List<String> actual = located.getBreakingChanges().stream()
+      .map(bc -> position(bc.getSourceElement()))
+      .toList();
+
+    assertThat(actual, is(equalTo(expected)));
+  }
+
+  private static String position(CtElement element) {
+    return element != null ? element.getPosition().toString() : "<no source>";
+  }
+
+  @Test
+  void test_PrescreenedJars_SameDelta() {
+    MaracasOptions full = MaracasOptions.newDefault();
+    full.setPrescreenJars(false);
+
+    assertThat(breakingChanges(new Maracas().computeDelta(v1, v2, MaracasOptions.newDefault())),
+      is(equalTo(breakingChanges(new Maracas().computeDelta(v1, v2, full)))));
+  }
+
+  private static List<String> breakingChanges(Delta delta) {
+    return delta.getBreakingChanges().stream()
+      .map(bc -> bc.getChange() + " " + bc.getReference())
+      .sorted()
+      .toList();
+  }
+}
@@ -0,0 +1,35 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+class JarDiffTest {
+	@Test
+	void comparedClasses_SameJar_Empty() {
+		Optional<Set<String>> classes = JarDiff.comparedClasses(TestData.compChangesV1, TestData.compChangesV1);
+
+		assertThat(classes, is(equalTo(Optional.of(Set.of()))));
+	}
+
+	@Test
+	void comparedClasses_DifferentJars_NotEmpty() {
+		Optional<Set<String>> classes = JarDiff.comparedClasses(TestData.compChangesV1, TestData.compChangesV2);
+
+		assertThat(classes.isPresent(), is(true));
+		assertThat(classes.get(), is(not(empty())));
+	}
+
+	@Test
+	void comparedClasses_InvalidJar_FullComparison() {
+		assertThat(JarDiff.comparedClasses(TestData.compChangesV1, TestData.invalidJar), is(equalTo(Optional.empty())));
+	}
+}
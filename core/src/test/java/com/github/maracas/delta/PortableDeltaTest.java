@@ -0,0 +1,86 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.LibraryJar;
+import com.github.maracas.Maracas;
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.TestData;
+import com.github.maracas.brokenuse.BrokenUse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import spoon.Launcher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortableDeltaTest {
+	final LibraryJar v1 = LibraryJar.withoutSources(TestData.compChangesV1);
+	final LibraryJar v2 = LibraryJar.withoutSources(TestData.compChangesV2);
+	final SourcesDirectory client = SourcesDirectory.of(TestData.compChangesClient);
+
+	@Test
+	void writeThenRead_SameDelta(@TempDir Path dir) throws IOException {
+		Delta delta = new Maracas().computeDelta(v1, v2);
+		PortableDelta portable = PortableDelta.of(delta);
+
+		Path file = dir.resolve("delta.json");
+		portable.write(file);
+
+		assertThat(PortableDelta.read(file), is(equalTo(portable)));
+	}
+
+	@Test
+	void read_OtherVersion_Fails(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("delta.json");
+		new PortableDelta(PortableDelta.FORMAT_VERSION + 1, "v1", "v2", List.of()).write(file);
+
+		assertThrows(IOException.class, () -> PortableDelta.read(file));
+	}
+
+	@Test
+	void toDelta_OldJarModel_SameBreakingChanges() throws IOException {
+		Delta delta = new Maracas().computeDelta(v1, v2);
+		Delta rehydrated = PortableDelta.of(delta).toDelta(v1, v2, v1.buildModel().getRootPackage().getFactory());
+
+		assertThat(summary(rehydrated), is(equalTo(summary(delta))));
+	}
+
+	@Test
+	void toDelta_ClientClasspath_SameImpact(@TempDir Path dir) throws IOException {
+		Maracas maracas = new Maracas();
+		Delta delta = maracas.computeDelta(v1, v2);
+		Path file = dir.resolve("delta.json");
+		PortableDelta.of(delta).write(file);
+
+		// As in another JVM: no model of the library, only the clients' classpath
+		PortableDelta portable = PortableDelta.read(file);
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setSourceClasspath(new String[]{v1.getJar().toString()});
+		Delta rehydrated = portable.toDelta(v1, LibraryJar.fromLabel(portable.newVersion()), launcher.getFactory());
+
+		assertThat(summary(rehydrated), is(equalTo(summary(delta))));
+		assertThat(brokenUses(maracas, rehydrated), is(equalTo(brokenUses(maracas, delta))));
+	}
+
+	private Set<String> brokenUses(Maracas maracas, Delta delta) {
+		return maracas.computeDeltaImpact(client, delta).brokenUses().stream()
+			.map(BrokenUse::toString)
+			.collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	private static List<String> summary(Delta delta) {
+		return delta.getBreakingChanges().stream()
+			.map(bc -> bc.getChange() + " " + bc.getReference())
+			.sorted()
+			.toList();
+	}
+}
@@ -0,0 +1,105 @@
+package com.github.maracas.delta;
+
+import com.github.maracas.LibraryJar;
+import com.github.maracas.Maracas;
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.TestData;
+import com.github.maracas.brokenuse.DeltaImpact;
+import japicmp.model.JApiCompatibilityChange;
+import org.junit.jupiter.api.Test;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.cu.SourcePosition;
+import spoon.support.compiler.VirtualFile;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+class SourceDeltaTest {
+	final CtModel v1 = SourcesDirectory.of(Path.of("../test-data/comp-changes/old/")).buildModel();
+	final CtModel v2 = SourcesDirectory.of(Path.of("../test-data/comp-changes/new/")).buildModel();
+
+	@Test
+	void compare_CompChanges_BreakingChangesWithSourceElements() {
+		Optional<List<BreakingChange>> bcs = SourceDelta.compare(v1, v2, MaracasOptions.newDefault());
+
+		assertThat(bcs.isPresent(), is(true));
+		assertThat(bcs.get(), is(not(empty())));
+		bcs.get().forEach(bc -> {
+			assertThat(BytecodeDelta.SUPPORTED_CHANGES.contains(bc.getChange()), is(true));
+			assertThat(bc.getSourceElement(), is(notNullValue()));
+		});
+	}
+
+	@Test
+	void compare_SameSources_NoChange() {
+		assertThat(SourceDelta.compare(v1, v1, MaracasOptions.newDefault()).orElseThrow(), is(empty()));
+	}
+
+	@Test
+	void compare_UnresolvedSupertype_Empty() {
+		CtModel model = model("package pkg; public class A extends dep.Missing {}");
+
+		assertThat(SourceDelta.compare(model, model, MaracasOptions.newDefault()).isPresent(), is(false));
+	}
+
+	@Test
+	void compare_ExcludedBreakingChanges_Filtered() {
+		MaracasOptions options = MaracasOptions.newDefault();
+		options.excludeBreakingChange(JApiCompatibilityChange.CLASS_REMOVED);
+
+		SourceDelta.compare(v1, v2, options).orElseThrow().forEach(bc ->
+			assertThat(bc.getChange() == JApiCompatibilityChange.CLASS_REMOVED, is(false)));
+	}
+
+	@Test
+	void computeDeltaImpact_CompChanges_SameBrokenUsesAsJApiCmp() {
+		Delta jApiCmpDelta = new Maracas().computeDelta(
+			LibraryJar.withSources(TestData.compChangesV1, TestData.compChangesSources),
+			LibraryJar.withoutSources(TestData.compChangesV2));
+		Delta sourceDelta = new Delta(
+			LibraryJar.fromSources(SourcesDirectory.of(Path.of("../test-data/comp-changes/old/")), "old"),
+			LibraryJar.fromSources(SourcesDirectory.of(Path.of("../test-data/comp-changes/new/")), "new"),
+			SourceDelta.compare(v1, v2, MaracasOptions.newDefault()).orElseThrow());
+
+		List<String> expected = brokenUses(new Maracas().computeDeltaImpact(
+			SourcesDirectory.of(TestData.compChangesClient), jApiCmpDelta));
+		List<String> actual = brokenUses(new Maracas().computeDeltaImpact(
+			SourcesDirectory.of(TestData.compChangesClient), sourceDelta));
+
+		assertThat(actual, is(not(empty())));
+		assertThat(actual, is(equalTo(expected)));
+	}
+
+	/**
+	 * The broken uses of the kinds a source delta reports, as sorted strings
+	 */
+	private static List<String> brokenUses(DeltaImpact impact) {
+		assertThat(impact.throwable(), is(nullValue()));
+		return impact.brokenUses().stream()
+			.filter(bu -> BytecodeDelta.SUPPORTED_CHANGES.contains(bu.change()))
+			.map(bu -> {
+				SourcePosition pos = bu.element().getPosition();
+				return bu.change() + " " + pos.getFile().getName() + ":" + pos.getLine() + " " + bu.use();
+			})
+			.sorted()
+			.toList();
+	}
+
+	private static CtModel model(String source) {
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.addInputResource(new VirtualFile(source));
+		return launcher.buildModel();
+	}
+}
@@ -0,0 +1,87 @@
+package com.github.maracas.events;
+
+import com.github.maracas.AnalysisQuery;
+import com.github.maracas.LibraryJar;
+import com.github.maracas.Maracas;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.TestData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class MaracasEventsTest {
+	@Test
+	void analyze_WithinContext_EventsRecorded(@TempDir Path dir) throws IOException {
+		LibraryJar v1 = LibraryJar.withSources(TestData.compChangesV1, SourcesDirectory.of(TestData.compChangesSources));
+		LibraryJar v2 = LibraryJar.withoutSources(TestData.compChangesV2);
+		SourcesDirectory client = SourcesDirectory.of(TestData.compChangesClient);
+		Path dump = dir.resolve("maracas.jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable(DeltaEvent.class);
+			recording.enable(ModelBuildEvent.class);
+			recording.enable(ClientScanEvent.class);
+			recording.start();
+
+			try (AnalysisContext.Scope scope = AnalysisContext.open("pr#1")) {
+				new Maracas().analyze(AnalysisQuery.builder()
+					.oldVersion(v1)
+					.newVersion(v2)
+					.client(client)
+					.build());
+			}
+
+			recording.stop();
+			recording.dump(dump);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+		List<RecordedEvent> deltas = ofType(events, "com.github.maracas.Delta");
+		List<RecordedEvent> builds = ofType(events, "com.github.maracas.ModelBuild");
+		List<RecordedEvent> scans = ofType(events, "com.github.maracas.ClientScan");
+
+		assertThat(deltas, hasSize(1));
+		assertThat(deltas.get(0).getInt("breakingChanges"), is(greaterThan(0)));
+		// Old JAR, old sources, and client
+		assertThat(builds.stream().map(e -> e.getString("location")).toList(), hasItems(
+			v1.getJar().toString(), v1.getSources().getLocation().toString(), client.getLocation().toString()));
+		assertThat(scans, hasSize(1));
+		assertThat(scans.get(0).getString("client"), is(equalTo(client.getLocation().toString())));
+		assertThat(scans.get(0).getLong("elements"), is(greaterThan(0L)));
+		assertThat(events.stream().map(e -> e.getString("context")).toList(), everyItem(is(equalTo("pr#1"))));
+	}
+
+	@Test
+	void propagate_OtherThread_ContextRestored() throws Exception {
+		Supplier<String> task;
+		try (AnalysisContext.Scope scope = AnalysisContext.open("pr#1")) {
+			task = AnalysisContext.propagate(AnalysisContext::current);
+		}
+
+		assertThat(AnalysisContext.current(), is(nullValue()));
+		assertThat(CompletableFuture.supplyAsync(task).get(), is(equalTo("pr#1")));
+		assertThat(task.get(), is(equalTo("pr#1")));
+		assertThat(AnalysisContext.current(), is(nullValue()));
+	}
+
+	private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+		return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+	}
+}
@@ -0,0 +1,77 @@
+package com.github.maracas.util;
+
+import com.github.maracas.TestData;
+import org.junit.jupiter.api.Test;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+class BytecodeShadowBuilderTest {
+	@Test
+	void buildModel_SameDeclarationsAsReflection() throws Exception {
+		CtModel model = BytecodeShadowBuilder.buildModel(TestData.compChangesV1, List.of());
+		assertThat(model.getAllTypes(), is(not(empty())));
+
+		try (URLClassLoader cl = new URLClassLoader(new URL[]{TestData.compChangesV1.toUri().toURL()}, ClassLoader.getPlatformClassLoader())) {
+			Launcher launcher = new Launcher();
+			launcher.getEnvironment().setInputClassLoader(cl);
+			Factory reflection = launcher.getFactory();
+
+			for (CtType<?> type : model.getAllTypes()) {
+				CtType<?> expected = reflection.Type().get(cl.loadClass(type.getQualifiedName()));
+				assertThat(describe(type), is(equalTo(describe(expected))));
+			}
+		}
+	}
+
+	@Test
+	void buildModel_TypesAreShadow() throws Exception {
+		CtModel model = BytecodeShadowBuilder.buildModel(TestData.compChangesV1, List.of());
+
+		model.getAllTypes().forEach(t -> assertThat(t.isShadow(), is(true)));
+	}
+
+	private static String describe(CtType<?> type) {
+		// Enum constructors aren't compared: reflection exposes the implicit name and ordinal parameters
+		return """
+			%s %s
+			  extends %s implements %s
+			  fields %s
+			  executables %s
+			  nested %s
+			""".formatted(
+			type.getModifiers().stream().sorted().toList(),
+			type.getQualifiedName(),
+			type.getSuperclass() != null ? type.getSuperclass().getQualifiedName() : null,
+			names(type.getSuperInterfaces()),
+			type.getFields().stream().map(f -> f.getSimpleName() + ":" + f.getType().getQualifiedName()).collect(Collectors.toCollection(TreeSet::new)),
+			type.getDeclaredExecutables().stream()
+				.filter(e -> !(type instanceof CtEnum<?> && e.isConstructor()))
+				.map(CtExecutableReference::getSignature)
+				.collect(Collectors.toCollection(TreeSet::new)),
+			type.getNestedTypes().stream().map(BytecodeShadowBuilderTest::describe).collect(Collectors.toCollection(TreeSet::new))
+		);
+	}
+
+	private static TreeSet<String> names(Collection<CtTypeReference<?>> refs) {
+		return refs.stream().filter(Objects::nonNull).map(CtTypeReference::getQualifiedName).collect(Collectors.toCollection(TreeSet::new));
+	}
+}
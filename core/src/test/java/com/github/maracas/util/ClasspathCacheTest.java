@@ -0,0 +1,100 @@
+package com.github.maracas.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ClasspathCacheTest {
+	final byte[] pom = "<project></project>".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void test_Resolve_IsPersisted(@TempDir Path dir) throws IOException {
+		Path jar = Files.createFile(dir.resolve("dep.jar"));
+		AtomicInteger resolutions = new AtomicInteger();
+
+		List<String> cp1 = new ClasspathCache(dir.resolve("cache")).resolve(pom, "", () -> {
+			resolutions.incrementAndGet();
+			return List.of(jar.toString());
+		});
+		// A fresh instance stands for a JVM restart
+		List<String> cp2 = new ClasspathCache(dir.resolve("cache")).resolve(pom, "", () -> {
+			resolutions.incrementAndGet();
+			return List.of(jar.toString());
+		});
+
+		assertThat(cp2, is(equalTo(cp1)));
+		assertThat(resolutions.get(), is(1));
+	}
+
+	@Test
+	void test_Resolve_MissingJar_Invalidates(@TempDir Path dir) throws IOException {
+		Path jar = Files.createFile(dir.resolve("dep.jar"));
+		ClasspathCache cache = new ClasspathCache(dir.resolve("cache"));
+		AtomicInteger resolutions = new AtomicInteger();
+
+		cache.resolve(pom, "", () -> {
+			resolutions.incrementAndGet();
+			return List.of(jar.toString());
+		});
+		Files.delete(jar);
+		cache.resolve(pom, "", () -> {
+			resolutions.incrementAndGet();
+			return List.of(jar.toString());
+		});
+
+		assertThat(resolutions.get(), is(2));
+	}
+
+	@Test
+	void test_Resolve_ConcurrentCallers_ShareResolution(@TempDir Path dir) throws Exception {
+		Path jar = Files.createFile(dir.resolve("dep.jar"));
+		ClasspathCache cache = new ClasspathCache(dir.resolve("cache"));
+		AtomicInteger resolutions = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<List<String>> first = executor.submit(() -> cache.resolve(pom, "", () -> {
+				resolutions.incrementAndGet();
+				started.countDown();
+				await(release);
+				return List.of(jar.toString());
+			}));
+
+			started.await();
+			Future<List<String>> second = executor.submit(() -> cache.resolve(pom, "", () -> {
+				resolutions.incrementAndGet();
+				return List.of(jar.toString());
+			}));
+			release.countDown();
+
+			assertThat(second.get(), is(equalTo(first.get())));
+			assertThat(resolutions.get(), is(1));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.maracas.util;
+
+import org.junit.jupiter.api.Test;
+import spoon.Launcher;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.factory.Factory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class TypeIndexTest {
+	final CtClass<?> cls = Launcher.parseClass("""
+		class A {
+			int f;
+			A() {}
+			A(int i) {}
+			void m() {}
+			void m(String s) {}
+		}
+		""");
+	final Factory factory = cls.getFactory();
+	final TypeIndex index = new TypeIndex(factory);
+
+	@Test
+	void reference_IsShared() {
+		assertThat(index.reference("A"), is(sameInstance(index.reference("A"))));
+	}
+
+	@Test
+	void declaration_KnownAndUnknownTypes() {
+		assertThat(index.declaration("A"), is(sameInstance(cls)));
+		assertThat(index.declaration("B"), is(nullValue()));
+	}
+
+	@Test
+	void executable_MatchesReferenceSignatures() {
+		cls.getDeclaredExecutables().forEach(ref ->
+			assertThat(index.executable(cls, ref.getSignature()), is(sameInstance(ref.getExecutableDeclaration()))));
+		assertThat(index.executable(cls, "m(int)"), is(nullValue()));
+	}
+
+	@Test
+	void field_ByName() {
+		assertThat(index.field(cls, "f"), is(notNullValue()));
+		assertThat(index.field(cls, "g"), is(nullValue()));
+	}
+}
@@ -97,6 +97,14 @@ public class AnalyzePRs {
 							c.brokenUses += r.allBrokenUses().size();
 							c.checkedClients += r.clientResults().size();
 							c.brokenClients += r.brokenClients().size();
+							c.deltaMillis += r.delta().getStatistics().totalMillis();
+							for (var impact : r.clientResults().values()) {
+								if (impact.statistics() != null) {
+									c.clientModelMillis += impact.statistics().modelMillis();
+									c.clientScanMillis += impact.statistics().scanMillis();
+									c.clientModelBytes = Math.max(c.clientModelBytes, impact.statistics().estimatedModelBytes());
+								}
+							}
 							//r.writeJson(REPORTS.resolve(String.format("%s-%s-%d-%d.json", c.owner, c.name, c.number, ++j)).toFile());
 
 							logger.info("[{}/{}] PR#{} of {}/{}: found {} BCs and {} broken uses in {}/{} clients",
@@ -160,5 +168,9 @@ public class AnalyzePRs {
 		int brokenClients;
 		String errors;
 		long seconds;
+		long deltaMillis;
+		long clientModelMillis;
+		long clientScanMillis;
+		long clientModelBytes;
 	}
 }
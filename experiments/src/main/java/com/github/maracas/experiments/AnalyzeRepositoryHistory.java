@@ -3,6 +3,8 @@ package com.github.maracas.experiments;
 import com.github.maracas.AnalysisResult;
 import com.github.maracas.Maracas;
 import com.github.maracas.MaracasOptions;
+import com.github.maracas.brokenuse.DeltaImpact;
+import com.github.maracas.brokenuse.ImpactStatistics;
 import com.github.maracas.delta.Delta;
 import com.github.maracas.forges.build.CommitBuilder;
 import com.github.maracas.forges.Forge;
@@ -37,6 +39,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
@@ -130,7 +133,8 @@ public class AnalyzeRepositoryHistory {
 				csvWriter.writeNext((
 					"owner,name,number,state,title,mergeable,created,merged,closed,url,commits," +
 						"baseRef,base,headRef,head,author,labels,additions,deletions,changedFiles,changedJavaFiles," +
-						"comments,bcs,checkedClients,brokenClients,brokenUses,report,message,errors").split(","));
+						"comments,bcs,checkedClients,brokenClients,brokenUses,report,message,errors," +
+						"deltaMs,clientModelMs,clientScanMs,maxClientModelBytes").split(","));
 				csvWriter.flush();
 
 				var tasks = new ArrayList<Callable<Object>>(prs.size());
@@ -194,8 +198,16 @@ public class AnalyzeRepositoryHistory {
 											: "none"
 								).collect(joining("+"));
 
+								var stats = result.deltaImpacts().values().stream()
+									.map(DeltaImpact::statistics)
+									.filter(Objects::nonNull)
+									.toList();
 								writeLine(csvWriter, pr, bcs, checkedClients, brokenClients, allBrokenUses,
-									reportFile.toAbsolutePath().toString(), "ok", clientErrors);
+									reportFile.toAbsolutePath().toString(), "ok", clientErrors,
+									delta.getStatistics().totalMillis(),
+									stats.stream().mapToLong(ImpactStatistics::modelMillis).sum(),
+									stats.stream().mapToLong(ImpactStatistics::scanMillis).sum(),
+									stats.stream().mapToLong(ImpactStatistics::estimatedModelBytes).max().orElse(0));
 							}
 							// We got nothing, write report
 							else {
@@ -204,12 +216,13 @@ public class AnalyzeRepositoryHistory {
 								Files.write(reportFile, AnalysisResult.noImpact(delta, Collections.emptyList()).toJson().getBytes());
 
 								writeLine(csvWriter, pr, bcs, -1, -1, -1,
-									reportFile.toAbsolutePath().toString(), "no-bc", "");
+									reportFile.toAbsolutePath().toString(), "no-bc", "",
+									delta.getStatistics().totalMillis(), -1, -1, -1);
 							}
 						} catch (Exception e) {
 							logger.error("Error analyzing {}: {}", prId, e);
 							writeLine(csvWriter, pr, -1, -1, -1, -1,
-								"-1", e.getMessage(), "-1");
+								"-1", e.getMessage(), "-1", -1, -1, -1, -1);
 						}
 					}));
 				}
@@ -232,7 +245,8 @@ public class AnalyzeRepositoryHistory {
 	}
 
 	private synchronized void writeLine(CSVWriter writer, GHPullRequest pr, int bcs, int checkedClients,
-	                                    int brokenClients, int allBrokenUses, String reportFile, String message, String errors) {
+	                                    int brokenClients, int allBrokenUses, String reportFile, String message, String errors,
+	                                    long deltaMillis, long clientModelMillis, long clientScanMillis, long clientModelBytes) {
 		try {
 			var line = new String[]{
 				owner, name, "" + pr.getNumber(), "" + pr.getState(), pr.getTitle(),
@@ -243,7 +257,8 @@ public class AnalyzeRepositoryHistory {
 				"" + pr.getDeletions(), "" + pr.getChangedFiles(),
 				"" + pr.listFiles().toList().stream().filter(f -> f.getFilename().endsWith(".java")).count(),
 				"" + pr.getCommentsCount(), "" + bcs, "" + checkedClients, "" + brokenClients, "" + allBrokenUses,
-				reportFile, message, errors
+				reportFile, message, errors, "" + deltaMillis, "" + clientModelMillis, "" + clientScanMillis,
+				"" + clientModelBytes
 			};
 
 			writer.writeNext(line);
@@ -0,0 +1,461 @@
+package com.github.maracas.forges.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.SourcesDirectory;
+import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.brokenuse.UsageIndex;
+import com.github.maracas.delta.PortableDelta;
+import com.github.maracas.events.AnalysisContext;
+import com.github.maracas.forges.Commit;
+import com.github.maracas.forges.Forge;
+import com.github.maracas.forges.Repository;
+import com.github.maracas.forges.build.BuildConfig;
+import com.github.maracas.forges.build.CommitBuilder;
+import com.google.common.base.Stopwatch;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * An inverted index from a library's symbols to the sites that use them in
+ * its clients.
+ * <p>
+ * Each client is cloned at its HEAD and its {@link UsageIndex} is extracted
+ * once, without building the client. The indexes of all the clients of a
+ * library are kept on disk, under {@code directory}, and their symbols are
+ * inverted in memory when the library is first queried. "Who uses this
+ * symbol" queries and impact estimates from a list of breaking changes are
+ * then answered without cloning or building anything.
+ * {@link #update(Repository, MaracasOptions)} only re-indexes the clients
+ * whose HEAD moved since they were last indexed.
+ * <p>
+ * Clients are indexed without the library on their classpath: overrides of
+ * the library's methods and accesses to inherited fields cannot always be
+ * resolved, and estimates may miss them.
+ */
+public class ClientUsageIndex {
+	/**
+	 * Version of the manifest's format; libraries with another version are re-indexed
+	 */
+	static final int FORMAT_VERSION = 1;
+
+	private final Forge forge;
+	private final Path directory;
+	private final ExecutorService executorService;
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<String, LibraryIndex> libraries = new ConcurrentHashMap<>();
+
+	private static final Logger logger = LogManager.getLogger(ClientUsageIndex.class);
+
+	/**
+	 * A client indexed at a given commit
+	 *
+	 * @param repository the client's repository
+	 * @param sha        the indexed commit
+	 * @param sources    the root of the client's checkout, used to locate usage sites
+	 */
+	public record IndexedClient(
+		Repository repository,
+		String sha,
+		String sources
+	) {}
+
+	/**
+	 * A site that uses a library's symbol in a client
+	 *
+	 * @param symbol  the used symbol (see {@link UsageIndex.Kind})
+	 * @param file    the client's source file, relative to the root of its repository
+	 * @param line    the line of the site, or -1 if unknown
+	 * @param element the textual representation of the using element
+	 * @param use     the kind of use, if known
+	 * @param url     the URL of the site on the client's forge
+	 */
+	public record UsageSite(
+		String symbol,
+		String file,
+		int line,
+		String element,
+		APIUse use,
+		String url
+	) {}
+
+	/**
+	 * The sites that use some library symbols in a client
+	 *
+	 * @param client the client's repository
+	 * @param sha    the indexed commit
+	 * @param sites  the sites using the queried symbols
+	 */
+	public record ClientUsages(
+		Repository client,
+		String sha,
+		List<UsageSite> sites
+	) {}
+
+	/**
+	 * The persisted list of a library's indexed clients
+	 */
+	record Manifest(
+		int version,
+		List<IndexedClient> clients
+	) {}
+
+	/**
+	 * The indexed clients of a library, their memory-mapped indexes, and the
+	 * clients using each symbol (kind-qualified, see {@link #key(UsageIndex.Kind, String)})
+	 */
+	private record LibraryIndex(
+		Map<String, IndexedClient> clients,
+		Map<String, UsageIndex> indexes,
+		Map<String, Set<String>> clientsBySymbol
+	) {
+		static LibraryIndex of(Map<String, IndexedClient> clients, Map<String, UsageIndex> indexes) {
+			Map<String, Set<String>> clientsBySymbol = new HashMap<>();
+			indexes.forEach((client, index) -> {
+				for (UsageIndex.Kind kind : UsageIndex.Kind.values())
+					index.symbols(kind).forEach(symbol ->
+						clientsBySymbol.computeIfAbsent(key(kind, symbol), k -> new HashSet<>()).add(client));
+			});
+
+			return new LibraryIndex(clients, indexes, clientsBySymbol);
+		}
+	}
+
+	/**
+	 * A symbol to look up, of a given kind
+	 */
+	private record Query(UsageIndex.Kind kind, String symbol) {}
+
+	public ClientUsageIndex(Forge forge, Path directory, ExecutorService executorService) {
+		this.forge = Objects.requireNonNull(forge);
+		this.directory = Objects.requireNonNull(directory).toAbsolutePath();
+		this.executorService = Objects.requireNonNull(executorService);
+	}
+
+	public ClientUsageIndex(Forge forge, Path directory) {
+		this(forge, directory, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Fetches the clients of every module of {@code library} and indexes those
+	 * that weren't indexed at their current HEAD yet. Clients that can't be
+	 * cloned or parsed keep their previous index, if any; clients that are no
+	 * longer discovered are dropped.
+	 *
+	 * @param library the library's repository
+	 * @param options Maracas' options: clients per module, minimum stars, clone timeout, maximum class lines
+	 * @return the indexed clients
+	 */
+	public synchronized List<IndexedClient> update(Repository library, MaracasOptions options) {
+		Objects.requireNonNull(library);
+		Objects.requireNonNull(options);
+
+		Stopwatch sw = Stopwatch.createStarted();
+		Map<String, Repository> discovered = new LinkedHashMap<>();
+		forge.fetchModules(library).forEach(module ->
+			forge.fetchAllClients(module, options.getClientsPerModule(), options.getMinStarsPerClient())
+				.forEach(client -> discovered.putIfAbsent(client.fullName(), client)));
+		logger.info("Found {} clients to index for {}", discovered.size(), library);
+
+		LibraryIndex current = library(library);
+		List<CompletableFuture<IndexedClient>> futures = discovered.values().stream()
+			.map(client -> CompletableFuture.supplyAsync(AnalysisContext.propagate(() -> {
+				Commit head = forge.fetchCommit(client, "HEAD");
+				IndexedClient known = current.clients().get(client.fullName());
+				if (known != null && known.sha().equals(head.sha()) && current.indexes().containsKey(client.fullName()))
+					return known;
+
+				Path clone = clonePath(library, head);
+				new CommitBuilder(head, BuildConfig.newDefault(), clone).cloneCommit(options.getCloneTimeout());
+				IndexedClient indexed;
+				try {
+					indexed = extract(library, head, clone, options);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+
+				if (known != null && !known.sha().equals(head.sha()))
+					discard(library, known);
+				return indexed;
+			}), executorService).exceptionally(e -> {
+				logger.warn("Couldn't index {}: {}", client, e);
+				return current.clients().get(client.fullName());
+			}))
+			.toList();
+
+		Map<String, IndexedClient> clients = new LinkedHashMap<>();
+		futures.stream()
+			.map(CompletableFuture::join)
+			.filter(Objects::nonNull)
+			.forEach(c -> clients.put(c.repository().fullName(), c));
+
+		// Drop the clients that vanished
+		current.clients().values().stream()
+			.filter(c -> !clients.containsKey(c.repository().fullName()))
+			.forEach(c -> discard(library, c));
+
+		save(library, clients);
+		logger.info("Indexing the clients of {} took {}ms", library, sw.elapsed().toMillis());
+		return List.copyOf(clients.values());
+	}
+
+	/**
+	 * Indexes {@code client}'s sources, checked out at {@code client} in {@code sources}
+	 *
+	 * @param library the library's repository
+	 * @param client  the indexed commit of the client
+	 * @param sources the root of the client's checkout, kept to locate usage sites
+	 * @param options Maracas' options
+	 * @throws IOException if the index cannot be written
+	 */
+	public synchronized void index(Repository library, Commit client, Path sources, MaracasOptions options)
+		throws IOException {
+		Objects.requireNonNull(library);
+		Objects.requireNonNull(client);
+		Objects.requireNonNull(sources);
+		Objects.requireNonNull(options);
+
+		Map<String, IndexedClient> clients = new LinkedHashMap<>(library(library).clients());
+		IndexedClient indexed = extract(library, client, sources, options);
+		clients.put(indexed.repository().fullName(), indexed);
+		save(library, clients);
+	}
+
+	/**
+	 * Returns the clients of {@code library} that use {@code symbol}: a type's
+	 * qualified name ({@code pkg.Foo}), a field ({@code pkg.Foo#bar}), or an
+	 * executable's signature ({@code pkg.Foo#bar(int)}, {@code pkg.Foo#pkg.Foo(int)}
+	 * for constructors). Methods are used by invocations and overrides.
+	 *
+	 * @param library the library's repository
+	 * @param symbol  the symbol to look up
+	 * @return the clients using the symbol, and their usage sites
+	 */
+	public List<ClientUsages> whoUses(Repository library, String symbol) {
+		Objects.requireNonNull(library);
+		Objects.requireNonNull(symbol);
+
+		return lookup(library, queries(symbol));
+	}
+
+	/**
+	 * Estimates the impact of {@code breakingChanges} on the clients of
+	 * {@code library}: the sites that use the types and members they affect.
+	 * Unlike {@link com.github.maracas.Maracas#computeDeltaImpact}, the kind
+	 * of breaking change isn't taken into account: every use is reported.
+	 *
+	 * @param library         the library's repository
+	 * @param breakingChanges the breaking changes, e.g., those of a {@link PortableDelta}
+	 * @return the impacted clients, and their usage sites
+	 */
+	public List<ClientUsages> estimateImpact(Repository library,
+	                                         Collection<PortableDelta.PortableBreakingChange> breakingChanges) {
+		Objects.requireNonNull(library);
+		Objects.requireNonNull(breakingChanges);
+
+		List<Query> queries = breakingChanges.stream()
+			.flatMap(bc -> switch (bc.kind()) {
+				case TYPE -> queries(bc.type()).stream();
+				case METHOD, FIELD -> queries(UsageIndex.memberKey(bc.type(), bc.member())).stream();
+			})
+			.distinct()
+			.toList();
+
+		return lookup(library, queries);
+	}
+
+	/**
+	 * Returns the clients of {@code library} that are currently indexed
+	 */
+	public List<IndexedClient> getIndexedClients(Repository library) {
+		return List.copyOf(library(Objects.requireNonNull(library)).clients().values());
+	}
+
+	private List<ClientUsages> lookup(Repository library, List<Query> queries) {
+		LibraryIndex index = library(library);
+
+		Map<String, List<UsageSite>> sitesPerClient = new LinkedHashMap<>();
+		Map<Path, int[]> lineSeparators = new HashMap<>();
+		for (Query query : queries) {
+			for (String client : index.clientsBySymbol().getOrDefault(key(query.kind(), query.symbol()), Set.of())) {
+				IndexedClient indexed = index.clients().get(client);
+				Path clone = Path.of(indexed.sources());
+				List<UsageSite> sites = sitesPerClient.computeIfAbsent(client, k -> new ArrayList<>());
+
+				for (UsageIndex.Usage usage : index.indexes().get(client).lookup(query.kind(), query.symbol()))
+					sites.add(site(indexed, clone, query.symbol(), usage, lineSeparators));
+			}
+		}
+
+		return sitesPerClient.entrySet().stream()
+			.map(e -> {
+				IndexedClient indexed = index.clients().get(e.getKey());
+				return new ClientUsages(indexed.repository(), indexed.sha(), e.getValue());
+			})
+			.sorted(Comparator.comparingInt((ClientUsages u) -> u.sites().size()).reversed())
+			.toList();
+	}
+
+	private static UsageSite site(IndexedClient client, Path clone, String symbol, UsageIndex.Usage usage,
+	                              Map<Path, int[]> lineSeparators) {
+		if (usage.element() == null)
+			return new UsageSite(symbol, null, -1, usage.elementLabel(), usage.use(), client.repository().githubWebUrl());
+
+		Path file = Path.of(usage.element().file());
+		String relative = file.startsWith(clone) ? clone.relativize(file).toString() : file.toString();
+		int line = line(file, usage.element().start(), lineSeparators);
+
+		return new UsageSite(symbol, relative, line, usage.elementLabel(), usage.use(),
+			line > 0
+				? client.repository().buildGitHubFileUrl(client.sha(), relative, line, line)
+				: client.repository().githubWebUrl());
+	}
+
+	/**
+	 * Returns the line of the character at {@code offset} in {@code file}, or -1
+	 * if the file no longer exists
+	 */
+	private static int line(Path file, int offset, Map<Path, int[]> lineSeparators) {
+		int[] separators = lineSeparators.computeIfAbsent(file, f -> {
+			try {
+				String content = new String(Files.readAllBytes(f), StandardCharsets.UTF_8);
+				return IntStream.range(0, content.length()).filter(i -> content.charAt(i) == '\n').toArray();
+			} catch (IOException e) {
+				return null;
+			}
+		});
+
+		if (separators == null)
+			return -1;
+
+		int pos = Arrays.binarySearch(separators, offset);
+		return (pos >= 0 ? pos : -pos - 1) + 1;
+	}
+
+	/**
+	 * Returns the symbols {@code symbol} stands for: a type, a field, or an executable
+	 */
+	private static List<Query> queries(String symbol) {
+		int member = symbol.indexOf('#');
+		if (member < 0)
+			return List.of(new Query(UsageIndex.Kind.TYPE_REFERENCE, symbol));
+		if (symbol.indexOf('(', member) > 0)
+			return List.of(new Query(UsageIndex.Kind.INVOCATION, symbol), new Query(UsageIndex.Kind.OVERRIDE, symbol));
+		return List.of(new Query(UsageIndex.Kind.FIELD_REFERENCE, symbol));
+	}
+
+	private static String key(UsageIndex.Kind kind, String symbol) {
+		return kind + ":" + symbol;
+	}
+
+	private IndexedClient extract(Repository library, Commit client, Path sources, MaracasOptions options)
+		throws IOException {
+		Path file = indexPath(library, client);
+		Files.createDirectories(file.getParent());
+		Path tmp = Files.createTempFile(file.getParent(), "usages", ".tmp");
+		UsageIndex.extract(SourcesDirectory.of(sources).buildModel(), options, tmp);
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return new IndexedClient(client.repository(), client.sha(), sources.toAbsolutePath().toString());
+	}
+
+	/**
+	 * Persists the manifest of {@code library} and replaces its in-memory index
+	 */
+	private void save(Repository library, Map<String, IndexedClient> clients) {
+		try {
+			Path manifest = libraryPath(library).resolve("manifest.json");
+			Files.createDirectories(manifest.getParent());
+			mapper.writeValue(manifest.toFile(), new Manifest(FORMAT_VERSION, List.copyOf(clients.values())));
+		} catch (IOException e) {
+			logger.warn("Couldn't save the usage index of {}: {}", library, e);
+		}
+
+		libraries.put(library.fullName(), open(library, clients));
+	}
+
+	/**
+	 * Returns the index of {@code library}, loading its manifest on first access
+	 */
+	private LibraryIndex library(Repository library) {
+		return libraries.computeIfAbsent(library.fullName(), k -> {
+			Path manifest = libraryPath(library).resolve("manifest.json");
+			Map<String, IndexedClient> clients = new LinkedHashMap<>();
+
+			if (Files.exists(manifest)) {
+				try {
+					Manifest stored = mapper.readValue(manifest.toFile(), Manifest.class);
+					if (stored.version() == FORMAT_VERSION)
+						stored.clients().forEach(c -> clients.put(c.repository().fullName(), c));
+				} catch (IOException e) {
+					logger.warn("Couldn't read the usage index of {}: {}", library, e);
+				}
+			}
+
+			return open(library, clients);
+		});
+	}
+
+	/**
+	 * Memory-maps the indexes of {@code clients}, skipping those that cannot be read
+	 */
+	private LibraryIndex open(Repository library, Map<String, IndexedClient> clients) {
+		Map<String, UsageIndex> indexes = new HashMap<>();
+		clients.values().forEach(c -> {
+			try {
+				indexes.put(c.repository().fullName(), UsageIndex.open(indexPath(library, new Commit(c.repository(), c.sha()))));
+			} catch (IOException e) {
+				logger.warn("Couldn't open the usage index of {}: {}", c.repository(), e);
+			}
+		});
+
+		return LibraryIndex.of(Collections.unmodifiableMap(new LinkedHashMap<>(clients)), indexes);
+	}
+
+	/**
+	 * Deletes the index of {@code client} and its checkout, unless it wasn't cloned by this index
+	 */
+	private void discard(Repository library, IndexedClient client) {
+		FileUtils.deleteQuietly(indexPath(library, new Commit(client.repository(), client.sha())).toFile());
+
+		Path sources = Path.of(client.sources());
+		if (sources.startsWith(libraryPath(library).resolve("clones")))
+			FileUtils.deleteQuietly(sources.toFile());
+	}
+
+	private Path libraryPath(Repository library) {
+		return directory.resolve("%s-%s".formatted(library.owner(), library.name()));
+	}
+
+	private Path indexPath(Repository library, Commit client) {
+		return libraryPath(library).resolve("indexes").resolve(client.uid() + ".idx");
+	}
+
+	private Path clonePath(Repository library, Commit client) {
+		return libraryPath(library).resolve("clones").resolve(client.uid());
+	}
+}
@@ -6,12 +6,17 @@ import com.github.maracas.Maracas;
 import com.github.maracas.MaracasOptions;
 import com.github.maracas.SourcesDirectory;
 import com.github.maracas.brokenuse.DeltaImpact;
+import com.github.maracas.delta.BreakingChange;
 import com.github.maracas.delta.Delta;
+import com.github.maracas.delta.SourceDelta;
+import com.github.maracas.events.AnalysisContext;
 import com.github.maracas.forges.build.BuildException;
 import com.github.maracas.forges.build.CommitBuilder;
 import com.github.maracas.forges.clone.CloneException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import spoon.SpoonException;
+import spoon.reflect.CtModel;
 
 import java.nio.file.Path;
 import java.util.Collection;
@@ -53,11 +58,26 @@ public class CommitAnalyzer {
 		return computeImpact(delta, clients, options);
 	}
 
+	/**
+	 * Computes the delta between {@code v1} and {@code v2}. When
+	 * {@link MaracasOptions#isSourceDelta()} holds, the delta is first computed
+	 * from the sources of both commits, without building them (see
+	 * {@link #computeSourceDelta(CommitBuilder, CommitBuilder, MaracasOptions)});
+	 * both commits are built and their JARs compared otherwise, or if their
+	 * sources don't resolve.
+	 */
 	public Delta computeDelta(CommitBuilder v1, CommitBuilder v2, MaracasOptions options) throws CloneException, BuildException {
 		Objects.requireNonNull(v1);
 		Objects.requireNonNull(v2);
 		Objects.requireNonNull(options);
 
+		if (options.isSourceDelta()) {
+			Optional<Delta> delta = computeSourceDelta(v1, v2, options);
+			if (delta.isPresent())
+				return delta.get();
+			logger.info("Falling back to building {} and {}", v1.getCommit(), v2.getCommit());
+		}
+
 		CompletableFuture<Optional<Path>> futureV1 = cloneAndBuildLibrary(v1, options);
 		CompletableFuture<Optional<Path>> futureV2 = cloneAndBuildLibrary(v2, options);
 
@@ -80,6 +100,43 @@ public class CommitAnalyzer {
 		}
 	}
 
+	/**
+	 * Clones {@code v1} and {@code v2} and computes their delta from the Spoon
+	 * models of their module's sources (see {@link SourceDelta}). The libraries
+	 * of the resulting delta have no JAR.
+	 *
+	 * @return the delta, or an empty optional if the sources don't resolve and
+	 * the commits must be built instead
+	 * @throws CloneException if one of the commits cannot be cloned
+	 */
+	public Optional<Delta> computeSourceDelta(CommitBuilder v1, CommitBuilder v2, MaracasOptions options) throws CloneException {
+		Objects.requireNonNull(v1);
+		Objects.requireNonNull(v2);
+		Objects.requireNonNull(options);
+
+		CompletableFuture<CtModel> futureV1 = cloneAndBuildSources(v1, options);
+		CompletableFuture<CtModel> futureV2 = cloneAndBuildSources(v2, options);
+
+		try {
+			Optional<List<BreakingChange>> bcs = SourceDelta.compare(futureV1.join(), futureV2.join(), options);
+
+			return bcs.map(b -> new Delta(
+				LibraryJar.fromSources(SourcesDirectory.of(v1.getModulePath()), v1.getCommit().uid()),
+				LibraryJar.fromSources(SourcesDirectory.of(v2.getModulePath()), v2.getCommit().uid()),
+				b
+			));
+		} catch (CompletionException e) {
+			// Sources that don't compile are no reason to give up: the build will tell
+			if (e.getCause() instanceof SpoonException) {
+				logger.warn("Couldn't build the source models of {} and {}: {}", v1.getCommit(), v2.getCommit(), e.getCause());
+				return Optional.empty();
+			}
+
+			logger.error(e);
+			throw e.getCause() instanceof RuntimeException cause ? cause : e;
+		}
+	}
+
 	public AnalysisResult computeImpact(Delta delta, Collection<CommitBuilder> clients, MaracasOptions options) {
 		Objects.requireNonNull(delta);
 		Objects.requireNonNull(clients);
@@ -104,20 +161,30 @@ public class CommitAnalyzer {
 
 	private CompletableFuture<Optional<Path>> cloneAndBuildLibrary(CommitBuilder builder, MaracasOptions options) {
 		return CompletableFuture.supplyAsync(
-			() -> {
+			AnalysisContext.propagate(() -> {
 				builder.cloneCommit(options.getCloneTimeout());
 				return builder.buildCommit(options.getBuildTimeout());
-			},
+			}),
+			executorService
+		);
+	}
+
+	private CompletableFuture<CtModel> cloneAndBuildSources(CommitBuilder builder, MaracasOptions options) {
+		return CompletableFuture.supplyAsync(
+			AnalysisContext.propagate(() -> {
+				builder.cloneCommit(options.getCloneTimeout());
+				return SourcesDirectory.of(builder.getModulePath()).buildModel();
+			}),
 			executorService
 		);
 	}
 
 	private CompletableFuture<DeltaImpact> cloneAndAnalyzeClient(Delta delta, CommitBuilder builder, MaracasOptions options) {
 		return CompletableFuture.supplyAsync(
-			() -> {
+			AnalysisContext.propagate(() -> {
 				builder.cloneCommit(options.getCloneTimeout());
 				return maracas.computeDeltaImpact(SourcesDirectory.of(builder.getModulePath()), delta, options);
-			},
+			}),
 			executorService
 		).exceptionally(e -> {
 			logger.error(e);
@@ -38,7 +38,7 @@ public record ModuleAnalysisResult(
   public List<Repository> brokenClients() {
     return clientResults.keySet()
       .stream()
-      .filter(c -> !clientResults.get(c).brokenUses().isEmpty())
+      .filter(c -> clientResults.get(c).isBroken())
       .toList();
   }
 }
@@ -4,6 +4,7 @@ import com.github.maracas.AnalysisResult;
 import com.github.maracas.MaracasOptions;
 import com.github.maracas.SourcesDirectory;
 import com.github.maracas.delta.Delta;
+import com.github.maracas.events.AnalysisContext;
 import com.github.maracas.forges.Commit;
 import com.github.maracas.forges.Forge;
 import com.github.maracas.forges.PullRequest;
@@ -67,7 +68,9 @@ public class PullRequestAnalyzer {
 
 		// First, we need to clone mergeBase
 		CommitBuilder builderV1 = makeBuilderForLibrary(pr, new BuildModule("", Path.of("")), pr.mergeBase(), config.build());
-		builderV1.cloneCommit(options.getCloneTimeout());
+		try (AnalysisContext.Scope scope = AnalysisContext.open(pr.uid())) {
+			builderV1.cloneCommit(options.getCloneTimeout());
+		}
 
 		// Then, for every module in mergeBase that may be impacted by the PR
 		List<BuildModule> impactedModules = inferImpactedModules(pr, builderV1);
@@ -88,7 +91,8 @@ public class PullRequestAnalyzer {
 	private ModuleAnalysisResult analyzeModule(PullRequest pr, BuildModule mavenModule, BreakbotConfig.Build buildConfig, MaracasOptions options) {
 		RepositoryModule repositoryModule = getRepositoryModule(pr.repository(), mavenModule);
 
-		try {
+		// Label the JFR events of this module's analysis with the PR and module
+		try (AnalysisContext.Scope scope = AnalysisContext.open("%s [%s]".formatted(pr.uid(), mavenModule.name()))) {
 			logger.info("[{}] Now analyzing module {}", pr, mavenModule.name());
 
 			// First, we compute the delta model to look for BCs
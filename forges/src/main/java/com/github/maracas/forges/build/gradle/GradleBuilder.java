@@ -1,9 +1,11 @@
 package com.github.maracas.forges.build.gradle;
 
+import com.github.maracas.events.AnalysisContext;
 import com.github.maracas.forges.build.BuildConfig;
 import com.github.maracas.forges.build.BuildException;
 import com.github.maracas.forges.build.BuildModule;
 import com.github.maracas.forges.build.Builder;
+import com.github.maracas.forges.events.BuildEvent;
 import com.google.common.base.Splitter;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -58,12 +60,15 @@ public class GradleBuilder implements Builder {
 	public void build(Duration timeout) {
 		logger.warn("GradleBuilder doesn't honor timeouts yet");
 
+		BuildEvent event = new BuildEvent();
+		event.begin();
+
 		Optional<Path> jar = locateJar();
+		List<String> goals = config.getGoals().isEmpty()
+			? DEFAULT_GOALS
+			: config.getGoals();
 
 		if (jar.isEmpty()) {
-			List<String> goals = config.getGoals().isEmpty()
-				? DEFAULT_GOALS
-				: config.getGoals();
 			Properties properties = config.getProperties().isEmpty()
 				? DEFAULT_PROPERTIES
 				: config.getProperties();
@@ -79,7 +84,22 @@ public class GradleBuilder implements Builder {
 			} catch (org.gradle.tooling.BuildException | org.gradle.tooling.exceptions.UnsupportedBuildArgumentException e) {
 				throw new BuildException("Gradle build failed: %s".formatted(e.getMessage()), e);
 			}
-		} else logger.info("{} has already been built. Skipping.", basePath);
+		} else {
+			logger.info("{} has already been built. Skipping.", basePath);
+			event.skipped = true;
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.tool = "gradle";
+			event.basePath = basePath.toAbsolutePath().toString();
+			event.module = config.getModule().toString();
+			event.goals = String.join(" ", goals);
+			// Locating the JAR means running Gradle again: only report it if we already know it
+			event.jarSize = jar.map(j -> j.toFile().length()).orElse(-1L);
+			event.commit();
+		}
 	}
 
 	@Override
@@ -1,9 +1,11 @@
 package com.github.maracas.forges.build.maven;
 
+import com.github.maracas.events.AnalysisContext;
 import com.github.maracas.forges.build.BuildConfig;
 import com.github.maracas.forges.build.BuildException;
 import com.github.maracas.forges.build.BuildModule;
 import com.github.maracas.forges.build.Builder;
+import com.github.maracas.forges.events.BuildEvent;
 import com.google.common.base.Stopwatch;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.WildcardFileFilter;
@@ -87,11 +89,14 @@ public class MavenBuilder implements Builder {
 		if (!basePath.resolve(config.getModule()).toFile().exists())
 			throw new BuildException("Couldn't find module %s in %s".formatted(config.getModule(), basePath));
 
+		BuildEvent event = new BuildEvent();
+		event.begin();
+
 		Optional<Path> jar = locateJar();
+		List<String> goals = config.getGoals().isEmpty()
+			? DEFAULT_GOALS
+			: config.getGoals();
 		if (jar.isEmpty()) {
-			List<String> goals = config.getGoals().isEmpty()
-				? DEFAULT_GOALS
-				: config.getGoals();
 			Properties properties = config.getProperties().isEmpty()
 				? DEFAULT_PROPERTIES
 				: config.getProperties();
@@ -134,7 +139,21 @@ public class MavenBuilder implements Builder {
 			} catch (MavenInvocationException e) {
 				throw new BuildException("Error invoking Maven", e);
 			}
-		} else logger.info("{} has already been built. Skipping.", pomFile);
+		} else {
+			logger.info("{} has already been built. Skipping.", pomFile);
+			event.skipped = true;
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.tool = "maven";
+			event.basePath = basePath.toAbsolutePath().toString();
+			event.module = config.getModule().toString();
+			event.goals = String.join(" ", goals);
+			event.jarSize = (event.skipped ? jar : locateJar()).map(j -> j.toFile().length()).orElse(-1L);
+			event.commit();
+		}
 	}
 
 	@Override
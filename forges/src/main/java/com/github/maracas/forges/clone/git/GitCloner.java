@@ -1,9 +1,11 @@
 package com.github.maracas.forges.clone.git;
 
+import com.github.maracas.events.AnalysisContext;
 import com.github.maracas.forges.Commit;
 import com.github.maracas.forges.Repository;
 import com.github.maracas.forges.clone.CloneException;
 import com.github.maracas.forges.clone.Cloner;
+import com.github.maracas.forges.events.CloneEvent;
 import com.google.common.base.Stopwatch;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -31,8 +33,12 @@ public class GitCloner implements Cloner {
 		if (timeout.toSeconds() < 1)
 			throw new IllegalArgumentException("timeout < 1s");
 
+		CloneEvent event = new CloneEvent();
+		event.begin();
+
 		if (dest.toFile().exists()) {
 			logger.info("{} exists; skipping", dest);
+			event.skipped = true;
 		} else if (dest.toFile().mkdirs()) {
 			try {
 				Stopwatch sw = Stopwatch.createStarted();
@@ -51,6 +57,8 @@ public class GitCloner implements Cloner {
 		} else {
 			throw new CloneException("Couldn't create clone directory %s".formatted(dest));
 		}
+
+		commitEvent(event, commit.repository(), commit.sha(), dest);
 	}
 
 	@Override
@@ -60,8 +68,12 @@ public class GitCloner implements Cloner {
 		if (timeout.toSeconds() < 1)
 			throw new IllegalArgumentException("timeout < 1s");
 
+		CloneEvent event = new CloneEvent();
+		event.begin();
+
 		if (dest.toFile().exists()) {
 			logger.info("{} exists; skipping", dest);
+			event.skipped = true;
 		} else if (dest.toFile().mkdirs()) {
 			try {
 				Stopwatch sw = Stopwatch.createStarted();
@@ -84,6 +96,19 @@ public class GitCloner implements Cloner {
 		} else {
 			throw new CloneException("Couldn't create clone directory %s".formatted(dest));
 		}
+
+		commitEvent(event, repository, repository.branch(), dest);
+	}
+
+	private static void commitEvent(CloneEvent event, Repository repository, String reference, Path dest) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.context = AnalysisContext.current();
+			event.repository = repository.fullName();
+			event.reference = reference;
+			event.destination = dest.toAbsolutePath().toString();
+			event.commit();
+		}
 	}
 
 	private void executeCommand(Duration timeout, String... command) throws CloneException {
@@ -0,0 +1,42 @@
+package com.github.maracas.forges.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when building a module with Maven or Gradle
+ */
+@Name("com.github.maracas.Build")
+@Label("Build")
+@Category("Maracas")
+@Description("Build of a module to obtain its JAR")
+@StackTrace(false)
+public final class BuildEvent extends Event {
+	@Label("Context")
+	public String context;
+
+	@Label("Build Tool")
+	public String tool;
+
+	@Label("Base Path")
+	public String basePath;
+
+	@Label("Module")
+	public String module;
+
+	@Label("Goals")
+	public String goals;
+
+	@Label("Skipped")
+	@Description("Whether the JAR was already built")
+	public boolean skipped;
+
+	@Label("JAR Size")
+	@DataAmount
+	public long jarSize;
+}
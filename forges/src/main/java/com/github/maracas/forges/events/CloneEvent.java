@@ -0,0 +1,35 @@
+package com.github.maracas.forges.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when cloning a repository or a commit
+ */
+@Name("com.github.maracas.Clone")
+@Label("Clone")
+@Category("Maracas")
+@Description("Shallow clone of a repository or commit")
+@StackTrace(false)
+public final class CloneEvent extends Event {
+	@Label("Context")
+	public String context;
+
+	@Label("Repository")
+	public String repository;
+
+	@Label("Reference")
+	@Description("The commit or branch being cloned")
+	public String reference;
+
+	@Label("Destination")
+	public String destination;
+
+	@Label("Skipped")
+	@Description("Whether the destination already existed")
+	public boolean skipped;
+}
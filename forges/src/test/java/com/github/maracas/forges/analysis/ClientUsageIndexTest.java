@@ -0,0 +1,91 @@
+package com.github.maracas.forges.analysis;
+
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.brokenuse.APIUse;
+import com.github.maracas.delta.PortableDelta;
+import com.github.maracas.forges.Commit;
+import com.github.maracas.forges.Forge;
+import com.github.maracas.forges.Repository;
+import japicmp.model.JApiCompatibilityChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+
+class ClientUsageIndexTest {
+	final Forge forge = mock(Forge.class);
+	final Repository library = new Repository("alien-tools", "comp-changes", "https://github.com/alien-tools/comp-changes", "main");
+	final Repository client = new Repository("alien-tools", "comp-changes-client", "https://github.com/alien-tools/comp-changes-client", "main");
+	final Commit head = new Commit(client, "0123456789abcdef");
+	final Path sources = Path.of("../test-data/comp-changes/client");
+
+	@TempDir
+	Path dir;
+	ClientUsageIndex index;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		index = new ClientUsageIndex(forge, dir);
+		index.index(library, head, sources, MaracasOptions.newDefault());
+	}
+
+	@Test
+	void whoUses_Method_InvocationSites() {
+		List<ClientUsageIndex.ClientUsages> usages = index.whoUses(library, "main.methodRemoved.MethodRemoved#methodRemoved()");
+
+		assertThat(usages, hasSize(1));
+		assertThat(usages.get(0).client(), is(equalTo(client)));
+		assertThat(usages.get(0).sha(), is(equalTo(head.sha())));
+		usages.get(0).sites().forEach(site -> {
+			assertThat(site.use(), is(APIUse.METHOD_INVOCATION));
+			assertThat(site.line(), is(greaterThan(0)));
+		});
+		assertThat(usages.get(0).sites().stream().map(ClientUsageIndex.UsageSite::file).toList(),
+			hasItem(Path.of("src/mainclient/methodRemoved/MethodRemovedMI.java").toString()));
+	}
+
+	@Test
+	void whoUses_Type_ReferenceSites() {
+		assertThat(index.whoUses(library, "main.methodRemoved.MethodRemoved"), hasSize(1));
+	}
+
+	@Test
+	void whoUses_UnusedSymbol_NoClient() {
+		assertThat(index.whoUses(library, "main.unknown.Unknown#unknown()"), is(empty()));
+	}
+
+	@Test
+	void whoUses_Reopened_SameUsages() {
+		String symbol = "main.methodRemoved.MethodRemoved#methodRemoved()";
+		ClientUsageIndex reopened = new ClientUsageIndex(forge, dir);
+
+		assertThat(reopened.getIndexedClients(library), is(equalTo(index.getIndexedClients(library))));
+		assertThat(reopened.whoUses(library, symbol), is(equalTo(index.whoUses(library, symbol))));
+	}
+
+	@Test
+	void estimateImpact_RemovedMethod_SameAsWhoUses() {
+		PortableDelta.PortableBreakingChange bc = new PortableDelta.PortableBreakingChange(
+			PortableDelta.Kind.METHOD, JApiCompatibilityChange.METHOD_REMOVED, "main.methodRemoved.MethodRemoved",
+			"methodRemoved()", "int", null, Set.of(), null, null);
+
+		List<ClientUsageIndex.ClientUsages> impact = index.estimateImpact(library, List.of(bc));
+
+		assertThat(impact, is(not(empty())));
+		assertThat(impact, is(equalTo(index.whoUses(library, "main.methodRemoved.MethodRemoved#methodRemoved()"))));
+	}
+}
@@ -0,0 +1,96 @@
+package com.github.maracas.rest.controllers;
+
+import com.github.maracas.delta.PortableDelta;
+import com.github.maracas.forges.ForgeException;
+import com.github.maracas.forges.Repository;
+import com.github.maracas.forges.analysis.ClientUsageIndex;
+import com.github.maracas.rest.data.UsagesResponse;
+import com.github.maracas.rest.services.UsagesService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/github")
+public class UsagesController {
+	private final UsagesService usagesService;
+
+	private static final Logger logger = LogManager.getLogger(UsagesController.class);
+
+	public UsagesController(UsagesService usagesService) {
+		this.usagesService = usagesService;
+	}
+
+	@PostMapping("/usages/{owner}/{name}")
+	public ResponseEntity<UsagesResponse> indexClients(
+		@PathVariable String owner,
+		@PathVariable String name
+	) {
+		Repository library = usagesService.fetchRepository(owner, name);
+		usagesService.updateIndex(library);
+
+		return ResponseEntity
+			.accepted()
+			.header("Location", "/github/usages/%s/%s".formatted(owner, name))
+			.body(UsagesResponse.status(owner, name, "processing"));
+	}
+
+	@GetMapping("/usages/{owner}/{name}")
+	public ResponseEntity<UsagesResponse> whoUses(
+		@PathVariable String owner,
+		@PathVariable String name,
+		@RequestParam(required = false) String symbol
+	) {
+		Repository library = usagesService.fetchRepository(owner, name);
+		List<ClientUsageIndex.ClientUsages> clients = symbol != null
+			? usagesService.whoUses(library, symbol)
+			: List.of();
+
+		return ResponseEntity
+			.status(usagesService.isIndexing(library) ? HttpStatus.PROCESSING : HttpStatus.OK)
+			.body(UsagesResponse.ok(owner, name, usagesService.getIndexedClients(library), clients));
+	}
+
+	@PostMapping("/usages/{owner}/{name}/impact")
+	public ResponseEntity<UsagesResponse> estimateImpact(
+		@PathVariable String owner,
+		@PathVariable String name,
+		@RequestBody List<PortableDelta.PortableBreakingChange> breakingChanges
+	) {
+		Repository library = usagesService.fetchRepository(owner, name);
+		List<ClientUsageIndex.ClientUsages> clients = usagesService.estimateImpact(library, breakingChanges);
+
+		return ResponseEntity.ok(UsagesResponse.ok(owner, name, usagesService.getIndexedClients(library), clients));
+	}
+
+	@ExceptionHandler({ForgeException.class})
+	public ResponseEntity<UsagesResponse> handleForgeExceptions(Exception e) {
+		logger.error(e);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+			.body(new UsagesResponse(e.getMessage()));
+	}
+
+	@ExceptionHandler({IllegalStateException.class})
+	public ResponseEntity<UsagesResponse> handleDisabledUsages(Exception e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.body(new UsagesResponse(e.getMessage()));
+	}
+
+	@ExceptionHandler(Exception.class)
+	public ResponseEntity<UsagesResponse> handleExceptions(Exception e) {
+		logger.error("Uncaught exception ", e);
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+			.body(new UsagesResponse(e.getMessage()));
+	}
+}
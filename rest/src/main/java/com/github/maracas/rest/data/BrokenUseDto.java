@@ -1,11 +1,8 @@
 package com.github.maracas.rest.data;
 
 import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.DetachedBrokenUse;
 import com.github.maracas.forges.Repository;
-import com.github.maracas.util.SpoonHelpers;
-import spoon.reflect.cu.SourcePosition;
-import spoon.reflect.cu.position.NoSourcePosition;
-import spoon.reflect.declaration.CtNamedElement;
 
 import java.nio.file.Path;
 
@@ -20,34 +17,36 @@ public record BrokenUseDto(
 	String url
 ) {
 	public static BrokenUseDto of(BrokenUse bu, Repository repository, String branch, Path clone) {
-		SourcePosition pos = bu.element().getPosition();
-
 		// Nasty side-effect work-around for pretty-printing below: we don't want to see the comments here
 		bu.element().setComments(null);
 		bu.usedApiElement().setComments(null);
 
-		if (pos instanceof NoSourcePosition)
+		return of(DetachedBrokenUse.of(bu), repository, branch, clone);
+	}
+
+	public static BrokenUseDto of(DetachedBrokenUse bu, Repository repository, String branch, Path clone) {
+		if (!bu.hasLocation())
 			return new BrokenUseDto(
-				bu.element() instanceof CtNamedElement e ? e.getSimpleName() : bu.element().toString(),
-				bu.usedApiElement() instanceof CtNamedElement e ? e.getSimpleName() : bu.usedApiElement().toString(),
-				SpoonHelpers.fullyQualifiedName(bu.source()),
-				bu.use().name(),
+				bu.getElement(),
+				bu.getUsedApiElement(),
+				bu.getSource(),
+				bu.getUse().name(),
 				"",
 				-1,
 				-1,
 				null
 			);
 
-		String relativeFile = clone.toAbsolutePath().relativize(pos.getFile().toPath().toAbsolutePath()).toString();
+		String relativeFile = clone.toAbsolutePath().relativize(Path.of(bu.getFile())).toString();
 		return new BrokenUseDto(
-			bu.element() instanceof CtNamedElement e ? e.getSimpleName() : bu.element().toString(),
-			bu.usedApiElement() instanceof CtNamedElement e ? e.getSimpleName() : bu.usedApiElement().toString(),
-			SpoonHelpers.fullyQualifiedName(bu.source()),
-			bu.use().name(),
+			bu.getElement(),
+			bu.getUsedApiElement(),
+			bu.getSource(),
+			bu.getUse().name(),
 			relativeFile,
-			pos.getLine(),
-			pos.getEndLine(),
-			repository.buildGitHubFileUrl(branch, relativeFile, pos.getLine(), pos.getEndLine())
+			bu.getLine(),
+			bu.getEndLine(),
+			repository.buildGitHubFileUrl(branch, relativeFile, bu.getLine(), bu.getEndLine())
 		);
 	}
 }
@@ -1,5 +1,7 @@
 package com.github.maracas.rest.data;
 
+import com.github.maracas.brokenuse.ImpactStatistics;
+
 import java.util.Collections;
 import java.util.List;
 
@@ -7,13 +9,19 @@ public record ClientReport(
 	String fullName,
 	String url,
 	List<BrokenUseDto> brokenUses,
-	String error
+	String error,
+	ImpactStatistics statistics
 ) {
 	public static ClientReport success(String fullName, String url, List<BrokenUseDto> brokenUses) {
-		return new ClientReport(fullName, url, brokenUses, null);
+		return success(fullName, url, brokenUses, null);
+	}
+
+	public static ClientReport success(String fullName, String url, List<BrokenUseDto> brokenUses,
+	                                   ImpactStatistics statistics) {
+		return new ClientReport(fullName, url, brokenUses, null, statistics);
 	}
 
 	public static ClientReport error(String fullName, String url, String error) {
-		return new ClientReport(fullName, url, Collections.emptyList(), error);
+		return new ClientReport(fullName, url, Collections.emptyList(), error, null);
 	}
 }
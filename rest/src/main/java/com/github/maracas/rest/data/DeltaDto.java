@@ -1,6 +1,7 @@
 package com.github.maracas.rest.data;
 
 import com.github.maracas.delta.Delta;
+import com.github.maracas.delta.DeltaStatistics;
 import com.github.maracas.forges.PullRequest;
 
 import java.nio.file.Path;
@@ -9,16 +10,18 @@ import java.util.List;
 public record DeltaDto(
 	String jarV1,
 	String jarV2,
-	List<BreakingChangeDto> breakingChanges
+	List<BreakingChangeDto> breakingChanges,
+	DeltaStatistics statistics
 ) {
 	public static DeltaDto of(Delta d, PullRequest pr, Path clone) {
 		return new DeltaDto(
-			d.getOldVersion().getJar().getFileName().toString(),
-			d.getNewVersion().getJar().getFileName().toString(),
+			d.getOldVersion().getLabel(),
+			d.getNewVersion().getLabel(),
 			d.getBreakingChanges()
 				.stream()
 				.map(bc -> BreakingChangeDto.of(bc, pr, clone))
-				.toList()
+				.toList(),
+			d.getStatistics()
 		);
 	}
 }
@@ -26,10 +26,16 @@ public record MaracasReport(
 							return ClientReport.success(
 								client.fullName(),
 								client.githubWebUrl(),
-								impact.brokenUses()
-									.stream()
-									.map(bu -> BrokenUseDto.of(bu, client, client.branch(), impact.client().getLocation()))
-									.toList()
+								impact.isDetached()
+									? impact.detachedBrokenUses()
+										.stream()
+										.map(bu -> BrokenUseDto.of(bu, client, client.branch(), impact.client().getLocation()))
+										.toList()
+									: impact.brokenUses()
+										.stream()
+										.map(bu -> BrokenUseDto.of(bu, client, client.branch(), impact.client().getLocation()))
+										.toList(),
+								impact.statistics()
 							);
 						})
 						.toList()
@@ -0,0 +1,27 @@
+package com.github.maracas.rest.data;
+
+import com.github.maracas.forges.analysis.ClientUsageIndex;
+
+import java.util.Collections;
+import java.util.List;
+
+public record UsagesResponse(
+	String message,
+	String owner,
+	String name,
+	List<ClientUsageIndex.IndexedClient> indexedClients,
+	List<ClientUsageIndex.ClientUsages> clients
+) {
+	public UsagesResponse(String message) {
+		this(message, "", "", Collections.emptyList(), Collections.emptyList());
+	}
+
+	public static UsagesResponse status(String owner, String name, String message) {
+		return new UsagesResponse(message, owner, name, Collections.emptyList(), Collections.emptyList());
+	}
+
+	public static UsagesResponse ok(String owner, String name, List<ClientUsageIndex.IndexedClient> indexedClients,
+	                                List<ClientUsageIndex.ClientUsages> clients) {
+		return new UsagesResponse("ok", owner, name, indexedClients, clients);
+	}
+}
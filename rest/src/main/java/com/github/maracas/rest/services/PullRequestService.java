@@ -1,7 +1,11 @@
 package com.github.maracas.rest.services;
 
+import com.github.maracas.ClientScheduler;
 import com.github.maracas.Maracas;
 import com.github.maracas.MaracasOptions;
+import com.github.maracas.brokenuse.BrokenUseStore;
+import com.github.maracas.brokenuse.UsageIndexStore;
+import com.github.maracas.delta.DeltaCache;
 import com.github.maracas.forges.Forge;
 import com.github.maracas.forges.PullRequest;
 import com.github.maracas.forges.analysis.CommitAnalyzer;
@@ -37,6 +41,7 @@ public class PullRequestService {
 	private final int buildTimeout;
 	private final int clientsPerModule;
 	private final int maxClassLines;
+	private final boolean sourceDelta;
 
 	private final Map<String, CompletableFuture<Void>> jobs = new ConcurrentHashMap<>();
 	private static final Logger logger = LogManager.getLogger(PullRequestService.class);
@@ -50,6 +55,11 @@ public class PullRequestService {
 		this.cloneTimeout = env.getProperty("maracas.clone-timeout", Integer.class, 600);
 		this.clientsPerModule = env.getProperty("maracas.clients-per-module", Integer.class, 10);
 		this.maxClassLines = env.getProperty("maracas.max-class-lines", Integer.class, 20_000);
+		this.sourceDelta = env.getProperty("maracas.source-delta", Boolean.class, false);
+		String deltaCachePath = env.getProperty("maracas.delta-cache-path");
+		long deltaCacheMaxSize = env.getProperty("maracas.delta-cache-max-size", Long.class, 1024L);
+		String brokenUseStorePath = env.getProperty("maracas.broken-use-store-path");
+		String usageIndexPath = env.getProperty("maracas.usage-index-path");
 
 		this.breakbotService = breakbotService;
 		this.forge = new GitHubForge(github, new GitHubClientsScraper(Duration.ofDays(clientsCacheExpiration)));
@@ -59,7 +69,15 @@ public class PullRequestService {
 			throw new IllegalStateException("Cannot create the necessary directories");
 
 		ExecutorService executor = Executors.newFixedThreadPool(analysisWorkers > 0 ? analysisWorkers : Runtime.getRuntime().availableProcessors());
-		CommitAnalyzer commitAnalyzer = new CommitAnalyzer(new Maracas(), executor);
+		// The usage index takes precedence over the broken use store: only wire the one that is consulted
+		if (usageIndexPath != null && brokenUseStorePath != null)
+			logger.warn("maracas.usage-index-path is set: ignoring maracas.broken-use-store-path");
+		Maracas maracas = new Maracas(
+			deltaCachePath != null ? new DeltaCache(Path.of(deltaCachePath), deltaCacheMaxSize * 1024 * 1024) : null,
+			usageIndexPath == null && brokenUseStorePath != null ? new BrokenUseStore(Path.of(brokenUseStorePath)) : null,
+			usageIndexPath != null ? new UsageIndexStore(Path.of(usageIndexPath)) : null,
+			ClientScheduler.getDefault());
+		CommitAnalyzer commitAnalyzer = new CommitAnalyzer(maracas, executor);
 		this.analyzer = new PullRequestAnalyzer(forge, commitAnalyzer, clonePath, executor);
 	}
 
@@ -111,6 +129,7 @@ public class PullRequestService {
 		options.setBuildTimeout(Duration.ofSeconds(buildTimeout));
 		options.setClientsPerModule(clientsPerModule);
 		options.setMaxClassLines(maxClassLines);
+		options.setSourceDelta(sourceDelta);
 
 		return options;
 	}
@@ -0,0 +1,126 @@
+package com.github.maracas.rest.services;
+
+import com.github.maracas.MaracasOptions;
+import com.github.maracas.delta.PortableDelta;
+import com.github.maracas.forges.Forge;
+import com.github.maracas.forges.Repository;
+import com.github.maracas.forges.analysis.ClientUsageIndex;
+import com.github.maracas.forges.github.GitHubClientsScraper;
+import com.github.maracas.forges.github.GitHubForge;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.kohsuke.github.GitHub;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers "who uses this symbol" queries and estimates the impact of breaking
+ * changes from the {@link ClientUsageIndex} of the libraries' clients
+ */
+@Service
+public class UsagesService {
+	private final Forge forge;
+	private final ClientUsageIndex index;
+	private final ExecutorService executor;
+
+	private final int cloneTimeout;
+	private final int clientsPerModule;
+	private final int maxClassLines;
+
+	private final Map<String, CompletableFuture<Void>> jobs = new ConcurrentHashMap<>();
+	private static final Logger logger = LogManager.getLogger(UsagesService.class);
+
+	public UsagesService(Environment env, GitHub github) {
+		int analysisWorkers = env.getProperty("maracas.analysis-workers", Integer.class, -1);
+		int clientsCacheExpiration = env.getProperty("maracas.clients-cache-expiration", Integer.class, 7);
+		String clientUsagesPath = env.getProperty("maracas.client-usages-path");
+		this.cloneTimeout = env.getProperty("maracas.clone-timeout", Integer.class, 600);
+		this.clientsPerModule = env.getProperty("maracas.clients-per-module", Integer.class, 10);
+		this.maxClassLines = env.getProperty("maracas.max-class-lines", Integer.class, 20_000);
+
+		this.forge = new GitHubForge(github, new GitHubClientsScraper(Duration.ofDays(clientsCacheExpiration)));
+		this.executor = Executors.newFixedThreadPool(analysisWorkers > 0 ? analysisWorkers : Runtime.getRuntime().availableProcessors());
+		this.index = clientUsagesPath != null ? new ClientUsageIndex(forge, Path.of(clientUsagesPath), executor) : null;
+	}
+
+	/**
+	 * Returns the index of the libraries' clients
+	 *
+	 * @throws IllegalStateException if client usages are disabled, i.e., maracas.client-usages-path isn't set
+	 */
+	private ClientUsageIndex index() {
+		if (index == null)
+			throw new IllegalStateException("Client usages are disabled: maracas.client-usages-path isn't set");
+		return index;
+	}
+
+	public Repository fetchRepository(String owner, String name) {
+		return forge.fetchRepository(owner, name);
+	}
+
+	/**
+	 * Indexes the clients of {@code library} in the background, unless they're being indexed already
+	 */
+	public void updateIndex(Repository library) {
+		ClientUsageIndex clientIndex = index();
+		String key = library.fullName();
+		// Claim the slot before starting anything so that concurrent calls queue a single job
+		CompletableFuture<Void> job = new CompletableFuture<>();
+		if (jobs.putIfAbsent(key, job) != null)
+			return;
+
+		logger.info("Queuing the indexing of the clients of {}", library);
+		try {
+			CompletableFuture
+				.runAsync(() -> clientIndex.update(library, makeMaracasOptions()), executor)
+				.whenComplete((res, ex) -> {
+					if (ex != null)
+						logger.error("Error indexing the clients of {}", library, ex);
+					else
+						logger.info("Done indexing the clients of {}", library);
+
+					jobs.remove(key, job);
+					job.complete(null);
+				});
+		} catch (RuntimeException e) {
+			jobs.remove(key, job);
+			job.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	public boolean isIndexing(Repository library) {
+		return jobs.containsKey(library.fullName());
+	}
+
+	public List<ClientUsageIndex.IndexedClient> getIndexedClients(Repository library) {
+		return index().getIndexedClients(library);
+	}
+
+	public List<ClientUsageIndex.ClientUsages> whoUses(Repository library, String symbol) {
+		return index().whoUses(library, symbol);
+	}
+
+	public List<ClientUsageIndex.ClientUsages> estimateImpact(Repository library,
+	                                                          List<PortableDelta.PortableBreakingChange> breakingChanges) {
+		return index().estimateImpact(library, breakingChanges);
+	}
+
+	private MaracasOptions makeMaracasOptions() {
+		MaracasOptions options = MaracasOptions.newDefault();
+		options.setCloneTimeout(Duration.ofSeconds(cloneTimeout));
+		options.setClientsPerModule(clientsPerModule);
+		options.setMaxClassLines(maxClassLines);
+
+		return options;
+	}
+}
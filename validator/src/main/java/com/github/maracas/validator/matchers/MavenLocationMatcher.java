@@ -12,12 +12,12 @@ import org.apache.logging.log4j.Logger;
 
 import com.github.maracas.brokenuse.APIUse;
 import com.github.maracas.brokenuse.BrokenUse;
+import com.github.maracas.brokenuse.DetachedBrokenUse;
 import com.github.maracas.validator.accuracy.AccuracyCase;
 import com.github.maracas.validator.accuracy.AccuracyCase.AccuracyType;
 import com.github.maracas.validator.build.CompilerMessage;
 
 import japicmp.model.JApiCompatibilityChange;
-import spoon.reflect.cu.SourcePosition;
 
 /**
  * Type of matcher based on {@link BrokenUse} and {@link CompilerMessage}
@@ -42,21 +42,7 @@ public class MavenLocationMatcher implements Matcher {
                 continue;
             }
 
-            SourcePosition position = brokenUse.element().getPosition();
-            String path = position.getFile().getAbsolutePath();
-            int line = position.getLine();
-
-            List<CompilerMessage> currentMessages = messagesMap.get(path);
-            List<CompilerMessage> currentMatchedMessages = new ArrayList<CompilerMessage>();
-
-            if (currentMessages != null)
-                for (CompilerMessage message : currentMessages) {
-                    // Check method override special case
-                    if (line == message.line()
-                        || (line == message.line() + 1
-                        && brokenUse.use().equals(APIUse.METHOD_OVERRIDE)))
-                        currentMatchedMessages.add(message);
-                }
+            List<CompilerMessage> currentMatchedMessages = matchingMessages(DetachedBrokenUse.of(brokenUse), messagesMap);
 
             if (!currentMatchedMessages.isEmpty())
                 cases.add(new AccuracyCase(brokenUse, currentMatchedMessages, AccuracyType.TRUE_POSITIVE));
@@ -74,6 +60,36 @@ public class MavenLocationMatcher implements Matcher {
         return cases;
     }
 
+    /**
+     * Returns the compiler messages reported at the location of the given
+     * {@link DetachedBrokenUse}. Since detached broken uses hold their
+     * location as plain fields, no Spoon model needs to be kept around.
+     *
+     * @param brokenUse   {@link DetachedBrokenUse} instance
+     * @param messagesMap map of paths and {@link CompilerMessage} objects
+     * @return list of matching {@link CompilerMessage} objects
+     * @see Matcher#messagesToMap(Set)
+     */
+    public List<CompilerMessage> matchingMessages(DetachedBrokenUse brokenUse, Map<String, List<CompilerMessage>> messagesMap) {
+        List<CompilerMessage> matchingMessages = new ArrayList<CompilerMessage>();
+        if (!brokenUse.hasLocation())
+            return matchingMessages;
+
+        int line = brokenUse.getLine();
+        List<CompilerMessage> currentMessages = messagesMap.get(brokenUse.getFile());
+
+        if (currentMessages != null)
+            for (CompilerMessage message : currentMessages) {
+                // Check method override special case
+                if (line == message.line()
+                    || (line == message.line() + 1
+                    && brokenUse.getUse().equals(APIUse.METHOD_OVERRIDE)))
+                    matchingMessages.add(message);
+            }
+
+        return matchingMessages;
+    }
+
     /**
      * Verifies if the broken use points to an ANNOTATION_DEPRECATED_ADDED
      * breaking change and an IMPORT API use. See issue #24.